@@ -12,6 +12,7 @@ public class AddEventFrame extends JFrame {
     private JTextField txtDate;
     private JTextField txtTime;
     private JTextField txtCapacity;
+    private JTextField txtSeatMap;
 
     private JButton btnSave;
     private JButton btnCancel;
@@ -51,7 +52,7 @@ public class AddEventFrame extends JFrame {
 
    
     private void setupFrame() {
-        setSize(450, 320);
+        setSize(450, editMode ? 320 : 350);
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLayout(new BorderLayout());
@@ -67,6 +68,9 @@ public class AddEventFrame extends JFrame {
         txtDate     = new JTextField(20);  
         txtTime     = new JTextField(20); 
         txtCapacity = new JTextField(20);
+        txtSeatMap  = new JTextField(20);
+        txtSeatMap.setToolTipText("Optional, e.g. Orchestra:20x30, Balcony:10x25 (rows x seats per row). "
+                + "Leave empty for general admission.");
 
         int row = 0;
 
@@ -112,6 +116,15 @@ public class AddEventFrame extends JFrame {
         form.add(txtCapacity, gbc);
         row++;
 
+        // Seat map (new events only; an edit grows the existing layout with the capacity)
+        if (!editMode) {
+            gbc.gridx = 0; gbc.gridy = row;
+            form.add(new JLabel("Seat map:"), gbc);
+            gbc.gridx = 1;
+            form.add(txtSeatMap, gbc);
+            row++;
+        }
+
         add(form, BorderLayout.CENTER);
 
         // Buttons
@@ -123,6 +136,11 @@ public class AddEventFrame extends JFrame {
         btnCancel.addActionListener(e -> dispose());
 
         bottom.add(btnSave);
+        if (!editMode) {
+            JButton btnImport = new JButton("Import File...");
+            btnImport.addActionListener(e -> onImport());
+            bottom.add(btnImport);
+        }
         bottom.add(btnCancel);
 
         add(bottom, BorderLayout.SOUTH);
@@ -138,64 +156,78 @@ public class AddEventFrame extends JFrame {
         String time     = txtTime.getText().trim();
         String capStr   = txtCapacity.getText().trim();
 
-        if (title.isEmpty() || category.isEmpty() || location.isEmpty()
-                || date.isEmpty() || time.isEmpty() || capStr.isEmpty()) {
+        String error = validate(title, category, location, date, time, capStr);
+        if (error != null) {
             JOptionPane.showMessageDialog(
                     this,
-                    "Please fill in all fields.",
+                    error,
                     "Validation Error",
                     JOptionPane.WARNING_MESSAGE
             );
             return;
         }
 
-        int capacity;
-        try {
-            capacity = Integer.parseInt(capStr);
-            if (capacity <= 0) {
-                throw new NumberFormatException();
-            }
-        } catch (NumberFormatException ex) {
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Capacity must be a positive integer.",
-                    "Validation Error",
-                    JOptionPane.WARNING_MESSAGE
-            );
-            return;
-        }
+        int capacity = Integer.parseInt(capStr);
 
         if (!editMode) {
-            addNewEvent(title, category, location, date, time, capacity);
+            SeatMap seatMap = null;
+            String spec = txtSeatMap.getText().trim();
+            if (!spec.isEmpty()) {
+                try {
+                    seatMap = SeatMap.parse(spec);
+                } catch (IllegalArgumentException ex) {
+                    JOptionPane.showMessageDialog(
+                            this,
+                            ex.getMessage(),
+                            "Validation Error",
+                            JOptionPane.WARNING_MESSAGE
+                    );
+                    return;
+                }
+            }
+            addNewEvent(title, category, location, date, time, capacity, seatMap);
         } else {
             updateExistingEvent(title, category, location, date, time, capacity);
         }
     }
 
-    
-    private void addNewEvent(String title, String category, String location,
-                             String date, String time, int capacity) {
+    /**
+     * Checks the form values; also used by EventImporter for every imported row.
+     * Returns the message to show, or null if the values are valid.
+     */
+    static String validate(String title, String category, String location,
+                           String date, String time, String capStr) {
 
-        String sql = "INSERT INTO events " +
-                "(title, category, location, event_date, event_time, capacity, seats_available) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        if (title.isEmpty() || category.isEmpty() || location.isEmpty()
+                || date.isEmpty() || time.isEmpty() || capStr.isEmpty()) {
+            return "Please fill in all fields.";
+        }
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try {
+            if (Integer.parseInt(capStr) <= 0) {
+                return "Capacity must be a positive integer.";
+            }
+        } catch (NumberFormatException ex) {
+            return "Capacity must be a positive integer.";
+        }
+        return null;
+    }
 
-            ps.setString(1, title);
-            ps.setString(2, category);
-            ps.setString(3, location);
-            ps.setString(4, date);
-            ps.setString(5, time);
-            ps.setInt(6, capacity);
-            ps.setInt(7, capacity); 
+    
+    // A seat map fixes the capacity: it is the number of seats in the layout.
+    private void addNewEvent(String title, String category, String location,
+                             String date, String time, int capacity, SeatMap seatMap) {
 
-            ps.executeUpdate();
+        try {
+            createEvent(title, category, location, date, time, capacity, seatMap);
 
+            String message = "Event added successfully.";
+            if (seatMap != null && seatMap.capacity() != capacity) {
+                message += "\nCapacity set to " + seatMap.capacity() + " from the seat map.";
+            }
             JOptionPane.showMessageDialog(
                     this,
-                    "Event added successfully.",
+                    message,
                     "Success",
                     JOptionPane.INFORMATION_MESSAGE
             );
@@ -212,94 +244,117 @@ public class AddEventFrame extends JFrame {
         }
     }
 
-    
-    private void updateExistingEvent(String title, String category, String location,
-                                     String date, String time, int newCapacity) {
+    /**
+     * Inserts the event (and its seat map, whose size then is the capacity) and
+     * updates the search index, catalogue cache and change feed. Also used by
+     * HttpApi. Returns the new event id.
+     */
+    static int createEvent(String title, String category, String location,
+                           String date, String time, int capacity, SeatMap seatMap) throws SQLException {
 
-        try (Connection conn = DBConnection.getConnection()) {
-            if (conn == null) return;
+        int seats = seatMap == null ? capacity : seatMap.capacity();
+        int newEventId;
 
+        try (Connection conn = DBConnectionPool.getConnection()) {
             conn.setAutoCommit(false);
-
-            // --- 1. Get current capacity + seats_available ---
-            int oldCapacity;
-            int oldSeats;
-
-            String selectSql = "SELECT capacity, seats_available FROM events WHERE event_id = ?";
-            try (PreparedStatement psSel = conn.prepareStatement(selectSql)) {
-                psSel.setInt(1, eventId);
-                try (ResultSet rs = psSel.executeQuery()) {
-                    if (!rs.next()) {
-                        conn.setAutoCommit(true);
-                        JOptionPane.showMessageDialog(
-                                this,
-                                "Event not found.",
-                                "Error",
-                                JOptionPane.ERROR_MESSAGE
-                        );
-                        return;
-                    }
-                    oldCapacity = rs.getInt("capacity");
-                    oldSeats    = rs.getInt("seats_available");
+            try {
+                newEventId = SqliteRepositories.on(conn).events.create(new EventRepository.Event(
+                        0, title, category, location, date, time, seats, seats));
+                if (seatMap != null) {
+                    seatMap.save(conn, newEventId);
                 }
+                conn.commit();
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(true);
             }
+        }
+
+        EventSearchIndex.getInstance().eventAdded(category, location);
+        EventCatalogCache.getInstance().eventAdded(category, location, date);
+        ChangeFeed.getInstance().publish(new ChangeFeed.EventCreated(
+                newEventId, title, category, location, date, seats));
+        return newEventId;
+    }
 
-            
-            if (newCapacity < oldCapacity) {
-                conn.setAutoCommit(true); 
-                JOptionPane.showMessageDialog(
-                        this,
-                        "You cannot decrease the capacity of an existing event.\n" +
-                        "You may only increase it (current capacity: " + oldCapacity + ").",
-                        "Invalid Capacity",
-                        JOptionPane.WARNING_MESSAGE
-                );
+    
+    // Bulk import runs off the EDT; the dialog stays open and shows the progress.
+    private void onImport() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+                "Event files (*.csv, *.jsonl)", "csv", "jsonl", "ndjson", "json"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
             return;
-            }
+        }
+        java.io.File file = chooser.getSelectedFile();
 
-          
-            int diff = newCapacity - oldCapacity;         
-            int newSeatsAvailable = oldSeats + diff;
+        btnSave.setEnabled(false);
+        String originalTitle = getTitle();
 
-            if (newSeatsAvailable < 0) {
-                newSeatsAvailable = 0;
+        new SwingWorker<EventImporter.Result, long[]>() {
+            @Override
+            protected EventImporter.Result doInBackground() throws Exception {
+                return EventImporter.importFile(file, (ok, bad) -> publish(new long[]{ok, bad}));
             }
-            if (newSeatsAvailable > newCapacity) {
-                newSeatsAvailable = newCapacity;
+
+            @Override
+            protected void process(java.util.List<long[]> chunks) {
+                long[] last = chunks.get(chunks.size() - 1);
+                setTitle("Importing... " + last[0] + " imported, " + last[1] + " rejected");
             }
 
-           
-            String updateSql =
-                    "UPDATE events SET title = ?, category = ?, location = ?, " +
-                    "event_date = ?, event_time = ?, capacity = ?, seats_available = ? " +
-                    "WHERE event_id = ?";
-
-            try (PreparedStatement psUpd = conn.prepareStatement(updateSql)) {
-                psUpd.setString(1, title);
-                psUpd.setString(2, category);
-                psUpd.setString(3, location);
-                psUpd.setString(4, date);
-                psUpd.setString(5, time);
-                psUpd.setInt(6, newCapacity);
-                psUpd.setInt(7, newSeatsAvailable);
-                psUpd.setInt(8, eventId);
-                psUpd.executeUpdate();
+            @Override
+            protected void done() {
+                setTitle(originalTitle);
+                btnSave.setEnabled(true);
+                try {
+                    EventImporter.Result r = get();
+                    String message = String.format(
+                            "%d event(s) imported, %d rejected.\n%.1f s, %.0f rows/s.",
+                            r.imported, r.rejected, r.elapsedNanos / 1e9, r.rowsPerSecond());
+                    if (r.rejectFile != null) {
+                        message += "\nRejected rows: " + r.rejectFile.getPath();
+                    }
+                    JOptionPane.showMessageDialog(
+                            AddEventFrame.this,
+                            message,
+                            "Import Finished",
+                            r.rejected > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE
+                    );
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    JOptionPane.showMessageDialog(
+                            AddEventFrame.this,
+                            "Error importing events:\n" + cause.getMessage(),
+                            cause instanceof SQLException ? "Database Error" : "Import Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
             }
+        }.execute();
+    }
 
-           
-            promoteWaitlistedAttendees(conn, eventId);
 
-            conn.commit();
-            conn.setAutoCommit(true);
+    // What editEvent found and did inside the locked section
+    static final class EditOutcome {
+        boolean found;
+        int oldCapacity;
+        String oldCategory;
+        String oldLocation;
+        String oldDate;
+        boolean updated;
+        int newCapacity;
+        RegistrationService.Promotion promotion;
+    }
 
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Event updated successfully.",
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE
-            );
-            dispose();
+    private void updateExistingEvent(String title, String category, String location,
+                                     String date, String time, int newCapacity) {
 
+        EditOutcome outcome;
+        try {
+            outcome = editEvent(eventId, title, category, location, date, time, newCapacity);
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(
                     this,
@@ -307,96 +362,128 @@ public class AddEventFrame extends JFrame {
                     "Database Error",
                     JOptionPane.ERROR_MESSAGE
             );
+            return;
+        }
+
+        if (!outcome.found) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Event not found.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE
+            );
+            return;
+        }
+
+        if (!outcome.updated) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "You cannot decrease the capacity of an existing event.\n" +
+                    "You may only increase it (current capacity: " + outcome.oldCapacity + ").",
+                    "Invalid Capacity",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
+
+        String message = "Event updated successfully.";
+        if (outcome.newCapacity != newCapacity) {
+            message += "\nCapacity rounded up to " + outcome.newCapacity + " to fill whole rows of the seat map.";
         }
+        if (outcome.promotion != null && outcome.promotion.promoted > 0) {
+            message += String.format("\n%d waitlisted attendee(s) promoted in %.1f ms.",
+                    outcome.promotion.promoted, outcome.promotion.elapsedMillis());
+        }
+
+        JOptionPane.showMessageDialog(
+                this,
+                message,
+                "Success",
+                JOptionPane.INFORMATION_MESSAGE
+        );
+        dispose();
     }
 
+    /**
+     * Updates the event; the capacity may only grow. Seats added go to the
+     * waitlist before registrations resume. Also used by HttpApi.
+     */
+    static EditOutcome editEvent(int eventId, String title, String category, String location,
+                                 String date, String time, int newCapacity) throws SQLException {
 
-    public static void promoteWaitlistedAttendees(Connection conn, int eventId) throws SQLException {
+        RegistrationService.Promotion[] promotion = new RegistrationService.Promotion[1];
 
-        while (true) {
+        // registrations for this event are paused while it is edited; seats added
+        // here go to the waitlist (in memory) before they resume
+        EditOutcome outcome = RegistrationService.getInstance().withEventLocked(eventId, conn -> {
+            EditOutcome result = new EditOutcome();
 
-            // 1) Check available seats
-            int seatsAvailable;
-            try (PreparedStatement psSeats = conn.prepareStatement(
-                    "SELECT seats_available, capacity FROM events WHERE event_id = ?")) {
-                psSeats.setInt(1, eventId);
-                try (ResultSet rs = psSeats.executeQuery()) {
-                    if (!rs.next()) return;
-                    seatsAvailable = rs.getInt("seats_available");
-                    int cap = rs.getInt("capacity");
-                    if (seatsAvailable <= 0 || seatsAvailable > cap) {
-                        return;
-                    }
+            conn.setAutoCommit(false);
+            try {
+                // --- 1. Get current values ---
+                EventRepository events = SqliteRepositories.on(conn).events;
+                EventRepository.Event current = events.find(eventId);
+                if (current == null) {
+                    return result;
                 }
-            }
-
-            if (seatsAvailable <= 0) return;
-
-            // 2) Get next person on waitlist (FIFO)
-            int waitlistId;
-            int userId;
-
-            String waitSql =
-                    "SELECT waitlist_id, user_id " +
-                    "FROM waitlist " +
-                    "WHERE event_id = ? " +
-                    "ORDER BY request_date, waitlist_id " +
-                    "LIMIT 1";
-
-            try (PreparedStatement psWait = conn.prepareStatement(waitSql)) {
-                psWait.setInt(1, eventId);
-                try (ResultSet rsW = psWait.executeQuery()) {
-                    if (!rsW.next()) {
-                        // no one on waitlist
-                        return;
-                    }
-                    waitlistId = rsW.getInt("waitlist_id");
-                    userId     = rsW.getInt("user_id");
+                result.found       = true;
+                result.oldCapacity = current.capacity;
+                result.oldCategory = current.category;
+                result.oldLocation = current.location;
+                result.oldDate     = current.date;
+                int oldSeats       = current.seatsAvailable;
+
+                if (newCapacity < result.oldCapacity) {
+                    return result;
                 }
-            }
 
-            // 3) Insert into registrations as CONFIRMED
-            int registrationId;
-            String insertReg =
-                    "INSERT INTO registrations (user_id, event_id, registration_date, status) " +
-                    "VALUES (?, ?, datetime('now'), 'CONFIRMED')";
+                int capacity = newCapacity;
+                int diff = capacity - result.oldCapacity;
 
-            try (PreparedStatement psReg = conn.prepareStatement(insertReg)) {
-                psReg.setInt(1, userId);
-                psReg.setInt(2, eventId);
-                psReg.executeUpdate();
-            }
+                // seated events get whole rows at the back of the last section
+                SeatMap seatMap = SeatMap.load(conn, eventId);
+                if (seatMap != null && diff > 0) {
+                    SeatMap grown = seatMap.withExtraSeats(diff);
+                    grown.save(conn, eventId);
+                    capacity = result.oldCapacity + (grown.capacity() - seatMap.capacity());
+                    diff = capacity - result.oldCapacity;
+                }
+                result.newCapacity = capacity;
 
-            try (Statement st = conn.createStatement();
-                 ResultSet rsLast = st.executeQuery("SELECT last_insert_rowid() AS last_id")) {
-                rsLast.next();
-                registrationId = rsLast.getInt("last_id");
-            }
+                int newSeatsAvailable = oldSeats + diff;
 
-            // 4) Create ticket
-            String ticketId = "T" + registrationId + "E" + eventId;
-            try (PreparedStatement psTicket = conn.prepareStatement(
-                    "INSERT INTO tickets (ticket_id, registration_id) VALUES (?, ?)")) {
-                psTicket.setString(1, ticketId);
-                psTicket.setInt(2, registrationId);
-                psTicket.executeUpdate();
-            }
+                if (newSeatsAvailable < 0) {
+                    newSeatsAvailable = 0;
+                }
+                if (newSeatsAvailable > capacity) {
+                    newSeatsAvailable = capacity;
+                }
 
-            // 5) Remove from waitlist
-            try (PreparedStatement psDelW = conn.prepareStatement(
-                    "DELETE FROM waitlist WHERE waitlist_id = ?")) {
-                psDelW.setInt(1, waitlistId);
-                psDelW.executeUpdate();
-            }
+                events.update(new EventRepository.Event(eventId, title, category, location, date, time,
+                        capacity, newSeatsAvailable));
 
-            // 6) Decrease seats_available
-            try (PreparedStatement psUpdSeats = conn.prepareStatement(
-                    "UPDATE events SET seats_available = seats_available - 1 WHERE event_id = ?")) {
-                psUpdSeats.setInt(1, eventId);
-                psUpdSeats.executeUpdate();
-            }
+                conn.commit();
+                result.updated = true;
+                return result;
 
-            // loop again if still seats + still waitlist
+            } finally {
+                // no-op after commit; discards the transaction on early return or error
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        }, p -> promotion[0] = p);
+        outcome.promotion = promotion[0];
+
+        if (outcome.updated) {
+            // the old category/location may no longer be used by any event
+            EventSearchIndex.getInstance().invalidate();
+            EventSearchIndex.getInstance().warmUp();
+            EventCatalogCache.getInstance().eventChanged(
+                    outcome.oldCategory, outcome.oldLocation, outcome.oldDate,
+                    category, location, date);
+            ChangeFeed.getInstance().publish(new ChangeFeed.EventUpdated(eventId, title,
+                    outcome.oldCategory, category, location, date, outcome.oldCapacity, outcome.newCapacity));
         }
+        return outcome;
     }
 }
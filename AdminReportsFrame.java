@@ -10,7 +10,7 @@ public class AdminReportsFrame extends JFrame {
     private JTable tblByEvent;
     private JTable tblByCategory;
 
-    private DefaultTableModel modelByEvent;
+    private PagedTableModel modelByEvent;
     private DefaultTableModel modelByCategory;
 
     // Summary labels
@@ -19,6 +19,41 @@ public class AdminReportsFrame extends JFrame {
     private JLabel lblTotalRegistrations;
     private JLabel lblTotalWaitlist;
     private JLabel lblAvgOccupancy;
+    // events, capacity, registrations, waitlist, avg occupancy %; null until loaded
+    private double[] summaryStats;
+
+    // Background loading
+    private JProgressBar loadProgress;
+    private JLabel lblStatus;
+    private AsyncTableLoader categoryLoader;
+    private SwingWorker<double[], Void> summaryWorker;
+
+    // Velocity (rollup buckets only, see RegistrationVelocity)
+    private DefaultTableModel modelVelocity;
+    private DefaultTableModel modelCategoryVelocity;
+    private DefaultTableModel modelVelocityHistory;
+    private JTable tblVelocity;
+    private JComboBox<String> cmbHistory;
+    private JLabel lblVelocityAsOf;
+    private AsyncTableLoader velocityLoader;
+    private AsyncTableLoader categoryVelocityLoader;
+    private AsyncTableLoader historyLoader;
+    // the time the loaded velocity rows were computed for
+    private java.time.LocalDateTime velocityNow;
+
+    // SQL metrics (in memory, refreshed by a timer)
+    private DefaultTableModel modelMetrics;
+    private JLabel lblSqlSummary;
+    private JTextArea txtSlowQueries;
+    private Timer metricsTimer;
+
+    // Live updates: deltas patch the loaded rows instead of re-running the reports
+    private ChangeFeed.Subscription changes;
+
+    // Export to file; null when no export is running
+    private ReportExport export;
+    private JButton btnExport;
+    private JProgressBar exportProgress;
 
     public AdminReportsFrame() {
         setTitle("Event Reports & Analytics");
@@ -39,14 +74,28 @@ public class AdminReportsFrame extends JFrame {
                 "Capacity", "Seats Available",
                 "Registrations", "Occupancy %", "Waitlist Count"
         };
-        modelByEvent = new DefaultTableModel(eventCols, 0) {
-            @Override
-            public boolean isCellEditable(int r, int c) {
-                return false;
+        modelByEvent = new PagedTableModel(eventCols, rs -> {
+            int capacity = rs.getInt("capacity");
+            int registrations = rs.getInt("registrations");
+
+            double occ = 0.0;
+            if (capacity > 0) {
+                occ = (registrations * 100.0) / capacity;
             }
-        };
+
+            return new Object[]{
+                    rs.getInt("event_id"),
+                    rs.getString("title"),
+                    rs.getString("category"),
+                    capacity,
+                    rs.getInt("seats_available"),
+                    registrations,
+                    String.format("%.1f%%", occ),
+                    rs.getInt("waitlist_count")
+            };
+        });
         tblByEvent = new JTable(modelByEvent);
-        tblByEvent.setAutoCreateRowSorter(true); // sortable
+        // not sortable: a row sorter would have to fetch every page
         tabs.addTab("By Event", new JScrollPane(tblByEvent));
 
         //  Tab 2: By Category 
@@ -94,225 +143,829 @@ public class AdminReportsFrame extends JFrame {
 
         tabs.addTab("Summary", summaryPanel);
 
+        // Tab 4: registration velocity
+        tabs.addTab("Velocity", buildVelocityPanel());
+
+        // Tab 5: SQL metrics
+        tabs.addTab("Metrics", buildMetricsPanel());
+
         add(tabs, BorderLayout.CENTER);
 
         // Bottom buttons 
         JPanel bottomPanel = new JPanel();
         JButton btnRefresh = new JButton("Refresh");
+        JButton btnCheck = new JButton("Check Consistency");
+        btnExport = new JButton("Export...");
         JButton btnClose = new JButton("Close");
 
+        loadProgress = new JProgressBar();
+        loadProgress.setVisible(false);
+        lblStatus = new JLabel(" ");
+        modelByEvent.setStatusListener(lblStatus::setText);
+        modelByEvent.setErrorListener(ex -> JOptionPane.showMessageDialog(
+                this,
+                "Error loading event report:\n" + ex.getMessage(),
+                "Database Error",
+                JOptionPane.ERROR_MESSAGE
+        ));
+        categoryLoader = new AsyncTableLoader(modelByCategory, loadProgress, null);
+        velocityLoader = new AsyncTableLoader(modelVelocity, loadProgress, null);
+        categoryVelocityLoader = new AsyncTableLoader(modelCategoryVelocity, null, null);
+        historyLoader = new AsyncTableLoader(modelVelocityHistory, null, null);
+
         btnRefresh.addActionListener(e -> reloadAll());
-        btnClose.addActionListener(e -> dispose());
+        btnCheck.addActionListener(e -> checkConsistency(btnCheck));
+        btnExport.addActionListener(e -> onExport());
+        btnClose.addActionListener(e -> {
+            cancelLoads();
+            cancelExport();
+            dispose();
+        });
+        metricsTimer = new Timer(2000, e -> refreshMetrics());
+        metricsTimer.start();
+        changes = ChangeFeed.getInstance().subscribeOnEdt(this::applyChanges);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                metricsTimer.stop();
+                changes.close();
+                cancelExport();
+            }
+        });
 
         bottomPanel.add(btnRefresh);
+        bottomPanel.add(btnCheck);
+        bottomPanel.add(btnExport);
         bottomPanel.add(btnClose);
+        bottomPanel.add(loadProgress);
+        exportProgress = new JProgressBar();
+        exportProgress.setStringPainted(true);
+        exportProgress.setVisible(false);
+        bottomPanel.add(exportProgress);
+        bottomPanel.add(lblStatus);
 
         add(bottomPanel, BorderLayout.SOUTH);
     }
 
     
+    // Refresh supersedes any load that is still running
     private void reloadAll() {
+        cancelLoads();
         loadEventStats();
         loadCategoryStats();
         loadSummaryStats();
+        loadVelocity();
     }
 
-    private void loadEventStats() {
-        modelByEvent.setRowCount(0);
-
-        
-        String sql =
-                "SELECT e.event_id, e.title, e.category, " +
-                "       e.capacity, e.seats_available, " +
-                "       COUNT(r.registration_id) AS registrations, " +
-                "       (SELECT COUNT(*) FROM waitlist w " +
-                "         WHERE w.event_id = e.event_id) AS waitlist_count " +
-                "FROM events e " +
-                "LEFT JOIN registrations r ON r.event_id = e.event_id " +
-                "GROUP BY e.event_id, e.title, e.category, " +
-                "         e.capacity, e.seats_available " +
-                "ORDER BY e.event_date, e.event_time";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+    // By-event columns
+    private static final int EV_ID = 0, EV_TITLE = 1, EV_CATEGORY = 2, EV_CAPACITY = 3,
+            EV_SEATS = 4, EV_REGISTRATIONS = 5, EV_OCCUPANCY = 6, EV_WAITLIST = 7;
+    // By-category columns
+    private static final int CAT_NAME = 0, CAT_EVENTS = 1, CAT_CAPACITY = 2,
+            CAT_REGISTRATIONS = 3, CAT_WAITLIST = 4, CAT_OCCUPANCY = 5;
+
+    /**
+     * Applies one coalesced batch from ChangeFeed. Loaded by-event rows, the
+     * category rows, the velocity rows and the summary totals are patched in
+     * place (velocity windows are not aged until the next refresh). Only what
+     * cannot be derived from the delta is reloaded, once per batch: the
+     * listing after a new event, and the category and summary tabs when a
+     * registration's event (and so its category) is not loaded or an event
+     * was edited. Reloaded figures come from the stats tables and can trail the
+     * registration write-behind queue by a flush interval.
+     */
+    private void applyChanges(java.util.List<ChangeFeed.Change> batch) {
+        boolean reloadEvents = false;
+        boolean reloadCategories = false;
+        boolean reloadSummary = false;
+
+        for (ChangeFeed.Change c : batch) {
+            Object[] row = modelByEvent.findLoadedRow(EV_ID, c.eventId);
+
+            if (c instanceof ChangeFeed.SeatsChanged) {
+                int seats = ((ChangeFeed.SeatsChanged) c).seatsAvailable;
+                modelByEvent.patchRows(EV_ID, c.eventId, r -> {
+                    r[EV_SEATS] = seats;
+                    return r;
+                });
+                patchVelocity(c.eventId, seats, 0);
+
+            } else if (c instanceof ChangeFeed.RegistrationCreated) {
+                int n = ((ChangeFeed.RegistrationCreated) c).count;
+                patchVelocity(c.eventId, -1, n);
+                if (row == null) {
+                    reloadCategories = true;
+                    reloadSummary = true;
+                    continue;
+                }
+                int capacity = (Integer) row[EV_CAPACITY];
+                modelByEvent.patchRows(EV_ID, c.eventId, r -> {
+                    r[EV_REGISTRATIONS] = (Integer) r[EV_REGISTRATIONS] + n;
+                    r[EV_OCCUPANCY] = occupancy((Integer) r[EV_REGISTRATIONS], capacity);
+                    return r;
+                });
+                reloadCategories |= !addToCategory((String) row[EV_CATEGORY], 0, 0, n, 0);
+                if (summaryStats != null && summaryStats[0] > 0 && capacity > 0) {
+                    summaryStats[2] += n;
+                    summaryStats[4] += n * 100.0 / capacity / summaryStats[0];
+                }
 
-            while (rs.next()) {
-                int capacity = rs.getInt("capacity");
-                int registrations = rs.getInt("registrations");
+            } else if (c instanceof ChangeFeed.WaitlistChanged) {
+                ChangeFeed.WaitlistChanged w = (ChangeFeed.WaitlistChanged) c;
+                modelByEvent.patchRows(EV_ID, c.eventId, r -> {
+                    r[EV_WAITLIST] = w.length;
+                    return r;
+                });
+                if (row == null) {
+                    reloadCategories = true;
+                } else {
+                    reloadCategories |= !addToCategory((String) row[EV_CATEGORY], 0, 0, 0, w.delta);
+                }
+                if (summaryStats != null) {
+                    summaryStats[3] += w.delta;
+                }
 
-                double occ = 0.0;
-                if (capacity > 0) {
-                    occ = (registrations * 100.0) / capacity;
+            } else if (c instanceof ChangeFeed.EventCreated) {
+                ChangeFeed.EventCreated e = (ChangeFeed.EventCreated) c;
+                reloadEvents = true; // the new row shifts the pages
+                if (!addToCategory(e.category, 1, e.capacity, 0, 0)) {
+                    modelByCategory.addRow(new Object[]{e.category, 1, e.capacity, 0, 0, occupancy(0, e.capacity)});
+                }
+                if (summaryStats != null) {
+                    summaryStats[4] = summaryStats[4] * summaryStats[0] / (summaryStats[0] + 1);
+                    summaryStats[0] += 1;
+                    summaryStats[1] += e.capacity;
                 }
 
-                Object[] row = {
-                        rs.getInt("event_id"),
-                        rs.getString("title"),
-                        rs.getString("category"),
-                        capacity,
-                        rs.getInt("seats_available"),
-                        registrations,
-                        String.format("%.1f%%", occ),
-                        rs.getInt("waitlist_count")
-                };
-                modelByEvent.addRow(row);
+            } else if (c instanceof ChangeFeed.RegistrationRejected) {
+                // it was counted as created; the rows come from the database again
+                reloadEvents = true;
+                reloadCategories = true;
+                reloadSummary = true;
+
+            } else if (c instanceof ChangeFeed.EventUpdated) {
+                ChangeFeed.EventUpdated e = (ChangeFeed.EventUpdated) c;
+                reloadEvents |= row != null; // the date decides the row's position
+                reloadCategories |= !java.util.Objects.equals(e.category, e.oldCategory)
+                        || e.capacity != e.oldCapacity;
+                reloadSummary |= e.capacity != e.oldCapacity;
             }
+        }
+
+        if (reloadEvents) {
+            modelByEvent.refresh();
+        }
+        if (reloadCategories) {
+            loadCategoryStats();
+        }
+        if (reloadSummary) {
+            loadSummaryStats();
+        } else if (summaryStats != null) {
+            showSummaryStats(summaryStats);
+        }
+    }
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Error loading event report:\n" + ex.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE
-            );
+    // Adds to the category's totals; false if the category has no row in the table.
+    private boolean addToCategory(String category, int events, int capacity, int registrations, int waitlist) {
+        for (int i = 0; i < modelByCategory.getRowCount(); i++) {
+            if (!java.util.Objects.equals(modelByCategory.getValueAt(i, CAT_NAME), category)) {
+                continue;
+            }
+            int totalCap = (Integer) modelByCategory.getValueAt(i, CAT_CAPACITY) + capacity;
+            int totalReg = (Integer) modelByCategory.getValueAt(i, CAT_REGISTRATIONS) + registrations;
+            modelByCategory.setValueAt((Integer) modelByCategory.getValueAt(i, CAT_EVENTS) + events, i, CAT_EVENTS);
+            modelByCategory.setValueAt(totalCap, i, CAT_CAPACITY);
+            modelByCategory.setValueAt(totalReg, i, CAT_REGISTRATIONS);
+            modelByCategory.setValueAt((Integer) modelByCategory.getValueAt(i, CAT_WAITLIST) + waitlist, i, CAT_WAITLIST);
+            modelByCategory.setValueAt(occupancy(totalReg, totalCap), i, CAT_OCCUPANCY);
+            return true;
         }
+        return false;
     }
 
+    private static String occupancy(int registrations, int capacity) {
+        return String.format("%.1f%%", capacity > 0 ? registrations * 100.0 / capacity : 0.0);
+    }
 
-    private void loadCategoryStats() {
-        modelByCategory.setRowCount(0);
-
-        
-        String sql =
-                "SELECT e.category AS category, " +
-                "       COUNT(DISTINCT e.event_id) AS num_events, " +
-                "       SUM(e.capacity) AS total_capacity, " +
-                "       COUNT(r.registration_id) AS total_registrations " +
-                "FROM events e " +
-                "LEFT JOIN registrations r ON r.event_id = e.event_id " +
-                "GROUP BY e.category " +
-                "ORDER BY total_registrations DESC";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+    // Compares the stats and velocity tables with the base tables and rebuilds them if needed
+    private void checkConsistency(JButton source) {
+        source.setEnabled(false);
 
-            while (rs.next()) {
-                String category = rs.getString("category");
-                int numEvents   = rs.getInt("num_events");
-                int totalCap    = rs.getInt("total_capacity");
-                int totalReg    = rs.getInt("total_registrations");
-
-                // total waitlist for this category
-                int totalWaitlist = 0;
-                String waitSql =
-                        "SELECT COUNT(*) AS cnt " +
-                        "FROM waitlist w " +
-                        "JOIN events e2 ON e2.event_id = w.event_id " +
-                        "WHERE e2.category = ?";
-
-                try (PreparedStatement psW = conn.prepareStatement(waitSql)) {
-                    psW.setString(1, category);
-                    try (ResultSet rsW = psW.executeQuery()) {
-                        if (rsW.next()) {
-                            totalWaitlist = rsW.getInt("cnt");
-                        }
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                try (Connection conn = DBConnectionPool.getConnection()) {
+                    return ReportStats.verifyAndRepair(conn) + RegistrationVelocity.verifyAndRepair(conn);
+                }
+            }
+
+            @Override
+            protected void done() {
+                source.setEnabled(true);
+                try {
+                    int mismatches = get();
+                    String message = mismatches == 0
+                            ? "Report statistics are consistent."
+                            : mismatches + " inconsistent row(s) found; statistics were rebuilt.";
+                    JOptionPane.showMessageDialog(
+                            AdminReportsFrame.this,
+                            message,
+                            "Consistency Check",
+                            JOptionPane.INFORMATION_MESSAGE
+                    );
+                    if (mismatches > 0) {
+                        reloadAll();
                     }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    JOptionPane.showMessageDialog(
+                            AdminReportsFrame.this,
+                            "Error checking statistics:\n" + ex.getCause().getMessage(),
+                            "Database Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Streams a report to a file off the EDT (see ReportExport). While it runs
+     * the button cancels it; closing the window cancels it too.
+     */
+    private void onExport() {
+        if (export != null) {
+            cancelExport();
+            return;
+        }
+
+        JComboBox<ReportExport.Dataset> cmbDataset = new JComboBox<>(ReportExport.Dataset.values());
+        JComboBox<ReportExport.Format> cmbFormat = new JComboBox<>(ReportExport.Format.values());
+        JPanel options = new JPanel(new GridLayout(2, 2, 5, 5));
+        options.add(new JLabel("Data:"));
+        options.add(cmbDataset);
+        options.add(new JLabel("Format:"));
+        options.add(cmbFormat);
+        if (JOptionPane.showConfirmDialog(this, options, "Export Report",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        ReportExport.Dataset dataset = (ReportExport.Dataset) cmbDataset.getSelectedItem();
+        ReportExport.Format format = (ReportExport.Format) cmbFormat.getSelectedItem();
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File(dataset.name().toLowerCase() + format.extension));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.nio.file.Path target = chooser.getSelectedFile().toPath();
+
+        // the worker owns the export so its progress callback can publish to the EDT
+        final class ExportWorker extends SwingWorker<ReportExport.Result, long[]> {
+            final ReportExport job = new ReportExport(dataset, format, target,
+                    (rows, bytes, elapsed) -> publish(new long[]{rows, bytes, elapsed}));
+            volatile long estimate;
+
+            @Override
+            protected ReportExport.Result doInBackground() throws Exception {
+                try (Connection conn = DBConnectionPool.getConnection()) {
+                    estimate = ReportExport.estimateRows(conn, dataset);
+                    return job.run(conn);
                 }
+            }
 
-                double occ = 0.0;
-                if (totalCap > 0) {
-                    occ = (totalReg * 100.0) / totalCap;
+            @Override
+            protected void process(java.util.List<long[]> chunks) {
+                if (export != job) {
+                    return;
                 }
+                long[] last = chunks.get(chunks.size() - 1);
+                long rows = last[0];
+                exportProgress.setValue(estimate > 0 ? (int) Math.min(99, rows * 100 / estimate) : 0);
+                exportProgress.setString(String.format("%,d rows  %.1f MB  %,.0f rows/s",
+                        rows, last[1] / 1e6, rows * 1e9 / Math.max(1, last[2])));
+            }
 
-                Object[] row = {
-                        category,
-                        numEvents,
-                        totalCap,
-                        totalReg,
-                        totalWaitlist,
-                        String.format("%.1f%%", occ)
-                };
-                modelByCategory.addRow(row);
+            @Override
+            protected void done() {
+                if (export != job) {
+                    return; // cancelled; a newer export may already be running
+                }
+                export = null;
+                btnExport.setText("Export...");
+                exportProgress.setVisible(false);
+                try {
+                    ReportExport.Result r = get();
+                    JOptionPane.showMessageDialog(
+                            AdminReportsFrame.this,
+                            String.format("%,d row(s) exported to %s\n%.1f MB in %.1f s, %,.0f rows/s.",
+                                    r.rows, target, r.bytes / 1e6, r.elapsedNanos / 1e9, r.rowsPerSecond()),
+                            "Export Finished",
+                            JOptionPane.INFORMATION_MESSAGE
+                    );
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    JOptionPane.showMessageDialog(
+                            AdminReportsFrame.this,
+                            "Error exporting report:\n" + cause.getMessage(),
+                            cause instanceof SQLException ? "Database Error" : "Export Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
+                }
             }
+        }
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Error loading category report:\n" + ex.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE
-            );
+        ExportWorker worker = new ExportWorker();
+        export = worker.job;
+        btnExport.setText("Cancel Export");
+        exportProgress.setValue(0);
+        exportProgress.setString("Starting export...");
+        exportProgress.setVisible(true);
+        worker.execute();
+    }
+
+    // The worker removes its partial file; the dialog is not shown for a cancelled export.
+    private void cancelExport() {
+        if (export != null) {
+            export.cancel();
+            export = null;
+            btnExport.setText("Export...");
+            exportProgress.setVisible(false);
         }
     }
 
-   
-    private void loadSummaryStats() {
+    // Velocity columns
+    private static final int VEL_ID = 0, VEL_CATEGORY = 2, VEL_SEATS = 3, VEL_HOUR = 4, VEL_DAY = 5,
+            VEL_WEEK = 6, VEL_RATE = 7, VEL_SELL_OUT = 8, VEL_EVENT_DATE = 9, VEL_EVENT_TIME = 10;
+    // Category velocity columns
+    private static final int VEL_CAT_NAME = 0, VEL_CAT_HOUR = 1, VEL_CAT_DAY = 2, VEL_CAT_WEEK = 3,
+            VEL_CAT_RATE = 4;
+    private static final int VELOCITY_EVENT_LIMIT = 500;
 
-        int totalEvents = 0;
-        int totalCapacity = 0;
-        int totalRegistrations = 0;
-        int totalWaitlist = 0;
-        double avgOccupancy = 0.0;
+    private JPanel buildVelocityPanel() {
+        // the last two columns hold the event start for the projection and are not shown
+        String[] eventCols = {
+                "Event ID", "Title", "Category", "Seats Available",
+                "Last Hour", "Last 24 h", "Last 7 Days", "Per Hour", "Projected Sell-out",
+                "Event Date", "Event Time"
+        };
+        modelVelocity = new DefaultTableModel(eventCols, 0) {
+            @Override
+            public boolean isCellEditable(int r, int c) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int c) {
+                return c == VEL_ID || (c >= VEL_SEATS && c <= VEL_RATE) ? Number.class : String.class;
+            }
+        };
+        tblVelocity = new JTable(modelVelocity);
+        tblVelocity.setAutoCreateRowSorter(true);
+        tblVelocity.removeColumn(tblVelocity.getColumnModel().getColumn(VEL_EVENT_TIME));
+        tblVelocity.removeColumn(tblVelocity.getColumnModel().getColumn(VEL_EVENT_DATE));
+        tblVelocity.getSelectionModel().setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tblVelocity.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                loadVelocityHistory();
+            }
+        });
+
+        String[] categoryCols = {"Category", "Last Hour", "Last 24 h", "Last 7 Days", "Per Hour"};
+        modelCategoryVelocity = new DefaultTableModel(categoryCols, 0) {
+            @Override
+            public boolean isCellEditable(int r, int c) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int c) {
+                return c == VEL_CAT_NAME ? String.class : Number.class;
+            }
+        };
+        JTable tblCategoryVelocity = new JTable(modelCategoryVelocity);
+        tblCategoryVelocity.setAutoCreateRowSorter(true);
+
+        modelVelocityHistory = new DefaultTableModel(new String[]{"Bucket (UTC)", "Registrations"}, 0) {
+            @Override
+            public boolean isCellEditable(int r, int c) {
+                return false;
+            }
+        };
+        cmbHistory = new JComboBox<>(new String[]{"Per minute, last hour", "Per hour, last 48 hours",
+                "Per day, last 30 days"});
+        cmbHistory.setSelectedIndex(1);
+        cmbHistory.addActionListener(e -> loadVelocityHistory());
+        JPanel historyPanel = new JPanel(new BorderLayout(5, 5));
+        historyPanel.add(cmbHistory, BorderLayout.NORTH);
+        historyPanel.add(new JScrollPane(new JTable(modelVelocityHistory)), BorderLayout.CENTER);
+
+        lblVelocityAsOf = new JLabel(" ");
+        JSplitPane bottom = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+                new JScrollPane(tblCategoryVelocity), historyPanel);
+        bottom.setResizeWeight(0.6);
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(tblVelocity), bottom);
+        split.setResizeWeight(0.6);
+
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.add(lblVelocityAsOf, BorderLayout.NORTH);
+        panel.add(split, BorderLayout.CENTER);
+        return panel;
+    }
 
-        try (Connection conn = DBConnection.getConnection()) {
-            if (conn == null) return;
-
-            // 1) Total events + total capacity
-            String sqlEvents =
-                    "SELECT COUNT(*) AS cnt, SUM(capacity) AS total_cap " +
-                    "FROM events";
-            try (PreparedStatement ps = conn.prepareStatement(sqlEvents);
-                 ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    totalEvents = rs.getInt("cnt");
-                    totalCapacity = rs.getInt("total_cap");
+    // Reads only registration_velocity (and the event rows it points at), never registrations
+    private void loadVelocity() {
+        java.time.LocalDateTime now = RegistrationVelocity.nowUtc();
+        String[] windows = RegistrationVelocity.windowStarts(now);
+        velocityNow = now;
+        lblVelocityAsOf.setText("Registrations from minute, hour and day rollups as of "
+                + now.withNano(0).toLocalTime() + " UTC; events with sales in the last 7 days, "
+                + "busiest first. Sell-out is projected at the recent hourly rate.");
+        modelVelocityHistory.setRowCount(0);
+
+        velocityLoader.load((conn, sink) -> {
+            try (PreparedStatement ps = conn.prepareStatement(RegistrationVelocity.EVENT_VELOCITY_SQL)) {
+                ps.setString(1, windows[0]);
+                ps.setString(2, windows[1]);
+                ps.setString(3, windows[2]);
+                ps.setInt(4, VELOCITY_EVENT_LIMIT);
+                sink.watch(ps);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Object[] row = {
+                                rs.getInt("event_id"),
+                                rs.getString("title"),
+                                rs.getString("category"),
+                                rs.getInt("seats_available"),
+                                rs.getInt("last_hour"),
+                                rs.getInt("last_day"),
+                                rs.getInt("last_week"),
+                                null,
+                                null,
+                                rs.getString("event_date"),
+                                rs.getString("event_time")
+                        };
+                        project(row, now);
+                        sink.accept(row);
+                    }
                 }
             }
+        }, ex -> JOptionPane.showMessageDialog(
+                this,
+                "Error loading registration velocity:\n" + ex.getMessage(),
+                "Database Error",
+                JOptionPane.ERROR_MESSAGE
+        ));
+
+        categoryVelocityLoader.load((conn, sink) -> {
+            try (PreparedStatement ps = conn.prepareStatement(RegistrationVelocity.CATEGORY_VELOCITY_SQL)) {
+                ps.setString(1, windows[0]);
+                ps.setString(2, windows[1]);
+                ps.setString(3, windows[2]);
+                sink.watch(ps);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int lastDay = rs.getInt("last_day");
+                        int lastWeek = rs.getInt("last_week");
+                        sink.accept(new Object[]{
+                                rs.getString("category"),
+                                rs.getInt("last_hour"),
+                                lastDay,
+                                lastWeek,
+                                rate(lastDay, lastWeek)
+                        });
+                    }
+                }
+            }
+        }, null);
+    }
 
-            // 2) Total registrations
-            String sqlReg =
-                    "SELECT COUNT(*) AS cnt FROM registrations";
-            try (PreparedStatement ps = conn.prepareStatement(sqlReg);
-                 ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    totalRegistrations = rs.getInt("cnt");
+    private void loadVelocityHistory() {
+        int viewRow = tblVelocity.getSelectedRow();
+        if (viewRow < 0) {
+            historyLoader.cancel();
+            modelVelocityHistory.setRowCount(0);
+            return;
+        }
+        int eventId = (Integer) modelVelocity.getValueAt(tblVelocity.convertRowIndexToModel(viewRow), VEL_ID);
+        RegistrationVelocity.Granularity g = RegistrationVelocity.Granularity.values()[cmbHistory.getSelectedIndex()];
+        String since = RegistrationVelocity.historyStart(g, RegistrationVelocity.nowUtc());
+
+        historyLoader.load((conn, sink) -> {
+            try (PreparedStatement ps = conn.prepareStatement(RegistrationVelocity.EVENT_HISTORY_SQL)) {
+                ps.setString(1, g.key);
+                ps.setString(2, since);
+                ps.setInt(3, eventId);
+                sink.watch(ps);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        sink.accept(new Object[]{rs.getString("bucket_start"), rs.getInt("registrations")});
+                    }
                 }
             }
+        }, null);
+    }
+
+    // Fills the per-hour rate and sell-out projection of a velocity row
+    private static void project(Object[] row, java.time.LocalDateTime now) {
+        int lastDay = (Integer) row[VEL_DAY];
+        int lastWeek = (Integer) row[VEL_WEEK];
+        row[VEL_RATE] = rate(lastDay, lastWeek);
+        row[VEL_SELL_OUT] = RegistrationVelocity.projectSellOut((Integer) row[VEL_SEATS], lastDay, lastWeek,
+                now, (String) row[VEL_EVENT_DATE], (String) row[VEL_EVENT_TIME]);
+    }
+
+    private static double rate(int lastDay, int lastWeek) {
+        return Math.round(RegistrationVelocity.perHour(lastDay, lastWeek) * 10.0) / 10.0;
+    }
+
+    /**
+     * Live update of a loaded velocity row: new registrations count in every
+     * window, seats (if not negative) replace the loaded figure. Events without
+     * a row appear at the next refresh.
+     */
+    private void patchVelocity(int eventId, int seats, int registrations) {
+        if (velocityNow == null || velocityLoader.isLoading()) {
+            return;
+        }
+        for (int i = 0; i < modelVelocity.getRowCount(); i++) {
+            if ((Integer) modelVelocity.getValueAt(i, VEL_ID) != eventId) {
+                continue;
+            }
+            Object[] row = new Object[modelVelocity.getColumnCount()];
+            for (int c = 0; c < row.length; c++) {
+                row[c] = modelVelocity.getValueAt(i, c);
+            }
+            if (seats >= 0) {
+                row[VEL_SEATS] = seats;
+            }
+            row[VEL_HOUR] = (Integer) row[VEL_HOUR] + registrations;
+            row[VEL_DAY] = (Integer) row[VEL_DAY] + registrations;
+            row[VEL_WEEK] = (Integer) row[VEL_WEEK] + registrations;
+            project(row, RegistrationVelocity.nowUtc());
+            for (int c = VEL_SEATS; c <= VEL_SELL_OUT; c++) {
+                modelVelocity.setValueAt(row[c], i, c);
+            }
+            if (registrations > 0) {
+                addToCategoryVelocity((String) row[VEL_CATEGORY], registrations);
+            }
+            return;
+        }
+    }
+
+    private void addToCategoryVelocity(String category, int registrations) {
+        for (int i = 0; i < modelCategoryVelocity.getRowCount(); i++) {
+            if (!java.util.Objects.equals(modelCategoryVelocity.getValueAt(i, VEL_CAT_NAME), category)) {
+                continue;
+            }
+            int lastHour = (Integer) modelCategoryVelocity.getValueAt(i, VEL_CAT_HOUR) + registrations;
+            int lastDay = (Integer) modelCategoryVelocity.getValueAt(i, VEL_CAT_DAY) + registrations;
+            int lastWeek = (Integer) modelCategoryVelocity.getValueAt(i, VEL_CAT_WEEK) + registrations;
+            modelCategoryVelocity.setValueAt(lastHour, i, VEL_CAT_HOUR);
+            modelCategoryVelocity.setValueAt(lastDay, i, VEL_CAT_DAY);
+            modelCategoryVelocity.setValueAt(lastWeek, i, VEL_CAT_WEEK);
+            modelCategoryVelocity.setValueAt(rate(lastDay, lastWeek), i, VEL_CAT_RATE);
+            return;
+        }
+    }
+
+    private JPanel buildMetricsPanel() {
+        String[] metricCols = {
+                "SQL", "Executions", "p50 ms", "p99 ms", "Max ms", "Total ms", "Rows", "Errors"
+        };
+        modelMetrics = new DefaultTableModel(metricCols, 0) {
+            @Override
+            public boolean isCellEditable(int r, int c) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int c) {
+                return c == 0 ? String.class : Number.class;
+            }
+        };
+        JTable tblMetrics = new JTable(modelMetrics);
+        tblMetrics.setAutoCreateRowSorter(true);
+        tblMetrics.getColumnModel().getColumn(0).setPreferredWidth(380);
+
+        lblSqlSummary = new JLabel(" ");
+        txtSlowQueries = new JTextArea(6, 80);
+        txtSlowQueries.setEditable(false);
+        txtSlowQueries.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+
+        JButton btnReset = new JButton("Reset Metrics");
+        btnReset.addActionListener(e -> {
+            SqlMetrics.getInstance().reset();
+            refreshMetrics();
+        });
+        JPanel top = new JPanel(new BorderLayout());
+        top.add(lblSqlSummary, BorderLayout.CENTER);
+        top.add(btnReset, BorderLayout.EAST);
+
+        JPanel slowPanel = new JPanel(new BorderLayout());
+        slowPanel.add(new JLabel("Slow queries (over "
+                + SqlMetrics.getInstance().getSlowQueryThresholdMillis() + " ms, newest first):"),
+                BorderLayout.NORTH);
+        slowPanel.add(new JScrollPane(txtSlowQueries), BorderLayout.CENTER);
+
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.add(top, BorderLayout.NORTH);
+        panel.add(new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(tblMetrics), slowPanel), BorderLayout.CENTER);
+        refreshMetrics();
+        return panel;
+    }
+
+    private void refreshMetrics() {
+        SqlMetrics metrics = SqlMetrics.getInstance();
+
+        modelMetrics.setRowCount(0);
+        for (SqlMetrics.StatementSnapshot s : metrics.getStatements()) {
+            modelMetrics.addRow(new Object[]{
+                    s.getSql().replaceAll("\\s+", " "),
+                    s.getExecutions(),
+                    round(s.getP50Millis()),
+                    round(s.getP99Millis()),
+                    round(s.getMaxMillis()),
+                    round(s.getTotalMillis()),
+                    s.getRows(),
+                    s.getErrors()
+            });
+        }
+
+        lblSqlSummary.setText(String.format(
+                "Statements: %d (%d errors, %d slow)   Transactions: %d committed, %d rolled back, "
+                + "p99 %.1f ms   %s",
+                metrics.getStatementExecutions(), metrics.getStatementErrors(), metrics.getSlowQueries(),
+                metrics.getCommits(), metrics.getRollbacks(), metrics.getTransactionP99Millis(),
+                metrics.getPoolStats()));
+
+        String slow = String.join("\n", metrics.getRecentSlowQueries());
+        if (!slow.equals(txtSlowQueries.getText())) {
+            txtSlowQueries.setText(slow);
+            txtSlowQueries.setCaretPosition(0);
+        }
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 100.0) / 100.0;
+    }
 
-            // 3) Total waitlist
-            String sqlW =
-                    "SELECT COUNT(*) AS cnt FROM waitlist";
-            try (PreparedStatement ps = conn.prepareStatement(sqlW);
-                 ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    totalWaitlist = rs.getInt("cnt");
+    private void cancelLoads() {
+        categoryLoader.cancel();
+        velocityLoader.cancel();
+        categoryVelocityLoader.cancel();
+        historyLoader.cancel();
+        if (summaryWorker != null) {
+            summaryWorker.cancel(true);
+            summaryWorker = null;
+        }
+    }
+
+    private void loadEventStats() {
+        // Pages are fetched with keyset pagination as the tab scrolls.
+        modelByEvent.setQuery(eventStatsQuery());
+    }
+
+    // event_stats is maintained by triggers: one row per event, no joins over registrations.
+    static PagedTableModel.Query eventStatsQuery() {
+        return new PagedTableModel.Query(
+                "s.event_id, e.title, s.category, " +
+                "s.capacity, s.seats_available, " +
+                "s.registrations, s.waitlist AS waitlist_count",
+                "event_stats s JOIN events e ON e.event_id = s.event_id",
+                null,
+                null,
+                "e.event_date", "e.event_time", "s.event_id"
+        );
+    }
+
+    // single pass over event_stats instead of four scans of the base tables
+    static final String SUMMARY_STATS_SQL =
+            "SELECT COUNT(*) AS cnt, " +
+            "       SUM(capacity) AS total_cap, " +
+            "       SUM(registrations) AS total_reg, " +
+            "       SUM(waitlist) AS total_wait, " +
+            "       AVG(CASE WHEN capacity > 0 " +
+            "                THEN 1.0 * registrations / capacity END) AS avg_occ " +
+            "FROM event_stats";
+
+    static final String CATEGORY_STATS_SQL =
+            "SELECT category, events AS num_events, " +
+            "       total_capacity, registrations AS total_registrations, " +
+            "       waitlist AS total_waitlist " +
+            "FROM category_stats " +
+            "WHERE events > 0 " +
+            "ORDER BY total_registrations DESC";
+
+
+    private void loadCategoryStats() {
+        categoryLoader.load((conn, sink) -> {
+            try (PreparedStatement ps = conn.prepareStatement(CATEGORY_STATS_SQL)) {
+                sink.watch(ps);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        String category = rs.getString("category");
+                        int numEvents   = rs.getInt("num_events");
+                        int totalCap    = rs.getInt("total_capacity");
+                        int totalReg    = rs.getInt("total_registrations");
+                        int totalWaitlist = rs.getInt("total_waitlist");
+
+                        double occ = 0.0;
+                        if (totalCap > 0) {
+                            occ = (totalReg * 100.0) / totalCap;
+                        }
+
+                        Object[] row = {
+                                category,
+                                numEvents,
+                                totalCap,
+                                totalReg,
+                                totalWaitlist,
+                                String.format("%.1f%%", occ)
+                        };
+                        sink.accept(row);
+                    }
                 }
             }
+        }, ex -> JOptionPane.showMessageDialog(
+                this,
+                "Error loading category report:\n" + ex.getMessage(),
+                "Database Error",
+                JOptionPane.ERROR_MESSAGE
+        ));
+    }
+
+   
+    private void loadSummaryStats() {
+
+        summaryWorker = new SwingWorker<double[], Void>() {
+            @Override
+            protected double[] doInBackground() throws Exception {
+                return querySummaryStats();
+            }
 
-            // 4) Average occupancy across all events that have capacity
-            String sqlOcc =
-                    "SELECT AVG(1.0 * reg_count / capacity) AS avg_occ " +
-                    "FROM (" +
-                    "   SELECT e.event_id, e.capacity, " +
-                    "          COUNT(r.registration_id) AS reg_count " +
-                    "   FROM events e " +
-                    "   LEFT JOIN registrations r ON r.event_id = e.event_id " +
-                    "   WHERE e.capacity > 0 " +
-                    "   GROUP BY e.event_id, e.capacity" +
-                    ") sub";
-            try (PreparedStatement ps = conn.prepareStatement(sqlOcc);
-                 ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    avgOccupancy = rs.getDouble("avg_occ") * 100.0;
+            @Override
+            protected void done() {
+                if (summaryWorker != this || isCancelled()) {
+                    return;
+                }
+                summaryWorker = null;
+                try {
+                    summaryStats = get();
+                    showSummaryStats(summaryStats);
+
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    JOptionPane.showMessageDialog(
+                            AdminReportsFrame.this,
+                            "Error loading summary stats:\n" + ex.getCause().getMessage(),
+                            "Database Error",
+                            JOptionPane.ERROR_MESSAGE
+                    );
                 }
             }
+        };
+        summaryWorker.execute();
+    }
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Error loading summary stats:\n" + ex.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE
-            );
+    private void showSummaryStats(double[] stats) {
+        lblTotalEvents.setText("Total Events: " + (int) stats[0]);
+        lblTotalCapacity.setText("Total Capacity: " + (int) stats[1]);
+        lblTotalRegistrations.setText("Total Registrations: " + (int) stats[2]);
+        lblTotalWaitlist.setText("Total Waitlist Entries: " + (int) stats[3]);
+        lblAvgOccupancy.setText(String.format("Average Occupancy: %.1f%%", stats[4]));
+    }
+
+    // Runs on the summary worker thread: events, capacity, registrations, waitlist, avg occupancy
+    static double[] querySummaryStats() throws SQLException {
+
+        int totalEvents = 0;
+        int totalCapacity = 0;
+        int totalRegistrations = 0;
+        int totalWaitlist = 0;
+        double avgOccupancy = 0.0;
+
+        try (Connection conn = DBConnectionPool.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SUMMARY_STATS_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) {
+                totalEvents = rs.getInt("cnt");
+                totalCapacity = rs.getInt("total_cap");
+                totalRegistrations = rs.getInt("total_reg");
+                totalWaitlist = rs.getInt("total_wait");
+                avgOccupancy = rs.getDouble("avg_occ") * 100.0;
+            }
         }
 
-        // Update labels
-        lblTotalEvents.setText("Total Events: " + totalEvents);
-        lblTotalCapacity.setText("Total Capacity: " + totalCapacity);
-        lblTotalRegistrations.setText("Total Registrations: " + totalRegistrations);
-        lblTotalWaitlist.setText("Total Waitlist Entries: " + totalWaitlist);
-        lblAvgOccupancy.setText(String.format("Average Occupancy: %.1f%%", avgOccupancy));
+        return new double[]{totalEvents, totalCapacity, totalRegistrations, totalWaitlist, avgOccupancy};
     }
 }
@@ -0,0 +1,179 @@
+package com.mycompany.eventmanagementsystem;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.sql.*;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Loads rows into a DefaultTableModel off the event dispatch thread.
+ *
+ * Each call to {@link #load} cancels the previous load for the same table,
+ * including the JDBC statement it is running. Rows are appended in chunks with
+ * one table event per chunk, and the optional progress bar/label show how many
+ * rows have arrived.
+ */
+public final class AsyncTableLoader {
+
+    /** Produces rows on a background thread; call sink.accept for each row. */
+    public interface RowSource {
+        void fetch(Connection conn, RowSink sink) throws SQLException;
+    }
+
+    public interface RowSink {
+        /** Publishes one row. Throws CancellationException if this load was superseded. */
+        void accept(Object[] row);
+
+        /** Registers a running statement so that cancel() can abort it. */
+        void watch(Statement st);
+    }
+
+    private final DefaultTableModel model;
+    private final JProgressBar progressBar;
+    private final JLabel statusLabel;
+
+    private LoadWorker current;
+
+    public AsyncTableLoader(DefaultTableModel model, JProgressBar progressBar, JLabel statusLabel) {
+        this.model = model;
+        this.progressBar = progressBar;
+        this.statusLabel = statusLabel;
+    }
+
+    /** Must be called on the EDT. */
+    public void load(RowSource source, Consumer<Exception> onError) {
+        cancel();
+        model.setRowCount(0);
+
+        current = new LoadWorker(source, onError);
+        if (progressBar != null) {
+            progressBar.setIndeterminate(true);
+            progressBar.setVisible(true);
+        }
+        setStatus("Loading...");
+        current.execute();
+    }
+
+    /** Cancels the running load, if any. Must be called on the EDT. */
+    public void cancel() {
+        if (current != null) {
+            current.abort();
+            current = null;
+            finishProgress();
+        }
+    }
+
+    public boolean isLoading() {
+        return current != null;
+    }
+
+    private void setStatus(String text) {
+        if (statusLabel != null) {
+            statusLabel.setText(text);
+        }
+    }
+
+    private void finishProgress() {
+        if (progressBar != null) {
+            progressBar.setIndeterminate(false);
+            progressBar.setVisible(false);
+        }
+    }
+
+    private final class LoadWorker extends SwingWorker<Integer, Object[]> implements RowSink {
+
+        private final RowSource source;
+        private final Consumer<Exception> onError;
+        private volatile Statement running;
+        private int loaded;
+
+        LoadWorker(RowSource source, Consumer<Exception> onError) {
+            this.source = source;
+            this.onError = onError;
+        }
+
+        @Override
+        protected Integer doInBackground() throws Exception {
+            try (Connection conn = DBConnectionPool.getConnection()) {
+                source.fetch(conn, this);
+            }
+            return loaded;
+        }
+
+        @Override
+        public void accept(Object[] row) {
+            if (isCancelled()) {
+                throw new CancellationException();
+            }
+            loaded++;
+            publish(row);
+        }
+
+        @Override
+        public void watch(Statement st) {
+            running = st;
+        }
+
+        void abort() {
+            cancel(true);
+            Statement st = running;
+            if (st != null) {
+                try {
+                    st.cancel();
+                } catch (SQLException ignored) {
+                    // the query may already have finished
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected void process(List<Object[]> rows) {
+            if (current != this) {
+                return; // superseded
+            }
+            // one table event per published chunk instead of one per addRow
+            Vector data = model.getDataVector();
+            int first = data.size();
+            for (Object[] row : rows) {
+                Vector<Object> v = new Vector<>(row.length);
+                for (Object o : row) {
+                    v.add(o);
+                }
+                data.add(v);
+            }
+            if (data.size() > first) {
+                model.fireTableRowsInserted(first, data.size() - 1);
+                setStatus("Loading... " + data.size() + " rows");
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (current != this) {
+                return;
+            }
+            current = null;
+            finishProgress();
+
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                int n = get();
+                setStatus(n + (n == 1 ? " row" : " rows"));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (java.util.concurrent.ExecutionException ex) {
+                setStatus("Load failed");
+                Throwable cause = ex.getCause();
+                if (onError != null) {
+                    onError.accept(cause instanceof Exception ? (Exception) cause : ex);
+                }
+            }
+        }
+    }
+}
@@ -1,24 +1,38 @@
 package com.mycompany.eventmanagementsystem;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 public class AttendeeDashboard extends JFrame {
 
+    static final String EVENT_COLUMNS =
+            "event_id, title, category, location, " +
+            "event_date, event_time, capacity, seats_available";
+
     private int attendeeId;
     private String attendeeUsername;
     private String attendeeFullName;
 
     private JTable tblEvents;
-    private DefaultTableModel eventsModel;
+    private PagedTableModel eventsModel;
 
     private JTextField txtCategoryFilter;
     private JTextField txtLocationFilter;
     private JTextField txtDateFilter;
 
-    private JButton btnFilter, btnRegister, btnMyTickets, btnLogout;
+    private JButton btnFilter, btnRegister, btnGroup, btnMyTickets, btnLogout;
+
+    private JProgressBar loadProgress;
+    private JLabel lblStatus;
+
+    // live seat counts and new events while the window is open
+    private EventCatalogCache.Filter currentFilter;
+    private ChangeFeed.Subscription changes;
 
     public AttendeeDashboard(int attendeeId, String username, String fullName) {
         this.attendeeId = attendeeId;
@@ -31,8 +45,56 @@ public class AttendeeDashboard extends JFrame {
         setLocationRelativeTo(null);
         setLayout(new BorderLayout());
 
+        EventSearchIndex.getInstance().warmUp();
+
         initComponents();
-        loadEvents(null, null, null); // load all events initially
+        loadEvents(null, null, null); // load all events initially (in the background)
+
+        changes = ChangeFeed.getInstance().subscribeOnEdt(this::applyChanges);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                changes.close();
+            }
+        });
+    }
+
+    // Seat counts are patched into the loaded rows; a new or edited event that
+    // concerns the current filter reloads the listing once per batch. The attendee
+    // is told if one of their confirmed registrations could not be stored.
+    private void applyChanges(List<ChangeFeed.Change> batch) {
+        boolean reload = false;
+        List<String> rejected = new ArrayList<>();
+        for (ChangeFeed.Change c : batch) {
+            if (c instanceof ChangeFeed.SeatsChanged) {
+                int seats = ((ChangeFeed.SeatsChanged) c).seatsAvailable;
+                eventsModel.patchRows(EventCatalogCache.COL_EVENT_ID, c.eventId, row -> {
+                    row[EventCatalogCache.COL_SEATS_AVAILABLE] = seats;
+                    return row;
+                });
+            } else if (c instanceof ChangeFeed.EventCreated) {
+                ChangeFeed.EventCreated e = (ChangeFeed.EventCreated) c;
+                reload |= currentFilter.matches(e.category, e.location, e.date);
+            } else if (c instanceof ChangeFeed.EventUpdated) {
+                ChangeFeed.EventUpdated e = (ChangeFeed.EventUpdated) c;
+                reload |= eventsModel.findLoadedRow(EventCatalogCache.COL_EVENT_ID, c.eventId) != null
+                        || currentFilter.matches(e.category, e.location, e.date);
+            } else if (c instanceof ChangeFeed.RegistrationRejected) {
+                ChangeFeed.RegistrationRejected r = (ChangeFeed.RegistrationRejected) c;
+                if (r.userId == attendeeId) {
+                    rejected.add("Ticket " + r.ticketId + " (event " + r.eventId + "): " + r.reason);
+                }
+            }
+        }
+        if (reload) {
+            eventsModel.refresh();
+        }
+        if (!rejected.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    "Your registration could not be completed and its ticket is not valid:\n"
+                            + String.join("\n", rejected) + "\nPlease register again.",
+                    "Registration Failed", JOptionPane.WARNING_MESSAGE);
+        }
     }
 
     
@@ -75,6 +137,12 @@ public class AttendeeDashboard extends JFrame {
         txtDateFilter = new JTextField(10);
         topPanel.add(txtDateFilter, gbc);
 
+        EventSearchIndex index = EventSearchIndex.getInstance();
+        AutoComplete.install(txtCategoryFilter,
+                prefix -> index.suggest(EventSearchIndex.Field.CATEGORY, prefix, 8));
+        AutoComplete.install(txtLocationFilter,
+                prefix -> index.suggest(EventSearchIndex.Field.LOCATION, prefix, 8));
+
         gbc.gridx = 0;
         gbc.gridy = 2;
         gbc.gridwidth = 6;
@@ -92,22 +160,39 @@ public class AttendeeDashboard extends JFrame {
                 "Date", "Time", "Capacity", "Available"
         };
 
-        eventsModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-        };
+        // rows are fetched a page at a time as the table scrolls
+        eventsModel = new PagedTableModel(columns, AttendeeDashboard::mapEventRow);
+        eventsModel.setCache(EventCatalogCache.getInstance());
 
         tblEvents = new JTable(eventsModel);
         add(new JScrollPane(tblEvents), BorderLayout.CENTER);
 
-        // ---------- Bottom buttons ----------
+        // ---------- Bottom buttons + load status ----------
         JPanel bottomPanel = new JPanel();
 
+        loadProgress = new JProgressBar();
+        loadProgress.setVisible(false);
+        lblStatus = new JLabel(" ");
+
+        eventsModel.setStatusListener(text -> {
+            lblStatus.setText(text);
+            loadProgress.setIndeterminate(text.startsWith("Loading"));
+            loadProgress.setVisible(text.startsWith("Loading"));
+        });
+        eventsModel.setErrorListener(ex -> JOptionPane.showMessageDialog(
+                this,
+                "Error loading events:\n" + ex.getMessage(),
+                "Database Error",
+                JOptionPane.ERROR_MESSAGE
+        ));
+
         btnRegister = new JButton("Register for Selected Event");
+        btnGroup = new JButton("Register Group...");
         btnMyTickets = new JButton("My Tickets");
         btnLogout = new JButton("Logout");
 
         btnRegister.addActionListener(e -> registerForSelectedEvent());
+        btnGroup.addActionListener(e -> registerGroupForSelectedEvent());
         btnMyTickets.addActionListener(e -> new MyTicketsFrame(attendeeId).setVisible(true));
 
         btnLogout.addActionListener(e -> {
@@ -116,8 +201,11 @@ public class AttendeeDashboard extends JFrame {
         });
 
         bottomPanel.add(btnRegister);
+        bottomPanel.add(btnGroup);
         bottomPanel.add(btnMyTickets);
         bottomPanel.add(btnLogout);
+        bottomPanel.add(loadProgress);
+        bottomPanel.add(lblStatus);
 
         add(bottomPanel, BorderLayout.SOUTH);
     }
@@ -132,68 +220,71 @@ public class AttendeeDashboard extends JFrame {
     }
 
     private void loadEvents(String category, String location, String date) {
-        eventsModel.setRowCount(0);
-
-        String sql = "SELECT event_id, title, category, location, " +
-                     "event_date, event_time, capacity, seats_available " +
-                     "FROM events";
+        // a new filter supersedes any page fetch that is still running
+        currentFilter = new EventCatalogCache.Filter(category, location, date);
+        eventsModel.setQuery(eventsQuery(category, location, date));
+    }
 
-        boolean hasCondition = false;
+    static PagedTableModel.Query eventsQuery(String category, String location, String date) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
 
         if (category != null && !category.isEmpty()) {
-            sql += (hasCondition ? " AND" : " WHERE") + " category LIKE ?";
-            hasCondition = true;
+            addTextFilter(EventSearchIndex.Field.CATEGORY, category, conditions, params);
         }
         if (location != null && !location.isEmpty()) {
-            sql += (hasCondition ? " AND" : " WHERE") + " location LIKE ?";
-            hasCondition = true;
+            addTextFilter(EventSearchIndex.Field.LOCATION, location, conditions, params);
         }
         if (date != null && !date.isEmpty()) {
-            sql += (hasCondition ? " AND" : " WHERE") + " event_date = ?";
-            hasCondition = true;
+            conditions.add("event_date = ?");
+            params.add(date);
         }
 
-        sql += " ORDER BY event_date, event_time";
+        return new PagedTableModel.Query(
+                EVENT_COLUMNS,
+                "events",
+                String.join(" AND ", conditions),
+                params,
+                "event_date", "event_time", "event_id"
+        ).cachedAs(new EventCatalogCache.Filter(category, location, date));
+    }
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    static Object[] mapEventRow(ResultSet rs) throws SQLException {
+        return new Object[]{
+                rs.getInt("event_id"),
+                rs.getString("title"),
+                rs.getString("category"),
+                rs.getString("location"),
+                rs.getString("event_date"),
+                rs.getString("event_time"),
+                rs.getInt("capacity"),
+                rs.getInt("seats_available")
+        };
+    }
 
-            int paramIndex = 1;
 
-            if (category != null && !category.isEmpty()) {
-                ps.setString(paramIndex++, "%" + category + "%");
-            }
-            if (location != null && !location.isEmpty()) {
-                ps.setString(paramIndex++, "%" + location + "%");
-            }
-            if (date != null && !date.isEmpty()) {
-                ps.setString(paramIndex++, date);
-            }
+    // Resolves a substring filter to exact values through the search index so the
+    // query can use the column index; falls back to LIKE while the index is building.
+    private static void addTextFilter(EventSearchIndex.Field field, String text,
+                                      List<String> conditions, List<Object> params) {
+        Set<String> values = EventSearchIndex.getInstance().matching(field, text);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Object[] row = {
-                            rs.getInt("event_id"),
-                            rs.getString("title"),
-                            rs.getString("category"),
-                            rs.getString("location"),
-                            rs.getString("event_date"),
-                            rs.getString("event_time"),
-                            rs.getInt("capacity"),
-                            rs.getInt("seats_available")
-                    };
-                    eventsModel.addRow(row);
-                }
-            }
+        if (values == null) {
+            conditions.add(field.column + " LIKE ?");
+            params.add("%" + text + "%");
+            return;
+        }
+        if (values.isEmpty()) {
+            conditions.add("0"); // nothing matches
+            return;
+        }
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Error loading events:\n" + ex.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE
-            );
+        StringBuilder in = new StringBuilder(field.column).append(" IN (");
+        for (int i = 0; i < values.size(); i++) {
+            in.append(i == 0 ? "?" : ", ?");
         }
+        conditions.add(in.append(")").toString());
+        params.addAll(values);
     }
 
 
@@ -209,165 +300,278 @@ public class AttendeeDashboard extends JFrame {
             return;
         }
 
-        int eventId = (Integer) eventsModel.getValueAt(row, 0);
-        int seatsAvailable = (Integer) eventsModel.getValueAt(row, 7);
+        Object[] selected = eventsModel.getRow(row);
+        if (selected == null) {
+            return; // page still loading
+        }
+        int eventId = (Integer) selected[0];
 
-        try (Connection conn = DBConnection.getConnection()) {
-            if (conn == null) return;
+        btnRegister.setEnabled(false);
 
-            //CASE 1: EVENT IS FULL → WAITLIST 
-            if (seatsAvailable <= 0) {
-                int choice = JOptionPane.showConfirmDialog(
-                        this,
-                        "This event is full.\nWould you like to join the waitlist?",
-                        "Event Full",
-                        JOptionPane.YES_NO_OPTION,
-                        JOptionPane.QUESTION_MESSAGE
-                );
+        // flash sales: the request waits its turn in the event's admission queue
+        WaitingRoom.Token token = WaitingRoom.getInstance().enter(attendeeId, eventId);
+        if (token.getState() == WaitingRoom.State.REJECTED) {
+            btnRegister.setEnabled(true);
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Too many people are registering for this event right now.\n" +
+                    "Please try again in a minute.",
+                    "Waiting Room Full",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
 
-                if (choice != JOptionPane.YES_OPTION) {
-                    return;
-                }
+        JDialog waitDialog = createWaitDialog(token);
 
-                // Check if already on waitlist
-                String waitCheckSql =
-                        "SELECT COUNT(*) AS cnt FROM waitlist " +
-                        "WHERE user_id = ? AND event_id = ?";
-
-                try (PreparedStatement psCheck = conn.prepareStatement(waitCheckSql)) {
-                    psCheck.setInt(1, attendeeId);
-                    psCheck.setInt(2, eventId);
-                    try (ResultSet rs = psCheck.executeQuery()) {
-                        if (rs.next() && rs.getInt("cnt") > 0) {
-                            JOptionPane.showMessageDialog(
-                                    this,
-                                    "You are already on the waitlist for this event.",
-                                    "Waitlist",
-                                    JOptionPane.INFORMATION_MESSAGE
-                            );
-                            return;
-                        }
+        new SwingWorker<RegistrationService.Result, Long>() {
+            @Override
+            protected RegistrationService.Result doInBackground() throws Exception {
+                while (true) {
+                    RegistrationService.Result result = token.await(500, java.util.concurrent.TimeUnit.MILLISECONDS);
+                    if (token.getState() != WaitingRoom.State.WAITING) {
+                        return result;
                     }
+                    publish(token.position());
                 }
+            }
 
-                // Add to waitlist
-                String waitInsertSql =
-                        "INSERT INTO waitlist (user_id, event_id, request_date) " +
-                        "VALUES (?, ?, datetime('now'))";
+            @Override
+            protected void process(List<Long> positions) {
+                JLabel label = (JLabel) waitDialog.getContentPane().getComponent(0);
+                label.setText("You are number " + positions.get(positions.size() - 1)
+                        + " in line. Estimated wait: " + token.estimatedWaitSeconds() + " s");
+                if (!waitDialog.isVisible()) {
+                    waitDialog.setVisible(true);
+                }
+            }
 
-                try (PreparedStatement psWait = conn.prepareStatement(waitInsertSql)) {
-                    psWait.setInt(1, attendeeId);
-                    psWait.setInt(2, eventId);
-                    psWait.executeUpdate();
+            @Override
+            protected void done() {
+                waitDialog.dispose();
+                btnRegister.setEnabled(true);
+                try {
+                    RegistrationService.Result result = get();
+                    if (result != null) {
+                        showRegistrationResult(result);
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    showRegistrationError(ex.getCause());
                 }
+            }
+        }.execute();
+    }
+
+    // Shown only once the request has waited for a while; Leave Queue cancels it.
+    private JDialog createWaitDialog(WaitingRoom.Token token) {
+        JDialog dialog = new JDialog(this, "Waiting Room", false);
+        dialog.setLayout(new BorderLayout(10, 10));
+        JLabel label = new JLabel("Waiting for your turn...", SwingConstants.CENTER);
+        label.setBorder(BorderFactory.createEmptyBorder(15, 15, 5, 15));
+        dialog.add(label, BorderLayout.CENTER);
+
+        JButton btnLeave = new JButton("Leave Queue");
+        btnLeave.addActionListener(e -> {
+            token.cancel();
+            dialog.dispose();
+        });
+        JPanel buttons = new JPanel();
+        buttons.add(btnLeave);
+        dialog.add(buttons, BorderLayout.SOUTH);
+
+        dialog.pack();
+        dialog.setSize(Math.max(dialog.getWidth(), 380), dialog.getHeight());
+        dialog.setLocationRelativeTo(this);
+        return dialog;
+    }
+
+    private void registerGroupForSelectedEvent() {
+        int row = tblEvents.getSelectedRow();
+        if (row == -1) {
+            JOptionPane.showMessageDialog(
+                    this,
+                    "Please select an event to register.",
+                    "No Selection",
+                    JOptionPane.WARNING_MESSAGE
+            );
+            return;
+        }
+
+        Object[] selected = eventsModel.getRow(row);
+        if (selected == null) {
+            return; // page still loading
+        }
 
+        new GroupRegistrationDialog(this, (Integer) selected[0], (String) selected[1],
+                attendeeId, this::applyFilter).setVisible(true);
+    }
+
+    private void showRegistrationResult(RegistrationService.Result result) {
+        switch (result.outcome) {
+            case HELD:
+                confirmHold(result.hold);
+                return;
+
+            case HOLD_EXPIRED:
+                JOptionPane.showMessageDialog(
+                        this,
+                        "Your seat hold ran out before you confirmed, and the seat was released.\n" +
+                        "Please register again.",
+                        "Hold Expired",
+                        JOptionPane.WARNING_MESSAGE
+                );
+                applyFilter();
+                return;
+
+            case CONFIRMED:
                 JOptionPane.showMessageDialog(
                         this,
-                        "You have been added to the waitlist for this event.",
-                        "Waitlist",
+                        "Registration successful!\nYour ticket ID is: " + result.ticketId
+                                + (result.seat == null ? "" : "\nYour seat: " + SeatMap.describe(result.seat)),
+                        "Success",
                         JOptionPane.INFORMATION_MESSAGE
                 );
 
-                return; // do not continue normal registration
-            }
+                // reload events to refresh seats_available
+                applyFilter();
+                return;
 
-            // CASE 2: EVENT HAS SEATS → NORMAL REGISTRATION 
-
-            // 1) Prevent duplicate registration
-            String checkSql =
-                    "SELECT COUNT(*) AS cnt FROM registrations " +
-                    "WHERE user_id = ? AND event_id = ?";
-
-            try (PreparedStatement psCheck = conn.prepareStatement(checkSql)) {
-                psCheck.setInt(1, attendeeId);
-                psCheck.setInt(2, eventId);
-                try (ResultSet rs = psCheck.executeQuery()) {
-                    if (rs.next() && rs.getInt("cnt") > 0) {
-                        JOptionPane.showMessageDialog(
-                                this,
-                                "You are already registered for this event.",
-                                "Already Registered",
-                                JOptionPane.INFORMATION_MESSAGE
-                        );
-                        return;
-                    }
-                }
-            }
+            case ALREADY_REGISTERED:
+                JOptionPane.showMessageDialog(
+                        this,
+                        "You are already registered for this event.",
+                        "Already Registered",
+                        JOptionPane.INFORMATION_MESSAGE
+                );
+                return;
 
-            conn.setAutoCommit(false); // start transaction
+            case UNKNOWN_EVENT:
+                JOptionPane.showMessageDialog(
+                        this,
+                        "This event no longer exists.",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE
+                );
+                applyFilter();
+                return;
 
-            // 2) Insert registration
-            String insertRegSql =
-                    "INSERT INTO registrations (user_id, event_id, registration_date, status) " +
-                    "VALUES (?, ?, datetime('now'), 'CONFIRMED')";
+            default:
+                break;
+        }
 
-            int registrationId;
-            try (PreparedStatement psReg = conn.prepareStatement(insertRegSql)) {
-                psReg.setInt(1, attendeeId);
-                psReg.setInt(2, eventId);
-                psReg.executeUpdate();
-            }
+        // EVENT IS FULL -> offer the waitlist
+        int choice = JOptionPane.showConfirmDialog(
+                this,
+                "This event is full.\nWould you like to join the waitlist?",
+                "Event Full",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.QUESTION_MESSAGE
+        );
 
-            // 3) Get last inserted registration_id
-            try (Statement st = conn.createStatement();
-                 ResultSet rsLast = st.executeQuery("SELECT last_insert_rowid() AS last_id")) {
-                rsLast.next();
-                registrationId = rsLast.getInt("last_id");
-            }
+        if (choice != JOptionPane.YES_OPTION) {
+            return;
+        }
 
-            // 4) Generate ticket ID and insert ticket
-            String ticketId = "T" + registrationId + "E" + eventId;
+        int eventId = result.eventId;
+        btnRegister.setEnabled(false);
 
-            String insertTicketSql =
-                    "INSERT INTO tickets (ticket_id, registration_id) VALUES (?, ?)";
+        new SwingWorker<RegistrationService.Result, Void>() {
+            @Override
+            protected RegistrationService.Result doInBackground() throws Exception {
+                return RegistrationService.getInstance().joinWaitlist(attendeeId, eventId);
+            }
 
-            try (PreparedStatement psTicket = conn.prepareStatement(insertTicketSql)) {
-                psTicket.setString(1, ticketId);
-                psTicket.setInt(2, registrationId);
-                psTicket.executeUpdate();
+            @Override
+            protected void done() {
+                btnRegister.setEnabled(true);
+                try {
+                    showWaitlistResult(get());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    showRegistrationError(ex.getCause());
+                }
             }
+        }.execute();
+    }
 
-            // 5) Decrease seats_available
-            String updateSeatsSql =
-                    "UPDATE events SET seats_available = seats_available - 1 " +
-                    "WHERE event_id = ? AND seats_available > 0";
-
-            try (PreparedStatement psSeats = conn.prepareStatement(updateSeatsSql)) {
-                psSeats.setInt(1, eventId);
-                int updated = psSeats.executeUpdate();
-                if (updated == 0) {
-                    conn.rollback();
-                    conn.setAutoCommit(true);
-                    JOptionPane.showMessageDialog(
-                            this,
-                            "Event just became full. Please try another event.",
-                            "Event Full",
-                            JOptionPane.WARNING_MESSAGE
-                    );
-                    return;
+    // The seat stays held while the user decides; only the answer touches the service.
+    private void confirmHold(SeatHold hold) {
+        String what = hold.seat == null ? "A seat" : "Seat " + SeatMap.describe(hold.seat);
+        int choice = JOptionPane.showConfirmDialog(
+                this,
+                what + " is held for you for " + hold.secondsLeft() + " more seconds.\n" +
+                "Confirm your registration?",
+                "Confirm Registration",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.QUESTION_MESSAGE
+        );
+        boolean confirm = choice == JOptionPane.YES_OPTION;
+        btnRegister.setEnabled(false);
+
+        new SwingWorker<RegistrationService.Result, Void>() {
+            @Override
+            protected RegistrationService.Result doInBackground() throws Exception {
+                RegistrationService service = RegistrationService.getInstance();
+                if (confirm) {
+                    return service.confirmHold(hold);
                 }
+                service.releaseHold(hold);
+                return null;
             }
 
-            conn.commit();
-            conn.setAutoCommit(true);
+            @Override
+            protected void done() {
+                btnRegister.setEnabled(true);
+                try {
+                    RegistrationService.Result result = get();
+                    if (result != null) {
+                        showRegistrationResult(result);
+                    } else {
+                        applyFilter();
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    showRegistrationError(ex.getCause());
+                }
+            }
+        }.execute();
+    }
 
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Registration successful!\nYour ticket ID is: " + ticketId,
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE
-            );
+    private void showWaitlistResult(RegistrationService.Result waitResult) {
+        String message;
+        switch (waitResult.outcome) {
+            case WAITLISTED:
+                message = "You have been added to the waitlist for this event.";
+                break;
+            case ALREADY_WAITLISTED:
+                message = "You are already on the waitlist for this event.";
+                break;
+            case ALREADY_REGISTERED:
+                message = "You are already registered for this event.";
+                break;
+            default:
+                message = "This event no longer exists.";
+                break;
+        }
 
-            // reload events to refresh seats_available
-            applyFilter();
+        JOptionPane.showMessageDialog(
+                this,
+                message,
+                "Waitlist",
+                JOptionPane.INFORMATION_MESSAGE
+        );
+    }
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Error during registration:\n" + ex.getMessage(),
-                    "Database Error",
-                    JOptionPane.ERROR_MESSAGE
-            );
-        }
+    private void showRegistrationError(Throwable ex) {
+        JOptionPane.showMessageDialog(
+                this,
+                "Error during registration:\n" + ex.getMessage(),
+                "Database Error",
+                JOptionPane.ERROR_MESSAGE
+        );
     }
 }
@@ -0,0 +1,135 @@
+package com.mycompany.eventmanagementsystem;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * As-you-type suggestion popup for a text field.
+ */
+public final class AutoComplete {
+
+    private static final int MAX_SUGGESTIONS = 8;
+
+    private final JTextField field;
+    private final Function<String, List<String>> source;
+    private final JPopupMenu popup = new JPopupMenu();
+    private final DefaultListModel<String> listModel = new DefaultListModel<>();
+    private final JList<String> list = new JList<>(listModel);
+    private boolean applying;
+
+    private AutoComplete(JTextField field, Function<String, List<String>> source) {
+        this.field = field;
+        this.source = source;
+
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setFocusable(false);
+        popup.setFocusable(false);
+        popup.add(new JScrollPane(list));
+    }
+
+    /**
+     * @param source returns up to MAX_SUGGESTIONS values for the typed prefix;
+     *               called on the EDT, so it must not touch the database
+     */
+    public static void install(JTextField field, Function<String, List<String>> source) {
+        AutoComplete ac = new AutoComplete(field, source);
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { ac.update(); }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) { ac.update(); }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) { }
+        });
+
+        field.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!ac.popup.isVisible()) {
+                    return;
+                }
+                int i = ac.list.getSelectedIndex();
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN:
+                        ac.list.setSelectedIndex(Math.min(i + 1, ac.listModel.size() - 1));
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_UP:
+                        ac.list.setSelectedIndex(Math.max(i - 1, 0));
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ENTER:
+                        if (i >= 0) {
+                            ac.apply(ac.list.getSelectedValue());
+                            e.consume();
+                        }
+                        break;
+                    case KeyEvent.VK_ESCAPE:
+                        ac.popup.setVisible(false);
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+
+        ac.list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                String value = ac.list.getSelectedValue();
+                if (value != null) {
+                    ac.apply(value);
+                }
+            }
+        });
+    }
+
+    private void update() {
+        if (applying) {
+            return;
+        }
+        // document events fire while the document is locked
+        SwingUtilities.invokeLater(() -> {
+            String text = field.getText().trim();
+            List<String> suggestions = text.isEmpty() ? List.of() : source.apply(text);
+
+            if (suggestions.isEmpty()
+                    || (suggestions.size() == 1 && suggestions.get(0).equalsIgnoreCase(text))) {
+                popup.setVisible(false);
+                return;
+            }
+
+            listModel.clear();
+            for (String s : suggestions.subList(0, Math.min(MAX_SUGGESTIONS, suggestions.size()))) {
+                listModel.addElement(s);
+            }
+            list.setVisibleRowCount(listModel.size());
+            popup.setPopupSize(Math.max(field.getWidth(), 120),
+                    list.getPreferredScrollableViewportSize().height + 6);
+            if (field.isShowing()) {
+                popup.show(field, 0, field.getHeight());
+            }
+        });
+    }
+
+    private void apply(String value) {
+        applying = true;
+        try {
+            field.setText(value);
+        } finally {
+            applying = false;
+        }
+        popup.setVisible(false);
+    }
+}
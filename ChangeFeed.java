@@ -0,0 +1,261 @@
+package com.mycompany.eventmanagementsystem;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process change feed: typed deltas about events, seats, waitlists and
+ * registrations, published by the code that made the change.
+ *
+ * Swing subscribers (subscribeOnEdt) do not get one callback per change. Changes
+ * are queued per subscriber; the first one schedules a delivery one frame
+ * interval later (events.feed.frameMs, default 100), and everything queued by
+ * then arrives on the EDT as one coalesced list: the latest seat count and
+ * waitlist length per event, registrations summed per event. A burst of
+ * thousands of registrations therefore costs each open window at most one
+ * update per frame interval.
+ *
+ * Publishing never blocks and never touches the database.
+ */
+public final class ChangeFeed {
+
+    private static final long FRAME_MS = Long.getLong("events.feed.frameMs", 100L);
+
+    private static final ChangeFeed INSTANCE = new ChangeFeed();
+
+    // ------------------------------------------------------------ deltas
+
+    public abstract static class Change {
+        public final int eventId;
+
+        Change(int eventId) {
+            this.eventId = eventId;
+        }
+    }
+
+    public static final class EventCreated extends Change {
+        public final String title;
+        public final String category;
+        public final String location;
+        public final String date;
+        public final int capacity;
+
+        public EventCreated(int eventId, String title, String category, String location, String date,
+                            int capacity) {
+            super(eventId);
+            this.title = title;
+            this.category = category;
+            this.location = location;
+            this.date = date;
+            this.capacity = capacity;
+        }
+    }
+
+    /** Title, category, location, date or capacity changed; old values are from before the edit. */
+    public static final class EventUpdated extends Change {
+        public final String title;
+        public final String oldCategory;
+        public final String category;
+        public final String location;
+        public final String date;
+        public final int oldCapacity;
+        public final int capacity;
+
+        public EventUpdated(int eventId, String title, String oldCategory, String category,
+                            String location, String date, int oldCapacity, int capacity) {
+            super(eventId);
+            this.title = title;
+            this.oldCategory = oldCategory;
+            this.category = category;
+            this.location = location;
+            this.date = date;
+            this.oldCapacity = oldCapacity;
+            this.capacity = capacity;
+        }
+    }
+
+    public static final class SeatsChanged extends Change {
+        public final int seatsAvailable;
+
+        public SeatsChanged(int eventId, int seatsAvailable) {
+            super(eventId);
+            this.seatsAvailable = seatsAvailable;
+        }
+    }
+
+    public static final class WaitlistChanged extends Change {
+        public final int length;
+        /** Entries added (positive) or removed (negative) since the previous delta. */
+        public final int delta;
+
+        public WaitlistChanged(int eventId, int length, int delta) {
+            super(eventId);
+            this.length = length;
+            this.delta = delta;
+        }
+    }
+
+    public static final class RegistrationCreated extends Change {
+        public final int count;
+
+        public RegistrationCreated(int eventId, int count) {
+            super(eventId);
+            this.count = count;
+        }
+    }
+
+    /**
+     * A registration the caller was told is CONFIRMED could not be written (the
+     * database disagreed with the in-memory inventory). It is recorded in
+     * registration_rejections and the event's inventory is reloaded.
+     */
+    public static final class RegistrationRejected extends Change {
+        public final int registrationId;
+        public final int userId;
+        public final String ticketId;
+        public final String reason;
+
+        public RegistrationRejected(int eventId, int registrationId, int userId, String ticketId, String reason) {
+            super(eventId);
+            this.registrationId = registrationId;
+            this.userId = userId;
+            this.ticketId = ticketId;
+            this.reason = reason;
+        }
+    }
+
+    // ------------------------------------------------------------ subscribers
+
+    public interface Listener {
+        void changed(List<Change> changes);
+    }
+
+    /** Returned by subscribe; close() stops delivery. */
+    public final class Subscription implements AutoCloseable {
+        private final Listener listener;
+        private final boolean onEdt;
+        private final ConcurrentLinkedQueue<Change> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscription(Listener listener, boolean onEdt) {
+            this.listener = listener;
+            this.onEdt = onEdt;
+        }
+
+        void offer(Change change) {
+            if (closed) {
+                return;
+            }
+            if (!onEdt) {
+                listener.changed(List.of(change));
+                return;
+            }
+            pending.add(change);
+            if (scheduled.compareAndSet(false, true)) {
+                timer.schedule(() -> SwingUtilities.invokeLater(this::deliver), FRAME_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void deliver() {
+            scheduled.set(false); // changes from now on schedule the next frame
+            List<Change> batch = new ArrayList<>();
+            for (Change c; (c = pending.poll()) != null; ) {
+                batch.add(c);
+            }
+            if (!closed && !batch.isEmpty()) {
+                listener.changed(coalesce(batch));
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+            pending.clear();
+        }
+    }
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "change-feed");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ChangeFeed() {
+    }
+
+    public static ChangeFeed getInstance() {
+        return INSTANCE;
+    }
+
+    /** Delivers every change on the publishing thread, one at a time. Keep the listener short. */
+    public Subscription subscribe(Listener listener) {
+        Subscription s = new Subscription(listener, false);
+        subscriptions.add(s);
+        return s;
+    }
+
+    /** Delivers coalesced changes on the EDT, at most once per frame interval. */
+    public Subscription subscribeOnEdt(Listener listener) {
+        Subscription s = new Subscription(listener, true);
+        subscriptions.add(s);
+        return s;
+    }
+
+    public void publish(Change change) {
+        for (Subscription s : subscriptions) {
+            try {
+                s.offer(change);
+            } catch (RuntimeException ex) {
+                System.err.println("Change feed listener failed: " + ex);
+            }
+        }
+    }
+
+    /**
+     * Merges a batch in first-seen order: one SeatsChanged and one WaitlistChanged
+     * (latest length, summed delta) per event, RegistrationCreated summed per
+     * event, EventUpdated folded into one per event (first old values, last new
+     * values). EventCreated and RegistrationRejected are kept as is.
+     */
+    static List<Change> coalesce(List<Change> changes) {
+        Map<String, Change> merged = new LinkedHashMap<>();
+        int kept = 0;
+        for (Change c : changes) {
+            if (c instanceof EventCreated || c instanceof RegistrationRejected) {
+                merged.put("kept#" + kept++, c);
+                continue;
+            }
+            String key = c.getClass().getSimpleName() + "#" + c.eventId;
+            Change prev = merged.get(key);
+            if (prev == null) {
+                merged.put(key, c);
+            } else if (c instanceof WaitlistChanged) {
+                WaitlistChanged w = (WaitlistChanged) c;
+                merged.put(key, new WaitlistChanged(c.eventId, w.length, ((WaitlistChanged) prev).delta + w.delta));
+            } else if (c instanceof RegistrationCreated) {
+                merged.put(key, new RegistrationCreated(c.eventId,
+                        ((RegistrationCreated) prev).count + ((RegistrationCreated) c).count));
+            } else if (c instanceof EventUpdated) {
+                EventUpdated first = (EventUpdated) prev;
+                EventUpdated last = (EventUpdated) c;
+                merged.put(key, new EventUpdated(c.eventId, last.title, first.oldCategory, last.category,
+                        last.location, last.date, first.oldCapacity, last.capacity));
+            } else {
+                merged.put(key, c); // SeatsChanged: the latest count wins
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+}
@@ -0,0 +1,147 @@
+package com.mycompany.eventmanagementsystem;
+
+import javax.swing.*;
+import java.awt.*;
+import java.sql.SQLException;
+
+/**
+ * Gate screen for scanning tickets. A barcode scanner types the ticket id into
+ * the scan field followed by Enter; the field is cleared for the next ticket.
+ */
+public class CheckInFrame extends JFrame {
+
+    private final JTextField txtEventId = new JTextField(8);
+    private final JTextField txtGate = new JTextField(8);
+    private final JTextField txtScan = new JTextField(20);
+    private final JLabel lblResult = new JLabel(" ", SwingConstants.CENTER);
+    private final JLabel lblCounts = new JLabel(" ");
+    private final JButton btnLoad = new JButton("Load Event");
+
+    private int eventId = -1;
+
+    public CheckInFrame() {
+        setTitle("Ticket Check-In");
+        setSize(480, 300);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        top.add(new JLabel("Event ID:"));
+        top.add(txtEventId);
+        top.add(new JLabel("Gate:"));
+        txtGate.setText("Gate 1");
+        top.add(txtGate);
+        top.add(btnLoad);
+        add(top, BorderLayout.NORTH);
+
+        JPanel center = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.gridx = 0; gbc.gridy = 0;
+        center.add(new JLabel("Scan ticket:"), gbc);
+        gbc.gridx = 1;
+        center.add(txtScan, gbc);
+        gbc.gridx = 0; gbc.gridy = 1; gbc.gridwidth = 2;
+        lblResult.setFont(lblResult.getFont().deriveFont(Font.BOLD, 22f));
+        lblResult.setOpaque(true);
+        center.add(lblResult, gbc);
+        add(center, BorderLayout.CENTER);
+
+        JPanel bottom = new JPanel(new BorderLayout());
+        bottom.add(lblCounts, BorderLayout.WEST);
+        JButton btnClose = new JButton("Close");
+        btnClose.addActionListener(e -> dispose());
+        JPanel buttons = new JPanel();
+        buttons.add(btnClose);
+        bottom.add(buttons, BorderLayout.EAST);
+        add(bottom, BorderLayout.SOUTH);
+
+        txtScan.setEnabled(false);
+        btnLoad.addActionListener(e -> loadEvent());
+        txtScan.addActionListener(e -> onScan());
+    }
+
+    private void loadEvent() {
+        int id;
+        try {
+            id = Integer.parseInt(txtEventId.getText().trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Please enter a numeric event ID.",
+                    "Validation Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        btnLoad.setEnabled(false);
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                return CheckInService.getInstance().load(id);
+            }
+
+            @Override
+            protected void done() {
+                btnLoad.setEnabled(true);
+                try {
+                    int tickets = get();
+                    eventId = id;
+                    txtScan.setEnabled(true);
+                    txtScan.requestFocusInWindow();
+                    showResult(tickets + " ticket(s) loaded", Color.LIGHT_GRAY);
+                    updateCounts();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    JOptionPane.showMessageDialog(CheckInFrame.this,
+                            "Error loading tickets:\n" + ex.getCause().getMessage(),
+                            ex.getCause() instanceof SQLException ? "Database Error" : "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    // Runs on the EDT: a scan is an in-memory lookup, the database write is deferred.
+    private void onScan() {
+        String ticketId = txtScan.getText().trim();
+        txtScan.setText("");
+        if (ticketId.isEmpty() || eventId < 0) {
+            return;
+        }
+
+        CheckInService.Scan scan = CheckInService.getInstance().scan(eventId, ticketId, txtGate.getText().trim());
+        switch (scan.outcome) {
+            case ADMITTED:
+                showResult("ADMIT  " + scan.ticketId, new Color(0x8BC34A));
+                break;
+            case ALREADY_CHECKED_IN:
+                // stored in UTC; the gate shows its own clock
+                showResult("ALREADY USED at " + java.time.LocalTime.ofInstant(
+                        java.time.Instant.ofEpochMilli(scan.checkedInAt), java.time.ZoneId.systemDefault())
+                        .withNano(0), new Color(0xFF7043));
+                break;
+            case WRONG_EVENT:
+                showResult("WRONG EVENT", new Color(0xFFCA28));
+                break;
+            case EVENT_NOT_LOADED:
+                showResult("Event not loaded", Color.LIGHT_GRAY);
+                break;
+            default:
+                showResult("INVALID TICKET", new Color(0xFF7043));
+                break;
+        }
+        updateCounts();
+    }
+
+    private void showResult(String text, Color background) {
+        lblResult.setText(text);
+        lblResult.setBackground(background);
+    }
+
+    private void updateCounts() {
+        CheckInService service = CheckInService.getInstance();
+        lblCounts.setText(String.format("  Checked in: %d / %d",
+                service.checkedInCount(eventId), service.ticketCount(eventId)));
+    }
+}
@@ -0,0 +1,420 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ticket validation at the event gates.
+ *
+ * Before doors open, load(eventId) reads the event's confirmed tickets into a
+ * primitive open-addressing hash set of registration ids (ticket ids are
+ * "T" + registrationId + "E" + eventId, so the id is parsed from the scan, not
+ * looked up). A parallel array holds the check-in time of each ticket and is set
+ * with compare-and-set, so a scan needs no lock and no database access, and a
+ * second scan of the same ticket is rejected even when two gates race.
+ *
+ * Check-ins are queued and written to check_ins in batches by a background
+ * thread. Check-ins already in the table are loaded with the tickets, so a
+ * restarted gate still rejects tickets that were used. Check-in times are stored
+ * in UTC, like registration dates.
+ *
+ * A ticket issued after load() costs one database lookup. Unknown ids are
+ * remembered per event for events.checkin.missTtlMs (default 5000), and the
+ * registration queue is flushed for such a lookup at most once per
+ * events.checkin.lateFlushMs (default 1000), so a gate fed with bad or foreign
+ * codes does not stall registrations.
+ */
+public final class CheckInService {
+
+    public enum Outcome {
+        ADMITTED,
+        ALREADY_CHECKED_IN,
+        WRONG_EVENT,
+        INVALID,
+        EVENT_NOT_LOADED
+    }
+
+    public static final class Scan {
+        public final Outcome outcome;
+        public final String ticketId;
+        /** Time of the first (accepted) check-in, for ADMITTED and ALREADY_CHECKED_IN. */
+        public final long checkedInAt;
+
+        Scan(Outcome outcome, String ticketId, long checkedInAt) {
+            this.outcome = outcome;
+            this.ticketId = ticketId;
+            this.checkedInAt = checkedInAt;
+        }
+    }
+
+    private static final int FLUSH_BATCH = 500;
+    private static final long FLUSH_INTERVAL_MS = Long.getLong("events.checkin.flushMs", 250L);
+    private static final long MISS_TTL_MS = Long.getLong("events.checkin.missTtlMs", 5_000L);
+    private static final long LATE_FLUSH_MS = Long.getLong("events.checkin.lateFlushMs", 1_000L);
+    private static final int MAX_MISSES = 4096;
+
+    private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // SQL shared with QueryPlanCheck
+    static final String LOAD_TICKETS =
+            "SELECT r.registration_id FROM registrations r " +
+            "JOIN tickets t ON t.registration_id = r.registration_id " +
+            "WHERE r.event_id = ? AND r.status = 'CONFIRMED'";
+    static final String LATE_TICKET =
+            "SELECT 1 FROM registrations r " +
+            "JOIN tickets t ON t.registration_id = r.registration_id " +
+            "WHERE r.registration_id = ? AND r.event_id = ? AND r.status = 'CONFIRMED'";
+    static final String PREVIOUS_CHECK_INS =
+            "SELECT ticket_id, checked_in_at FROM check_ins WHERE event_id = ?";
+    static final String INSERT_CHECK_IN =
+            "INSERT OR IGNORE INTO check_ins (ticket_id, event_id, gate, checked_in_at) VALUES (?, ?, ?, ?)";
+
+    private static final CheckInService INSTANCE = new CheckInService();
+
+    /** Tickets of one event: open addressing over registration ids, linear probing. */
+    private static final class TicketSet {
+        private static final int EMPTY = 0; // registration ids start at 1
+
+        final int eventId;
+        final int[] keys;
+        final AtomicLongArray checkedIn; // epoch millis, 0 = not yet
+        final int mask;
+        final int size;
+        final AtomicInteger admitted = new AtomicInteger();
+
+        // tickets issued after the event was loaded (registrations, promotions)
+        final Map<Integer, Integer> late = new ConcurrentHashMap<>();
+        // ids the database did not know, with the time of the lookup
+        final Map<Integer, Long> misses = new ConcurrentHashMap<>();
+
+        TicketSet(int eventId, int[] ids, int count) {
+            this.eventId = eventId;
+            int cap = Integer.highestOneBit(Math.max(4, count * 2 - 1)) << 1;
+            this.keys = new int[cap];
+            this.checkedIn = new AtomicLongArray(cap);
+            this.mask = cap - 1;
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                if (slotOf(ids[i]) < 0) {
+                    int s = hash(ids[i]) & mask;
+                    while (keys[s] != EMPTY) s = (s + 1) & mask;
+                    keys[s] = ids[i];
+                    n++;
+                }
+            }
+            this.size = n;
+        }
+
+        static int hash(int x) {
+            int h = x * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        /** Slot of the id, or -1 if it is not a valid ticket. */
+        int slotOf(int id) {
+            int s = hash(id) & mask;
+            while (true) {
+                int k = keys[s];
+                if (k == id) return s;
+                if (k == EMPTY) return -1;
+                s = (s + 1) & mask;
+            }
+        }
+    }
+
+    private static final class Record {
+        final String ticketId;
+        final int eventId;
+        final String gate;
+        final long at;
+
+        Record(String ticketId, int eventId, String gate, long at) {
+            this.ticketId = ticketId;
+            this.eventId = eventId;
+            this.gate = gate;
+            this.at = at;
+        }
+    }
+
+    private final Map<Integer, TicketSet> events = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<Record> pending = new LinkedBlockingQueue<>();
+    private final Object flushLock = new Object();
+    private final Object wakeUp = new Object();
+    private final AtomicLong lastLateFlush = new AtomicLong();
+    private final Thread flusher;
+
+    private CheckInService() {
+        flusher = new Thread(this::runFlusher, "checkin-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public static CheckInService getInstance() {
+        return INSTANCE;
+    }
+
+    // ------------------------------------------------------------ loading
+
+    /** Loads (or reloads) the valid tickets and earlier check-ins of the event. Returns the ticket count. */
+    public int load(int eventId) throws SQLException {
+        // tickets still in the write-behind queue must be in the database first
+        RegistrationService.getInstance().flush();
+        flush();
+
+        int[] ids = new int[1024];
+        int count = 0;
+        TicketSet set;
+        try (Connection conn = DBConnectionPool.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(LOAD_TICKETS)) {
+                ps.setInt(1, eventId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (count == ids.length) {
+                            ids = java.util.Arrays.copyOf(ids, count * 2);
+                        }
+                        ids[count++] = rs.getInt(1);
+                    }
+                }
+            }
+            set = new TicketSet(eventId, ids, count);
+
+            try (PreparedStatement ps = conn.prepareStatement(PREVIOUS_CHECK_INS)) {
+                ps.setInt(1, eventId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int reg = registrationIdOf(rs.getString("ticket_id"), eventId);
+                        int slot = reg > 0 ? set.slotOf(reg) : -1;
+                        if (slot >= 0) {
+                            set.checkedIn.set(slot, parseTimestamp(rs.getString("checked_in_at")));
+                            set.admitted.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        }
+        events.put(eventId, set);
+        return set.size;
+    }
+
+    public void unload(int eventId) {
+        events.remove(eventId);
+    }
+
+    public boolean isLoaded(int eventId) {
+        return events.containsKey(eventId);
+    }
+
+    // ------------------------------------------------------------ scanning
+
+    /** Validates a scanned ticket at the gate and records the entry. */
+    public Scan scan(int eventId, String ticketId, String gate) {
+        TicketSet set = events.get(eventId);
+        if (set == null) {
+            return new Scan(Outcome.EVENT_NOT_LOADED, ticketId, 0);
+        }
+        String id = ticketId == null ? "" : ticketId.trim();
+        int reg = registrationIdOf(id, eventId);
+        if (reg == -2) {
+            return new Scan(Outcome.WRONG_EVENT, id, 0);
+        }
+        if (reg <= 0) {
+            return new Scan(Outcome.INVALID, id, 0);
+        }
+
+        long now = System.currentTimeMillis();
+        int slot = set.slotOf(reg);
+        if (slot >= 0) {
+            if (!set.checkedIn.compareAndSet(slot, 0L, now)) {
+                return new Scan(Outcome.ALREADY_CHECKED_IN, id, set.checkedIn.get(slot));
+            }
+        } else {
+            Outcome late = admitLate(set, reg, now);
+            if (late != Outcome.ADMITTED) {
+                return new Scan(late, id, late == Outcome.ALREADY_CHECKED_IN ? set.late.get(reg) * 1000L : 0);
+            }
+        }
+
+        set.admitted.incrementAndGet();
+        // stored in canonical form, whatever leading zeros the scanner sent
+        pending.add(new Record(RegistrationService.ticketIdFor(reg, eventId), eventId, gate, now));
+        if (pending.size() >= FLUSH_BATCH) {
+            synchronized (wakeUp) {
+                wakeUp.notifyAll();
+            }
+        }
+        return new Scan(Outcome.ADMITTED, id, now);
+    }
+
+    // Slow path for tickets issued after load(): one lookup, then remembered.
+    private Outcome admitLate(TicketSet set, int reg, long now) {
+        Integer seen = set.late.get(reg);
+        if (seen != null) {
+            return Outcome.ALREADY_CHECKED_IN;
+        }
+        Long missed = set.misses.get(reg);
+        if (missed != null && now - missed < MISS_TTL_MS) {
+            return Outcome.INVALID;
+        }
+        try {
+            RegistrationService service = RegistrationService.getInstance();
+            // a miss is only remembered when no registration can still be on its way
+            boolean settled = service.pendingWrites() == 0;
+            long last = lastLateFlush.get();
+            if (!settled && now - last >= LATE_FLUSH_MS && lastLateFlush.compareAndSet(last, now)) {
+                service.flush();
+                settled = true;
+            }
+            try (Connection conn = DBConnectionPool.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(LATE_TICKET)) {
+                ps.setInt(1, reg);
+                ps.setInt(2, set.eventId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        if (settled) {
+                            if (set.misses.size() >= MAX_MISSES) {
+                                set.misses.clear();
+                            }
+                            set.misses.put(reg, now);
+                        }
+                        return Outcome.INVALID;
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            System.err.println("Check-in lookup failed: " + ex.getMessage());
+            return Outcome.INVALID;
+        }
+        set.misses.remove(reg);
+        // seconds fit an int; putIfAbsent settles a race between two gates
+        return set.late.putIfAbsent(reg, (int) (now / 1000)) == null
+                ? Outcome.ADMITTED : Outcome.ALREADY_CHECKED_IN;
+    }
+
+    /**
+     * Registration id of a ticket id of the given event; -1 if the id is malformed,
+     * -2 if it is well formed but belongs to another event.
+     */
+    static int registrationIdOf(String ticketId, int eventId) {
+        int len = ticketId.length();
+        if (len < 4 || ticketId.charAt(0) != 'T') {
+            return -1;
+        }
+        long reg = 0;
+        int i = 1;
+        for (; i < len && ticketId.charAt(i) != 'E'; i++) {
+            char c = ticketId.charAt(i);
+            if (c < '0' || c > '9' || reg > Integer.MAX_VALUE) return -1;
+            reg = reg * 10 + (c - '0');
+        }
+        if (i == 1 || i >= len - 1) {
+            return -1;
+        }
+        long event = 0;
+        for (i++; i < len; i++) {
+            char c = ticketId.charAt(i);
+            if (c < '0' || c > '9' || event > Integer.MAX_VALUE) return -1;
+            event = event * 10 + (c - '0');
+        }
+        if (reg > Integer.MAX_VALUE) {
+            return -1;
+        }
+        return event == eventId ? (int) reg : -2;
+    }
+
+    public int checkedInCount(int eventId) {
+        TicketSet set = events.get(eventId);
+        return set == null ? 0 : set.admitted.get();
+    }
+
+    public int ticketCount(int eventId) {
+        TicketSet set = events.get(eventId);
+        return set == null ? 0 : set.size + set.late.size();
+    }
+
+    public int pendingRecords() {
+        return pending.size();
+    }
+
+    // ------------------------------------------------------------ persistence
+
+    /** Writes all queued check-ins now. */
+    public void flush() throws SQLException {
+        synchronized (flushLock) {
+            while (!pending.isEmpty()) {
+                List<Record> batch = new ArrayList<>(FLUSH_BATCH);
+                pending.drainTo(batch, FLUSH_BATCH);
+                try {
+                    write(batch);
+                } catch (SQLException ex) {
+                    // keep them for the next attempt; order does not matter here
+                    pending.addAll(batch);
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            try {
+                synchronized (wakeUp) {
+                    wakeUp.wait(FLUSH_INTERVAL_MS);
+                }
+                flush();
+            } catch (InterruptedException ex) {
+                return;
+            } catch (SQLException ex) {
+                System.err.println("Check-in flush failed, will retry: " + ex.getMessage());
+                try {
+                    TimeUnit.MILLISECONDS.sleep(FLUSH_INTERVAL_MS * 4);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void write(List<Record> batch) throws SQLException {
+        try (Connection conn = DBConnectionPool.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(INSERT_CHECK_IN)) {
+                for (Record r : batch) {
+                    ps.setString(1, r.ticketId);
+                    ps.setInt(2, r.eventId);
+                    ps.setString(3, r.gate);
+                    ps.setString(4, formatTimestamp(r.at));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    static String formatTimestamp(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC).format(TS);
+    }
+
+    private static long parseTimestamp(String s) {
+        try {
+            return LocalDateTime.parse(s, TS).toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (RuntimeException ex) {
+            return 1L; // checked in, time unknown
+        }
+    }
+}
@@ -0,0 +1,614 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+
+/**
+ * Bounded pool of SQLite connections on top of DBConnection.
+ *
+ * Physical connections are opened through DBConnection.getConnection(), tuned
+ * once (WAL, busy timeout, synchronous/cache pragmas) and then handed out as
+ * proxies: close() returns the connection to the pool, and prepareStatement(sql)
+ * is served from a per-connection statement cache so the same SQL text is only
+ * prepared once per physical connection. A cached statement belongs to one
+ * caller until it is closed: preparing the same SQL again meanwhile returns a
+ * fresh uncached statement, and the LRU only evicts statements nobody holds.
+ *
+ * Transactions begin IMMEDIATE: a transaction that reads before it writes would
+ * otherwise fail at once with SQLITE_BUSY when it upgrades to a write while
+ * another connection commits, and busy_timeout only applies to the BEGIN.
+ *
+ * Foreign key enforcement is left at SQLite's default (off); the schema declares
+ * no foreign keys and referential checks are done by the code that writes.
+ *
+ * Statements, result sets and transactions are timed on the way through and
+ * reported to SqlMetrics.
+ */
+public final class DBConnectionPool {
+
+    private static final int MAX_CONNECTIONS =
+            Integer.getInteger("events.db.pool.size", 4);
+    private static final long ACQUIRE_TIMEOUT_MS =
+            Long.getLong("events.db.pool.timeoutMs", 10_000L);
+    private static final int BUSY_TIMEOUT_MS =
+            Integer.getInteger("events.db.busyTimeoutMs", 5_000);
+    private static final int STATEMENT_CACHE_SIZE =
+            Integer.getInteger("events.db.statementCacheSize", 64);
+
+    private static final DBConnectionPool INSTANCE = new DBConnectionPool();
+
+    private final BlockingQueue<PooledConnection> idle = new ArrayBlockingQueue<>(MAX_CONNECTIONS);
+    private final AtomicInteger opened = new AtomicInteger();
+
+    // metrics
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    private DBConnectionPool() {
+    }
+
+    public static DBConnectionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /** Drop-in replacement for DBConnection.getConnection(). */
+    public static Connection getConnection() throws SQLException {
+        return INSTANCE.acquire();
+    }
+
+    public Connection acquire() throws SQLException {
+        acquisitions.incrementAndGet();
+
+        PooledConnection pc = idle.poll();
+        if (pc == null) {
+            pc = tryOpen();
+        }
+        if (pc == null) {
+            long start = System.nanoTime();
+            try {
+                pc = idle.poll(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", ex);
+            }
+            long waited = System.nanoTime() - start;
+            waits.incrementAndGet();
+            waitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            if (pc == null) {
+                throw new SQLException("Timed out after " + ACQUIRE_TIMEOUT_MS
+                        + " ms waiting for a database connection");
+            }
+        }
+
+        if (!pc.isUsable()) {
+            pc.closePhysical();
+            opened.decrementAndGet();
+            return acquire();
+        }
+        return pc.lease();
+    }
+
+    private PooledConnection tryOpen() throws SQLException {
+        while (true) {
+            int n = opened.get();
+            if (n >= MAX_CONNECTIONS) {
+                return null;
+            }
+            if (opened.compareAndSet(n, n + 1)) {
+                break;
+            }
+        }
+        try {
+            Connection physical = openPhysical();
+            if (physical == null) {
+                throw new SQLException("Could not open database connection");
+            }
+            try {
+                configure(physical);
+                DatabaseSetup.ensure(physical);
+            } catch (SQLException ex) {
+                physical.close();
+                throw ex;
+            }
+            return new PooledConnection(physical);
+        } catch (SQLException | RuntimeException ex) {
+            opened.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    // -Devents.db.url points the pool at another database (benchmarks, load tests)
+    private static Connection openPhysical() throws SQLException {
+        String url = System.getProperty("events.db.url");
+        if (url != null && !url.isEmpty()) {
+            return DriverManager.getConnection(url);
+        }
+        return DBConnection.getConnection();
+    }
+
+    private static void configure(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("PRAGMA journal_mode = WAL");
+            st.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            st.execute("PRAGMA synchronous = NORMAL");
+            st.execute("PRAGMA cache_size = -16000");
+            st.execute("PRAGMA temp_store = MEMORY");
+        }
+        if (conn.isWrapperFor(SQLiteConnection.class)) {
+            conn.unwrap(SQLiteConnection.class).getConnectionConfig()
+                    .setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        }
+    }
+
+    private void release(PooledConnection pc) {
+        if (!pc.resetForReuse() || !idle.offer(pc)) {
+            pc.closePhysical();
+            opened.decrementAndGet();
+        }
+    }
+
+    /** Closes every idle connection; leased connections are closed when returned. */
+    public void shutdown() {
+        PooledConnection pc;
+        while ((pc = idle.poll()) != null) {
+            pc.closePhysical();
+            opened.decrementAndGet();
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(opened.get(), idle.size(), acquisitions.get(), waits.get(),
+                waitNanos.get(), maxWaitNanos.get(), statementHits.get(), statementMisses.get());
+    }
+
+    public static final class Stats {
+        public final int openConnections;
+        public final int idleConnections;
+        public final long acquisitions;
+        public final long waits;
+        public final long totalWaitNanos;
+        public final long maxWaitNanos;
+        public final long statementCacheHits;
+        public final long statementCacheMisses;
+
+        Stats(int openConnections, int idleConnections, long acquisitions, long waits,
+              long totalWaitNanos, long maxWaitNanos, long statementCacheHits, long statementCacheMisses) {
+            this.openConnections = openConnections;
+            this.idleConnections = idleConnections;
+            this.acquisitions = acquisitions;
+            this.waits = waits;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+        }
+
+        public double statementHitRatio() {
+            long total = statementCacheHits + statementCacheMisses;
+            return total == 0 ? 0.0 : (double) statementCacheHits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "pool open=%d idle=%d acquisitions=%d waits=%d avgWait=%.2fms maxWait=%.2fms "
+                    + "stmtCache hits=%d misses=%d (%.1f%%)",
+                    openConnections, idleConnections, acquisitions, waits,
+                    waits == 0 ? 0.0 : totalWaitNanos / 1e6 / waits, maxWaitNanos / 1e6,
+                    statementCacheHits, statementCacheMisses, statementHitRatio() * 100.0);
+        }
+    }
+
+    // ------------------------------------------------------------------
+
+    private final class PooledConnection {
+
+        private final Connection physical;
+        // access ordered: iteration starts at the least recently used statement
+        private final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+        // cached statements handed out and not closed yet
+        private final Set<Statement> checkedOut = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean broken;
+        // bumped per lease, so statements of an earlier lease cannot touch the cache
+        private int leases;
+        // transaction timing: 0 while in auto-commit mode
+        private long txStart;
+        private boolean dirty;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection lease() {
+            leases++;
+            return (Connection) Proxy.newProxyInstance(
+                    DBConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+
+        /** The cached statement for sql, checked out to the caller; null if another caller holds it. */
+        PreparedStatement cachedStatement(String sql) throws SQLException {
+            PreparedStatement ps = statements.get(sql);
+            if (ps != null && checkedOut.contains(ps)) {
+                statementMisses.incrementAndGet();
+                return null;
+            }
+            if (ps != null && !ps.isClosed()) {
+                statementHits.incrementAndGet();
+                checkedOut.add(ps);
+                return ps;
+            }
+            statementMisses.incrementAndGet();
+            ps = physical.prepareStatement(sql);
+            statements.put(sql, ps);
+            checkedOut.add(ps);
+            evictIdle();
+            return ps;
+        }
+
+        void checkIn(Statement ps) {
+            checkedOut.remove(ps);
+        }
+
+        private void evictIdle() {
+            Iterator<PreparedStatement> lru = statements.values().iterator();
+            while (statements.size() > STATEMENT_CACHE_SIZE && lru.hasNext()) {
+                PreparedStatement ps = lru.next();
+                if (!checkedOut.contains(ps)) {
+                    closeQuietly(ps);
+                    lru.remove();
+                }
+            }
+        }
+
+        void markDirty() {
+            dirty = true;
+        }
+
+        /** Called after setAutoCommit on the physical connection succeeded. */
+        void autoCommitChanged(boolean autoCommit) {
+            if (!autoCommit) {
+                if (txStart == 0) {
+                    txStart = System.nanoTime();
+                    dirty = false;
+                }
+            } else if (txStart != 0) {
+                // switching back to auto-commit commits pending work
+                if (dirty) {
+                    SqlMetrics.getInstance().recordTransaction(System.nanoTime() - txStart, true);
+                }
+                txStart = 0;
+                dirty = false;
+            }
+        }
+
+        /**
+         * Records a commit or rollback. Rollbacks of transactions that wrote nothing
+         * (the usual finally-block rollback after a commit) are not counted.
+         */
+        void transactionEnded(boolean committed) {
+            if (txStart == 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (committed || dirty) {
+                SqlMetrics.getInstance().recordTransaction(now - txStart, committed);
+            }
+            txStart = now;
+            dirty = false;
+        }
+
+        boolean isUsable() {
+            try {
+                return !broken && !physical.isClosed();
+            } catch (SQLException ex) {
+                return false;
+            }
+        }
+
+        boolean resetForReuse() {
+            // statements the last lease did not close become available again
+            for (Statement st : checkedOut) {
+                try {
+                    PreparedStatement ps = (PreparedStatement) st;
+                    ps.clearParameters();
+                    ps.clearBatch();
+                } catch (SQLException ex) {
+                    broken = true;
+                }
+            }
+            checkedOut.clear();
+            try {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    transactionEnded(false);
+                    physical.setAutoCommit(true);
+                }
+                txStart = 0;
+                dirty = false;
+                return isUsable();
+            } catch (SQLException ex) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            for (PreparedStatement ps : statements.values()) {
+                closeQuietly(ps);
+            }
+            statements.clear();
+            checkedOut.clear();
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+                // nothing useful to do while discarding a connection
+            }
+        }
+    }
+
+    private final class LeaseHandler implements InvocationHandler {
+
+        private final PooledConnection pc;
+        private boolean closed;
+
+        LeaseHandler(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.equals("close")) {
+                if (!closed) {
+                    closed = true;
+                    release(pc);
+                }
+                return null;
+            }
+            if (name.equals("isClosed")) {
+                return closed || pc.physical.isClosed();
+            }
+            if (closed) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            if (name.equals("prepareStatement") && args != null && args.length == 1) {
+                PreparedStatement ps = pc.cachedStatement((String) args[0]);
+                if (ps != null) {
+                    return statementProxy(PreparedStatement.class, pc, ps, (String) args[0], true);
+                }
+                // the cached one is in use (nested use of the same SQL): fall through to a private one
+            }
+            if (name.equals("unwrap") || name.equals("isWrapperFor")) {
+                return method.invoke(pc.physical, args);
+            }
+
+            try {
+                Object result = method.invoke(pc.physical, args);
+                switch (name) {
+                    case "createStatement":
+                        return statementProxy(Statement.class, pc, (Statement) result, null, false);
+                    case "prepareStatement":
+                        return statementProxy(PreparedStatement.class, pc, (Statement) result, (String) args[0], false);
+                    case "prepareCall":
+                        return statementProxy(CallableStatement.class, pc, (Statement) result, (String) args[0], false);
+                    case "setAutoCommit":
+                        pc.autoCommitChanged((Boolean) args[0]);
+                        break;
+                    case "commit":
+                        pc.transactionEnded(true);
+                        break;
+                    case "rollback":
+                        if (args == null) {
+                            pc.transactionEnded(false);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                return result;
+            } catch (InvocationTargetException ex) {
+                if (ex.getCause() instanceof SQLException && !pc.physical.isValid(1)) {
+                    pc.broken = true;
+                }
+                throw ex.getCause();
+            }
+        }
+    }
+
+    /**
+     * Times every execute call on a statement and records it in SqlMetrics,
+     * together with the parameters bound so far (for the slow-query log).
+     *
+     * For a cached statement, close() only clears parameters, closes any open
+     * result set and checks the statement back in: the statement must survive the
+     * caller's try-with-resources block. The proxy itself is unusable afterwards.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+
+        private static final Object[] NO_PARAMS = new Object[0];
+
+        private final PooledConnection pc;
+        private final Statement target;
+        private final String sql;      // null for plain Statements
+        private final boolean cached;
+        private final int lease;
+        private boolean closed;
+        private Object[] params = NO_PARAMS;
+
+        StatementHandler(PooledConnection pc, Statement target, String sql, boolean cached) {
+            this.pc = pc;
+            this.target = target;
+            this.sql = sql;
+            this.cached = cached;
+            this.lease = pc.leases;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.equals("close")) {
+                params = NO_PARAMS;
+                if (!cached) {
+                    target.close();
+                    return null;
+                }
+                if (closed || lease != pc.leases) {
+                    closed = true; // checked in by resetForReuse already
+                    return null;
+                }
+                closed = true;
+                try {
+                    ResultSet open = target.getResultSet();
+                    if (open != null) {
+                        open.close();
+                    }
+                    PreparedStatement ps = (PreparedStatement) target;
+                    ps.clearParameters();
+                    ps.clearBatch();
+                } finally {
+                    pc.checkIn(target);
+                }
+                return null;
+            }
+            if (name.equals("isClosed") && cached) {
+                return closed || lease != pc.leases || target.isClosed();
+            }
+            if (closed || (cached && lease != pc.leases)) {
+                // the statement now belongs to the cache, and maybe to another caller
+                throw new SQLException("Statement has been closed");
+            }
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                params = NO_PARAMS;
+            }
+            return invokeTarget(method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String text = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            boolean query = method.getName().equals("executeQuery");
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invokeTarget(method, args);
+            } catch (Throwable ex) {
+                SqlMetrics.getInstance().recordStatement(text, System.nanoTime() - start, -1, params, true);
+                throw ex;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (!query) {
+                pc.markDirty();
+            }
+
+            long rows = -1;
+            if (result instanceof Integer || result instanceof Long) {
+                rows = ((Number) result).longValue();
+            } else if (result instanceof int[]) {
+                rows = 0;
+                for (int n : (int[]) result) {
+                    rows += Math.max(n, 0);
+                }
+            } else if (result instanceof long[]) {
+                rows = 0;
+                for (long n : (long[]) result) {
+                    rows += Math.max(n, 0);
+                }
+            }
+            SqlMetrics.getInstance().recordStatement(text, elapsed, rows, params, false);
+
+            if (query && result instanceof ResultSet) {
+                return countingResultSet((ResultSet) result, text);
+            }
+            return result;
+        }
+
+        private void bind(int index, Object value) {
+            if (index < 1 || index > 1000) {
+                return;
+            }
+            if (index > params.length) {
+                params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+            }
+            params[index - 1] = value;
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+
+    /** Counts rows as they are read and reports them once the result set is exhausted or closed. */
+    private static ResultSet countingResultSet(ResultSet target, String sql) {
+        long[] rows = {0};
+        boolean[] reported = {false};
+        return (ResultSet) Proxy.newProxyInstance(
+                DBConnectionPool.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("next")) {
+                        boolean more = target.next();
+                        if (more) {
+                            rows[0]++;
+                        } else if (!reported[0]) {
+                            reported[0] = true;
+                            SqlMetrics.getInstance().recordRows(sql, rows[0]);
+                        }
+                        return more;
+                    }
+                    if (name.equals("close") && !reported[0]) {
+                        reported[0] = true;
+                        SqlMetrics.getInstance().recordRows(sql, rows[0]);
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    private static <T extends Statement> T statementProxy(Class<T> type, PooledConnection pc,
+                                                          Statement target, String sql, boolean cached) {
+        return type.cast(Proxy.newProxyInstance(
+                DBConnectionPool.class.getClassLoader(),
+                new Class<?>[]{type},
+                new StatementHandler(pc, target, sql, cached)));
+    }
+
+    private static void closeQuietly(Statement st) {
+        try {
+            st.close();
+        } catch (SQLException ignored) {
+            // statement is being evicted anyway
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Versioned schema migrations. Runs once, on the first physical connection
+ * opened by DBConnectionPool.
+ *
+ * The schema version is kept in PRAGMA user_version. Every migration above the
+ * stored version runs in its own transaction together with the version bump, so
+ * a failed migration leaves the database at the previous version and is retried
+ * on the next start. Databases created before versioning report version 0; the
+ * first migrations use IF NOT EXISTS so they are no-ops on such files.
+ */
+final class DatabaseSetup {
+
+    @FunctionalInterface
+    interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    static final class Migration {
+        final int version;
+        final String description;
+        final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    // append only: a released migration must never change
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "base tables", conn -> {
+                createBaseTables(conn);
+                // filters resolved by EventSearchIndex query "category IN (...)" / "location IN (...)"
+                try (Statement st = conn.createStatement()) {
+                    st.execute("CREATE INDEX IF NOT EXISTS idx_events_category " +
+                               "ON events (category, event_date, event_time, event_id)");
+                    st.execute("CREATE INDEX IF NOT EXISTS idx_events_location " +
+                               "ON events (location, event_date, event_time, event_id)");
+                }
+            }),
+            new Migration(2, "report statistics tables and triggers", ReportStats::createSchema),
+            new Migration(3, "indexes for registration, waitlist and listing queries", DatabaseSetup::hotPathIndexes),
+            new Migration(4, "seat maps", DatabaseSetup::seatMaps),
+            new Migration(5, "registration velocity rollups", RegistrationVelocity::createSchema),
+            new Migration(6, "rejected registrations", DatabaseSetup::registrationRejections)
+    );
+
+    static final int LATEST_VERSION = MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+
+    private static volatile boolean done;
+
+    private DatabaseSetup() {
+    }
+
+    static void ensure(Connection conn) throws SQLException {
+        if (done) {
+            return;
+        }
+        synchronized (DatabaseSetup.class) {
+            if (done) {
+                return;
+            }
+            migrate(conn);
+            done = true;
+        }
+    }
+
+    /** Brings the database up to LATEST_VERSION; returns the number of migrations applied. */
+    static int migrate(Connection conn) throws SQLException {
+        int current = userVersion(conn);
+        if (current > LATEST_VERSION) {
+            throw new SQLException("Database schema version " + current
+                    + " is newer than this application supports (" + LATEST_VERSION + ")");
+        }
+
+        int applied = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        for (Migration m : MIGRATIONS) {
+            if (m.version <= current) {
+                continue;
+            }
+            conn.setAutoCommit(false);
+            try {
+                m.step.apply(conn);
+                try (Statement st = conn.createStatement()) {
+                    st.execute("PRAGMA user_version = " + m.version);
+                }
+                conn.commit();
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw new SQLException("Schema migration " + m.version + " (" + m.description
+                        + ") failed: " + ex.getMessage(), ex);
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    static int userVersion(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Duplicate checks look up (user_id, event_id), per-event reads go by
+     * event_id, the waitlist is read FIFO per event and listings are ordered by
+     * date and time. registration_id and waitlist_id are rowids, so they are
+     * part of every index on their table without being listed.
+     */
+    private static void hotPathIndexes(Connection conn) throws SQLException {
+        requireUnique(conn, "registrations", "user_id, event_id");
+        requireUnique(conn, "waitlist", "user_id, event_id");
+        requireUnique(conn, "tickets", "registration_id");
+
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_registrations_user_event " +
+                       "ON registrations (user_id, event_id)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_registrations_event " +
+                       "ON registrations (event_id, status, user_id)");
+            st.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_waitlist_user_event " +
+                       "ON waitlist (user_id, event_id)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_waitlist_fifo " +
+                       "ON waitlist (event_id, request_date, waitlist_id, user_id)");
+            st.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_tickets_registration " +
+                       "ON tickets (registration_id)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_events_date " +
+                       "ON events (event_date, event_time, event_id)");
+            st.execute("ANALYZE");
+        }
+    }
+
+    /** Layout per event in seat_sections; the assigned seat of a registration in registrations.seat. */
+    private static void seatMaps(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS seat_sections (" +
+                       "  event_id INTEGER NOT NULL," +
+                       "  section_no INTEGER NOT NULL," +
+                       "  name TEXT NOT NULL," +
+                       "  row_count INTEGER NOT NULL," +
+                       "  seats_per_row INTEGER NOT NULL," +
+                       "  PRIMARY KEY (event_id, section_no))");
+            if (!hasColumn(conn, "registrations", "seat")) {
+                st.execute("ALTER TABLE registrations ADD COLUMN seat TEXT");
+            }
+            // a seat can be sold once; general admission registrations have no seat
+            st.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_registrations_seat " +
+                       "ON registrations (event_id, seat) WHERE seat IS NOT NULL");
+        }
+    }
+
+    /**
+     * Registrations the write-behind could not apply although the caller was told
+     * CONFIRMED; kept with the reason instead of being dropped.
+     */
+    private static void registrationRejections(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS registration_rejections (" +
+                       "  registration_id INTEGER PRIMARY KEY," +
+                       "  user_id INTEGER NOT NULL," +
+                       "  event_id INTEGER NOT NULL," +
+                       "  ticket_id TEXT," +
+                       "  registration_date TEXT NOT NULL," +
+                       "  seat TEXT," +
+                       "  reason TEXT NOT NULL," +
+                       "  rejected_at TEXT NOT NULL)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_registration_rejections_event " +
+                       "ON registration_rejections (event_id, user_id)");
+        }
+    }
+
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // a unique index cannot be built over duplicates; they have to be resolved by hand
+    private static void requireUnique(Connection conn, String table, String columns) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT COUNT(*) FROM (SELECT 1 FROM " + table +
+                     " GROUP BY " + columns + " HAVING COUNT(*) > 1)")) {
+            int duplicates = rs.next() ? rs.getInt(1) : 0;
+            if (duplicates > 0) {
+                throw new SQLException(table + " has " + duplicates + " duplicated ("
+                        + columns + ") value(s); remove the extra rows and restart");
+            }
+        }
+    }
+
+    static void createBaseTables(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS users (" +
+                       "  user_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                       "  username TEXT NOT NULL UNIQUE," +
+                       "  password TEXT NOT NULL," +
+                       "  full_name TEXT," +
+                       "  role TEXT NOT NULL DEFAULT 'ATTENDEE')");
+            st.execute("CREATE TABLE IF NOT EXISTS events (" +
+                       "  event_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                       "  title TEXT NOT NULL," +
+                       "  category TEXT NOT NULL," +
+                       "  location TEXT NOT NULL," +
+                       "  event_date TEXT NOT NULL," +
+                       "  event_time TEXT NOT NULL," +
+                       "  capacity INTEGER NOT NULL," +
+                       "  seats_available INTEGER NOT NULL)");
+            st.execute("CREATE TABLE IF NOT EXISTS registrations (" +
+                       "  registration_id INTEGER PRIMARY KEY," +
+                       "  user_id INTEGER NOT NULL," +
+                       "  event_id INTEGER NOT NULL," +
+                       "  registration_date TEXT NOT NULL," +
+                       "  status TEXT NOT NULL)");
+            st.execute("CREATE TABLE IF NOT EXISTS tickets (" +
+                       "  ticket_id TEXT PRIMARY KEY," +
+                       "  registration_id INTEGER NOT NULL)");
+            st.execute("CREATE TABLE IF NOT EXISTS waitlist (" +
+                       "  waitlist_id INTEGER PRIMARY KEY," +
+                       "  user_id INTEGER NOT NULL," +
+                       "  event_id INTEGER NOT NULL," +
+                       "  request_date TEXT NOT NULL)");
+            // written in batches by CheckInService
+            st.execute("CREATE TABLE IF NOT EXISTS check_ins (" +
+                       "  ticket_id TEXT PRIMARY KEY," +
+                       "  event_id INTEGER NOT NULL," +
+                       "  gate TEXT," +
+                       "  checked_in_at TEXT NOT NULL)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_check_ins_event ON check_ins (event_id)");
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.util.*;
+
+/**
+ * Read-through cache for the attendee event catalogue.
+ *
+ * Entries are keyed by the normalized filter (category, location, date) plus the
+ * page index, with one extra entry per filter for the row count. The cache is an
+ * access-ordered LRU with a TTL. Writes do not clear it wholesale:
+ * <ul>
+ *   <li>a seat count change is only recorded; pages pick it up when they are
+ *       stored or read, so the publisher never walks the cache,</li>
+ *   <li>a new or edited event drops only the entries of filters it matched before
+ *       or matches now.</li>
+ * </ul>
+ * Seat counts carry the publisher's sequence number; one older than the count
+ * already held for the event is dropped. The latest counts bridge the
+ * write-behind lag only: they expire after events.cache.seatsTtlMs (default
+ * 10000), after which rows read from the database are taken as they are.
+ */
+public final class EventCatalogCache implements PagedTableModel.PageCache {
+
+    // column positions in an events row (see AttendeeDashboard)
+    static final int COL_EVENT_ID = 0;
+    static final int COL_SEATS_AVAILABLE = 7;
+
+    private static final int MAX_ENTRIES = Integer.getInteger("events.cache.maxEntries", 256);
+    private static final long TTL_MILLIS = Long.getLong("events.cache.ttlMs", 30_000L);
+    private static final long SEATS_TTL_MILLIS = Long.getLong("events.cache.seatsTtlMs", 10_000L);
+    private static final int COUNT_PAGE = -1;
+
+    private static final EventCatalogCache INSTANCE = new EventCatalogCache();
+
+    /** Normalized attendee filter; blank parts mean "any". */
+    public static final class Filter {
+        final String category;
+        final String location;
+        final String date;
+
+        public Filter(String category, String location, String date) {
+            this.category = normalize(category);
+            this.location = normalize(location);
+            this.date = date == null ? "" : date.trim();
+        }
+
+        private static String normalize(String s) {
+            return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+        }
+
+        boolean matches(String eventCategory, String eventLocation, String eventDate) {
+            return contains(eventCategory, category)
+                    && contains(eventLocation, location)
+                    && (date.isEmpty() || date.equals(eventDate));
+        }
+
+        private static boolean contains(String value, String part) {
+            return part.isEmpty()
+                    || (value != null && value.toLowerCase(Locale.ROOT).contains(part));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Filter)) return false;
+            Filter f = (Filter) o;
+            return category.equals(f.category) && location.equals(f.location) && date.equals(f.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, location, date);
+        }
+    }
+
+    private static final class Key {
+        final Filter filter;
+        final int page;
+
+        Key(Filter filter, int page) {
+            this.filter = filter;
+            this.page = page;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return page == k.page && filter.equals(k.filter);
+        }
+
+        @Override
+        public int hashCode() {
+            return filter.hashCode() * 31 + page;
+        }
+    }
+
+    private static final class Entry {
+        final long expiresAt;
+        final int count;
+        Object[][] rows;
+        final Object[] lastKey;
+        // seat counts recorded after this were not seen by the rows
+        final long sequence;
+
+        Entry(long expiresAt, int count, Object[][] rows, Object[] lastKey, long sequence) {
+            this.expiresAt = expiresAt;
+            this.count = count;
+            this.rows = rows;
+            this.lastKey = lastKey;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Seats {
+        final int available;
+        final long sequence;
+        final long expiresAt;
+
+        Seats(int available, long sequence, long expiresAt) {
+            this.available = available;
+            this.sequence = sequence;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public static final class Stats {
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        public final long expirations;
+        public final long invalidations;
+        public final long patches;
+        public final int size;
+
+        Stats(long hits, long misses, long evictions, long expirations,
+              long invalidations, long patches, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+            this.patches = patches;
+            this.size = size;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("catalog cache size=%d hits=%d misses=%d evictions=%d "
+                    + "expirations=%d invalidations=%d patches=%d",
+                    size, hits, misses, evictions, expirations, invalidations, patches);
+        }
+    }
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > MAX_ENTRIES) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // bumped on every invalidation so that reads started earlier are not stored
+    private long version;
+
+    // Most recent in-memory seat counts. The database lags behind the write-behind
+    // queue, so pages are corrected with these values when stored and when read.
+    private final LinkedHashMap<Integer, Seats> latestSeats = new LinkedHashMap<Integer, Seats>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Seats> eldest) {
+            return size() > 4096;
+        }
+    };
+
+    // highest sequence number recorded in latestSeats
+    private long lastSequence;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+    private long patches;
+
+    private EventCatalogCache() {
+    }
+
+    public static EventCatalogCache getInstance() {
+        return INSTANCE;
+    }
+
+    // ------------------------------------------------------------ PageCache
+
+    @Override
+    public synchronized long version() {
+        return version;
+    }
+
+    @Override
+    public synchronized Integer count(Object filter) {
+        Entry e = get(new Key((Filter) filter, COUNT_PAGE));
+        return e == null ? null : e.count;
+    }
+
+    @Override
+    public synchronized void putCount(Object filter, int count, long readVersion) {
+        if (readVersion == version) {
+            entries.put(new Key((Filter) filter, COUNT_PAGE),
+                    new Entry(System.currentTimeMillis() + TTL_MILLIS, count, null, null, lastSequence));
+        }
+    }
+
+    @Override
+    public synchronized PagedTableModel.CachedPage page(Object filter, int page) {
+        Entry e = get(new Key((Filter) filter, page));
+        if (e == null) {
+            return null;
+        }
+        if (e.sequence < lastSequence) {
+            Object[][] rows = e.rows;
+            for (int i = 0; i < rows.length; i++) {
+                Object id = rows[i][COL_EVENT_ID];
+                // counts recorded after the page was stored apply even once their bridge TTL is over
+                Seats s = id instanceof Integer ? latestSeats.get(id) : null;
+                if (s != null && s.sequence > e.sequence
+                        && !Integer.valueOf(s.available).equals(rows[i][COL_SEATS_AVAILABLE])) {
+                    if (rows == e.rows) {
+                        rows = rows.clone(); // rows may be shared with a table model
+                    }
+                    rows[i] = rows[i].clone();
+                    rows[i][COL_SEATS_AVAILABLE] = s.available;
+                    patches++;
+                }
+            }
+            e.rows = rows;
+        }
+        return new PagedTableModel.CachedPage(e.rows, e.lastKey);
+    }
+
+    @Override
+    public synchronized void putPage(Object filter, int page, Object[][] rows, Object[] lastKey, long readVersion) {
+        if (readVersion == version) {
+            for (int i = 0; i < rows.length; i++) {
+                Object id = rows[i][COL_EVENT_ID];
+                Integer seats = id instanceof Integer ? latest((Integer) id) : null;
+                if (seats != null) {
+                    rows[i] = rows[i].clone();
+                    rows[i][COL_SEATS_AVAILABLE] = seats;
+                }
+            }
+            entries.put(new Key((Filter) filter, page),
+                    new Entry(System.currentTimeMillis() + TTL_MILLIS, rows.length, rows, lastKey, lastSequence));
+        }
+    }
+
+    private Entry get(Key key) {
+        Entry e = entries.get(key);
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        if (e.expiresAt < System.currentTimeMillis()) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return e;
+    }
+
+    // ------------------------------------------------------------ writes
+
+    /**
+     * Records the seat count of the event for the cached pages that hold it,
+     * unless a count with a higher sequence number was already recorded.
+     * Constant time: the pages are corrected when they are read.
+     */
+    public synchronized void seatsChanged(int eventId, int seatsAvailable, long sequence) {
+        Seats current = latestSeats.get(eventId);
+        if (current != null && current.sequence >= sequence) {
+            return; // published late by a thread that read the counter earlier
+        }
+        latestSeats.put(eventId, new Seats(seatsAvailable, sequence, System.currentTimeMillis() + SEATS_TTL_MILLIS));
+        lastSequence = Math.max(lastSequence, sequence);
+    }
+
+    /** The latest in-memory seat count of the event, or null if none was seen recently. */
+    public synchronized Integer latestSeats(int eventId) {
+        return latest(eventId);
+    }
+
+    private Integer latest(int eventId) {
+        Seats s = latestSeats.get(eventId);
+        if (s == null || s.expiresAt < System.currentTimeMillis()) {
+            // kept for its sequence number until evicted: a late older count is still dropped
+            return null;
+        }
+        return s.available;
+    }
+
+    /** A new event shifts the pages of every filter it matches. */
+    public synchronized void eventAdded(String category, String location, String date) {
+        version++;
+        entries.keySet().removeIf(k -> {
+            boolean hit = k.filter.matches(category, location, date);
+            if (hit) invalidations++;
+            return hit;
+        });
+    }
+
+    /** Drops the filters the event matched before the edit and the ones it matches now. */
+    public synchronized void eventChanged(String oldCategory, String oldLocation, String oldDate,
+                                         String category, String location, String date) {
+        version++;
+        entries.keySet().removeIf(k -> {
+            boolean hit = k.filter.matches(oldCategory, oldLocation, oldDate)
+                    || k.filter.matches(category, location, date);
+            if (hit) invalidations++;
+            return hit;
+        });
+    }
+
+    public synchronized void clear() {
+        version++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, expirations, invalidations, patches, entries.size());
+    }
+}
@@ -0,0 +1,602 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Bulk import of events from CSV or JSON Lines files.
+ *
+ * The file is read one record at a time, so memory use does not grow with the
+ * file. Rows are validated like AddEventFrame.onSave and inserted with
+ * addBatch/executeBatch, one transaction per chunk. Rows that fail validation
+ * (or the insert) are written to a reject file together with the reason.
+ * Every committed event is published to ChangeFeed as EventCreated.
+ *
+ * CSV files need a header row naming the columns title, category, location,
+ * date (or event_date), time (or event_time) and capacity, in any order. JSON
+ * Lines files hold one flat object per line with the same keys.
+ */
+public final class EventImporter {
+
+    public enum Format { CSV, JSONL }
+
+    static final String[] FIELDS = {"title", "category", "location", "date", "time", "capacity"};
+
+    private static final int CHUNK_SIZE = Integer.getInteger("events.import.chunkSize", 500);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO events " +
+            "(title, category, location, event_date, event_time, capacity, seats_available) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    public interface ProgressListener {
+        void progress(long imported, long rejected);
+    }
+
+    public static final class Result {
+        public final long imported;
+        public final long rejected;
+        public final long elapsedNanos;
+        public final File rejectFile;
+
+        Result(long imported, long rejected, long elapsedNanos, File rejectFile) {
+            this.imported = imported;
+            this.rejected = rejected;
+            this.elapsedNanos = elapsedNanos;
+            this.rejectFile = rejectFile;
+        }
+
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : (imported + rejected) / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d imported, %d rejected in %.1f s (%.0f rows/s)",
+                    imported, rejected, elapsedNanos / 1e9, rowsPerSecond());
+        }
+    }
+
+    /** One parsed record; values are keyed by canonical field name. */
+    private static final class Row {
+        final long line;
+        final String raw;
+        final Map<String, String> values;
+        final String parseError;
+
+        Row(long line, String raw, Map<String, String> values, String parseError) {
+            this.line = line;
+            this.raw = raw;
+            this.values = values;
+            this.parseError = parseError;
+        }
+
+        String get(String field) {
+            String v = values.get(field);
+            return v == null ? "" : v.trim();
+        }
+    }
+
+    private final Format format;
+    private final ProgressListener listener;
+    private long imported;
+    private long rejected;
+
+    private EventImporter(Format format, ProgressListener listener) {
+        this.format = format;
+        this.listener = listener;
+    }
+
+    public static Format formatOf(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")
+                ? Format.JSONL : Format.CSV;
+    }
+
+    /** Rejects go next to the input, e.g. sessions.csv -> sessions.rejects.csv. */
+    public static File defaultRejectFile(File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String ext = dot > 0 ? name.substring(dot) : "";
+        return new File(file.getAbsoluteFile().getParentFile(), base + ".rejects" + ext);
+    }
+
+    public static Result importFile(File file, ProgressListener listener) throws IOException, SQLException {
+        return importFile(file, formatOf(file), defaultRejectFile(file), listener);
+    }
+
+    public static Result importFile(File file, Format format, File rejectFile,
+                                    ProgressListener listener) throws IOException, SQLException {
+        EventImporter importer = new EventImporter(format, listener);
+        long start = System.nanoTime();
+
+        try (Reader in = new BufferedReader(new InputStreamReader(
+                     new FileInputStream(file), StandardCharsets.UTF_8), 64 * 1024);
+             RejectWriter rejects = new RejectWriter(rejectFile, format);
+             Connection conn = DBConnectionPool.getConnection()) {
+
+            RecordSource source = format == Format.CSV ? new CsvSource(in) : new JsonLinesSource(in);
+            importer.run(source, rejects, conn);
+        } finally {
+            if (importer.imported > 0) {
+                EventSearchIndex.getInstance().invalidate();
+                EventSearchIndex.getInstance().warmUp();
+                EventCatalogCache.getInstance().clear();
+            }
+        }
+
+        File rejectsWritten = importer.rejected > 0 ? rejectFile : null;
+        if (rejectsWritten == null) {
+            rejectFile.delete();
+        }
+        return new Result(importer.imported, importer.rejected, System.nanoTime() - start, rejectsWritten);
+    }
+
+    private void run(RecordSource source, RejectWriter rejects, Connection conn)
+            throws IOException, SQLException {
+
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+            Row row;
+            while ((row = source.next()) != null) {
+                String error = row.parseError != null ? row.parseError
+                        : AddEventFrame.validate(row.get("title"), row.get("category"), row.get("location"),
+                                                 row.get("date"), row.get("time"), row.get("capacity"));
+                if (error != null) {
+                    reject(rejects, row, error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    insertChunk(conn, ps, chunk, rejects);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(conn, ps, chunk, rejects);
+            }
+        } finally {
+            conn.rollback();
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void insertChunk(Connection conn, PreparedStatement ps, List<Row> chunk, RejectWriter rejects)
+            throws IOException, SQLException {
+        try {
+            for (Row r : chunk) {
+                bind(ps, r);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            // AUTOINCREMENT ids of one transaction are consecutive: the chunk holds the write lock
+            int lastId = lastInsertId(conn);
+            conn.commit();
+            imported += chunk.size();
+            EventCatalogCache.getInstance().clear();
+            for (int i = 0; i < chunk.size(); i++) {
+                created(chunk.get(i), lastId - chunk.size() + 1 + i);
+            }
+        } catch (BatchUpdateException ex) {
+            // find the offending rows one at a time; the rest of the chunk still goes in
+            ps.clearBatch();
+            conn.rollback();
+            for (Row r : chunk) {
+                try {
+                    bind(ps, r);
+                    ps.executeUpdate();
+                    int eventId = lastInsertId(conn);
+                    conn.commit();
+                    imported++;
+                    EventCatalogCache.getInstance().clear();
+                    created(r, eventId);
+                } catch (SQLException rowEx) {
+                    conn.rollback();
+                    reject(rejects, r, rowEx.getMessage());
+                }
+            }
+        }
+        progress();
+    }
+
+    private static void bind(PreparedStatement ps, Row r) throws SQLException {
+        int capacity = Integer.parseInt(r.get("capacity"));
+        ps.setString(1, r.get("title"));
+        ps.setString(2, r.get("category"));
+        ps.setString(3, r.get("location"));
+        ps.setString(4, r.get("date"));
+        ps.setString(5, r.get("time"));
+        ps.setInt(6, capacity);
+        ps.setInt(7, capacity);
+    }
+
+    private static int lastInsertId(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // open windows patch or reload their listings as each chunk commits
+    private static void created(Row r, int eventId) {
+        ChangeFeed.getInstance().publish(new ChangeFeed.EventCreated(eventId, r.get("title"), r.get("category"),
+                r.get("location"), r.get("date"), Integer.parseInt(r.get("capacity"))));
+    }
+
+    private void reject(RejectWriter rejects, Row row, String reason) throws IOException {
+        rejects.write(row, reason);
+        rejected++;
+        if (rejected % CHUNK_SIZE == 0) {
+            progress();
+        }
+    }
+
+    private void progress() {
+        if (listener != null) {
+            listener.progress(imported, rejected);
+        }
+    }
+
+    private static String canonical(String key) {
+        String k = key.trim().toLowerCase(Locale.ROOT);
+        switch (k) {
+            case "event_date": return "date";
+            case "event_time": return "time";
+            default: return k;
+        }
+    }
+
+    // ------------------------------------------------------------ sources
+
+    private interface RecordSource {
+        /** Next record, or null at end of input. */
+        Row next() throws IOException;
+    }
+
+    /** RFC 4180 CSV: quoted fields may contain commas, doubled quotes and line breaks. */
+    private static final class CsvSource implements RecordSource {
+        private final Reader in;
+        private final String[] header;
+        private long line = 1;
+        private int pushback = -2;
+
+        CsvSource(Reader in) throws IOException {
+            this.in = in;
+            List<String> h = readRecord(new StringBuilder());
+            if (h == null) {
+                header = new String[0];
+                return;
+            }
+            header = new String[h.size()];
+            for (int i = 0; i < header.length; i++) {
+                header[i] = canonical(i == 0 ? stripBom(h.get(i)) : h.get(i));
+            }
+            List<String> missing = new ArrayList<>();
+            for (String f : FIELDS) {
+                if (!Arrays.asList(header).contains(f)) missing.add(f);
+            }
+            if (!missing.isEmpty()) {
+                throw new IOException("CSV header is missing column(s): " + String.join(", ", missing));
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            List<String> fields;
+            StringBuilder raw = new StringBuilder();
+            long startLine;
+            do {
+                startLine = line;
+                raw.setLength(0);
+                fields = readRecord(raw);
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isEmpty()); // blank line
+
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.length && i < fields.size(); i++) {
+                values.put(header[i], fields.get(i));
+            }
+            String error = fields.size() != header.length
+                    ? "Expected " + header.length + " fields, found " + fields.size() : null;
+            return new Row(startLine, raw.toString(), values, error);
+        }
+
+        private int read() throws IOException {
+            if (pushback != -2) {
+                int c = pushback;
+                pushback = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        private List<String> readRecord(StringBuilder raw) throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+
+            while (true) {
+                if (c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                char ch = (char) c;
+                if (quoted) {
+                    if (ch == '"') {
+                        int n = read();
+                        if (n == '"') {
+                            field.append('"');
+                            raw.append("\"\"");
+                        } else {
+                            quoted = false;
+                            raw.append('"');
+                            c = n;
+                            continue;
+                        }
+                    } else {
+                        if (ch == '\n') line++;
+                        field.append(ch);
+                        raw.append(ch);
+                    }
+                } else if (ch == '"' && field.length() == 0 && !wasQuoted) {
+                    quoted = true;
+                    wasQuoted = true;
+                    raw.append(ch);
+                } else if (ch == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    wasQuoted = false;
+                    raw.append(ch);
+                } else if (ch == '\r' || ch == '\n') {
+                    if (ch == '\r') {
+                        int n = read();
+                        if (n != '\n') pushback = n;
+                    }
+                    line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append(ch);
+                    raw.append(ch);
+                }
+                c = read();
+            }
+        }
+
+        private static String stripBom(String s) {
+            return s.startsWith("\uFEFF") ? s.substring(1) : s;
+        }
+    }
+
+    /** One flat JSON object per line; string, number, boolean and null values. */
+    private static final class JsonLinesSource implements RecordSource {
+        private final BufferedReader in;
+        private long line;
+
+        JsonLinesSource(Reader in) {
+            this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String text;
+            do {
+                text = in.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.trim().isEmpty());
+
+            Map<String, String> values = new HashMap<>();
+            try {
+                new FlatJsonParser(text).parseInto(values);
+                return new Row(line, text, values, null);
+            } catch (IllegalArgumentException ex) {
+                return new Row(line, text, values, "Invalid JSON: " + ex.getMessage());
+            }
+        }
+    }
+
+    /** One flat JSON object per line; keys are lower-cased (see canonical). Also parses HttpApi request bodies. */
+    static final class FlatJsonParser {
+        private final String s;
+        private int pos;
+
+        FlatJsonParser(String s) {
+            this.s = s;
+        }
+
+        void parseInto(Map<String, String> out) {
+            skipWs();
+            expect('{');
+            skipWs();
+            if (peek() == '}') {
+                pos++;
+            } else {
+                while (true) {
+                    skipWs();
+                    String key = string();
+                    skipWs();
+                    expect(':');
+                    skipWs();
+                    out.put(canonical(key), value());
+                    skipWs();
+                    char c = take();
+                    if (c == '}') break;
+                    if (c != ',') throw new IllegalArgumentException("expected ',' or '}' at " + (pos - 1));
+                }
+            }
+            skipWs();
+            if (pos != s.length()) {
+                throw new IllegalArgumentException("trailing characters at " + pos);
+            }
+        }
+
+        private String value() {
+            char c = peek();
+            if (c == '"') {
+                return string();
+            }
+            if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("nested values are not supported");
+            }
+            int start = pos;
+            while (pos < s.length() && ",} \t".indexOf(s.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = s.substring(start, pos);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException("missing value at " + start);
+            }
+            return literal;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = take();
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char e = take();
+                switch (e) {
+                    case '"': case '\\': case '/': sb.append(e); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > s.length()) throw new IllegalArgumentException("bad \\u escape");
+                        sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("bad escape \\" + e);
+                }
+            }
+        }
+
+        private void skipWs() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        private char peek() {
+            if (pos >= s.length()) throw new IllegalArgumentException("unexpected end of line");
+            return s.charAt(pos);
+        }
+
+        private char take() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char c) {
+            if (take() != c) throw new IllegalArgumentException("expected '" + c + "' at " + (pos - 1));
+        }
+    }
+
+    // ------------------------------------------------------------ rejects
+
+    /**
+     * CSV rejects keep the original record behind a line and an error column;
+     * JSON Lines rejects wrap the original line in an object with the same two fields.
+     */
+    private static final class RejectWriter implements Closeable {
+        private final File file;
+        private final Format format;
+        private Writer out;
+
+        RejectWriter(File file, Format format) {
+            this.file = file;
+            this.format = format;
+        }
+
+        void write(Row row, String reason) throws IOException {
+            if (out == null) {
+                out = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(file), StandardCharsets.UTF_8));
+                if (format == Format.CSV) {
+                    out.write("line,error,record\n");
+                }
+            }
+            if (format == Format.CSV) {
+                out.write(row.line + "," + csvQuote(reason) + "," + csvQuote(row.raw) + "\n");
+            } else {
+                out.write("{\"line\":" + row.line + ",\"error\":" + jsonQuote(reason)
+                        + ",\"record\":" + jsonQuote(row.raw) + "}\n");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) {
+                out.close();
+            }
+        }
+
+        private static String csvQuote(String s) {
+            return "\"" + (s == null ? "" : s.replace("\"", "\"\"")) + "\"";
+        }
+
+        private static String jsonQuote(String s) {
+            StringBuilder sb = new StringBuilder("\"");
+            for (char c : (s == null ? "" : s).toCharArray()) {
+                switch (c) {
+                    case '"': sb.append("\\\""); break;
+                    case '\\': sb.append("\\\\"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    case '\t': sb.append("\\t"); break;
+                    default:
+                        if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                        else sb.append(c);
+                }
+            }
+            return sb.append('"').toString();
+        }
+    }
+
+    /** Command line use: EventImporter file [rejectFile] */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: EventImporter <events.csv|events.jsonl> [rejects-file]");
+            System.exit(2);
+        }
+        File file = new File(args[0]);
+        File rejects = args.length > 1 ? new File(args[1]) : defaultRejectFile(file);
+        try {
+            Result r = importFile(file, formatOf(file), rejects,
+                    (ok, bad) -> System.out.printf("\r%d imported, %d rejected", ok, bad));
+            System.out.println();
+            System.out.println(r);
+            if (r.rejectFile != null) {
+                System.out.println("Rejected rows written to " + r.rejectFile);
+            }
+        } finally {
+            DBConnectionPool.getInstance().shutdown();
+        }
+    }
+}
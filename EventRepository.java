@@ -0,0 +1,53 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/** Storage for events. Listings are in date, time, id order, the order the dashboard shows. */
+public interface EventRepository {
+
+    final class Event {
+        public final int eventId;
+        public final String title;
+        public final String category;
+        public final String location;
+        public final String date;
+        public final String time;
+        public final int capacity;
+        public final int seatsAvailable;
+
+        public Event(int eventId, String title, String category, String location, String date, String time,
+                     int capacity, int seatsAvailable) {
+            this.eventId = eventId;
+            this.title = title;
+            this.category = category;
+            this.location = location;
+            this.date = date;
+            this.time = time;
+            this.capacity = capacity;
+            this.seatsAvailable = seatsAvailable;
+        }
+
+        public Event withId(int id) {
+            return new Event(id, title, category, location, date, time, capacity, seatsAvailable);
+        }
+    }
+
+    /** Stores a new event (its eventId is ignored) and returns the id it was given. */
+    int create(Event event) throws SQLException;
+
+    /** The event, or null if there is none with that id. */
+    Event find(int eventId) throws SQLException;
+
+    /**
+     * Up to limit events after the given one (null = from the start). Null or
+     * empty filters match anything; the others must match exactly.
+     */
+    List<Event> list(String category, String location, String date, Event after, int limit) throws SQLException;
+
+    /** Replaces every field of the event with that id; false if there is none. */
+    boolean update(Event event) throws SQLException;
+
+    /** Adds delta to the seats available if the result stays within 0..capacity; false otherwise. */
+    boolean adjustSeats(int eventId, int delta) throws SQLException;
+}
@@ -0,0 +1,214 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory search index over the distinct category and location values of events.
+ *
+ * A substring filter ("conf" matches "Conference") is resolved against the small
+ * vocabulary of distinct values with a trigram index, giving the exact values to
+ * query with "category IN (...)". That lookup can use an index on events instead
+ * of scanning every row with LIKE '%x%'. A sorted map of the same values backs
+ * prefix autocomplete.
+ */
+public final class EventSearchIndex {
+
+    public enum Field {
+        CATEGORY("category"),
+        LOCATION("location");
+
+        final String column;
+
+        Field(String column) {
+            this.column = column;
+        }
+    }
+
+    private static final EventSearchIndex INSTANCE = new EventSearchIndex();
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "event-search-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Map<Field, FieldIndex> fields = new EnumMap<>(Field.class);
+    private boolean ready;
+    private boolean loading;
+
+    private EventSearchIndex() {
+        for (Field f : Field.values()) {
+            fields.put(f, new FieldIndex());
+        }
+    }
+
+    public static EventSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /** Builds the index in the background if it is not built yet. */
+    public synchronized void warmUp() {
+        if (ready || loading) {
+            return;
+        }
+        loading = true;
+        LOADER.execute(() -> {
+            try {
+                rebuild();
+            } catch (SQLException ex) {
+                System.err.println("Search index not built: " + ex.getMessage());
+            } finally {
+                synchronized (this) {
+                    loading = false;
+                }
+            }
+        });
+    }
+
+    /** Distinct values of the field with their event counts; also checked by QueryPlanCheck. */
+    static String valuesSql(Field f) {
+        return "SELECT " + f.column + " AS value, COUNT(*) AS cnt FROM events " +
+               "WHERE " + f.column + " IS NOT NULL GROUP BY " + f.column;
+    }
+
+    public void rebuild() throws SQLException {
+        Map<Field, Map<String, Integer>> counts = new EnumMap<>(Field.class);
+        try (Connection conn = DBConnectionPool.getConnection()) {
+            for (Field f : Field.values()) {
+                Map<String, Integer> values = new HashMap<>();
+                try (PreparedStatement ps = conn.prepareStatement(valuesSql(f))) {
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            values.put(rs.getString("value"), rs.getInt("cnt"));
+                        }
+                    }
+                }
+                counts.put(f, values);
+            }
+        }
+
+        synchronized (this) {
+            for (Field f : Field.values()) {
+                FieldIndex idx = new FieldIndex();
+                counts.get(f).forEach(idx::add);
+                fields.put(f, idx);
+            }
+            ready = true;
+        }
+    }
+
+    /** The index is rebuilt on next warmUp(); used when values may have been removed. */
+    public synchronized void invalidate() {
+        ready = false;
+    }
+
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    /** Called after an event is inserted. */
+    public synchronized void eventAdded(String category, String location) {
+        if (!ready) {
+            return;
+        }
+        fields.get(Field.CATEGORY).add(category, 1);
+        fields.get(Field.LOCATION).add(location, 1);
+    }
+
+    /**
+     * Distinct values containing the text (case-insensitive, like LIKE '%text%'),
+     * or null if the index is not ready and the caller should fall back to LIKE.
+     */
+    public synchronized Set<String> matching(Field field, String text) {
+        if (!ready) {
+            return null;
+        }
+        return fields.get(field).containing(text);
+    }
+
+    /** Up to limit distinct values starting with prefix, in sorted order. */
+    public synchronized List<String> suggest(Field field, String prefix, int limit) {
+        if (!ready || prefix == null || prefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return fields.get(field).startingWith(prefix, limit);
+    }
+
+    // ------------------------------------------------------------------
+
+    private static String fold(String s) {
+        // SQLite's LIKE is case-insensitive for ASCII only
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            sb.append(c >= 'A' && c <= 'Z' ? (char) (c + 32) : c);
+        }
+        return sb.toString();
+    }
+
+    private static final class FieldIndex {
+        // folded value -> original values (values differing only in case share a key)
+        private final TreeMap<String, Set<String>> sorted = new TreeMap<>();
+        private final Map<String, Integer> counts = new HashMap<>();
+        private final Map<String, Set<String>> trigrams = new HashMap<>();
+
+        void add(String value, int count) {
+            if (value == null) {
+                return;
+            }
+            if (counts.merge(value, count, Integer::sum) != count) {
+                return; // already indexed
+            }
+            String folded = fold(value);
+            sorted.computeIfAbsent(folded, k -> new TreeSet<>()).add(value);
+            for (int i = 0; i + 3 <= folded.length(); i++) {
+                trigrams.computeIfAbsent(folded.substring(i, i + 3), k -> new HashSet<>()).add(folded);
+            }
+        }
+
+        Set<String> containing(String text) {
+            String needle = fold(text);
+            Collection<String> candidates;
+            if (needle.length() >= 3) {
+                // intersect postings, smallest first
+                List<Set<String>> postings = new ArrayList<>();
+                for (int i = 0; i + 3 <= needle.length(); i++) {
+                    Set<String> p = trigrams.get(needle.substring(i, i + 3));
+                    if (p == null) {
+                        return Collections.emptySet();
+                    }
+                    postings.add(p);
+                }
+                postings.sort(Comparator.comparingInt(Set::size));
+                candidates = postings.get(0);
+            } else {
+                candidates = sorted.keySet();
+            }
+
+            Set<String> result = new TreeSet<>();
+            for (String folded : candidates) {
+                if (folded.contains(needle)) {
+                    result.addAll(sorted.get(folded));
+                }
+            }
+            return result;
+        }
+
+        List<String> startingWith(String prefix, int limit) {
+            String from = fold(prefix);
+            List<String> out = new ArrayList<>(limit);
+            for (Set<String> values : sorted.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+                for (String v : values) {
+                    if (out.size() >= limit) {
+                        return out;
+                    }
+                    out.add(v);
+                }
+            }
+            return out;
+        }
+    }
+}
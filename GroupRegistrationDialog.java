@@ -0,0 +1,228 @@
+package com.mycompany.eventmanagementsystem;
+
+import javax.swing.*;
+import java.awt.*;
+import java.sql.*;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Books seats for a party of attendees in one go (RegistrationService.registerGroup).
+ * Members are entered as usernames or numeric user ids, separated by commas or
+ * line breaks.
+ */
+public class GroupRegistrationDialog extends JDialog {
+
+    private final int eventId;
+    private final int bookerId;
+    private final Runnable onBooked;
+
+    private final JTextArea txtMembers = new JTextArea(8, 30);
+    private final JCheckBox chkIncludeMe = new JCheckBox("Include me", true);
+    private final JRadioButton rbAllOrNothing = new JRadioButton("All or nothing", true);
+    private final JRadioButton rbPartial = new JRadioButton("Fill what is free, waitlist the rest");
+    private final JButton btnBook = new JButton("Book Seats");
+
+    public GroupRegistrationDialog(Frame owner, int eventId, String eventTitle, int bookerId, Runnable onBooked) {
+        super(owner, "Group Registration - " + eventTitle, true);
+        this.eventId = eventId;
+        this.bookerId = bookerId;
+        this.onBooked = onBooked;
+
+        setSize(420, 360);
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        JPanel form = new JPanel(new BorderLayout(5, 5));
+        form.setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+        form.add(new JLabel("Members (usernames or user IDs, up to "
+                + RegistrationService.MAX_GROUP_SIZE + "):"), BorderLayout.NORTH);
+        txtMembers.setLineWrap(true);
+        form.add(new JScrollPane(txtMembers), BorderLayout.CENTER);
+
+        JPanel options = new JPanel(new GridLayout(0, 1));
+        ButtonGroup mode = new ButtonGroup();
+        mode.add(rbAllOrNothing);
+        mode.add(rbPartial);
+        options.add(chkIncludeMe);
+        options.add(rbAllOrNothing);
+        options.add(rbPartial);
+        form.add(options, BorderLayout.SOUTH);
+        add(form, BorderLayout.CENTER);
+
+        JPanel bottom = new JPanel();
+        JButton btnCancel = new JButton("Cancel");
+        btnBook.addActionListener(e -> onBook());
+        btnCancel.addActionListener(e -> dispose());
+        bottom.add(btnBook);
+        bottom.add(btnCancel);
+        add(bottom, BorderLayout.SOUTH);
+    }
+
+    private void onBook() {
+        List<String> entries = new ArrayList<>();
+        for (String s : txtMembers.getText().split("[,;\\s]+")) {
+            if (!s.isEmpty()) {
+                entries.add(s);
+            }
+        }
+        if (entries.isEmpty() && !chkIncludeMe.isSelected()) {
+            JOptionPane.showMessageDialog(this, "Please enter at least one member.",
+                    "Validation Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (entries.size() + 1 > RegistrationService.MAX_GROUP_SIZE) {
+            JOptionPane.showMessageDialog(this,
+                    "A group can have at most " + RegistrationService.MAX_GROUP_SIZE + " members.",
+                    "Validation Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        boolean includeMe = chkIncludeMe.isSelected();
+        RegistrationService.GroupMode mode = rbPartial.isSelected()
+                ? RegistrationService.GroupMode.PARTIAL
+                : RegistrationService.GroupMode.ALL_OR_NOTHING;
+
+        btnBook.setEnabled(false);
+        new SwingWorker<RegistrationService.GroupResult, Void>() {
+            private List<String> unknown = List.of();
+
+            @Override
+            protected RegistrationService.GroupResult doInBackground() throws Exception {
+                List<Integer> members = new ArrayList<>();
+                if (includeMe) {
+                    members.add(bookerId);
+                }
+                unknown = resolveUsers(entries, members);
+                if (!unknown.isEmpty()) {
+                    return null;
+                }
+                return RegistrationService.getInstance().registerGroup(eventId, members, mode);
+            }
+
+            @Override
+            protected void done() {
+                btnBook.setEnabled(true);
+                try {
+                    RegistrationService.GroupResult result = get();
+                    if (result == null) {
+                        JOptionPane.showMessageDialog(GroupRegistrationDialog.this,
+                                "Unknown user(s): " + String.join(", ", unknown),
+                                "Validation Error", JOptionPane.WARNING_MESSAGE);
+                        return;
+                    }
+                    showResult(result);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException ex) {
+                    JOptionPane.showMessageDialog(GroupRegistrationDialog.this,
+                            "Error during group registration:\n" + ex.getCause().getMessage(),
+                            "Database Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private void showResult(RegistrationService.GroupResult r) {
+        StringBuilder msg = new StringBuilder();
+        switch (r.outcome) {
+            case FULL:
+                msg.append("Not enough seats for the whole group (")
+                   .append(r.seatsRemaining).append(" free). Nothing was booked.");
+                break;
+            case UNKNOWN_EVENT:
+                msg.append("This event no longer exists.");
+                break;
+            case ALREADY_REGISTERED:
+                msg.append("Every member is already registered or waitlisted.");
+                break;
+            default:
+                msg.append(r.confirmed.size()).append(" seat(s) booked.");
+                if (!r.confirmed.isEmpty()) {
+                    msg.append("\nTickets ").append(r.ticketIdOf(0));
+                    if (r.confirmed.size() > 1) {
+                        msg.append(" ... ").append(r.ticketIdOf(r.confirmed.size() - 1));
+                    }
+                }
+                if (!r.seats.isEmpty()) {
+                    msg.append("\nSeats from ").append(SeatMap.describe(r.seats.get(0)));
+                    if (r.seats.size() > 1) {
+                        msg.append(" to ").append(SeatMap.describe(r.seats.get(r.seats.size() - 1)));
+                    }
+                }
+                if (!r.waitlisted.isEmpty()) {
+                    msg.append("\n").append(r.waitlisted.size()).append(" member(s) added to the waitlist.");
+                }
+                break;
+        }
+        if (!r.skipped.isEmpty()) {
+            msg.append("\n").append(r.skipped.size()).append(" member(s) skipped (already registered or waitlisted).");
+        }
+
+        boolean booked = !r.confirmed.isEmpty() || !r.waitlisted.isEmpty();
+        JOptionPane.showMessageDialog(this, msg.toString(), "Group Registration",
+                booked ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+        if (booked) {
+            onBooked.run();
+            dispose();
+        }
+    }
+
+    // SQL shared with QueryPlanCheck
+    static String usersByIdSql(int count) {
+        return "SELECT user_id FROM users WHERE user_id IN (" + String.join(",", Collections.nCopies(count, "?")) + ")";
+    }
+
+    static String usersByNameSql(int count) {
+        return "SELECT user_id, username FROM users WHERE username IN ("
+               + String.join(",", Collections.nCopies(count, "?")) + ")";
+    }
+
+    /** Adds the user ids of the entries to out; returns the entries that match no user. */
+    private static List<String> resolveUsers(List<String> entries, List<Integer> out) throws SQLException {
+        List<String> names = new ArrayList<>();
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (String e : entries) {
+            if (e.chars().allMatch(Character::isDigit)) {
+                ids.add(Integer.parseInt(e));
+            } else {
+                names.add(e);
+            }
+        }
+
+        List<String> unknown = new ArrayList<>();
+        try (Connection conn = DBConnectionPool.getConnection()) {
+            if (!ids.isEmpty()) {
+                Set<Integer> found = new HashSet<>();
+                try (PreparedStatement ps = conn.prepareStatement(usersByIdSql(ids.size()))) {
+                    int i = 1;
+                    for (int id : ids) ps.setInt(i++, id);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) found.add(rs.getInt("user_id"));
+                    }
+                }
+                for (int id : ids) {
+                    if (found.contains(id)) out.add(id);
+                    else unknown.add(String.valueOf(id));
+                }
+            }
+            if (!names.isEmpty()) {
+                Map<String, Integer> found = new HashMap<>();
+                try (PreparedStatement ps = conn.prepareStatement(usersByNameSql(names.size()))) {
+                    int i = 1;
+                    for (String n : names) ps.setString(i++, n);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) found.put(rs.getString("username"), rs.getInt("user_id"));
+                    }
+                }
+                for (String n : names) {
+                    Integer id = found.get(n);
+                    if (id != null) out.add(id);
+                    else unknown.add(n);
+                }
+            }
+        }
+        return unknown;
+    }
+}
@@ -0,0 +1,748 @@
+package com.mycompany.eventmanagementsystem;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JSON over HTTP for what the Swing frames do, so web and mobile clients (and
+ * load tests) can work without a GUI. Built on the JDK HttpServer; every
+ * request runs on its own virtual thread.
+ *
+ *   GET  /api/events?category=&location=&date=&after=  listing, 100 per page; "next" is the cursor for after
+ *   GET  /api/events/{id}
+ *   POST /api/events                                    {"title", "category", "location", "date", "time",
+ *                                                        "capacity", "seat_map" (optional)}
+ *   PUT  /api/events/{id}                               same fields; capacity may only grow
+ *   POST /api/events/{id}/registrations                 {"user_id"}
+ *   POST /api/events/{id}/waitlist                      {"user_id"}; registers instead while seats are free
+ *   GET  /api/tickets/{id}?format=png|pdf               the printable ticket, PNG unless format=pdf
+ *   GET  /api/reports/events?after=, /api/reports/categories, /api/reports/summary
+ *   GET  /api/metrics                                   request count and latency per endpoint
+ *
+ * The server listens on loopback unless -Devents.http.bind names another
+ * address. Reads are open; POST, PUT and ticket downloads (ticket ids are easy
+ * to guess) need "Authorization: Bearer <token>" with the token from
+ * -Devents.http.token, and are refused when none is set.
+ * Registrations go through the event's WaitingRoom like the dashboard's: the
+ * request waits its turn (429 when the queue is full), and the seat hold it is
+ * given is confirmed before the response.
+ *
+ * Responses are streamed: rows go from the ResultSet to the socket as they are
+ * read. Headers are only sent with the first bytes of the body, so a query that
+ * fails before that still becomes a proper error response.
+ *
+ * Catalogue reads carry a weak ETag made of a revision that every change feed
+ * delta bumps and the catalogue cache version; a matching If-None-Match is
+ * answered with 304 without touching the database.
+ */
+public final class HttpApi {
+
+    private static final int DEFAULT_PORT = Integer.getInteger("events.http.port", 8080);
+    private static final int THREADS = Integer.getInteger("events.http.threads", 64);
+    private static final String BIND_ADDRESS = System.getProperty("events.http.bind", "127.0.0.1");
+    private static final String TOKEN = System.getProperty("events.http.token", "");
+    private static final long ADMISSION_TIMEOUT_MS = Long.getLong("events.http.admissionTimeoutMs", 30_000L);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong revision = new AtomicLong();
+    private final ChangeFeed.Subscription feed;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    private static final class EndpointStats {
+        final SqlMetrics.LatencyHistogram latency = new SqlMetrics.LatencyHistogram();
+        final AtomicLong clientErrors = new AtomicLong();
+        final AtomicLong serverErrors = new AtomicLong();
+    }
+
+    /** An error answered as {"error": message} with the given status. */
+    private static final class ApiException extends Exception {
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private HttpApi(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(BIND_ADDRESS, port), 0);
+        executor = newExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::dispatch);
+        feed = ChangeFeed.getInstance().subscribe(changes -> revision.incrementAndGet());
+    }
+
+    /** Starts serving on the given port (0 = any free port). */
+    public static HttpApi start(int port) throws IOException {
+        HttpApi api = new HttpApi(port);
+        api.server.start();
+        return api;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /** Stops accepting requests and waits up to a second for running ones. */
+    public void stop() {
+        server.stop(1);
+        feed.close();
+        executor.shutdown();
+    }
+
+    // Virtual threads need Java 21; on older runtimes a bounded pool of daemon threads does the work.
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newFixedThreadPool(THREADS, r -> {
+                Thread t = new Thread(r, "http-worker");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // ------------------------------------------------------------ dispatch
+
+    /** One request: parsed path and query, plus the lazily started response. */
+    private static final class Call {
+        final HttpExchange exchange;
+        final String method;
+        final String[] path;      // segments after /api/
+        final Map<String, String> query;
+        String endpoint = "(unmatched)";
+        int status = 200;
+        private LazyBody body;
+
+        Call(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.method = exchange.getRequestMethod();
+            String p = exchange.getRequestURI().getPath().substring("/api/".length());
+            this.path = p.isEmpty() ? new String[0] : p.split("/");
+            this.query = parseQuery(exchange.getRequestURI().getRawQuery());
+        }
+
+        String param(String name) {
+            String v = query.get(name);
+            return v == null || v.isEmpty() ? null : v;
+        }
+
+        int id(String segment) throws ApiException {
+            try {
+                return Integer.parseInt(segment);
+            } catch (NumberFormatException ex) {
+                throw new ApiException(404, "No such resource: " + exchange.getRequestURI().getPath());
+            }
+        }
+
+        Map<String, String> body() throws IOException, ApiException {
+            byte[] bytes;
+            try (InputStream in = exchange.getRequestBody()) {
+                bytes = in.readAllBytes();
+            }
+            Map<String, String> fields = new HashMap<>();
+            try {
+                new EventImporter.FlatJsonParser(new String(bytes, StandardCharsets.UTF_8)).parseInto(fields);
+            } catch (RuntimeException ex) {
+                throw new ApiException(400, "Malformed JSON body: " + ex.getMessage());
+            }
+            return fields;
+        }
+
+        /** True (and 304 sent) if the client already has this version. */
+        boolean notModified(String etag) throws IOException {
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                status = 304;
+                exchange.sendResponseHeaders(304, -1);
+                return true;
+            }
+            return false;
+        }
+
+        JsonWriter json(int status) {
+            OutputStream out = stream(status, "application/json; charset=utf-8");
+            return new JsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192));
+        }
+
+        OutputStream stream(int status, String contentType) {
+            this.status = status;
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            body = new LazyBody(exchange, status);
+            return body;
+        }
+
+        void fail(int status, String message) {
+            this.status = status;
+            if (body != null && body.started) {
+                return; // headers are out; the client sees a truncated body
+            }
+            exchange.getResponseHeaders().remove("ETag");
+            try (JsonWriter json = json(status)) {
+                json.beginObject().field("error", message).endObject();
+            } catch (IOException ignored) {
+                // client went away
+            }
+        }
+    }
+
+    /** Sends the response headers (chunked) with the first byte of the body. */
+    private static final class LazyBody extends OutputStream {
+        private final HttpExchange exchange;
+        private final int status;
+        private OutputStream out;
+        boolean started;
+
+        LazyBody(HttpExchange exchange, int status) {
+            this.exchange = exchange;
+            this.status = status;
+        }
+
+        private OutputStream out() throws IOException {
+            if (out == null) {
+                started = true;
+                exchange.sendResponseHeaders(status, 0);
+                out = exchange.getResponseBody();
+            }
+            return out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out != null) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out().close();
+        }
+    }
+
+    private void dispatch(HttpExchange exchange) {
+        long start = System.nanoTime();
+        Call call = new Call(exchange);
+        try {
+            route(call);
+        } catch (ApiException ex) {
+            call.fail(ex.status, ex.getMessage());
+        } catch (SQLException ex) {
+            call.fail(500, "Database error: " + ex.getMessage());
+        } catch (IOException | UncheckedIOException ex) {
+            call.status = 499; // client closed the connection
+        } catch (IllegalArgumentException ex) {
+            call.fail(400, ex.getMessage());
+        } catch (RuntimeException ex) {
+            call.fail(500, ex.toString());
+        } finally {
+            exchange.close();
+            record(call.method + " " + call.endpoint, call.status, System.nanoTime() - start);
+        }
+    }
+
+    private void route(Call c) throws ApiException, SQLException, IOException {
+        if (c.method.equals("POST") || c.method.equals("PUT")) {
+            authorize(c);
+        }
+        String[] p = c.path;
+        if (p.length >= 1 && p[0].equals("events")) {
+            if (p.length == 1) {
+                c.endpoint = "/api/events";
+                if (c.method.equals("GET")) {
+                    listEvents(c);
+                    return;
+                }
+                if (c.method.equals("POST")) {
+                    createEvent(c);
+                    return;
+                }
+            } else if (p.length == 2) {
+                c.endpoint = "/api/events/{id}";
+                int id = c.id(p[1]);
+                if (c.method.equals("GET")) {
+                    getEvent(c, id);
+                    return;
+                }
+                if (c.method.equals("PUT")) {
+                    updateEvent(c, id);
+                    return;
+                }
+            } else if (p.length == 3 && (p[2].equals("registrations") || p[2].equals("waitlist"))) {
+                c.endpoint = "/api/events/{id}/" + p[2];
+                int id = c.id(p[1]);
+                if (c.method.equals("POST")) {
+                    register(c, id, p[2].equals("waitlist"));
+                    return;
+                }
+            } else {
+                throw notFound(c);
+            }
+        } else if (p.length == 2 && p[0].equals("tickets")) {
+            c.endpoint = "/api/tickets/{id}";
+            if (c.method.equals("GET")) {
+                authorize(c);
+                ticket(c, p[1]);
+                return;
+            }
+        } else if (p.length == 2 && p[0].equals("reports")) {
+            c.endpoint = "/api/reports/" + p[1];
+            if (!c.method.equals("GET")) {
+                throw notAllowed(c);
+            }
+            switch (p[1]) {
+                case "events":     eventReport(c); return;
+                case "categories": categoryReport(c); return;
+                case "summary":    summaryReport(c); return;
+                default:
+                    c.endpoint = "(unmatched)";
+                    throw notFound(c);
+            }
+        } else if (p.length == 1 && p[0].equals("metrics")) {
+            c.endpoint = "/api/metrics";
+            if (c.method.equals("GET")) {
+                metrics(c);
+                return;
+            }
+        } else {
+            throw notFound(c);
+        }
+        throw notAllowed(c);
+    }
+
+    /** Writes and ticket downloads need the configured bearer token. */
+    private static void authorize(Call c) throws ApiException {
+        if (TOKEN.isEmpty()) {
+            throw new ApiException(403,
+                    "Writes and tickets are disabled: no API token is configured (events.http.token)");
+        }
+        String header = c.exchange.getRequestHeaders().getFirst("Authorization");
+        byte[] given = header != null && header.startsWith("Bearer ")
+                ? header.substring("Bearer ".length()).trim().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (!MessageDigest.isEqual(given, TOKEN.getBytes(StandardCharsets.UTF_8))) {
+            c.exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+            throw new ApiException(401, "Missing or wrong API token");
+        }
+    }
+
+    private static ApiException notFound(Call c) {
+        return new ApiException(404, "No such resource: " + c.exchange.getRequestURI().getPath());
+    }
+
+    private static ApiException notAllowed(Call c) {
+        return new ApiException(405, c.method + " is not supported on " + c.endpoint);
+    }
+
+    // ------------------------------------------------------------ events
+
+    private String catalogueTag() {
+        return "W/\"" + revision.get() + "-" + EventCatalogCache.getInstance().version() + "\"";
+    }
+
+    private void listEvents(Call c) throws SQLException, IOException, ApiException {
+        // read before the query: a change in between only costs the client a refetch
+        if (c.notModified(catalogueTag())) {
+            return;
+        }
+        PagedTableModel.Query q = AttendeeDashboard.eventsQuery(
+                c.param("category"), c.param("location"), c.param("date"));
+        writePage(c, q, "events");
+    }
+
+    private void getEvent(Call c, int eventId) throws SQLException, IOException, ApiException {
+        if (c.notModified(catalogueTag())) {
+            return;
+        }
+        String sql = "SELECT " + AttendeeDashboard.EVENT_COLUMNS + " FROM events WHERE event_id = ?";
+        try (Connection conn = DBConnectionPool.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new ApiException(404, "Event " + eventId + " not found");
+                }
+                try (JsonWriter json = c.json(200)) {
+                    writeRow(json, rs);
+                }
+            }
+        }
+    }
+
+    private void createEvent(Call c) throws SQLException, IOException, ApiException {
+        Map<String, String> f = c.body();
+        SeatMap seatMap = f.get("seat_map") == null ? null : SeatMap.parse(f.get("seat_map"));
+        String capStr = text(f, "capacity");
+        if (capStr.isEmpty() && seatMap != null) {
+            capStr = String.valueOf(seatMap.capacity());
+        }
+        String invalid = AddEventFrame.validate(text(f, "title"), text(f, "category"), text(f, "location"),
+                text(f, "date"), text(f, "time"), capStr);
+        if (invalid != null) {
+            throw new ApiException(400, invalid);
+        }
+
+        int eventId = AddEventFrame.createEvent(text(f, "title"), text(f, "category"), text(f, "location"),
+                text(f, "date"), text(f, "time"), Integer.parseInt(capStr), seatMap);
+
+        c.exchange.getResponseHeaders().set("Location", "/api/events/" + eventId);
+        try (JsonWriter json = c.json(201)) {
+            json.beginObject()
+                    .field("event_id", eventId)
+                    .field("capacity", seatMap == null ? Integer.parseInt(capStr) : seatMap.capacity())
+                    .endObject();
+        }
+    }
+
+    private void updateEvent(Call c, int eventId) throws SQLException, IOException, ApiException {
+        Map<String, String> f = c.body();
+        String invalid = AddEventFrame.validate(text(f, "title"), text(f, "category"), text(f, "location"),
+                text(f, "date"), text(f, "time"), text(f, "capacity"));
+        if (invalid != null) {
+            throw new ApiException(400, invalid);
+        }
+
+        AddEventFrame.EditOutcome outcome = AddEventFrame.editEvent(eventId, text(f, "title"),
+                text(f, "category"), text(f, "location"), text(f, "date"), text(f, "time"),
+                Integer.parseInt(text(f, "capacity")));
+        if (!outcome.found) {
+            throw new ApiException(404, "Event " + eventId + " not found");
+        }
+        if (!outcome.updated) {
+            throw new ApiException(409, "Capacity cannot be decreased (current capacity: "
+                    + outcome.oldCapacity + ")");
+        }
+
+        try (JsonWriter json = c.json(200)) {
+            json.beginObject()
+                    .field("event_id", eventId)
+                    .field("capacity", outcome.newCapacity)
+                    .field("promoted", outcome.promotion == null ? 0 : outcome.promotion.promoted)
+                    .endObject();
+        }
+    }
+
+    private void register(Call c, int eventId, boolean waitlist) throws SQLException, IOException, ApiException {
+        Map<String, String> f = c.body();
+        int userId;
+        try {
+            userId = Integer.parseInt(text(f, "user_id"));
+        } catch (NumberFormatException ex) {
+            throw new ApiException(400, "user_id must be an integer");
+        }
+
+        // as in the dashboard, the waitlist is only joined once the event is full
+        RegistrationService.Result r = admit(c, userId, eventId);
+        if (waitlist && r.outcome == RegistrationService.Outcome.FULL) {
+            r = RegistrationService.getInstance().joinWaitlist(userId, eventId);
+        }
+
+        int status;
+        switch (r.outcome) {
+            case CONFIRMED:
+            case WAITLISTED:
+                status = 201;
+                break;
+            case UNKNOWN_EVENT:
+                status = 404;
+                break;
+            default:
+                status = 409; // full, or already registered / waitlisted
+        }
+        try (JsonWriter json = c.json(status)) {
+            json.beginObject()
+                    .field("outcome", r.outcome.name())
+                    .field("event_id", r.eventId);
+            if (r.registrationId != 0) {
+                json.field("registration_id", r.registrationId);
+            }
+            if (r.ticketId != null) {
+                json.field("ticket_id", r.ticketId);
+            }
+            if (r.seat != null) {
+                json.field("seat", r.seat);
+            }
+            json.field("seats_remaining", r.seatsRemaining).endObject();
+        }
+    }
+
+    /** Waits in the event's WaitingRoom and confirms the seat hold it hands out. */
+    private static RegistrationService.Result admit(Call c, int userId, int eventId)
+            throws SQLException, ApiException {
+        WaitingRoom.Token token = WaitingRoom.getInstance().enter(userId, eventId);
+        if (token.getState() == WaitingRoom.State.REJECTED) {
+            c.exchange.getResponseHeaders().set("Retry-After", "60");
+            throw new ApiException(429, "Too many people are registering for this event right now");
+        }
+        RegistrationService.Result r;
+        try {
+            r = token.await(ADMISSION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            if (r == null) {
+                if (token.cancel()) {
+                    c.exchange.getResponseHeaders().set("Retry-After", "60");
+                    throw new ApiException(503, "Still queued for this event after "
+                            + ADMISSION_TIMEOUT_MS / 1000 + " s; try again later");
+                }
+                // admitted while timing out: the result is on its way
+                r = token.await(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException ex) {
+            token.cancel();
+            Thread.currentThread().interrupt();
+            throw new ApiException(503, "Interrupted while queued");
+        }
+        if (r.outcome == RegistrationService.Outcome.HELD) {
+            r = RegistrationService.getInstance().confirmHold(r.hold);
+        }
+        return r;
+    }
+
+    // ------------------------------------------------------------ tickets
+
+    private void ticket(Call c, String ticketId) throws SQLException, IOException, ApiException {
+        String format = c.param("format") == null ? "png" : c.param("format");
+        TicketStore.Kind kind;
+        switch (format) {
+            case "png": kind = TicketStore.Kind.PNG; break;
+            case "pdf": kind = TicketStore.Kind.PDF; break;
+            default:
+                throw new ApiException(400, "Unknown ticket format: " + format);
+        }
+        File file;
+        try {
+            file = TicketStore.getInstance().fileFor(ticketId, kind);
+        } catch (IllegalArgumentException ex) {
+            throw notFound(c);
+        }
+        if (file == null) {
+            throw new ApiException(404, "Ticket " + ticketId + " not found");
+        }
+        try (OutputStream out = c.stream(200, kind == TicketStore.Kind.PNG ? "image/png" : "application/pdf")) {
+            Files.copy(file.toPath(), out);
+        }
+    }
+
+    // ------------------------------------------------------------ reports
+
+    private void eventReport(Call c) throws SQLException, IOException, ApiException {
+        writePage(c, AdminReportsFrame.eventStatsQuery(), "events");
+    }
+
+    private void categoryReport(Call c) throws SQLException, IOException {
+        try (Connection conn = DBConnectionPool.getConnection();
+             PreparedStatement ps = conn.prepareStatement(AdminReportsFrame.CATEGORY_STATS_SQL);
+             ResultSet rs = ps.executeQuery();
+             JsonWriter json = c.json(200)) {
+            json.beginObject().name("categories").beginArray();
+            while (rs.next()) {
+                writeRow(json, rs);
+            }
+            json.endArray().endObject();
+        }
+    }
+
+    private void summaryReport(Call c) throws SQLException, IOException {
+        double[] s = AdminReportsFrame.querySummaryStats();
+        try (JsonWriter json = c.json(200)) {
+            json.beginObject()
+                    .field("total_events", (long) s[0])
+                    .field("total_capacity", (long) s[1])
+                    .field("total_registrations", (long) s[2])
+                    .field("total_waitlist", (long) s[3])
+                    .field("avg_occupancy_pct", s[4])
+                    .endObject();
+        }
+    }
+
+    // ------------------------------------------------------------ metrics
+
+    private void record(String endpoint, int status, long nanos) {
+        EndpointStats s = stats.computeIfAbsent(endpoint, e -> new EndpointStats());
+        s.latency.record(nanos);
+        if (status >= 500) {
+            s.serverErrors.incrementAndGet();
+        } else if (status >= 400) {
+            s.clientErrors.incrementAndGet();
+        }
+    }
+
+    private void metrics(Call c) throws IOException {
+        try (JsonWriter json = c.json(200)) {
+            json.beginObject().name("endpoints").beginArray();
+            for (Map.Entry<String, EndpointStats> e : new TreeMap<>(stats).entrySet()) {
+                SqlMetrics.LatencyHistogram h = e.getValue().latency;
+                json.beginObject()
+                        .field("endpoint", e.getKey())
+                        .field("count", h.count())
+                        .field("client_errors", e.getValue().clientErrors.get())
+                        .field("server_errors", e.getValue().serverErrors.get())
+                        .field("p50_ms", h.percentileMillis(50))
+                        .field("p99_ms", h.percentileMillis(99))
+                        .field("max_ms", h.maxMillis())
+                        .endObject();
+            }
+            json.endArray().endObject();
+        }
+    }
+
+    // ------------------------------------------------------------ helpers
+
+    /** Streams one keyset page as {name: [...], "next": cursor or null}. */
+    private static void writePage(Call c, PagedTableModel.Query q, String name)
+            throws SQLException, IOException, ApiException {
+        Object[] after = c.param("after") == null ? null : decodeCursor(c.param("after"));
+        try (Connection conn = DBConnectionPool.getConnection()) {
+            // buffered: a query that fails at once has not sent anything yet
+            JsonWriter json = c.json(200);
+            json.beginObject().name(name).beginArray();
+            Object[] next = PagedTableModel.scanPage(conn, q, after, rs -> {
+                try {
+                    writeRow(json, rs);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            json.endArray().field("next", next == null ? null : encodeCursor(next)).endObject();
+            json.close();
+        }
+    }
+
+    /** Writes the current row as an object; key columns k0..kn are skipped. */
+    private static void writeRow(JsonWriter json, ResultSet rs) throws SQLException, IOException {
+        ResultSetMetaData md = rs.getMetaData();
+        json.beginObject();
+        for (int i = 1; i <= md.getColumnCount(); i++) {
+            String label = md.getColumnLabel(i);
+            if (label.matches("k\\d+")) {
+                continue;
+            }
+            Object value = rs.getObject(i);
+            if (label.equals("seats_available")) {
+                // the database lags behind the write-behind queue
+                Integer latest = EventCatalogCache.getInstance().latestSeats(rs.getInt("event_id"));
+                if (latest != null) {
+                    value = latest;
+                }
+            }
+            json.field(label, value);
+        }
+        json.endObject();
+    }
+
+    private static String text(Map<String, String> fields, String name) {
+        String v = fields.get(name);
+        return v == null ? "" : v.trim();
+    }
+
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String k = eq < 0 ? pair : pair.substring(0, eq);
+            String v = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(k, StandardCharsets.UTF_8), URLDecoder.decode(v, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    // Cursor: the key of the last row, typed, base64url encoded.
+    static String encodeCursor(Object[] key) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(key.length);
+            for (Object k : key) {
+                if (k == null) {
+                    out.writeByte('n');
+                } else if (k instanceof Integer || k instanceof Long) {
+                    out.writeByte('i');
+                    out.writeLong(((Number) k).longValue());
+                } else if (k instanceof Number) {
+                    out.writeByte('d');
+                    out.writeDouble(((Number) k).doubleValue());
+                } else {
+                    out.writeByte('s');
+                    out.writeUTF(k.toString());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    static Object[] decodeCursor(String cursor) throws ApiException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            Object[] key = new Object[in.readUnsignedByte()];
+            for (int i = 0; i < key.length; i++) {
+                int type = in.readUnsignedByte();
+                switch (type) {
+                    case 'n': key[i] = null; break;
+                    case 'i': key[i] = in.readLong(); break;
+                    case 'd': key[i] = in.readDouble(); break;
+                    case 's': key[i] = in.readUTF(); break;
+                    default: throw new IOException("bad type " + type);
+                }
+            }
+            return key;
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new ApiException(400, "Invalid cursor");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        HttpApi api = start(port);
+        System.out.println("Serving the event API on http://" + BIND_ADDRESS + ":" + api.port() + "/api/"
+                + (TOKEN.isEmpty()
+                        ? " (read-only: set events.http.token to allow writes and ticket downloads)" : ""));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.stop();
+            DBConnectionPool.getInstance().shutdown();
+        }));
+    }
+}
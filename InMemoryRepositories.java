@@ -0,0 +1,271 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Repositories held in memory, the baseline RepositoryBenchmarks compares the
+ * SQLite backend against. Rows are kept in LongHashMaps keyed by id or by a packed
+ * (user, event) pair; listings and waitlists are sorted sets in the same order
+ * the SQLite queries use, so both backends answer alike (RepositoryConformance).
+ * Each repository is synchronized on itself. Nothing is persisted.
+ */
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    public static Repositories create() {
+        return new Repositories(new Events(), new Registrations(), new Waitlist(), new Tickets());
+    }
+
+    // NOT NULL columns of events; the other tables are written with INSERT OR IGNORE
+    private static void require(Object value, String column) throws SQLException {
+        if (value == null) {
+            throw new SQLException("NOT NULL constraint failed: " + column);
+        }
+    }
+
+    // ------------------------------------------------------------ events
+
+    private static final Comparator<EventRepository.Event> LISTING_ORDER =
+            Comparator.<EventRepository.Event, String>comparing(e -> e.date)
+                    .thenComparing(e -> e.time)
+                    .thenComparingInt(e -> e.eventId);
+
+    private static final class Events implements EventRepository {
+        private final LongHashMap<Event> byId = new LongHashMap<>();
+        private final TreeSet<Event> ordered = new TreeSet<>(LISTING_ORDER);
+        private int lastId;
+
+        @Override
+        public synchronized int create(Event e) throws SQLException {
+            require(e.title, "events.title");
+            require(e.category, "events.category");
+            require(e.location, "events.location");
+            require(e.date, "events.event_date");
+            require(e.time, "events.event_time");
+            Event stored = e.withId(++lastId);
+            byId.put(stored.eventId, stored);
+            ordered.add(stored);
+            return stored.eventId;
+        }
+
+        @Override
+        public synchronized Event find(int eventId) {
+            return byId.get(eventId);
+        }
+
+        @Override
+        public synchronized List<Event> list(String category, String location, String date, Event after,
+                                             int limit) {
+            List<Event> out = new ArrayList<>();
+            Iterable<Event> from = after == null ? ordered : ordered.tailSet(after, false);
+            for (Event e : from) {
+                if (out.size() >= limit) {
+                    break;
+                }
+                if (matches(category, e.category) && matches(location, e.location) && matches(date, e.date)) {
+                    out.add(e);
+                }
+            }
+            return out;
+        }
+
+        private static boolean matches(String filter, String value) {
+            return filter == null || filter.isEmpty() || filter.equals(value);
+        }
+
+        @Override
+        public synchronized boolean update(Event e) throws SQLException {
+            Event old = byId.get(e.eventId);
+            if (old == null) {
+                return false;
+            }
+            require(e.title, "events.title");
+            require(e.category, "events.category");
+            require(e.location, "events.location");
+            require(e.date, "events.event_date");
+            require(e.time, "events.event_time");
+            replace(old, e);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean adjustSeats(int eventId, int delta) {
+            Event old = byId.get(eventId);
+            if (old == null) {
+                return false;
+            }
+            long seats = (long) old.seatsAvailable + delta;
+            if (seats < 0 || seats > old.capacity) {
+                return false;
+            }
+            replace(old, new Event(old.eventId, old.title, old.category, old.location, old.date, old.time,
+                    old.capacity, (int) seats));
+            return true;
+        }
+
+        private void replace(Event old, Event e) {
+            ordered.remove(old);
+            ordered.add(e);
+            byId.put(e.eventId, e);
+        }
+    }
+
+    // ------------------------------------------------------------ registrations
+
+    private static final class Registrations implements RegistrationRepository {
+        private final LongHashMap<Registration> byId = new LongHashMap<>();
+        private final LongHashMap<Registration> byUserEvent = new LongHashMap<>();
+        private final LongHashMap<int[]> countByEvent = new LongHashMap<>();
+        private final LongHashMap<List<Registration>> byUser = new LongHashMap<>();
+        private final LongHashMap<Set<String>> seatsByEvent = new LongHashMap<>();
+
+        @Override
+        public synchronized boolean insert(Registration r) {
+            if (r.registrationDate == null || r.status == null) {
+                return false; // INSERT OR IGNORE skips NOT NULL violations too
+            }
+            long pair = LongHashMap.pack(r.userId, r.eventId);
+            if (byId.containsKey(r.registrationId) || byUserEvent.containsKey(pair)) {
+                return false;
+            }
+            if (r.seat != null && !seatsByEvent.computeIfAbsent(r.eventId, k -> new HashSet<>()).add(r.seat)) {
+                return false;
+            }
+            byId.put(r.registrationId, r);
+            byUserEvent.put(pair, r);
+            countByEvent.computeIfAbsent(r.eventId, k -> new int[1])[0]++;
+            // ids only grow in practice, so appending keeps the list in id order
+            List<Registration> mine = byUser.computeIfAbsent(r.userId, k -> new ArrayList<>());
+            int i = mine.size();
+            while (i > 0 && mine.get(i - 1).registrationId > r.registrationId) {
+                i--;
+            }
+            mine.add(i, r);
+            return true;
+        }
+
+        @Override
+        public synchronized Registration find(int registrationId) {
+            return byId.get(registrationId);
+        }
+
+        @Override
+        public synchronized boolean isRegistered(int userId, int eventId) {
+            return byUserEvent.containsKey(LongHashMap.pack(userId, eventId));
+        }
+
+        @Override
+        public synchronized int countForEvent(int eventId) {
+            int[] n = countByEvent.get(eventId);
+            return n == null ? 0 : n[0];
+        }
+
+        @Override
+        public synchronized List<Registration> forUser(int userId) {
+            List<Registration> mine = byUser.get(userId);
+            return mine == null ? new ArrayList<>() : new ArrayList<>(mine);
+        }
+    }
+
+    // ------------------------------------------------------------ waitlist
+
+    private static final Comparator<WaitlistRepository.Entry> QUEUE_ORDER =
+            Comparator.<WaitlistRepository.Entry, String>comparing(e -> e.requestDate)
+                    .thenComparingInt(e -> e.waitlistId);
+
+    private static final class Waitlist implements WaitlistRepository {
+        private final LongHashMap<Entry> byId = new LongHashMap<>();
+        private final LongHashMap<Entry> byUserEvent = new LongHashMap<>();
+        private final LongHashMap<TreeSet<Entry>> queues = new LongHashMap<>();
+
+        @Override
+        public synchronized boolean add(Entry e) {
+            if (e.requestDate == null) {
+                return false;
+            }
+            long pair = LongHashMap.pack(e.userId, e.eventId);
+            if (byId.containsKey(e.waitlistId) || byUserEvent.containsKey(pair)) {
+                return false;
+            }
+            byId.put(e.waitlistId, e);
+            byUserEvent.put(pair, e);
+            queues.computeIfAbsent(e.eventId, k -> new TreeSet<>(QUEUE_ORDER)).add(e);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean remove(int userId, int eventId) {
+            Entry e = byUserEvent.remove(LongHashMap.pack(userId, eventId));
+            if (e == null) {
+                return false;
+            }
+            byId.remove(e.waitlistId);
+            queues.get(eventId).remove(e);
+            return true;
+        }
+
+        @Override
+        public synchronized List<Entry> head(int eventId, int limit) {
+            List<Entry> out = new ArrayList<>();
+            TreeSet<Entry> queue = queues.get(eventId);
+            if (queue != null) {
+                for (Entry e : queue) {
+                    if (out.size() >= limit) {
+                        break;
+                    }
+                    out.add(e);
+                }
+            }
+            return out;
+        }
+
+        @Override
+        public synchronized int length(int eventId) {
+            TreeSet<Entry> queue = queues.get(eventId);
+            return queue == null ? 0 : queue.size();
+        }
+
+        @Override
+        public synchronized boolean contains(int userId, int eventId) {
+            return byUserEvent.containsKey(LongHashMap.pack(userId, eventId));
+        }
+    }
+
+    // ------------------------------------------------------------ tickets
+
+    private static final class Tickets implements TicketRepository {
+        private final Map<String, Integer> byTicket = new HashMap<>();
+        private final LongHashMap<String> byRegistration = new LongHashMap<>();
+
+        @Override
+        public synchronized boolean issue(String ticketId, int registrationId) {
+            if (byTicket.containsKey(ticketId) || byRegistration.containsKey(registrationId)) {
+                return false;
+            }
+            byTicket.put(ticketId, registrationId);
+            byRegistration.put(registrationId, ticketId);
+            return true;
+        }
+
+        @Override
+        public synchronized String ticketFor(int registrationId) {
+            return byRegistration.get(registrationId);
+        }
+
+        @Override
+        public synchronized int registrationOf(String ticketId) {
+            Integer id = byTicket.get(ticketId);
+            return id == null ? -1 : id;
+        }
+    }
+}
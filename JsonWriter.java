@@ -0,0 +1,155 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Minimal streaming JSON writer: values go straight to the underlying Writer,
+ * so a listing of any length is serialized without building it in memory.
+ * Commas are tracked per nesting level; the caller is trusted to nest
+ * begin/end calls correctly.
+ */
+final class JsonWriter implements Closeable {
+
+    private static final int MAX_DEPTH = 32;
+
+    private final Writer out;
+    // first[d]: nothing has been written yet at nesting level d
+    private final boolean[] first = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean afterName;
+
+    JsonWriter(Writer out) {
+        this.out = out;
+        first[0] = true;
+    }
+
+    JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    JsonWriter name(String name) throws IOException {
+        separator();
+        string(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    JsonWriter value(String value) throws IOException {
+        separator();
+        if (value == null) {
+            out.write("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    JsonWriter value(long value) throws IOException {
+        separator();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    JsonWriter value(double value) throws IOException {
+        separator();
+        out.write(Double.isFinite(value) ? String.format(Locale.ROOT, "%.3f", value) : "null");
+        return this;
+    }
+
+    JsonWriter value(boolean value) throws IOException {
+        separator();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    /** Numbers and booleans as such, everything else as its string form. */
+    JsonWriter value(Object value) throws IOException {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            return value(((Number) value).longValue());
+        }
+        if (value instanceof Number) {
+            return value(((Number) value).doubleValue());
+        }
+        if (value instanceof Boolean) {
+            return value((boolean) (Boolean) value);
+        }
+        return value(value == null ? null : value.toString());
+    }
+
+    JsonWriter field(String name, Object value) throws IOException {
+        return name(name).value(value);
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private JsonWriter open(char c) throws IOException {
+        separator();
+        out.write(c);
+        if (++depth >= MAX_DEPTH) {
+            throw new IllegalStateException("JSON nested too deeply");
+        }
+        first[depth] = true;
+        return this;
+    }
+
+    private JsonWriter close(char c) throws IOException {
+        out.write(c);
+        depth--;
+        return this;
+    }
+
+    private void separator() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (!first[depth]) {
+            out.write(',');
+        }
+        first[depth] = false;
+    }
+
+    private void string(String s) throws IOException {
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
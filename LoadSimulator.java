@@ -0,0 +1,428 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Command-line load simulator for the registration, waitlist and promotion
+ * paths, with invariant checks at the end.
+ *
+ * Synthetic attendees arrive on a schedule and do what the dashboard does:
+ * register, and join the waitlist when the event is full. Some click twice,
+ * some are already on the waitlist when they register. Meanwhile an admin
+ * thread raises capacities through the edit form's code path, so waitlist
+ * promotion runs concurrently with new registrations. Every run starts from a
+ * fresh SQLite file. Usage:
+ *
+ *   java ... LoadSimulator --db sim.db [--pattern steady|spike|cancellations]
+ *            [--attendees 5000] [--events 5] [--capacity 400] [--seconds 10]
+ *            [--threads 32] [--seated] [--seed 7]
+ *
+ * Patterns:
+ *   steady         arrivals spread evenly over the run
+ *   spike          a flash sale: 80% of the attendees arrive within 200 ms
+ *   cancellations  attendees take seat holds, as from the waiting room; during
+ *                  the middle third most of them give the seat back or let the
+ *                  hold run out, which hands the seats to the waitlist
+ *                  (registrations themselves cannot be cancelled)
+ *
+ * Prints throughput and p50/p95/p99 latency per operation, then checks that no
+ * event has more registrations than capacity, that ticket ids are unique and
+ * belong to stored registrations, that nobody is both registered and waitlisted
+ * for an event, that no seat is sold twice and that the in-memory seat counts
+ * and waitlists agree with the database. Exits with status 1 if a check fails.
+ */
+public final class LoadSimulator {
+
+    private enum Pattern { STEADY, SPIKE, CANCELLATIONS }
+
+    private interface Call<T> {
+        T run() throws SQLException;
+    }
+
+    private final Pattern pattern;
+    private final int attendees;
+    private final int eventCount;
+    private final int capacity;
+    private final long durationNanos;
+    private final int threads;
+    private final boolean seated;
+    private final Random rnd;
+
+    private final int[] eventIds;
+    private final int[] capacities;
+    private final Map<String, SqlMetrics.LatencyHistogram> latency = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> ticketsIssued = new ConcurrentHashMap<>();
+    private final LongAdder duplicateTickets = new LongAdder();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final List<String> violations = new ArrayList<>();
+
+    private LoadSimulator(Pattern pattern, int attendees, int eventCount, int capacity, int seconds,
+                          int threads, boolean seated, long seed) {
+        this.pattern = pattern;
+        this.attendees = attendees;
+        this.eventCount = eventCount;
+        this.capacity = capacity;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(seconds);
+        this.threads = threads;
+        this.seated = seated;
+        this.rnd = new Random(seed);
+        this.eventIds = new int[eventCount];
+        this.capacities = new int[eventCount];
+    }
+
+    public static void main(String[] args) throws Exception {
+        String db = "sim.db";
+        Pattern pattern = Pattern.STEADY;
+        int attendees = 5000;
+        int events = 5;
+        int capacity = 400;
+        int seconds = 10;
+        int threads = 32;
+        boolean seated = false;
+        long seed = 7L;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--seated")) {
+                seated = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String v = args[++i];
+            switch (args[i - 1]) {
+                case "--db": db = v; break;
+                case "--pattern": pattern = Pattern.valueOf(v.toUpperCase(java.util.Locale.ROOT)); break;
+                case "--attendees": attendees = Integer.parseInt(v); break;
+                case "--events": events = Integer.parseInt(v); break;
+                case "--capacity": capacity = Integer.parseInt(v); break;
+                case "--seconds": seconds = Integer.parseInt(v); break;
+                case "--threads": threads = Integer.parseInt(v); break;
+                case "--seed": seed = Long.parseLong(v); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+            }
+        }
+
+        File file = new File(db);
+        File journal = new File(db + ".journal");
+        for (String path : new String[]{file.getPath(), file.getPath() + "-wal", file.getPath() + "-shm",
+                journal.getPath()}) {
+            Files.deleteIfExists(Paths.get(path));
+        }
+        System.setProperty("events.db.url", "jdbc:sqlite:" + file.getPath());
+        System.setProperty("events.journal", journal.getPath());
+        if (System.getProperty("events.hold.ttlSeconds") == null) {
+            System.setProperty("events.hold.ttlSeconds", "1"); // abandoned holds lapse during the run
+        }
+
+        LoadSimulator sim = new LoadSimulator(pattern, attendees, events, capacity, seconds, threads, seated, seed);
+        boolean ok;
+        try {
+            sim.setUp();
+            sim.run();
+            ok = sim.verify();
+        } finally {
+            DBConnectionPool.getInstance().shutdown();
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    // ------------------------------------------------------------ run
+
+    private void setUp() throws SQLException {
+        for (int e = 0; e < eventCount; e++) {
+            SeatMap map = seated ? SeatMap.parse("Floor:" + ((capacity + 49) / 50) + "x50") : null;
+            eventIds[e] = AddEventFrame.createEvent("Simulated Event " + (e + 1), "Simulation", "Sim Hall",
+                    "2026-12-31", "10:00", capacity, map);
+            capacities[e] = map == null ? capacity : map.capacity();
+        }
+    }
+
+    private void run() throws Exception {
+        long[] arrivals = arrivals();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "sim-attendee");
+            t.setDaemon(true);
+            return t;
+        });
+
+        System.out.printf("Simulating %d attendees (%s) on %d events of %d seats with %d threads%n",
+                attendees, pattern.name().toLowerCase(java.util.Locale.ROOT), eventCount, capacity, threads);
+
+        Thread admin = new Thread(this::raiseCapacities, "sim-admin");
+        long start = System.nanoTime();
+        admin.start();
+        for (int i = 0; i < attendees; i++) {
+            long wait = start + arrivals[i] - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            int userId = i + 1;
+            int event = rnd.nextDouble() < 0.6 ? 0 : rnd.nextInt(eventCount);
+            double behaviour = rnd.nextDouble();
+            boolean inWave = arrivals[i] >= durationNanos / 3 && arrivals[i] < 2 * durationNanos / 3;
+            workers.execute(() -> attendee(userId, eventIds[event], behaviour, inWave));
+            if (pattern != Pattern.CANCELLATIONS && behaviour < 0.1) {
+                // double click: the same request again, in parallel
+                workers.execute(() -> attendee(userId, eventIds[event], 1.0, inWave));
+            }
+        }
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.MINUTES);
+        admin.join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // let abandoned holds lapse, then wait for the database to catch up
+        RegistrationService service = RegistrationService.getInstance();
+        long deadline = System.currentTimeMillis() + 30_000;
+        for (int id : eventIds) {
+            while (service.activeHolds(id) > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+        }
+        service.flush();
+
+        report(seconds);
+    }
+
+    private long[] arrivals() {
+        long[] at = new long[attendees];
+        for (int i = 0; i < attendees; i++) {
+            if (pattern == Pattern.SPIKE && i >= attendees / 10 && i < attendees * 9 / 10) {
+                // the sale opens a third into the run
+                at[i] = durationNanos / 3 + (long) (rnd.nextDouble() * TimeUnit.MILLISECONDS.toNanos(200));
+            } else {
+                at[i] = (long) (rnd.nextDouble() * durationNanos);
+            }
+        }
+        Arrays.sort(at);
+        return at;
+    }
+
+    private void attendee(int userId, int eventId, double behaviour, boolean inWave) {
+        try {
+            RegistrationService service = RegistrationService.getInstance();
+            if (pattern == Pattern.CANCELLATIONS) {
+                RegistrationService.Result r = timed("hold", () -> service.hold(userId, eventId));
+                if (r.outcome == RegistrationService.Outcome.HELD) {
+                    if (inWave && behaviour < 0.5) {
+                        timed("release", () -> {
+                            service.releaseHold(r.hold);
+                            return null;
+                        });
+                    } else if (!inWave || behaviour >= 0.75) {
+                        afterRegister(service, userId, eventId,
+                                timed("confirm", () -> service.confirmHold(r.hold)));
+                    }
+                    // otherwise the hold is abandoned and the reaper takes the seat back
+                } else {
+                    afterRegister(service, userId, eventId, r);
+                }
+                return;
+            }
+
+            if (behaviour >= 0.1 && behaviour < 0.2) {
+                // already on the waitlist, then registers when seats show up in the list
+                timed("waitlist", () -> service.joinWaitlist(userId, eventId));
+            }
+            afterRegister(service, userId, eventId, timed("register", () -> service.register(userId, eventId)));
+        } catch (SQLException | RuntimeException ex) {
+            if (errors.incrementAndGet() <= 5) {
+                System.err.println("Attendee " + userId + " failed: " + ex);
+            }
+        }
+    }
+
+    // what the dashboard does with the answer
+    private void afterRegister(RegistrationService service, int userId, int eventId,
+                               RegistrationService.Result r) throws SQLException {
+        if (r.ticketId != null && ticketsIssued.putIfAbsent(r.ticketId, userId) != null) {
+            duplicateTickets.increment();
+        }
+        if (r.outcome == RegistrationService.Outcome.FULL) {
+            timed("waitlist", () -> service.joinWaitlist(userId, eventId));
+        }
+    }
+
+    // five capacity increases per event over the run, each promoting from the waitlist
+    private void raiseCapacities() {
+        long start = System.nanoTime();
+        int rounds = 5;
+        for (int round = 1; round <= rounds; round++) {
+            long wait = start + durationNanos * round / (rounds + 1) - System.nanoTime();
+            try {
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+            } catch (InterruptedException ex) {
+                return;
+            }
+            for (int e = 0; e < eventCount; e++) {
+                int event = e;
+                int newCapacity = capacities[e] + Math.max(1, capacity / 20);
+                try {
+                    AddEventFrame.EditOutcome outcome = timed("edit+promote", () ->
+                            AddEventFrame.editEvent(eventIds[event], "Simulated Event " + (event + 1),
+                                    "Simulation", "Sim Hall", "2026-12-31", "10:00", newCapacity));
+                    if (outcome.updated) {
+                        capacities[e] = outcome.newCapacity;
+                        if (outcome.promotion != null) {
+                            count("PROMOTED", outcome.promotion.promoted);
+                        }
+                    }
+                } catch (SQLException | RuntimeException ex) {
+                    if (errors.incrementAndGet() <= 5) {
+                        System.err.println("Capacity change for event " + eventIds[e] + " failed: " + ex);
+                    }
+                }
+            }
+        }
+    }
+
+    private <T> T timed(String op, Call<T> call) throws SQLException {
+        long t0 = System.nanoTime();
+        T result = call.run();
+        latency.computeIfAbsent(op, k -> new SqlMetrics.LatencyHistogram()).record(System.nanoTime() - t0);
+        if (result instanceof RegistrationService.Result) {
+            count(((RegistrationService.Result) result).outcome.name(), 1);
+        }
+        return result;
+    }
+
+    private void count(String outcome, long n) {
+        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).add(n);
+    }
+
+    private void report(double seconds) {
+        long ops = 0;
+        for (SqlMetrics.LatencyHistogram h : latency.values()) {
+            ops += h.count();
+        }
+        System.out.printf("%nFinished in %.2f s: %d operations, %.0f ops/s, %d errors%n",
+                seconds, ops, ops / seconds, errors.get());
+        System.out.printf("%-14s %8s %10s %10s %10s %10s%n", "operation", "count", "p50 ms", "p95 ms", "p99 ms",
+                "max ms");
+        for (Map.Entry<String, SqlMetrics.LatencyHistogram> e : new TreeMap<>(latency).entrySet()) {
+            SqlMetrics.LatencyHistogram h = e.getValue();
+            System.out.printf("%-14s %8d %10.3f %10.3f %10.3f %10.3f%n", e.getKey(), h.count(),
+                    h.percentileMillis(50), h.percentileMillis(95), h.percentileMillis(99), h.maxMillis());
+        }
+        System.out.println();
+        for (Map.Entry<String, LongAdder> e : new TreeMap<>(outcomes).entrySet()) {
+            System.out.printf("%-20s %8d%n", e.getKey(), e.getValue().sum());
+        }
+    }
+
+    // ------------------------------------------------------------ invariants
+
+    private boolean verify() throws SQLException {
+        RegistrationService service = RegistrationService.getInstance();
+        Set<String> storedTickets = new HashSet<>();
+
+        try (Connection conn = DBConnectionPool.getConnection();
+             Statement st = conn.createStatement()) {
+
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT e.event_id, e.capacity, e.seats_available, " +
+                    "       (SELECT COUNT(*) FROM registrations r WHERE r.event_id = e.event_id) AS regs, " +
+                    "       (SELECT COUNT(*) FROM waitlist w WHERE w.event_id = e.event_id) AS waiting " +
+                    "FROM events e")) {
+                while (rs.next()) {
+                    int id = rs.getInt("event_id");
+                    int cap = rs.getInt("capacity");
+                    int seats = rs.getInt("seats_available");
+                    int regs = rs.getInt("regs");
+                    int waiting = rs.getInt("waiting");
+                    if (regs > cap) {
+                        violations.add("event " + id + " oversold: " + regs + " registrations for " + cap + " seats");
+                    }
+                    if (seats != cap - regs) {
+                        violations.add("event " + id + " has seats_available " + seats + " but "
+                                + (cap - regs) + " seats are unsold");
+                    }
+                    if (service.seatsAvailable(id) != seats) {
+                        violations.add("event " + id + " has " + service.seatsAvailable(id)
+                                + " seats in memory, " + seats + " in the database");
+                    }
+                    if (service.waitlistLength(id) != waiting) {
+                        violations.add("event " + id + " has " + service.waitlistLength(id)
+                                + " waitlisted in memory, " + waiting + " in the database");
+                    }
+                }
+            }
+
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT t.ticket_id, r.registration_id FROM registrations r " +
+                    "LEFT JOIN tickets t ON t.registration_id = r.registration_id")) {
+                while (rs.next()) {
+                    String ticket = rs.getString("ticket_id");
+                    if (ticket == null) {
+                        violations.add("registration " + rs.getInt("registration_id") + " has no ticket");
+                    } else if (!storedTickets.add(ticket)) {
+                        violations.add("ticket " + ticket + " is stored twice");
+                    }
+                }
+            }
+            if (duplicateTickets.sum() > 0) {
+                violations.add(duplicateTickets.sum() + " ticket id(s) were handed out twice");
+            }
+            int unknown = 0;
+            for (String ticket : ticketsIssued.keySet()) {
+                if (!storedTickets.contains(ticket)) {
+                    unknown++;
+                }
+            }
+            if (unknown > 0) {
+                violations.add(unknown + " ticket id(s) handed out have no stored registration");
+            }
+
+            expectNone(st, "SELECT COUNT(*) FROM waitlist w JOIN registrations r " +
+                           "ON r.event_id = w.event_id AND r.user_id = w.user_id",
+                    "attendee(s) both registered and waitlisted");
+            expectNone(st, "SELECT COUNT(*) FROM (SELECT 1 FROM registrations WHERE seat IS NOT NULL " +
+                           "GROUP BY event_id, seat HAVING COUNT(*) > 1)",
+                    "seat(s) sold more than once");
+        }
+
+        System.out.println();
+        if (violations.isEmpty()) {
+            System.out.println("All invariants hold.");
+            return errors.get() == 0;
+        }
+        System.out.println(violations.size() + " invariant violation(s):");
+        for (String v : violations) {
+            System.out.println("  " + v);
+        }
+        return false;
+    }
+
+    private void expectNone(Statement st, String countSql, String what) throws SQLException {
+        try (ResultSet rs = st.executeQuery(countSql)) {
+            int n = rs.next() ? rs.getInt(1) : 0;
+            if (n > 0) {
+                violations.add(n + " " + what);
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Open-addressing hash map with primitive long keys: no boxing of keys and no
+ * entry objects, so lookups by id (or by two ids packed into a long) stay cheap
+ * at millions of entries. Linear probing; removed slots are marked and reused.
+ * Not thread-safe.
+ */
+final class LongHashMap<V> {
+
+    private static final byte FREE = 0;
+    private static final byte USED = 1;
+    private static final byte REMOVED = 2;
+
+    private long[] keys;
+    private Object[] values;
+    private byte[] state;
+    private int size;
+    private int removed;
+
+    LongHashMap() {
+        this(16);
+    }
+
+    LongHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /** Two non-negative ints as one key, e.g. (user id, event id). */
+    static long pack(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int i = indexOf(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    /** Returns the previous value, or null. */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        int i = indexOf(key);
+        if (i >= 0) {
+            V old = (V) values[i];
+            values[i] = value;
+            return old;
+        }
+        insert(key, value);
+        return null;
+    }
+
+    /** Stores the value unless the key is present; returns the present value, or null if stored. */
+    @SuppressWarnings("unchecked")
+    V putIfAbsent(long key, V value) {
+        int i = indexOf(key);
+        if (i >= 0) {
+            return (V) values[i];
+        }
+        insert(key, value);
+        return null;
+    }
+
+    V computeIfAbsent(long key, LongFunction<V> create) {
+        V v = get(key);
+        if (v == null) {
+            v = create.apply(key);
+            insert(key, v);
+        }
+        return v;
+    }
+
+    /** Returns the removed value, or null. */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = (V) values[i];
+        values[i] = null;
+        state[i] = REMOVED;
+        size--;
+        removed++;
+        return old;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<V> action) {
+        for (int i = 0; i < state.length; i++) {
+            if (state[i] == USED) {
+                action.accept((V) values[i]);
+            }
+        }
+    }
+
+    void clear() {
+        allocate(16);
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (state[i] == FREE) {
+                return -1;
+            }
+            if (state[i] == USED && keys[i] == key) {
+                return i;
+            }
+        }
+    }
+
+    private void insert(long key, Object value) {
+        if ((size + removed + 1) * 4 > keys.length * 3) {
+            // grow only if live entries need it; otherwise just sweep out removed slots
+            rehash(size * 2 + 2 > keys.length / 2 ? keys.length * 2 : keys.length);
+        }
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (state[i] == USED) {
+            i = (i + 1) & mask;
+        }
+        if (state[i] == REMOVED) {
+            removed--;
+        }
+        keys[i] = key;
+        values[i] = value;
+        state[i] = USED;
+        size++;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldState = state;
+        allocate(capacity);
+        for (int i = 0; i < oldState.length; i++) {
+            if (oldState[i] == USED) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        state = new byte[capacity];
+        size = 0;
+        removed = 0;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,496 @@
+package com.mycompany.eventmanagementsystem;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-only table model that fetches fixed-size pages on demand.
+ *
+ * Pages are located with keyset pagination on the query's key columns (for
+ * events: event_date, event_time, event_id), so page k is read with
+ * "WHERE key > last key of page k-1 ... LIMIT n" instead of an OFFSET scan.
+ * Only the row count is known up front; at most MAX_PAGES pages are kept in an
+ * LRU and rows that are not loaded yet render as empty until their page arrives.
+ */
+public class PagedTableModel extends AbstractTableModel {
+
+    /** Describes the rows to page through. */
+    public static final class Query {
+        final String columns;
+        final String from;
+        final String where;
+        final List<Object> params;
+        final String[] keyColumns;
+        Object cacheKey;
+
+        /**
+         * @param columns    select list, e.g. "event_id, title"
+         * @param from       FROM clause body, e.g. "events e JOIN ..."
+         * @param where      filter with ? placeholders, or null
+         * @param params     values for the placeholders in where
+         * @param keyColumns unique, non-null ordering key, most significant first
+         */
+        public Query(String columns, String from, String where, List<Object> params, String... keyColumns) {
+            this.columns = columns;
+            this.from = from;
+            this.where = where == null || where.isEmpty() ? null : where;
+            this.params = params == null ? Collections.emptyList() : new ArrayList<>(params);
+            this.keyColumns = keyColumns;
+        }
+
+        /** Serves this query's count and pages through the model's PageCache under the given key. */
+        public Query cachedAs(Object key) {
+            this.cacheKey = key;
+            return this;
+        }
+    }
+
+    /** A page as stored in a PageCache: its rows and the key of its last row. */
+    public static final class CachedPage {
+        final Object[][] rows;
+        final Object[] lastKey;
+
+        public CachedPage(Object[][] rows, Object[] lastKey) {
+            this.rows = rows;
+            this.lastKey = lastKey;
+        }
+    }
+
+    /**
+     * Optional read-through cache. Writers bump version(); results read under an
+     * older version are not stored.
+     */
+    public interface PageCache {
+        long version();
+
+        Integer count(Object key);
+
+        void putCount(Object key, int count, long readVersion);
+
+        CachedPage page(Object key, int page);
+
+        void putPage(Object key, int page, Object[][] rows, Object[] lastKey, long readVersion);
+    }
+
+    public interface RowMapper {
+        Object[] map(ResultSet rs) throws SQLException;
+    }
+
+    public static final int PAGE_SIZE = 100;
+    private static final int MAX_PAGES = 20;
+
+    private static final ExecutorService FETCHER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "paged-table-fetcher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String[] columnNames;
+    private final RowMapper mapper;
+
+    private Query query;
+    private int generation;
+    private int rowCount;
+
+    // page index -> rows; access-ordered LRU
+    private final LinkedHashMap<Integer, Object[][]> pages =
+            new LinkedHashMap<Integer, Object[][]>(32, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+                    return size() > MAX_PAGES;
+                }
+            };
+
+    // boundaries.get(k) = key of the last row before page k (index 0 is the start)
+    private final List<Object[]> boundaries = new ArrayList<>();
+    private final Set<Integer> inFlight = new HashSet<>();
+
+    private Consumer<String> statusListener;
+    private Consumer<Exception> errorListener;
+    private PageCache cache;
+
+    public PagedTableModel(String[] columnNames, RowMapper mapper) {
+        this.columnNames = columnNames;
+        this.mapper = mapper;
+    }
+
+    public void setCache(PageCache cache) {
+        this.cache = cache;
+    }
+
+    public void setStatusListener(Consumer<String> statusListener) {
+        this.statusListener = statusListener;
+    }
+
+    public void setErrorListener(Consumer<Exception> errorListener) {
+        this.errorListener = errorListener;
+    }
+
+    /**
+     * Replaces the query and reloads the row count. Cached pages are dropped and
+     * re-fetched as they are displayed. Must be called on the EDT.
+     */
+    public void setQuery(Query query) {
+        this.query = query;
+        int gen = ++generation;
+        pages.clear();
+        boundaries.clear();
+        boundaries.add(null);
+        inFlight.clear();
+        status("Loading...");
+
+        PageCache c = query.cacheKey == null ? null : cache;
+
+        FETCHER.execute(() -> {
+            try {
+                int count = countRows(query, c);
+                SwingUtilities.invokeLater(() -> {
+                    if (gen != generation) {
+                        return; // superseded by a newer filter
+                    }
+                    rowCount = count;
+                    fireTableDataChanged();
+                    status(count + (count == 1 ? " row" : " rows"));
+                });
+            } catch (SQLException ex) {
+                SwingUtilities.invokeLater(() -> {
+                    if (gen == generation) {
+                        status("Load failed");
+                        if (errorListener != null) {
+                            errorListener.accept(ex);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /** Reloads the current query. */
+    public void refresh() {
+        if (query != null) {
+            setQuery(query);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Object[] r = getRow(row);
+        return r == null ? null : r[column];
+    }
+
+    /** The row if its page is loaded; otherwise schedules the page and returns null. */
+    public Object[] getRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        int page = row / PAGE_SIZE;
+        Object[][] rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        int offset = row % PAGE_SIZE;
+        return offset < rows.length ? rows[offset] : null;
+    }
+
+    /**
+     * Replaces every loaded row whose keyColumn equals key with patch(copy of the
+     * row) and repaints just those rows; pages that are not loaded are fetched
+     * fresh anyway. Returns the number of rows patched. Must be called on the EDT.
+     */
+    public int patchRows(int keyColumn, Object key, UnaryOperator<Object[]> patch) {
+        List<Integer> patched = new ArrayList<>();
+        for (Map.Entry<Integer, Object[][]> e : pages.entrySet()) {
+            Object[][] rows = e.getValue();
+            for (int i = 0; i < rows.length; i++) {
+                if (key.equals(rows[i][keyColumn])) {
+                    if (rows == e.getValue()) {
+                        rows = rows.clone(); // the array may be shared with the page cache
+                        e.setValue(rows);
+                    }
+                    rows[i] = patch.apply(rows[i].clone());
+                    patched.add(e.getKey() * PAGE_SIZE + i);
+                }
+            }
+        }
+        // after the loop: listeners may read the model and reorder the LRU
+        for (int index : patched) {
+            if (index < rowCount) {
+                fireTableRowsUpdated(index, index);
+            }
+        }
+        return patched.size();
+    }
+
+    /** A loaded row whose keyColumn equals key, or null if none is loaded. Must be called on the EDT. */
+    public Object[] findLoadedRow(int keyColumn, Object key) {
+        for (Object[][] rows : pages.values()) {
+            for (Object[] row : rows) {
+                if (key.equals(row[keyColumn])) {
+                    return row;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void requestPage(int page) {
+        if (query == null || !inFlight.add(page)) {
+            return;
+        }
+        Query q = query;
+        int gen = generation;
+        List<Object[]> knownBoundaries = new ArrayList<>(boundaries);
+        PageCache c = q.cacheKey == null ? null : cache;
+
+        FETCHER.execute(() -> {
+            if (c != null) {
+                CachedPage hit = c.page(q.cacheKey, page);
+                if (hit != null) {
+                    SwingUtilities.invokeLater(() -> pageLoaded(gen, page, page, Collections.emptyList(),
+                            hit.rows, hit.lastKey));
+                    return;
+                }
+            }
+            long readVersion = c == null ? 0 : c.version();
+
+            try (Connection conn = DBConnectionPool.getConnection()) {
+                // walk forward from the nearest known boundary, reading keys only
+                int from = Math.min(page, knownBoundaries.size() - 1);
+                List<Object[]> found = new ArrayList<>();
+                Object[] after = knownBoundaries.get(from);
+                for (int p = from; p < page; p++) {
+                    after = lastKeyOfPage(conn, q, after);
+                    if (after == null) {
+                        break;
+                    }
+                    found.add(after);
+                }
+
+                Object[][] rows = new Object[0][];
+                Object[] lastKey = null;
+                if (page == from || after != null) {
+                    List<Object[]> data = new ArrayList<>(PAGE_SIZE);
+                    lastKey = fetchPage(conn, q, after, data);
+                    rows = data.toArray(new Object[0][]);
+                }
+
+                if (c != null && (page == from || after != null)) {
+                    c.putPage(q.cacheKey, page, rows, lastKey, readVersion);
+                }
+
+                Object[][] loaded = rows;
+                Object[] end = lastKey;
+                SwingUtilities.invokeLater(() -> pageLoaded(gen, page, from, found, loaded, end));
+            } catch (SQLException ex) {
+                SwingUtilities.invokeLater(() -> {
+                    if (gen != generation) {
+                        return;
+                    }
+                    inFlight.remove(page);
+                    if (errorListener != null) {
+                        errorListener.accept(ex);
+                    }
+                });
+            }
+        });
+    }
+
+    private void pageLoaded(int gen, int page, int from, List<Object[]> found,
+                            Object[][] rows, Object[] lastKey) {
+        if (gen != generation) {
+            return;
+        }
+        inFlight.remove(page);
+        for (int i = 0; i < found.size(); i++) {
+            setBoundary(from + 1 + i, found.get(i));
+        }
+        if (lastKey != null && boundaries.size() > page) {
+            setBoundary(page + 1, lastKey);
+        }
+        pages.put(page, rows);
+        int first = page * PAGE_SIZE;
+        int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+        if (last >= first) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    private void setBoundary(int index, Object[] key) {
+        while (boundaries.size() <= index) {
+            boundaries.add(null);
+        }
+        if (boundaries.get(index) == null) {
+            boundaries.set(index, key);
+        }
+        // keep the list contiguous: a gap means the walk has to start earlier
+        int contiguous = 1;
+        while (contiguous < boundaries.size() && boundaries.get(contiguous) != null) {
+            contiguous++;
+        }
+        while (boundaries.size() > contiguous) {
+            boundaries.remove(boundaries.size() - 1);
+        }
+    }
+
+    private void status(String text) {
+        if (statusListener != null) {
+            statusListener.accept(text);
+        }
+    }
+
+    // ---------------------------------------------------------------- SQL
+
+    private static String whereClause(Query q, boolean withKey) {
+        StringBuilder sb = new StringBuilder();
+        if (q.where != null) {
+            sb.append(" WHERE (").append(q.where).append(")");
+        }
+        if (withKey) {
+            sb.append(q.where != null ? " AND " : " WHERE ");
+            sb.append("(").append(String.join(", ", q.keyColumns)).append(") > (");
+            for (int i = 0; i < q.keyColumns.length; i++) {
+                sb.append(i == 0 ? "?" : ", ?");
+            }
+            sb.append(")");
+        }
+        return sb.toString();
+    }
+
+    private static String orderBy(Query q) {
+        return " ORDER BY " + String.join(", ", q.keyColumns);
+    }
+
+    private static int bind(PreparedStatement ps, Query q, Object[] afterKey) throws SQLException {
+        int i = 1;
+        for (Object p : q.params) {
+            ps.setObject(i++, p);
+        }
+        if (afterKey != null) {
+            for (Object k : afterKey) {
+                ps.setObject(i++, k);
+            }
+        }
+        return i;
+    }
+
+    static int countRows(Query q, PageCache c) throws SQLException {
+        if (c != null) {
+            Integer cached = c.count(q.cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long readVersion = c == null ? 0 : c.version();
+
+        String sql = countSql(q);
+        try (Connection conn = DBConnectionPool.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            bind(ps, q, null);
+            try (ResultSet rs = ps.executeQuery()) {
+                int count = rs.next() ? rs.getInt("cnt") : 0;
+                if (c != null) {
+                    c.putCount(q.cacheKey, count, readVersion);
+                }
+                return count;
+            }
+        }
+    }
+
+    static String countSql(Query q) {
+        return "SELECT COUNT(*) AS cnt FROM " + q.from + whereClause(q, false);
+    }
+
+    static String pageSql(Query q, boolean afterKey) {
+        return "SELECT " + q.columns + ", " + keySelect(q) + " FROM " + q.from
+                + whereClause(q, afterKey) + orderBy(q)
+                + " LIMIT " + PAGE_SIZE;
+    }
+
+    private static Object[] readKey(ResultSet rs, Query q) throws SQLException {
+        Object[] key = new Object[q.keyColumns.length];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = rs.getObject("k" + i);
+        }
+        return key;
+    }
+
+    private static String keySelect(Query q) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < q.keyColumns.length; i++) {
+            sb.append(i == 0 ? "" : ", ").append(q.keyColumns[i]).append(" AS k").append(i);
+        }
+        return sb.toString();
+    }
+
+    private static Object[] lastKeyOfPage(Connection conn, Query q, Object[] after) throws SQLException {
+        String sql = "SELECT " + keySelect(q) + " FROM " + q.from
+                + whereClause(q, after != null) + orderBy(q)
+                + " LIMIT 1 OFFSET " + (PAGE_SIZE - 1);
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            bind(ps, q, after);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? readKey(rs, q) : null;
+            }
+        }
+    }
+
+    private Object[] fetchPage(Connection conn, Query q, Object[] after, List<Object[]> out) throws SQLException {
+        return fetchPage(conn, q, after, mapper, out);
+    }
+
+    /** Reads one page after the given key (null = first page); returns its last key if the page is full. */
+    static Object[] fetchPage(Connection conn, Query q, Object[] after, RowMapper mapper,
+                              List<Object[]> out) throws SQLException {
+        return scanPage(conn, q, after, rs -> out.add(mapper.map(rs)));
+    }
+
+    /** Receives the rows of a page while the result set is open (HttpApi streams them out). */
+    interface RowVisitor {
+        void row(ResultSet rs) throws SQLException;
+    }
+
+    /** As fetchPage, without collecting the rows; the result set also holds key columns k0..kn. */
+    static Object[] scanPage(Connection conn, Query q, Object[] after, RowVisitor visitor) throws SQLException {
+        String sql = pageSql(q, after != null);
+        Object[] last = null;
+        int rows = 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            bind(ps, q, after);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    visitor.row(rs);
+                    last = readKey(rs, q);
+                    rows++;
+                }
+            }
+        }
+        return rows == PAGE_SIZE ? last : null;
+    }
+}
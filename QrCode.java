@@ -0,0 +1,306 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal QR Code encoder for ticket ids (ISO/IEC 18004).
+ *
+ * Byte mode, error correction level M, versions 1 to 6 (up to 106 bytes), which
+ * covers "T" + registrationId + "E" + eventId with room to spare. Versions 7 and
+ * up need version information blocks and are not supported.
+ */
+public final class QrCode {
+
+    // error correction level M, indexed by version
+    private static final int[] DATA_CODEWORDS = {0, 16, 28, 44, 64, 86, 108};
+    private static final int[] EC_PER_BLOCK   = {0, 10, 16, 26, 18, 24, 16};
+    private static final int[] BLOCKS         = {0, 1, 1, 1, 2, 2, 4};
+
+    private final int size;
+    private final boolean[][] modules;    // [y][x], true = dark
+    private final boolean[][] isFunction;
+
+    private QrCode(int version) {
+        size = version * 4 + 17;
+        modules = new boolean[size][size];
+        isFunction = new boolean[size][size];
+    }
+
+    /** Encodes the text and returns the module grid, [y][x], true = dark. No quiet zone. */
+    public static boolean[][] encode(String text) {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+
+        int version = 1;
+        while (version <= 6 && data.length > DATA_CODEWORDS[version] - 2) {
+            version++;
+        }
+        if (version > 6) {
+            throw new IllegalArgumentException("Text too long for a QR code: " + data.length + " bytes");
+        }
+
+        QrCode qr = new QrCode(version);
+        qr.drawFunctionPatterns(version);
+        qr.drawCodewords(addErrorCorrection(dataCodewords(data, version), version));
+
+        int bestMask = 0;
+        int bestPenalty = Integer.MAX_VALUE;
+        for (int mask = 0; mask < 8; mask++) {
+            qr.applyMask(mask);
+            qr.drawFormatBits(mask);
+            int penalty = qr.penalty();
+            if (penalty < bestPenalty) {
+                bestPenalty = penalty;
+                bestMask = mask;
+            }
+            qr.applyMask(mask); // XOR again to undo
+        }
+        qr.applyMask(bestMask);
+        qr.drawFormatBits(bestMask);
+        return qr.modules;
+    }
+
+    // ------------------------------------------------------------ data
+
+    private static byte[] dataCodewords(byte[] data, int version) {
+        int capacityBits = DATA_CODEWORDS[version] * 8;
+        BitBuffer bb = new BitBuffer(capacityBits);
+        bb.append(0b0100, 4);              // byte mode
+        bb.append(data.length, 8);         // character count, 8 bits for versions 1-9
+        for (byte b : data) {
+            bb.append(b & 0xFF, 8);
+        }
+        bb.append(0, Math.min(4, capacityBits - bb.length));
+        bb.append(0, (8 - bb.length % 8) % 8);
+        for (int pad = 0xEC; bb.length < capacityBits; pad ^= 0xEC ^ 0x11) {
+            bb.append(pad, 8);
+        }
+        return bb.bytes;
+    }
+
+    private static byte[] addErrorCorrection(byte[] data, int version) {
+        int blocks = BLOCKS[version];
+        int ecLen = EC_PER_BLOCK[version];
+        int blockLen = data.length / blocks; // all blocks are the same size at level M, v1-6
+        byte[] divisor = reedSolomonDivisor(ecLen);
+
+        byte[] result = new byte[data.length + blocks * ecLen];
+        for (int b = 0; b < blocks; b++) {
+            byte[] block = new byte[blockLen];
+            System.arraycopy(data, b * blockLen, block, 0, blockLen);
+            byte[] ec = reedSolomonRemainder(block, divisor);
+            // interleave: codeword i of every block, then the next i
+            for (int i = 0; i < blockLen; i++) {
+                result[i * blocks + b] = block[i];
+            }
+            for (int i = 0; i < ecLen; i++) {
+                result[data.length + i * blocks + b] = ec[i];
+            }
+        }
+        return result;
+    }
+
+    private static byte[] reedSolomonDivisor(int degree) {
+        byte[] result = new byte[degree];
+        result[degree - 1] = 1;
+        int root = 1;
+        for (int i = 0; i < degree; i++) {
+            for (int j = 0; j < degree; j++) {
+                result[j] = (byte) gfMultiply(result[j] & 0xFF, root);
+                if (j + 1 < degree) {
+                    result[j] ^= result[j + 1];
+                }
+            }
+            root = gfMultiply(root, 0x02);
+        }
+        return result;
+    }
+
+    private static byte[] reedSolomonRemainder(byte[] data, byte[] divisor) {
+        byte[] result = new byte[divisor.length];
+        for (byte b : data) {
+            int factor = (b ^ result[0]) & 0xFF;
+            System.arraycopy(result, 1, result, 0, result.length - 1);
+            result[result.length - 1] = 0;
+            for (int i = 0; i < result.length; i++) {
+                result[i] ^= (byte) gfMultiply(divisor[i] & 0xFF, factor);
+            }
+        }
+        return result;
+    }
+
+    // GF(2^8) with the QR polynomial x^8 + x^4 + x^3 + x^2 + 1
+    private static int gfMultiply(int x, int y) {
+        int z = 0;
+        for (int i = 7; i >= 0; i--) {
+            z = (z << 1) ^ ((z >>> 7) * 0x11D);
+            z ^= ((y >>> i) & 1) * x;
+        }
+        return z;
+    }
+
+    // ------------------------------------------------------------ matrix
+
+    private void drawFunctionPatterns(int version) {
+        for (int i = 0; i < size; i++) {
+            setFunction(6, i, i % 2 == 0);
+            setFunction(i, 6, i % 2 == 0);
+        }
+        drawFinder(3, 3);
+        drawFinder(size - 4, 3);
+        drawFinder(3, size - 4);
+        if (version >= 2) {
+            // versions 2-6 have a single alignment pattern, the others would overlap the finders
+            int c = size - 7;
+            for (int dy = -2; dy <= 2; dy++) {
+                for (int dx = -2; dx <= 2; dx++) {
+                    setFunction(c + dx, c + dy, Math.max(Math.abs(dx), Math.abs(dy)) != 1);
+                }
+            }
+        }
+        drawFormatBits(0); // reserves the area; overwritten once the mask is chosen
+    }
+
+    private void drawFinder(int cx, int cy) {
+        for (int dy = -4; dy <= 4; dy++) {
+            for (int dx = -4; dx <= 4; dx++) {
+                int x = cx + dx;
+                int y = cy + dy;
+                if (x >= 0 && x < size && y >= 0 && y < size) {
+                    int dist = Math.max(Math.abs(dx), Math.abs(dy));
+                    setFunction(x, y, dist != 2 && dist != 4);
+                }
+            }
+        }
+    }
+
+    private void drawFormatBits(int mask) {
+        int data = mask; // level M is 00 in the format information
+        int rem = data;
+        for (int i = 0; i < 10; i++) {
+            rem = (rem << 1) ^ ((rem >>> 9) * 0x537);
+        }
+        int bits = ((data << 10) | rem) ^ 0x5412;
+
+        for (int i = 0; i <= 5; i++) setFunction(8, i, bit(bits, i));
+        setFunction(8, 7, bit(bits, 6));
+        setFunction(8, 8, bit(bits, 7));
+        setFunction(7, 8, bit(bits, 8));
+        for (int i = 9; i < 15; i++) setFunction(14 - i, 8, bit(bits, i));
+
+        for (int i = 0; i < 8; i++) setFunction(size - 1 - i, 8, bit(bits, i));
+        for (int i = 8; i < 15; i++) setFunction(8, size - 15 + i, bit(bits, i));
+        setFunction(8, size - 8, true); // dark module
+    }
+
+    private void drawCodewords(byte[] data) {
+        int i = 0;
+        for (int right = size - 1; right >= 1; right -= 2) {
+            if (right == 6) {
+                right = 5; // skip the vertical timing pattern
+            }
+            boolean upward = ((right + 1) & 2) == 0;
+            for (int vert = 0; vert < size; vert++) {
+                int y = upward ? size - 1 - vert : vert;
+                for (int j = 0; j < 2; j++) {
+                    int x = right - j;
+                    if (!isFunction[y][x] && i < data.length * 8) {
+                        modules[y][x] = bit(data[i >>> 3], 7 - (i & 7));
+                        i++;
+                    }
+                }
+            }
+        }
+    }
+
+    private void applyMask(int mask) {
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (isFunction[y][x]) continue;
+                boolean invert;
+                switch (mask) {
+                    case 0:  invert = (x + y) % 2 == 0; break;
+                    case 1:  invert = y % 2 == 0; break;
+                    case 2:  invert = x % 3 == 0; break;
+                    case 3:  invert = (x + y) % 3 == 0; break;
+                    case 4:  invert = (x / 3 + y / 2) % 2 == 0; break;
+                    case 5:  invert = x * y % 2 + x * y % 3 == 0; break;
+                    case 6:  invert = (x * y % 2 + x * y % 3) % 2 == 0; break;
+                    default: invert = ((x + y) % 2 + x * y % 3) % 2 == 0; break;
+                }
+                modules[y][x] ^= invert;
+            }
+        }
+    }
+
+    // Penalty rules of the standard; the lowest score picks the mask.
+    private int penalty() {
+        int result = 0;
+        int dark = 0;
+
+        for (int pass = 0; pass < 2; pass++) { // rows, then columns
+            for (int a = 0; a < size; a++) {
+                int run = 0;
+                boolean runColor = false;
+                int pattern = 0;
+                for (int b = 0; b < size; b++) {
+                    boolean m = pass == 0 ? modules[a][b] : modules[b][a];
+                    if (b > 0 && m == runColor) {
+                        run++;
+                        if (run == 5) result += 3;
+                        else if (run > 5) result++;
+                    } else {
+                        runColor = m;
+                        run = 1;
+                    }
+                    // finder-like 1:1:3:1:1 with four light modules on one side
+                    pattern = ((pattern << 1) | (m ? 1 : 0)) & 0x7FF;
+                    if (b >= 10 && (pattern == 0b00001011101 || pattern == 0b10111010000)) {
+                        result += 40;
+                    }
+                }
+            }
+        }
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (modules[y][x]) dark++;
+                if (x + 1 < size && y + 1 < size) {
+                    boolean c = modules[y][x];
+                    if (c == modules[y][x + 1] && c == modules[y + 1][x] && c == modules[y + 1][x + 1]) {
+                        result += 3;
+                    }
+                }
+            }
+        }
+
+        int total = size * size;
+        int k = (Math.abs(dark * 20 - total * 10) + total - 1) / total - 1;
+        return result + Math.max(0, k) * 10;
+    }
+
+    private void setFunction(int x, int y, boolean dark) {
+        modules[y][x] = dark;
+        isFunction[y][x] = true;
+    }
+
+    private static boolean bit(int x, int i) {
+        return ((x >>> i) & 1) != 0;
+    }
+
+    private static final class BitBuffer {
+        final byte[] bytes;
+        int length;
+
+        BitBuffer(int capacityBits) {
+            bytes = new byte[capacityBits / 8];
+        }
+
+        void append(int value, int bits) {
+            for (int i = bits - 1; i >= 0; i--, length++) {
+                if (((value >>> i) & 1) != 0) {
+                    bytes[length >>> 3] |= (byte) (0x80 >>> (length & 7));
+                }
+            }
+        }
+    }
+}
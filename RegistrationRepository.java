@@ -0,0 +1,41 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/** Storage for registrations. Ids are assigned by the caller (RegistrationService). */
+public interface RegistrationRepository {
+
+    final class Registration {
+        public final int registrationId;
+        public final int userId;
+        public final int eventId;
+        public final String registrationDate;
+        public final String status;
+        /** SeatMap label, null for general admission. */
+        public final String seat;
+
+        public Registration(int registrationId, int userId, int eventId, String registrationDate, String status,
+                            String seat) {
+            this.registrationId = registrationId;
+            this.userId = userId;
+            this.eventId = eventId;
+            this.registrationDate = registrationDate;
+            this.status = status;
+            this.seat = seat;
+        }
+    }
+
+    /** False if the id is taken, the user is already registered for the event or the seat is sold. */
+    boolean insert(Registration registration) throws SQLException;
+
+    /** The registration, or null. */
+    Registration find(int registrationId) throws SQLException;
+
+    boolean isRegistered(int userId, int eventId) throws SQLException;
+
+    int countForEvent(int eventId) throws SQLException;
+
+    /** The user's registrations in id order. */
+    List<Registration> forUser(int userId) throws SQLException;
+}
@@ -0,0 +1,1105 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.io.IOException;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * UI-independent registration engine.
+ *
+ * Seat inventory for each event is kept in an in-memory counter that is only
+ * ever decremented with compare-and-set, so a seat can never be handed out twice
+ * and the counter never goes below zero. Accepted registrations and waitlist
+ * entries are persisted asynchronously through RegistrationWriteBehind.
+ *
+ * Each event's waitlist is an in-memory FIFO queue (WaitlistQueue), journaled
+ * like registrations. Promotion dequeues from it directly instead of querying
+ * the waitlist table.
+ *
+ * A seat can also be held for a user while they decide (hold, then confirmHold
+ * or releaseHold). Holds are memory only and expire after events.hold.ttlSeconds
+ * (default 120); SeatHoldReaper returns expired seats in bulk and offers them to
+ * the waitlist. Only the confirmation writes anything.
+ *
+ * Every change is published to ChangeFeed (seats, waitlist length, new
+ * registrations) once it is in memory, so open windows can patch their rows.
+ * Should the database still refuse a confirmed registration, it is recorded as
+ * rejected, published as RegistrationRejected and the event's inventory is
+ * rebuilt from the database.
+ *
+ * Code that changes an event directly in the database (e.g. capacity edits) must
+ * run inside {@link #withEventLocked} so the in-memory inventory is reloaded
+ * consistently afterwards.
+ */
+public final class RegistrationService {
+
+    public enum Outcome {
+        CONFIRMED,
+        FULL,
+        WAITLISTED,
+        ALREADY_REGISTERED,
+        ALREADY_WAITLISTED,
+        UNKNOWN_EVENT,
+        /** A seat is held for the user; see Result.hold. */
+        HELD,
+        /** The hold ended (expired or released) before it was confirmed. */
+        HOLD_EXPIRED
+    }
+
+    public static final class Result {
+        public final Outcome outcome;
+        public final int eventId;
+        public final int registrationId;
+        public final String ticketId;
+        public final int seatsRemaining;
+        /** Assigned seat (SeatMap label) for seated events, else null. */
+        public final String seat;
+        /** The hold for outcome HELD, else null. */
+        public final SeatHold hold;
+
+        Result(Outcome outcome, int eventId, int registrationId, String ticketId, int seatsRemaining) {
+            this(outcome, eventId, registrationId, ticketId, seatsRemaining, null);
+        }
+
+        Result(Outcome outcome, int eventId, int registrationId, String ticketId, int seatsRemaining,
+               String seat) {
+            this(outcome, eventId, registrationId, ticketId, seatsRemaining, seat, null);
+        }
+
+        Result(SeatHold hold, int seatsRemaining) {
+            this(Outcome.HELD, hold.eventId, 0, null, seatsRemaining, hold.seat, hold);
+        }
+
+        private Result(Outcome outcome, int eventId, int registrationId, String ticketId, int seatsRemaining,
+                       String seat, SeatHold hold) {
+            this.outcome = outcome;
+            this.eventId = eventId;
+            this.registrationId = registrationId;
+            this.ticketId = ticketId;
+            this.seatsRemaining = seatsRemaining;
+            this.seat = seat;
+            this.hold = hold;
+        }
+    }
+
+    /** How a group booking that does not fit in the free seats is handled. */
+    public enum GroupMode {
+        /** Book every member or nobody. */
+        ALL_OR_NOTHING,
+        /** Book as many as fit and put the rest on the waitlist. */
+        PARTIAL
+    }
+
+    public static final class GroupResult {
+        /**
+         * CONFIRMED if every eligible member got a seat, WAITLISTED if some went to
+         * the waitlist, FULL if an all-or-nothing booking did not fit (nothing was
+         * booked), ALREADY_REGISTERED if no member was eligible.
+         */
+        public final Outcome outcome;
+        public final int eventId;
+        /** Members with a seat; the registration id of confirmed.get(i) is firstRegistrationId + i. */
+        public final List<Integer> confirmed;
+        public final int firstRegistrationId;
+        public final List<Integer> waitlisted;
+        /** Members already registered for or waitlisted on the event. */
+        public final List<Integer> skipped;
+        public final int seatsRemaining;
+        /** Seat of confirmed.get(i) for seated events (side by side when possible); empty otherwise. */
+        public final List<String> seats;
+
+        GroupResult(Outcome outcome, int eventId, List<Integer> confirmed, int firstRegistrationId,
+                    List<Integer> waitlisted, List<Integer> skipped, int seatsRemaining) {
+            this(outcome, eventId, confirmed, firstRegistrationId, waitlisted, skipped, seatsRemaining, List.of());
+        }
+
+        GroupResult(Outcome outcome, int eventId, List<Integer> confirmed, int firstRegistrationId,
+                    List<Integer> waitlisted, List<Integer> skipped, int seatsRemaining, List<String> seats) {
+            this.seats = seats;
+            this.outcome = outcome;
+            this.eventId = eventId;
+            this.confirmed = confirmed;
+            this.firstRegistrationId = firstRegistrationId;
+            this.waitlisted = waitlisted;
+            this.skipped = skipped;
+            this.seatsRemaining = seatsRemaining;
+        }
+
+        public String ticketIdOf(int index) {
+            return ticketIdFor(firstRegistrationId + index, eventId);
+        }
+    }
+
+    /** Outcome of moving waitlisted users into free seats after withEventLocked work. */
+    public static final class Promotion {
+        public final int promoted;
+        /** Registration ids of the promoted users are firstRegistrationId .. + promoted - 1. */
+        public final int firstRegistrationId;
+        public final long elapsedNanos;
+
+        Promotion(int promoted, int firstRegistrationId, long elapsedNanos) {
+            this.promoted = promoted;
+            this.firstRegistrationId = firstRegistrationId;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double elapsedMillis() {
+            return elapsedNanos / 1_000_000.0;
+        }
+    }
+
+    /** Largest party registerGroup accepts; keeps the IN (...) list below SQLite's parameter limit. */
+    public static final int MAX_GROUP_SIZE = 400;
+
+    /** Database work that runs while registrations for one event are paused. */
+    public interface SqlWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    private static final DateTimeFormatter SQLITE_DATETIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final long HOLD_TTL_MS = Long.getLong("events.hold.ttlSeconds", 120L) * 1000L;
+
+    // SQL shared with QueryPlanCheck
+    static final String MAX_REGISTRATION_ID =
+            "SELECT COALESCE(MAX(registration_id), 0) AS max_id FROM registrations";
+    static final String MAX_WAITLIST_ID =
+            "SELECT COALESCE(MAX(waitlist_id), 0) AS max_id FROM waitlist";
+    static final String READ_SEATS =
+            "SELECT seats_available FROM events WHERE event_id = ?";
+    static final String REGISTERED_USERS =
+            "SELECT user_id, seat FROM registrations WHERE event_id = ?";
+    static final String WAITLISTED_USERS =
+            "SELECT waitlist_id, user_id FROM waitlist WHERE event_id = ? ORDER BY request_date, waitlist_id";
+    static final String TAKE_SEATS =
+            "UPDATE events SET seats_available = seats_available - ? WHERE event_id = ? AND seats_available >= ?";
+    static final String INSERT_GROUP_REGISTRATION =
+            "INSERT INTO registrations (registration_id, user_id, event_id, registration_date, status, seat) " +
+            "VALUES (?, ?, ?, ?, 'CONFIRMED', ?)";
+    static final String INSERT_GROUP_TICKET =
+            "INSERT INTO tickets (ticket_id, registration_id) VALUES (?, ?)";
+    static final String INSERT_GROUP_WAITLIST =
+            "INSERT INTO waitlist (waitlist_id, user_id, event_id, request_date) VALUES (?, ?, ?, ?)";
+
+    private static volatile RegistrationService instance;
+
+    // published seat counts are numbered across all inventories, reloads included
+    private static final AtomicLong SEAT_SEQUENCE = new AtomicLong();
+
+    private final ConcurrentHashMap<Integer, EventInventory> inventories = new ConcurrentHashMap<>();
+    private final RegistrationWriteBehind writeBehind;
+    private final AtomicInteger nextRegistrationId;
+    private final AtomicInteger nextWaitlistId;
+    private final SeatHoldReaper reaper = new SeatHoldReaper(this::expireHolds);
+    // reloads after a rejected write; not on the writer thread, since the reload flushes
+    private final ExecutorService resync = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "registration-resync");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final class EventInventory {
+        final AtomicInteger seats;
+        final Set<Integer> registered = ConcurrentHashMap.newKeySet();
+        final WaitlistQueue waitlist = new WaitlistQueue();
+        /** Unsettled holds by user; their seats are not in the counter or free in the map. */
+        final Map<Integer, SeatHold> holds = new ConcurrentHashMap<>();
+        /** Null for general admission. */
+        volatile SeatMap seatMap;
+        final ReentrantReadWriteLock reloadLock = new ReentrantReadWriteLock();
+        // orders seat count publications, see seatsChanged
+        final Object publishLock = new Object();
+
+        EventInventory(int seats) {
+            this.seats = new AtomicInteger(seats);
+        }
+
+        boolean tryTakeSeat() {
+            while (true) {
+                int current = seats.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (seats.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * A seat from the seat map after tryTakeSeat succeeded: null for general
+         * admission, an empty array if the map has no free seat left.
+         */
+        int[] assignSeat() {
+            SeatMap map = seatMap;
+            if (map == null) {
+                return null;
+            }
+            int[] seat = map.allocate(1);
+            return seat == null ? new int[0] : seat;
+        }
+
+        void releaseSeat(int[] seat) {
+            SeatMap map = seatMap;
+            if (map != null && seat != null) {
+                map.release(seat);
+            }
+        }
+
+        String labelOf(int[] seat) {
+            return seat == null || seat.length == 0 ? null : seatMap.label(seat[0]);
+        }
+    }
+
+    private RegistrationService() throws SQLException, IOException {
+        writeBehind = RegistrationWriteBehind.openDefault();
+        List<RegistrationWriteBehind.Write> replay = writeBehind.readJournal();
+
+        int maxReg = 0;
+        int maxWait = 0;
+        try (Connection conn = DBConnectionPool.getConnection();
+             Statement st = conn.createStatement()) {
+            try (ResultSet rs = st.executeQuery(MAX_REGISTRATION_ID)) {
+                if (rs.next()) maxReg = rs.getInt("max_id");
+            }
+            try (ResultSet rs = st.executeQuery(MAX_WAITLIST_ID)) {
+                if (rs.next()) maxWait = rs.getInt("max_id");
+            }
+        }
+        for (RegistrationWriteBehind.Write w : replay) {
+            if (w.kind == RegistrationWriteBehind.Kind.WAITLIST) {
+                maxWait = Math.max(maxWait, w.id);
+            } else {
+                maxReg = Math.max(maxReg, w.id);
+            }
+        }
+        nextRegistrationId = new AtomicInteger(maxReg + 1);
+        nextWaitlistId = new AtomicInteger(maxWait + 1);
+
+        writeBehind.setRejectionListener(this::rejected);
+        writeBehind.start(replay);
+        if (!replay.isEmpty()) {
+            try {
+                writeBehind.flush(); // inventories are loaded from the database
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        reaper.start();
+    }
+
+    public static RegistrationService getInstance() throws SQLException {
+        RegistrationService s = instance;
+        if (s == null) {
+            synchronized (RegistrationService.class) {
+                s = instance;
+                if (s == null) {
+                    try {
+                        s = new RegistrationService();
+                    } catch (IOException ex) {
+                        throw new SQLException("Cannot open registration journal: " + ex.getMessage(), ex);
+                    }
+                    instance = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    // ------------------------------------------------------------------
+
+    public Result register(int userId, int eventId) throws SQLException {
+        EventInventory inv = inventory(eventId);
+        if (inv == null) {
+            return new Result(Outcome.UNKNOWN_EVENT, eventId, 0, null, 0);
+        }
+
+        inv.reloadLock.readLock().lock();
+        try {
+            if (!inv.registered.add(userId)) {
+                return new Result(Outcome.ALREADY_REGISTERED, eventId, 0, null, inv.seats.get());
+            }
+            if (!inv.tryTakeSeat()) {
+                inv.registered.remove(userId);
+                return new Result(Outcome.FULL, eventId, 0, null, 0);
+            }
+            int[] seatIndex = inv.assignSeat();
+            if (seatIndex != null && seatIndex.length == 0) {
+                // counter and seat map disagree (e.g. seats added without a layout change)
+                inv.seats.incrementAndGet();
+                inv.registered.remove(userId);
+                return new Result(Outcome.FULL, eventId, 0, null, 0);
+            }
+            return book(inv, eventId, userId, seatIndex);
+        } finally {
+            inv.reloadLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records a registration whose seat (and user entry in inv.registered) has
+     * already been taken; gives both back if the journal write fails.
+     */
+    private Result book(EventInventory inv, int eventId, int userId, int[] seatIndex) throws SQLException {
+        String seat = inv.labelOf(seatIndex);
+        int registrationId = nextRegistrationId.getAndIncrement();
+        String ticketId = ticketIdFor(registrationId, eventId);
+        RegistrationWriteBehind.Kind kind = registrationKind(inv, userId);
+        try {
+            writeBehind.submit(new RegistrationWriteBehind.Write(
+                    kind, registrationId, userId, eventId, ticketId, now(), seat));
+        } catch (IOException ex) {
+            inv.releaseSeat(seatIndex);
+            inv.seats.incrementAndGet();
+            inv.registered.remove(userId);
+            throw new SQLException("Could not record registration: " + ex.getMessage(), ex);
+        }
+        if (kind == RegistrationWriteBehind.Kind.PROMOTION) {
+            leaveWaitlist(inv, eventId, List.of(userId));
+        }
+        int remaining = seatsChanged(eventId, inv);
+        ChangeFeed.getInstance().publish(new ChangeFeed.RegistrationCreated(eventId, 1));
+        TicketStore.getInstance().issue(registrationId, eventId, userId, seat);
+        return new Result(Outcome.CONFIRMED, eventId, registrationId, ticketId, remaining, seat);
+    }
+
+    // ------------------------------------------------------------------ seat holds
+
+    /**
+     * Sets a seat aside for the user for events.hold.ttlSeconds without writing
+     * anything. Returns HELD with the hold (the same one again if the user already
+     * holds a seat for the event), FULL, ALREADY_REGISTERED or UNKNOWN_EVENT.
+     */
+    public Result hold(int userId, int eventId) throws SQLException {
+        return holdBatch(eventId, List.of(userId)).get(0);
+    }
+
+    /** hold() for several users of one event; results are in the order of userIds. */
+    public List<Result> holdBatch(int eventId, List<Integer> userIds) throws SQLException {
+        List<Result> results = new ArrayList<>(userIds.size());
+        EventInventory inv = inventory(eventId);
+        if (inv == null) {
+            for (int i = 0; i < userIds.size(); i++) {
+                results.add(new Result(Outcome.UNKNOWN_EVENT, eventId, 0, null, 0));
+            }
+            return results;
+        }
+
+        inv.reloadLock.readLock().lock();
+        try {
+            for (int userId : userIds) {
+                results.add(holdLocked(inv, eventId, userId));
+            }
+        } finally {
+            inv.reloadLock.readLock().unlock();
+        }
+        seatsChanged(eventId, inv);
+        return results;
+    }
+
+    private Result holdLocked(EventInventory inv, int eventId, int userId) {
+        if (inv.registered.contains(userId)) {
+            return new Result(Outcome.ALREADY_REGISTERED, eventId, 0, null, inv.seats.get());
+        }
+        SeatHold existing = inv.holds.get(userId);
+        if (existing != null && existing.isActive()) {
+            return new Result(existing, inv.seats.get());
+        }
+        if (!inv.tryTakeSeat()) {
+            return new Result(Outcome.FULL, eventId, 0, null, 0);
+        }
+        int[] seatIndex = inv.assignSeat();
+        if (seatIndex != null && seatIndex.length == 0) {
+            inv.seats.incrementAndGet();
+            return new Result(Outcome.FULL, eventId, 0, null, 0);
+        }
+        SeatHold hold = new SeatHold(eventId, userId, seatIndex, inv.labelOf(seatIndex), HOLD_TTL_MS);
+        SeatHold previous = inv.holds.put(userId, hold);
+        if (previous != null && previous.settle()) {
+            // expired but not reaped yet (or a concurrent hold for the same user)
+            inv.seats.incrementAndGet();
+            inv.releaseSeat(previous.seatIndex);
+        }
+        reaper.schedule(hold);
+        return new Result(hold, inv.seats.get());
+    }
+
+    /**
+     * Turns the hold into a registration: one journal write, no database
+     * connection. HOLD_EXPIRED if the hold already ended; ALREADY_REGISTERED
+     * (and the seat goes back) if the user registered another way meanwhile.
+     */
+    public Result confirmHold(SeatHold hold) throws SQLException {
+        EventInventory inv = inventory(hold.eventId);
+        if (inv == null) {
+            return new Result(Outcome.UNKNOWN_EVENT, hold.eventId, 0, null, 0);
+        }
+
+        inv.reloadLock.readLock().lock();
+        try {
+            if (hold.isExpired() || !hold.settle()) {
+                return new Result(Outcome.HOLD_EXPIRED, hold.eventId, 0, null, inv.seats.get());
+            }
+            inv.holds.remove(hold.userId, hold);
+            if (!inv.registered.add(hold.userId)) {
+                inv.seats.incrementAndGet();
+                inv.releaseSeat(hold.seatIndex);
+                return new Result(Outcome.ALREADY_REGISTERED, hold.eventId, 0, null, inv.seats.get());
+            }
+            return book(inv, hold.eventId, hold.userId, hold.seatIndex);
+        } finally {
+            inv.reloadLock.readLock().unlock();
+        }
+    }
+
+    /** Gives the held seat back at once (the user declined); it goes to the waitlist first. */
+    public void releaseHold(SeatHold hold) throws SQLException {
+        expireHolds(hold.eventId, List.of(hold));
+    }
+
+    /** Holds that have not been confirmed, released or reaped yet. */
+    public int activeHolds(int eventId) throws SQLException {
+        EventInventory inv = inventory(eventId);
+        return inv == null ? 0 : inv.holds.size();
+    }
+
+    /** SeatHoldReaper callback; also used by releaseHold. */
+    private void expireHolds(int eventId, List<SeatHold> holds) throws SQLException {
+        EventInventory inv = inventories.get(eventId);
+        if (inv == null) {
+            for (SeatHold h : holds) {
+                h.settle(); // inventory was dropped; its seats are counted afresh on load
+            }
+            return;
+        }
+
+        inv.reloadLock.writeLock().lock();
+        try {
+            int released = 0;
+            for (SeatHold h : holds) {
+                if (h.settle()) {
+                    inv.holds.remove(h.userId, h);
+                    inv.seats.incrementAndGet();
+                    inv.releaseSeat(h.seatIndex);
+                    released++;
+                }
+            }
+            if (released > 0) {
+                promoteLocked(eventId, inv);
+                seatsChanged(eventId, inv);
+            }
+        } finally {
+            inv.reloadLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Registers several users for one event with a single journal force for the
+     * whole batch. Results are in the order of userIds.
+     */
+    public List<Result> registerBatch(int eventId, List<Integer> userIds) throws SQLException {
+        List<Result> results = new ArrayList<>(userIds.size());
+        EventInventory inv = inventory(eventId);
+        if (inv == null) {
+            for (int i = 0; i < userIds.size(); i++) {
+                results.add(new Result(Outcome.UNKNOWN_EVENT, eventId, 0, null, 0));
+            }
+            return results;
+        }
+
+        inv.reloadLock.readLock().lock();
+        try {
+            List<RegistrationWriteBehind.Write> writes = new ArrayList<>();
+            List<Integer> taken = new ArrayList<>();
+            List<int[]> seatsTaken = new ArrayList<>();
+            List<Integer> leaving = new ArrayList<>();
+            String timestamp = now();
+            for (int userId : userIds) {
+                if (!inv.registered.add(userId)) {
+                    results.add(new Result(Outcome.ALREADY_REGISTERED, eventId, 0, null, inv.seats.get()));
+                    continue;
+                }
+                if (!inv.tryTakeSeat()) {
+                    inv.registered.remove(userId);
+                    results.add(new Result(Outcome.FULL, eventId, 0, null, 0));
+                    continue;
+                }
+                int[] seatIndex = inv.assignSeat();
+                if (seatIndex != null && seatIndex.length == 0) {
+                    inv.seats.incrementAndGet();
+                    inv.registered.remove(userId);
+                    results.add(new Result(Outcome.FULL, eventId, 0, null, 0));
+                    continue;
+                }
+                String seat = inv.labelOf(seatIndex);
+                int registrationId = nextRegistrationId.getAndIncrement();
+                String ticketId = ticketIdFor(registrationId, eventId);
+                RegistrationWriteBehind.Kind kind = registrationKind(inv, userId);
+                if (kind == RegistrationWriteBehind.Kind.PROMOTION) {
+                    leaving.add(userId);
+                }
+                writes.add(new RegistrationWriteBehind.Write(
+                        kind, registrationId, userId, eventId, ticketId, timestamp, seat));
+                taken.add(userId);
+                seatsTaken.add(seatIndex);
+                results.add(new Result(Outcome.CONFIRMED, eventId, registrationId, ticketId, 0, seat));
+            }
+
+            try {
+                writeBehind.submitAll(writes);
+            } catch (IOException ex) {
+                for (int i = 0; i < taken.size(); i++) {
+                    inv.releaseSeat(seatsTaken.get(i));
+                    inv.seats.incrementAndGet();
+                    inv.registered.remove(taken.get(i));
+                }
+                throw new SQLException("Could not record registrations: " + ex.getMessage(), ex);
+            }
+            leaveWaitlist(inv, eventId, leaving);
+
+            int remaining = writes.isEmpty() ? inv.seats.get() : seatsChanged(eventId, inv);
+            if (!writes.isEmpty()) {
+                ChangeFeed.getInstance().publish(new ChangeFeed.RegistrationCreated(eventId, writes.size()));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                Result r = results.get(i);
+                if (r.outcome == Outcome.CONFIRMED) {
+                    results.set(i, new Result(Outcome.CONFIRMED, eventId, r.registrationId, r.ticketId,
+                            remaining, r.seat));
+                    TicketStore.getInstance().issue(r.registrationId, eventId, userIds.get(i), r.seat);
+                }
+            }
+            return results;
+        } finally {
+            inv.reloadLock.readLock().unlock();
+        }
+    }
+
+    public Result joinWaitlist(int userId, int eventId) throws SQLException {
+        EventInventory inv = inventory(eventId);
+        if (inv == null) {
+            return new Result(Outcome.UNKNOWN_EVENT, eventId, 0, null, 0);
+        }
+
+        inv.reloadLock.readLock().lock();
+        try {
+            // Checked and written under the queue's monitor: a concurrent register()
+            // for this user either is seen here, or sees the entry in
+            // registrationKind() only after its WAITLIST write is queued.
+            synchronized (inv.waitlist) {
+                if (inv.registered.contains(userId)) {
+                    return new Result(Outcome.ALREADY_REGISTERED, eventId, 0, null, inv.seats.get());
+                }
+                int waitlistId = nextWaitlistId.getAndIncrement();
+                if (!inv.waitlist.offer(waitlistId, userId)) {
+                    return new Result(Outcome.ALREADY_WAITLISTED, eventId, 0, null, inv.seats.get());
+                }
+                try {
+                    writeBehind.submit(new RegistrationWriteBehind.Write(
+                            RegistrationWriteBehind.Kind.WAITLIST,
+                            waitlistId, userId, eventId, null, now()));
+                } catch (IOException ex) {
+                    inv.waitlist.remove(userId);
+                    throw new SQLException("Could not record waitlist entry: " + ex.getMessage(), ex);
+                }
+            }
+            ChangeFeed.getInstance().publish(new ChangeFeed.WaitlistChanged(eventId, inv.waitlist.size(), 1));
+            return new Result(Outcome.WAITLISTED, eventId, 0, null, inv.seats.get());
+        } finally {
+            inv.reloadLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * PROMOTION for a user who is on the waitlist, so that the write also deletes
+     * the waitlist row; otherwise REGISTRATION. Call after adding the user to
+     * inv.registered, which keeps joinWaitlist from adding them again.
+     */
+    private static RegistrationWriteBehind.Kind registrationKind(EventInventory inv, int userId) {
+        return inv.waitlist.contains(userId)
+                ? RegistrationWriteBehind.Kind.PROMOTION
+                : RegistrationWriteBehind.Kind.REGISTRATION;
+    }
+
+    /** Takes users who got a seat directly off the waitlist once their write is queued. */
+    private static void leaveWaitlist(EventInventory inv, int eventId, List<Integer> userIds) {
+        int removed = 0;
+        for (int userId : userIds) {
+            if (inv.waitlist.remove(userId)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            ChangeFeed.getInstance().publish(new ChangeFeed.WaitlistChanged(eventId, inv.waitlist.size(), -removed));
+        }
+    }
+
+    /** Current in-memory seat count, or -1 if the event does not exist. */
+    public int seatsAvailable(int eventId) throws SQLException {
+        EventInventory inv = inventory(eventId);
+        return inv == null ? -1 : inv.seats.get();
+    }
+
+    public int waitlistLength(int eventId) throws SQLException {
+        EventInventory inv = inventory(eventId);
+        return inv == null ? 0 : inv.waitlist.size();
+    }
+
+    /**
+     * Pauses registrations for the event, flushes pending writes, runs the work on
+     * a pooled connection and reloads the event's inventory from the database.
+     * Seats the work freed go to waitlisted users before registrations resume.
+     * Held seats are free in events.seats_available; work that takes seats must
+     * size itself by seatsAvailable(eventId), which excludes them.
+     */
+    public <T> T withEventLocked(int eventId, SqlWork<T> work) throws SQLException {
+        return withEventLocked(eventId, work, null);
+    }
+
+    /** As above; onPromoted (may be null) receives the promotion that followed the work. */
+    public <T> T withEventLocked(int eventId, SqlWork<T> work,
+                                 Consumer<Promotion> onPromoted) throws SQLException {
+        EventInventory inv = inventory(eventId);
+        if (inv != null) {
+            inv.reloadLock.writeLock().lock();
+        }
+        try {
+            flush();
+            int registeredBefore = inv == null ? 0 : inv.registered.size();
+            int waitlistBefore = inv == null ? 0 : inv.waitlist.size();
+            T result;
+            try (Connection conn = DBConnectionPool.getConnection()) {
+                result = work.run(conn);
+            } catch (SQLException | RuntimeException ex) {
+                if (inv != null) {
+                    reload(eventId, inv); // drops seats the work reserved in memory
+                }
+                throw ex;
+            }
+            if (inv != null) {
+                reload(eventId, inv);
+                // rows the work wrote in SQL (group bookings) show up as a difference
+                publishDifference(eventId, inv, registeredBefore, waitlistBefore);
+                Promotion promotion = promoteLocked(eventId, inv);
+                seatsChanged(eventId, inv);
+                if (onPromoted != null) {
+                    onPromoted.accept(promotion);
+                }
+            } else {
+                inventories.remove(eventId); // loaded concurrently from pre-commit state
+            }
+            return result;
+        } finally {
+            if (inv != null) {
+                inv.reloadLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Books seats for a party in one transaction: one duplicate check for all
+     * members, one conditional {@code seats_available >= N} decrement and batched
+     * inserts of registrations, tickets and (PARTIAL mode) waitlist entries.
+     * Single registrations for the event wait while the group is booked. The
+     * party only gets seats the in-memory inventory has free: held seats are still
+     * counted as available in the database.
+     */
+    public GroupResult registerGroup(int eventId, List<Integer> memberUserIds, GroupMode mode)
+            throws SQLException {
+
+        List<Integer> members = new ArrayList<>(new LinkedHashSet<>(memberUserIds));
+        if (members.isEmpty() || members.size() > MAX_GROUP_SIZE) {
+            throw new IllegalArgumentException("A group must have 1 to " + MAX_GROUP_SIZE + " members");
+        }
+        EventInventory inv = inventory(eventId);
+        if (inv == null) {
+            return new GroupResult(Outcome.UNKNOWN_EVENT, eventId, List.of(), 0, List.of(), List.of(), 0);
+        }
+
+        GroupResult result = withEventLocked(eventId, conn -> {
+            conn.setAutoCommit(false);
+            try {
+                if (readSeats(conn, eventId) == null) {
+                    return new GroupResult(Outcome.UNKNOWN_EVENT, eventId, List.of(), 0, List.of(), List.of(), 0);
+                }
+                // flushed and write-locked: the counter is the database count minus active holds
+                int seats = Math.max(inv.seats.get(), 0);
+
+                // 1) One duplicate check for the whole party
+                Set<Integer> already = new HashSet<>();
+                try (PreparedStatement ps = conn.prepareStatement(groupDuplicatesSql(members.size()))) {
+                    int i = 1;
+                    ps.setInt(i++, eventId);
+                    for (int m : members) ps.setInt(i++, m);
+                    ps.setInt(i++, eventId);
+                    for (int m : members) ps.setInt(i++, m);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            already.add(rs.getInt("user_id"));
+                        }
+                    }
+                }
+                List<Integer> eligible = new ArrayList<>();
+                List<Integer> skipped = new ArrayList<>();
+                for (int m : members) {
+                    (already.contains(m) ? skipped : eligible).add(m);
+                }
+                if (eligible.isEmpty()) {
+                    return new GroupResult(Outcome.ALREADY_REGISTERED, eventId, List.of(), 0,
+                            List.of(), skipped, seats);
+                }
+
+                int take = Math.min(seats, eligible.size());
+                SeatMap map = inv.seatMap;
+                if (map != null) {
+                    take = Math.min(take, map.free());
+                }
+                // seated events: the party is seated side by side where a row allows it
+                String[] seatLabels = take > 0 ? assignSeats(eventId, take) : null;
+                if (mode == GroupMode.ALL_OR_NOTHING && take < eligible.size()) {
+                    return new GroupResult(Outcome.FULL, eventId, List.of(), 0, List.of(), skipped, seats);
+                }
+                List<Integer> confirmed = eligible.subList(0, take);
+                List<Integer> waitlisted = eligible.subList(take, eligible.size());
+                String timestamp = now();
+
+                // 2) One conditional decrement for all seats
+                int firstId = 0;
+                if (take > 0) {
+                    try (PreparedStatement ps = conn.prepareStatement(TAKE_SEATS)) {
+                        ps.setInt(1, take);
+                        ps.setInt(2, eventId);
+                        ps.setInt(3, take);
+                        if (ps.executeUpdate() == 0) {
+                            throw new SQLException("Seat count changed during group registration");
+                        }
+                    }
+
+                    // 3) Registrations and tickets, batched, ids from one reserved block
+                    firstId = allocateRegistrationIds(take);
+                    try (PreparedStatement psReg = conn.prepareStatement(INSERT_GROUP_REGISTRATION);
+                         PreparedStatement psTicket = conn.prepareStatement(INSERT_GROUP_TICKET)) {
+                        for (int i = 0; i < take; i++) {
+                            int regId = firstId + i;
+                            psReg.setInt(1, regId);
+                            psReg.setInt(2, confirmed.get(i));
+                            psReg.setInt(3, eventId);
+                            psReg.setString(4, timestamp);
+                            psReg.setString(5, seatLabels == null ? null : seatLabels[i]);
+                            psReg.addBatch();
+                            psTicket.setString(1, ticketIdFor(regId, eventId));
+                            psTicket.setInt(2, regId);
+                            psTicket.addBatch();
+                        }
+                        psReg.executeBatch();
+                        psTicket.executeBatch();
+                    }
+                }
+
+                // 4) The remainder joins the waitlist in party order
+                if (!waitlisted.isEmpty()) {
+                    int firstWait = nextWaitlistId.getAndAdd(waitlisted.size());
+                    try (PreparedStatement ps = conn.prepareStatement(INSERT_GROUP_WAITLIST)) {
+                        for (int i = 0; i < waitlisted.size(); i++) {
+                            ps.setInt(1, firstWait + i);
+                            ps.setInt(2, waitlisted.get(i));
+                            ps.setInt(3, eventId);
+                            ps.setString(4, timestamp);
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                }
+
+                conn.commit();
+                return new GroupResult(waitlisted.isEmpty() ? Outcome.CONFIRMED : Outcome.WAITLISTED,
+                        eventId, new ArrayList<>(confirmed), firstId, new ArrayList<>(waitlisted),
+                        skipped, seats - take, seatLabels == null ? List.of() : Arrays.asList(seatLabels));
+            } finally {
+                // no-op after commit; discards the transaction on early return or error
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        });
+
+        for (int i = 0; i < result.confirmed.size(); i++) {
+            TicketStore.getInstance().issue(result.firstRegistrationId + i, eventId, result.confirmed.get(i),
+                    result.seats.isEmpty() ? null : result.seats.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Reserves seats in the event's seat map for code inside withEventLocked that
+     * inserts registrations itself; side by side when possible. Returns null for
+     * general admission. The reload after the work rebuilds the map from the
+     * database, so seats of a rolled back transaction become free again.
+     */
+    public String[] assignSeats(int eventId, int count) throws SQLException {
+        EventInventory inv = inventory(eventId);
+        SeatMap map = inv == null ? null : inv.seatMap;
+        if (map == null || count <= 0) {
+            return null;
+        }
+        int[] seats = map.allocate(count);
+        if (seats == null) {
+            throw new SQLException("Only " + map.free() + " seat(s) left in the seat map of event " + eventId);
+        }
+        return map.labels(seats);
+    }
+
+    /**
+     * Moves users from the head of the in-memory waitlist into free seats. The
+     * promotions go through the journal with one force; the caller holds the
+     * event's write lock. This is the only promotion path: every change that frees
+     * seats (capacity edits, released holds) ends here.
+     */
+    private Promotion promoteLocked(int eventId, EventInventory inv) throws SQLException {
+        long start = System.nanoTime();
+        int seats = Math.max(inv.seats.get(), 0);
+        SeatMap map = inv.seatMap;
+        if (map != null) {
+            seats = Math.min(seats, map.free());
+        }
+        List<WaitlistQueue.Entry> head = inv.waitlist.peek(seats);
+        if (head.isEmpty()) {
+            return new Promotion(0, 0, System.nanoTime() - start);
+        }
+
+        // each promoted user gets the best single seat, in queue order
+        String[] seatLabels = new String[head.size()];
+        int[] seatIndexes = new int[0];
+        if (map != null) {
+            seatIndexes = new int[head.size()];
+            for (int i = 0; i < head.size(); i++) {
+                seatIndexes[i] = map.allocate(1)[0];
+                seatLabels[i] = map.label(seatIndexes[i]);
+            }
+        }
+
+        int firstId = allocateRegistrationIds(head.size());
+        String timestamp = now();
+        List<RegistrationWriteBehind.Write> writes = new ArrayList<>(head.size());
+        for (int i = 0; i < head.size(); i++) {
+            int regId = firstId + i;
+            writes.add(new RegistrationWriteBehind.Write(RegistrationWriteBehind.Kind.PROMOTION,
+                    regId, head.get(i).userId, eventId, ticketIdFor(regId, eventId), timestamp, seatLabels[i]));
+        }
+        try {
+            writeBehind.submitAll(writes);
+        } catch (IOException ex) {
+            if (map != null) {
+                map.release(seatIndexes);
+            }
+            throw new SQLException("Could not record waitlist promotion: " + ex.getMessage(), ex);
+        }
+
+        inv.waitlist.removeFirst(head.size());
+        for (WaitlistQueue.Entry e : head) {
+            inv.registered.add(e.userId);
+        }
+        inv.seats.addAndGet(-head.size());
+        ChangeFeed.getInstance().publish(new ChangeFeed.RegistrationCreated(eventId, head.size()));
+        ChangeFeed.getInstance().publish(new ChangeFeed.WaitlistChanged(eventId, inv.waitlist.size(), -head.size()));
+        // the rows may still be queued for the database, so the renderer gets user and seat
+        for (int i = 0; i < head.size(); i++) {
+            TicketStore.getInstance().issue(firstId + i, eventId, head.get(i).userId, seatLabels[i]);
+        }
+        return new Promotion(head.size(), firstId, System.nanoTime() - start);
+    }
+
+    /** Registration ids are allocated here so that deferred inserts never collide. */
+    public int nextRegistrationId() {
+        return nextRegistrationId.getAndIncrement();
+    }
+
+    /** Reserves {@code count} consecutive registration ids and returns the first. */
+    public int allocateRegistrationIds(int count) {
+        return nextRegistrationId.getAndAdd(count);
+    }
+
+    public static String ticketIdFor(int registrationId, int eventId) {
+        return "T" + registrationId + "E" + eventId;
+    }
+
+    /** Waits until every accepted write has reached the database. */
+    public void flush() throws SQLException {
+        try {
+            writeBehind.flush();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while flushing registrations", ex);
+        }
+    }
+
+    public int pendingWrites() {
+        return writeBehind.pending();
+    }
+
+    /** RegistrationWriteBehind recorded a registration as rejected instead of writing it. */
+    private void rejected(RegistrationWriteBehind.Write w, String reason) {
+        ChangeFeed.getInstance().publish(
+                new ChangeFeed.RegistrationRejected(w.eventId, w.id, w.userId, w.ticketId, reason));
+        resync.execute(() -> {
+            try {
+                withEventLocked(w.eventId, conn -> null);
+            } catch (SQLException ex) {
+                System.err.println("Could not reload event " + w.eventId + " after a rejected registration: "
+                        + ex.getMessage());
+            }
+        });
+    }
+
+    // ------------------------------------------------------------------
+
+    private EventInventory inventory(int eventId) throws SQLException {
+        EventInventory inv = inventories.get(eventId);
+        if (inv != null) {
+            return inv;
+        }
+        synchronized (inventories) {
+            inv = inventories.get(eventId);
+            if (inv == null) {
+                inv = load(eventId);
+                if (inv != null) {
+                    inventories.put(eventId, inv);
+                }
+            }
+        }
+        return inv;
+    }
+
+    private EventInventory load(int eventId) throws SQLException {
+        try (Connection conn = DBConnectionPool.getConnection()) {
+            Integer seats = readSeats(conn, eventId);
+            if (seats == null) {
+                return null;
+            }
+            EventInventory inv = new EventInventory(seats);
+            inv.seatMap = SeatMap.load(conn, eventId);
+            readUsers(conn, eventId, inv);
+            return inv;
+        }
+    }
+
+    /**
+     * Rebuilds the inventory from the database; the caller holds the write lock.
+     * The counter is recomputed as the database count minus the holds that still
+     * fit in it; a hold that does not (e.g. its seat left the layout, or the
+     * database has fewer free seats than there are holds) is ended, so that
+     * confirmHold answers HOLD_EXPIRED instead of selling a seat that is gone.
+     */
+    private void reload(int eventId, EventInventory inv) throws SQLException {
+        int seats;
+        try (Connection conn = DBConnectionPool.getConnection()) {
+            Integer stored = readSeats(conn, eventId);
+            seats = stored == null ? 0 : Math.max(stored, 0);
+            inv.registered.clear();
+            inv.waitlist.clear();
+            inv.seatMap = SeatMap.load(conn, eventId);
+            readUsers(conn, eventId, inv);
+        }
+
+        // held seats are not in the database; take them out again
+        SeatMap map = inv.seatMap;
+        for (SeatHold h : inv.holds.values()) {
+            boolean kept = !h.isSettled() && seats > 0
+                    && (map == null || (h.seatIndex != null && map.occupy(h.seatIndex[0])));
+            if (kept) {
+                seats--;
+            } else {
+                h.settle();
+                inv.holds.remove(h.userId, h);
+            }
+        }
+        inv.seats.set(seats);
+    }
+
+    /** Members of a party already registered for or waiting on the event; binds event_id, the party, event_id, the party. */
+    static String groupDuplicatesSql(int partySize) {
+        String in = String.join(",", Collections.nCopies(partySize, "?"));
+        return "SELECT user_id FROM registrations WHERE event_id = ? AND user_id IN (" + in + ") " +
+               "UNION SELECT user_id FROM waitlist WHERE event_id = ? AND user_id IN (" + in + ")";
+    }
+
+    private static Integer readSeats(Connection conn, int eventId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(READ_SEATS)) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt("seats_available") : null;
+            }
+        }
+    }
+
+    private static void readUsers(Connection conn, int eventId, EventInventory inv) throws SQLException {
+        SeatMap map = inv.seatMap;
+        try (PreparedStatement ps = conn.prepareStatement(REGISTERED_USERS)) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    inv.registered.add(rs.getInt("user_id"));
+                    if (map != null) {
+                        map.occupy(map.seatOf(rs.getString("seat")));
+                    }
+                }
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(WAITLISTED_USERS)) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    inv.waitlist.offer(rs.getInt("waitlist_id"), rs.getInt("user_id"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes the event's current seat count to the catalogue cache and the
+     * change feed and returns it. The counter is read under the inventory's
+     * publish lock, so a thread that read an older count can never publish it
+     * after a newer one; the sequence number lets the cache drop late values too.
+     */
+    private static int seatsChanged(int eventId, EventInventory inv) {
+        synchronized (inv.publishLock) {
+            int seats = inv.seats.get();
+            EventCatalogCache.getInstance().seatsChanged(eventId, seats, SEAT_SEQUENCE.incrementAndGet());
+            ChangeFeed.getInstance().publish(new ChangeFeed.SeatsChanged(eventId, seats));
+            return seats;
+        }
+    }
+
+    private static void publishDifference(int eventId, EventInventory inv, int registeredBefore, int waitlistBefore) {
+        int registered = inv.registered.size() - registeredBefore;
+        if (registered > 0) {
+            ChangeFeed.getInstance().publish(new ChangeFeed.RegistrationCreated(eventId, registered));
+        }
+        int waitlist = inv.waitlist.size();
+        if (waitlist != waitlistBefore) {
+            ChangeFeed.getInstance().publish(new ChangeFeed.WaitlistChanged(eventId, waitlist, waitlist - waitlistBefore));
+        }
+    }
+
+    /** UTC, in SQLite's datetime('now') format. */
+    static String now() {
+        return LocalDateTime.now(ZoneOffset.UTC).format(SQLITE_DATETIME);
+    }
+}
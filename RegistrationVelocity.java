@@ -0,0 +1,302 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Registration counts per event in minute, hour and day buckets, for the
+ * Velocity tab of AdminReportsFrame.
+ *
+ * Like ReportStats, registration_velocity is maintained by triggers on
+ * registrations, so dashboard bookings, write-behind batches and waitlist
+ * promotions are all counted without application code. A bucket is keyed by
+ * the UTC start of its minute, hour or day (registration_date is UTC). Minute
+ * buckets are kept for two days and hour buckets for sixty; the trigger that
+ * prunes them only runs when an event opens a new hour bucket. Day buckets are
+ * kept. Category figures are summed from the event buckets at read time, so
+ * they follow an event that changes category.
+ */
+public final class RegistrationVelocity {
+
+    /** Bucket sizes, with the strftime format that truncates registration_date to one. */
+    enum Granularity {
+        MINUTE("minute", "%Y-%m-%d %H:%M:00", "-2 days", "-1 day"),
+        HOUR("hour", "%Y-%m-%d %H:00:00", "-60 days", "-30 days"),
+        DAY("day", "%Y-%m-%d 00:00:00", null, null);
+
+        final String key;
+        final String format;
+        // SQLite date modifiers: how far back buckets are kept, and checked by verifyAndRepair
+        final String retention;
+        final String verified;
+
+        Granularity(String key, String format, String retention, String verified) {
+            this.key = key;
+            this.format = format;
+            this.retention = retention;
+            this.verified = verified;
+        }
+
+        String bucketOf(String dateExpr) {
+            return "strftime('" + format + "', " + dateExpr + ")";
+        }
+    }
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS registration_velocity (" +
+            "  granularity TEXT NOT NULL," +
+            "  bucket_start TEXT NOT NULL," +
+            "  event_id INTEGER NOT NULL," +
+            "  registrations INTEGER NOT NULL DEFAULT 0," +
+            "  PRIMARY KEY (granularity, bucket_start, event_id)) WITHOUT ROWID",
+
+            "CREATE TRIGGER IF NOT EXISTS trg_velocity_registration_insert AFTER INSERT ON registrations BEGIN " +
+            bump(Granularity.MINUTE, "NEW", "+ 1") +
+            bump(Granularity.HOUR, "NEW", "+ 1") +
+            bump(Granularity.DAY, "NEW", "+ 1") +
+            "END",
+
+            // a cancelled registration no longer counts; an emptied bucket stays at 0
+            "CREATE TRIGGER IF NOT EXISTS trg_velocity_registration_delete AFTER DELETE ON registrations BEGIN " +
+            bump(Granularity.MINUTE, "OLD", "- 1") +
+            bump(Granularity.HOUR, "OLD", "- 1") +
+            bump(Granularity.DAY, "OLD", "- 1") +
+            "END",
+
+            // runs once per event per hour, not per registration
+            "CREATE TRIGGER IF NOT EXISTS trg_velocity_prune AFTER INSERT ON registration_velocity " +
+            "WHEN NEW.granularity = 'hour' BEGIN " +
+            "  DELETE FROM registration_velocity WHERE granularity = 'minute' " +
+            "     AND bucket_start < datetime(NEW.bucket_start, '" + Granularity.MINUTE.retention + "'); " +
+            "  DELETE FROM registration_velocity WHERE granularity = 'hour' " +
+            "     AND bucket_start < datetime(NEW.bucket_start, '" + Granularity.HOUR.retention + "'); " +
+            "END"
+    };
+
+    // INSERT OR IGNORE + UPDATE, as in ReportStats: no upsert syntax needed
+    private static String bump(Granularity g, String row, String delta) {
+        String bucket = g.bucketOf(row + ".registration_date");
+        String insert = delta.startsWith("-") ? "" :
+                "  INSERT OR IGNORE INTO registration_velocity (granularity, bucket_start, event_id) " +
+                "    VALUES ('" + g.key + "', " + bucket + ", " + row + ".event_id); ";
+        return insert +
+                "  UPDATE registration_velocity SET registrations = registrations " + delta +
+                "   WHERE granularity = '" + g.key + "' AND bucket_start = " + bucket +
+                "     AND event_id = " + row + ".event_id; ";
+    }
+
+    private RegistrationVelocity() {
+    }
+
+    /** Creates the table and triggers; populates them the first time. */
+    public static void ensureSchema(Connection conn) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            createSchema(conn);
+            conn.commit();
+        } catch (SQLException ex) {
+            conn.rollback();
+            throw ex;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /** ensureSchema without transaction handling, for DatabaseSetup's migrations. */
+    static void createSchema(Connection conn) throws SQLException {
+        boolean existed;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT COUNT(*) AS cnt FROM sqlite_master " +
+                "WHERE type = 'table' AND name = 'registration_velocity'")) {
+            try (ResultSet rs = ps.executeQuery()) {
+                existed = rs.next() && rs.getInt("cnt") > 0;
+            }
+        }
+
+        try (Statement st = conn.createStatement()) {
+            for (String ddl : SCHEMA) {
+                st.execute(ddl);
+            }
+        }
+        if (!existed) {
+            rebuild(conn);
+        }
+    }
+
+    // buckets the registrations since the modifier (all of them if null) would produce
+    private static String expected(Granularity g, String since) {
+        return "SELECT '" + g.key + "', " + g.bucketOf("registration_date") + " AS bucket, event_id, COUNT(*) " +
+               "FROM registrations " +
+               "WHERE " + g.bucketOf("registration_date") + " IS NOT NULL" +
+               (since == null ? "" : " AND registration_date >= " +
+                       g.bucketOf("datetime('now', '" + since + "')")) +
+               " GROUP BY bucket, event_id";
+    }
+
+    private static String stored(Granularity g, String since) {
+        return "SELECT granularity, bucket_start, event_id, registrations FROM registration_velocity " +
+               "WHERE granularity = '" + g.key + "' AND registrations > 0" +
+               (since == null ? "" : " AND bucket_start >= " + g.bucketOf("datetime('now', '" + since + "')"));
+    }
+
+    /** Recomputes the buckets still within retention from registrations. */
+    public static void rebuild(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM registration_velocity");
+            for (Granularity g : Granularity.values()) {
+                st.executeUpdate("INSERT INTO registration_velocity " +
+                                 "(granularity, bucket_start, event_id, registrations) " +
+                                 expected(g, g.retention));
+            }
+        }
+    }
+
+    /**
+     * Compares the buckets with registrations and rebuilds them if they differ.
+     * Minute and hour buckets are only compared over the last day and month,
+     * well inside what pruning keeps. Returns the number of mismatching buckets.
+     */
+    public static int verifyAndRepair(Connection conn) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT 0");
+        for (Granularity g : Granularity.values()) {
+            sql.append(" + (SELECT COUNT(*) FROM (").append(expected(g, g.verified))
+               .append(" EXCEPT ").append(stored(g, g.verified)).append("))");
+            sql.append(" + (SELECT COUNT(*) FROM (").append(stored(g, g.verified))
+               .append(" EXCEPT ").append(expected(g, g.verified)).append("))");
+        }
+        int mismatches;
+        try (PreparedStatement ps = conn.prepareStatement(sql + " AS mismatches");
+             ResultSet rs = ps.executeQuery()) {
+            mismatches = rs.next() ? rs.getInt("mismatches") : 0;
+        }
+        if (mismatches > 0) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                rebuild(conn);
+                conn.commit();
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+        return mismatches;
+    }
+
+    // ------------------------------------------------------------ reading
+
+    /**
+     * Per-event sales over the last hour (minute buckets), 24 hours (hour
+     * buckets) and 7 days (day buckets); parameters from windowStarts, then the
+     * row limit. Only events with sales in the last week appear.
+     */
+    static final String EVENT_VELOCITY_SQL =
+            "SELECT v.event_id, e.title, s.category, s.seats_available, e.event_date, e.event_time, " +
+            "       SUM(CASE WHEN v.granularity = 'minute' THEN v.registrations ELSE 0 END) AS last_hour, " +
+            "       SUM(CASE WHEN v.granularity = 'hour' THEN v.registrations ELSE 0 END) AS last_day, " +
+            "       SUM(CASE WHEN v.granularity = 'day' THEN v.registrations ELSE 0 END) AS last_week " +
+            "FROM registration_velocity v " +
+            "JOIN events e ON e.event_id = v.event_id " +
+            "JOIN event_stats s ON s.event_id = v.event_id " +
+            "WHERE (v.granularity = 'minute' AND v.bucket_start >= ?) " +
+            "   OR (v.granularity = 'hour' AND v.bucket_start >= ?) " +
+            "   OR (v.granularity = 'day' AND v.bucket_start >= ?) " +
+            "GROUP BY v.event_id " +
+            "HAVING last_week > 0 " +
+            "ORDER BY last_day DESC, last_week DESC, v.event_id " +
+            "LIMIT ?";
+
+    /** The same windows summed per category; parameters from windowStarts. */
+    static final String CATEGORY_VELOCITY_SQL =
+            "SELECT s.category, " +
+            "       SUM(CASE WHEN v.granularity = 'minute' THEN v.registrations ELSE 0 END) AS last_hour, " +
+            "       SUM(CASE WHEN v.granularity = 'hour' THEN v.registrations ELSE 0 END) AS last_day, " +
+            "       SUM(CASE WHEN v.granularity = 'day' THEN v.registrations ELSE 0 END) AS last_week " +
+            "FROM registration_velocity v " +
+            "JOIN event_stats s ON s.event_id = v.event_id " +
+            "WHERE (v.granularity = 'minute' AND v.bucket_start >= ?) " +
+            "   OR (v.granularity = 'hour' AND v.bucket_start >= ?) " +
+            "   OR (v.granularity = 'day' AND v.bucket_start >= ?) " +
+            "GROUP BY s.category " +
+            "HAVING last_week > 0 " +
+            "ORDER BY last_day DESC, last_week DESC, s.category";
+
+    /** One event's buckets of one granularity since a bucket start, oldest first. */
+    static final String EVENT_HISTORY_SQL =
+            "SELECT bucket_start, registrations FROM registration_velocity " +
+            "WHERE granularity = ? AND bucket_start >= ? AND event_id = ? " +
+            "ORDER BY bucket_start";
+
+    private static final DateTimeFormatter BUCKET =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter SHOWN =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    static LocalDateTime nowUtc() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+    /**
+     * First bucket of the last hour, 24 hours and 7 days at nowUtc: each window
+     * is the current (partial) bucket plus the full ones before it.
+     */
+    static String[] windowStarts(LocalDateTime nowUtc) {
+        return new String[]{
+                nowUtc.truncatedTo(ChronoUnit.MINUTES).minusMinutes(59).format(BUCKET),
+                nowUtc.truncatedTo(ChronoUnit.HOURS).minusHours(23).format(BUCKET),
+                nowUtc.truncatedTo(ChronoUnit.DAYS).minusDays(6).format(BUCKET)
+        };
+    }
+
+    /** First bucket of the history shown for one event: 60 minutes, 48 hours or 30 days. */
+    static String historyStart(Granularity g, LocalDateTime nowUtc) {
+        switch (g) {
+            case MINUTE: return nowUtc.truncatedTo(ChronoUnit.MINUTES).minusMinutes(59).format(BUCKET);
+            case HOUR:   return nowUtc.truncatedTo(ChronoUnit.HOURS).minusHours(47).format(BUCKET);
+            default:     return nowUtc.truncatedTo(ChronoUnit.DAYS).minusDays(29).format(BUCKET);
+        }
+    }
+
+    /** Recent sales per hour: the last 24 hours if there were any, else the 7-day average. */
+    static double perHour(int lastDay, int lastWeek) {
+        return lastDay > 0 ? lastDay / 24.0 : lastWeek / (7 * 24.0);
+    }
+
+    /**
+     * When the remaining seats run out at the recent rate, in local time, or
+     * why there is no projection. eventDate/eventTime are local, as entered.
+     */
+    static String projectSellOut(int seatsAvailable, int lastDay, int lastWeek, LocalDateTime nowUtc,
+                                 String eventDate, String eventTime) {
+        if (seatsAvailable <= 0) {
+            return "Sold out";
+        }
+        double rate = perHour(lastDay, lastWeek);
+        if (rate <= 0) {
+            return "-";
+        }
+        double hours = seatsAvailable / rate;
+        if (hours > 24 * 365 * 10) {
+            return "Not within 10 years";
+        }
+        LocalDateTime soldOut = nowUtc.plus(Duration.ofSeconds((long) (hours * 3600)))
+                .atOffset(ZoneOffset.UTC).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        try {
+            LocalDateTime start = LocalDateTime.parse(eventDate + "T" + eventTime);
+            if (soldOut.isAfter(start)) {
+                return "Not before the event";
+            }
+        } catch (RuntimeException ignored) {
+            // an unparseable date or time only loses the comparison
+        }
+        return soldOut.format(SHOWN);
+    }
+}
@@ -0,0 +1,524 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable write-behind queue for registrations, tickets, waitlist entries and
+ * waitlist promotions.
+ *
+ * Every accepted write is appended to a journal file and forced to disk before
+ * the caller is answered. Forces are group commits: appends are serialized, the
+ * force runs outside that lock, and one force covers every line appended before
+ * it, so concurrent callers share an fsync instead of queueing for their own.
+ * A write is queued for the database once its line is on disk. A single writer thread drains the queue in batches and
+ * applies each batch to SQLite in one transaction. Inserts use explicit ids with
+ * INSERT OR IGNORE, so replaying the journal after a crash is idempotent; the
+ * waitlist delete of a promotion runs on replay too.
+ *
+ * The in-memory inventory decides who gets a seat, so the database should never
+ * refuse a registration. If it does anyway (no seat left in events, or a unique
+ * conflict with a row written elsewhere), the write is kept in
+ * registration_rejections with the reason and the RejectionListener is told
+ * after the batch commits; nothing is dropped silently.
+ *
+ * The journal is emptied whenever the database has caught up. Under steady load
+ * it rarely does, so once the committed prefix exceeds events.journal.compactBytes
+ * (default 1 MiB) the uncommitted tail is copied to a new file that replaces it.
+ */
+final class RegistrationWriteBehind {
+
+    private static final int MAX_BATCH = 256;
+    private static final long COMPACT_BYTES = Long.getLong("events.journal.compactBytes", 1L << 20);
+
+    // SQL shared with QueryPlanCheck
+    static final String INSERT_REGISTRATION =
+            "INSERT OR IGNORE INTO registrations " +
+            "(registration_id, user_id, event_id, registration_date, status, seat) " +
+            "VALUES (?, ?, ?, ?, 'CONFIRMED', ?)";
+    static final String INSERT_TICKET =
+            "INSERT OR IGNORE INTO tickets (ticket_id, registration_id) VALUES (?, ?)";
+    static final String TAKE_SEAT =
+            "UPDATE events SET seats_available = seats_available - 1 " +
+            "WHERE event_id = ? AND seats_available > 0";
+    static final String UNDO_REGISTRATION =
+            "DELETE FROM registrations WHERE registration_id = ?";
+    static final String REGISTRATION_EXISTS =
+            "SELECT 1 FROM registrations WHERE registration_id = ?";
+    static final String INSERT_WAITLIST =
+            "INSERT OR IGNORE INTO waitlist (waitlist_id, user_id, event_id, request_date) " +
+            "VALUES (?, ?, ?, ?)";
+    static final String INSERT_REJECTION =
+            "INSERT OR IGNORE INTO registration_rejections (registration_id, user_id, event_id, " +
+            "ticket_id, registration_date, seat, reason, rejected_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, datetime('now'))";
+    static final String LEAVE_WAITLIST =
+            "DELETE FROM waitlist WHERE user_id = ? AND event_id = ?";
+
+    /** PROMOTION is a registration that also removes the user's waitlist entry. */
+    enum Kind { REGISTRATION, WAITLIST, PROMOTION }
+
+    static final class Write {
+        final Kind kind;
+        final int id;
+        final int userId;
+        final int eventId;
+        final String ticketId;
+        final String timestamp;
+        /** Assigned seat label, null for general admission and waitlist entries. */
+        final String seat;
+        long seq;
+        /** Journal position just past this write's line, counted since the file was created. */
+        long end;
+
+        Write(Kind kind, int id, int userId, int eventId, String ticketId, String timestamp) {
+            this(kind, id, userId, eventId, ticketId, timestamp, null);
+        }
+
+        Write(Kind kind, int id, int userId, int eventId, String ticketId, String timestamp, String seat) {
+            this.kind = kind;
+            this.id = id;
+            this.userId = userId;
+            this.eventId = eventId;
+            this.ticketId = ticketId;
+            this.timestamp = timestamp;
+            this.seat = seat;
+        }
+
+        String toJournalLine() {
+            return code(kind) + '\t' + id + '\t' + userId + '\t'
+                    + eventId + '\t' + (ticketId == null ? "-" : ticketId) + '\t' + timestamp
+                    + '\t' + (seat == null ? "-" : seat) + '\n';
+        }
+
+        static Write fromJournalLine(String line) {
+            String[] f = line.split("\t");
+            // journals written before seat maps have six fields
+            if (f.length != 6 && f.length != 7) {
+                return null;
+            }
+            Kind kind = f[0].equals("R") ? Kind.REGISTRATION
+                    : f[0].equals("P") ? Kind.PROMOTION : Kind.WAITLIST;
+            String seat = f.length == 7 && !f[6].equals("-") ? f[6] : null;
+            return new Write(kind, Integer.parseInt(f[1]), Integer.parseInt(f[2]),
+                    Integer.parseInt(f[3]), f[4].equals("-") ? null : f[4], f[5], seat);
+        }
+    }
+
+    static final class Rejection {
+        final Write write;
+        final String reason;
+
+        Rejection(Write write, String reason) {
+            this.write = write;
+            this.reason = reason;
+        }
+    }
+
+    /** Told about registrations that were recorded as rejected; runs on the writer thread. */
+    interface RejectionListener {
+        void rejected(Write w, String reason);
+    }
+
+    private static String code(Kind kind) {
+        switch (kind) {
+            case REGISTRATION: return "R";
+            case PROMOTION: return "P";
+            default: return "W";
+        }
+    }
+
+    private final Path journalPath;
+    private FileChannel journal;
+    private final BlockingQueue<Write> queue = new LinkedBlockingQueue<>();
+    private final Object seqLock = new Object();
+    // appended to the journal, queued once a force has covered them (guarded by seqLock)
+    private final ArrayDeque<Write> unforced = new ArrayDeque<>();
+    // held while forcing; taken before seqLock, never while holding it
+    private final Object forceLock = new Object();
+    private long forcedBytes;
+    private long appendedSeq;
+    private long committedSeq;
+    // journal positions: bytes ever appended, and bytes since cut off the front
+    private long appendedBytes;
+    private long droppedBytes;
+    // length of the complete lines found by readJournal; a torn tail is cut off in start()
+    private long validBytes;
+    private final Thread writer;
+    private volatile RejectionListener rejectionListener;
+
+    RegistrationWriteBehind(Path journalPath) throws IOException {
+        this.journalPath = journalPath;
+        this.journal = FileChannel.open(journalPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        writer = new Thread(this::runWriter, "registration-writer");
+        writer.setDaemon(true);
+    }
+
+    static RegistrationWriteBehind openDefault() throws IOException {
+        return new RegistrationWriteBehind(Paths.get(
+                System.getProperty("events.journal", "registration-journal.log")));
+    }
+
+    /** Entries left in the journal by a previous run; they are re-applied by start(). */
+    List<Write> readJournal() throws IOException {
+        List<Write> pending = new ArrayList<>();
+        if (!Files.exists(journalPath)) {
+            return pending;
+        }
+        long size = Files.size(journalPath);
+        long offset = 0;
+        try (BufferedReader in = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                long next = offset + line.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (next > size) {
+                    break; // a torn last line (no newline yet) is skipped
+                }
+                offset = next;
+                Write w = line.isEmpty() ? null : Write.fromJournalLine(line);
+                if (w != null) {
+                    w.end = offset;
+                    pending.add(w);
+                }
+            }
+        }
+        validBytes = offset;
+        return pending;
+    }
+
+    void setRejectionListener(RejectionListener listener) {
+        rejectionListener = listener;
+    }
+
+    void start(List<Write> replay) throws IOException {
+        synchronized (seqLock) {
+            if (journal.size() > validBytes) {
+                journal.truncate(validBytes); // new lines must not be glued to a torn one
+            }
+            appendedBytes = validBytes;
+            forcedBytes = validBytes;
+            for (Write w : replay) {
+                w.seq = ++appendedSeq;
+                queue.add(w);
+            }
+        }
+        writer.start();
+    }
+
+    /** Appends to the journal, forces it to disk and queues the write. */
+    void submit(Write w) throws IOException {
+        submitAll(Collections.singletonList(w));
+    }
+
+    /** Like submit, for several writes that share one append and one force. */
+    void submitAll(List<Write> writes) throws IOException {
+        if (writes.isEmpty()) {
+            return;
+        }
+        byte[][] lines = new byte[writes.size()][];
+        int total = 0;
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = writes.get(i).toJournalLine().getBytes(StandardCharsets.UTF_8);
+            total += lines[i].length;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(total);
+        for (byte[] line : lines) {
+            buf.put(line);
+        }
+        buf.flip();
+        synchronized (seqLock) {
+            while (buf.hasRemaining()) {
+                journal.write(buf);
+            }
+            for (int i = 0; i < lines.length; i++) {
+                Write w = writes.get(i);
+                appendedBytes += lines[i].length;
+                w.end = appendedBytes;
+                unforced.addLast(w);
+            }
+        }
+        try {
+            force(writes.get(writes.size() - 1).end);
+        } catch (IOException ex) {
+            // not queued: the caller gives the seats back
+            synchronized (seqLock) {
+                unforced.removeAll(writes);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Makes the journal durable up to {@code end}. Whoever gets forceLock forces
+     * everything appended so far and queues it in journal order, so callers that
+     * waited behind it usually find their lines on disk already.
+     */
+    private void force(long end) throws IOException {
+        synchronized (forceLock) {
+            if (forcedBytes >= end) {
+                return;
+            }
+            long target;
+            FileChannel channel;
+            synchronized (seqLock) {
+                target = appendedBytes;
+                channel = journal;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException ex) {
+                // compact() replaced the file meanwhile; it forced a copy holding these lines
+            }
+            forcedBytes = target;
+            synchronized (seqLock) {
+                while (!unforced.isEmpty() && unforced.peekFirst().end <= target) {
+                    Write w = unforced.pollFirst();
+                    w.seq = ++appendedSeq;
+                    queue.add(w);
+                }
+            }
+        }
+    }
+
+    /** Blocks until everything submitted before this call has been committed. */
+    void flush() throws InterruptedException {
+        synchronized (seqLock) {
+            long target = appendedSeq;
+            while (committedSeq < target) {
+                seqLock.wait();
+            }
+        }
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    private void runWriter() {
+        List<Write> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                Write first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+
+                List<Rejection> rejected = applyWithRetry(batch);
+
+                // the batch is committed: waiters and rejections are told even if
+                // trimming the journal fails (replaying committed lines is harmless)
+                try {
+                    synchronized (seqLock) {
+                        Write last = batch.get(batch.size() - 1);
+                        committedSeq = last.seq;
+                        seqLock.notifyAll();
+                        if (committedSeq == appendedSeq && unforced.isEmpty()) {
+                            journal.truncate(0);
+                            droppedBytes = appendedBytes;
+                        } else if (last.end - droppedBytes >= COMPACT_BYTES) {
+                            compact(last.end);
+                        }
+                    }
+                } finally {
+                    notifyRejected(rejected);
+                    batch.clear();
+                }
+            } catch (InterruptedException ex) {
+                return;
+            } catch (IOException ex) {
+                System.err.println("Registration journal error: " + ex.getMessage());
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Replaces the journal with its part after {@code committedEnd}: the tail is
+     * copied to a sibling file, forced and moved over the journal, so a crash
+     * leaves either the old or the new file. Called with seqLock held.
+     */
+    private void compact(long committedEnd) throws IOException {
+        long cut = committedEnd - droppedBytes;
+        Path tmp = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        try (FileChannel in = FileChannel.open(journalPath, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long pos = cut;
+            long size = in.size();
+            while (pos < size) {
+                pos += in.transferTo(pos, size - pos, out);
+            }
+            out.force(false);
+        }
+        Files.move(tmp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal.close();
+        journal = FileChannel.open(journalPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        droppedBytes = committedEnd;
+    }
+
+    /** The writes of the batch that were rejected, or null if all were applied. */
+    private List<Rejection> applyWithRetry(List<Write> batch) throws InterruptedException {
+        long backoff = 50;
+        while (true) {
+            try {
+                return apply(batch);
+            } catch (SQLException ex) {
+                // database busy or unavailable: the journal still holds the batch
+                System.err.println("Write-behind batch failed, retrying: " + ex.getMessage());
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, 5_000);
+            }
+        }
+    }
+
+    private void notifyRejected(List<Rejection> rejected) {
+        if (rejected == null) {
+            return;
+        }
+        RejectionListener listener = rejectionListener;
+        for (Rejection r : rejected) {
+            Write w = r.write;
+            System.err.println("Registration " + w.id + " for event " + w.eventId + " rejected: " + r.reason);
+            if (listener != null) {
+                try {
+                    listener.rejected(w, r.reason);
+                } catch (RuntimeException ex) {
+                    System.err.println("Rejection listener failed: " + ex);
+                }
+            }
+        }
+    }
+
+    private List<Rejection> apply(List<Write> batch) throws SQLException {
+        List<Rejection> rejected = null;
+        try (Connection conn = DBConnectionPool.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (Write w : batch) {
+                    if (w.kind == Kind.WAITLIST) {
+                        try (PreparedStatement ps = conn.prepareStatement(INSERT_WAITLIST)) {
+                            ps.setInt(1, w.id);
+                            ps.setInt(2, w.userId);
+                            ps.setInt(3, w.eventId);
+                            ps.setString(4, w.timestamp);
+                            ps.executeUpdate();
+                        }
+                        continue;
+                    }
+
+                    int inserted;
+                    try (PreparedStatement ps = conn.prepareStatement(INSERT_REGISTRATION)) {
+                        ps.setInt(1, w.id);
+                        ps.setInt(2, w.userId);
+                        ps.setInt(3, w.eventId);
+                        ps.setString(4, w.timestamp);
+                        ps.setString(5, w.seat);
+                        inserted = ps.executeUpdate();
+                    }
+                    if (inserted == 0) {
+                        boolean applied;
+                        try (PreparedStatement ps = conn.prepareStatement(REGISTRATION_EXISTS)) {
+                            ps.setInt(1, w.id);
+                            try (ResultSet rs = ps.executeQuery()) {
+                                applied = rs.next();
+                            }
+                        }
+                        if (!applied) {
+                            // unique conflict: the user or the seat is taken by another row
+                            rejected = reject(conn, w, w.seat == null
+                                    ? "user is already registered in the database"
+                                    : "user or seat " + w.seat + " is already registered in the database",
+                                    rejected);
+                            continue;
+                        }
+                        // already applied before a crash; the rest of its transaction was
+                        // committed with it, but a replayed promotion must not leave the
+                        // user waitlisted in any case
+                        if (w.kind == Kind.PROMOTION) {
+                            leaveWaitlist(conn, w);
+                        }
+                        continue;
+                    }
+
+                    int updated;
+                    try (PreparedStatement ps = conn.prepareStatement(TAKE_SEAT)) {
+                        ps.setInt(1, w.eventId);
+                        updated = ps.executeUpdate();
+                    }
+                    if (updated == 0) {
+                        // the database disagrees with the in-memory inventory; never overbook.
+                        // The row inserted above goes again, in this same transaction.
+                        try (PreparedStatement ps = conn.prepareStatement(UNDO_REGISTRATION)) {
+                            ps.setInt(1, w.id);
+                            ps.executeUpdate();
+                        }
+                        rejected = reject(conn, w, "no seats left in the database", rejected);
+                        continue;
+                    }
+
+                    try (PreparedStatement ps = conn.prepareStatement(INSERT_TICKET)) {
+                        ps.setString(1, w.ticketId);
+                        ps.setInt(2, w.id);
+                        ps.executeUpdate();
+                    }
+                    if (w.kind == Kind.PROMOTION) {
+                        leaveWaitlist(conn, w);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return rejected;
+    }
+
+    private static List<Rejection> reject(Connection conn, Write w, String reason,
+                                          List<Rejection> rejected) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_REJECTION)) {
+            ps.setInt(1, w.id);
+            ps.setInt(2, w.userId);
+            ps.setInt(3, w.eventId);
+            ps.setString(4, w.ticketId);
+            ps.setString(5, w.timestamp);
+            ps.setString(6, w.seat);
+            ps.setString(7, reason);
+            ps.executeUpdate();
+        }
+        List<Rejection> list = rejected == null ? new ArrayList<>() : rejected;
+        list.add(new Rejection(w, reason));
+        return list;
+    }
+
+    private static void leaveWaitlist(Connection conn, Write w) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(LEAVE_WAITLIST)) {
+            ps.setInt(1, w.userId);
+            ps.setInt(2, w.eventId);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,777 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.util.concurrent.CancellationException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Streams a report from a forward-only JDBC cursor to CSV or to a compressed
+ * columnar file, for season-end reconciliation of millions of rows.
+ *
+ * Rows are never collected: CSV lines go straight into a direct buffer that is
+ * written to a FileChannel whenever it fills, and the columnar writer holds one
+ * row group (events.export.rowGroup rows, default 65536) at a time. Memory use
+ * therefore depends on the row group size, not on the number of rows.
+ *
+ * Columnar layout (".evc"), all integers big-endian:
+ *
+ *   "EVC1"
+ *   row group*   one chunk per column: int length, then the deflated column
+ *                (null bitmap, then the non-null values: integers as zigzag
+ *                varints of the difference to the previous value, text as
+ *                varint length + UTF-8)
+ *   footer       int columns, per column: short length + UTF-8 name, byte type;
+ *                int groups, per group: int rows, long offset, int length per chunk
+ *   int footer length, "EVC1"
+ *
+ * The output is written to a ".tmp" sibling and moved into place when complete,
+ * so a cancelled or failed export never leaves a truncated file behind.
+ *
+ *   java ... ReportExport --db events.db --dataset registrations --format csv --out regs.csv
+ *   java ... ReportExport --dump regs.evc --out regs.csv      (columnar back to CSV)
+ */
+public final class ReportExport {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int ROW_GROUP = Integer.getInteger("events.export.rowGroup", 65_536);
+    private static final int FETCH_SIZE = 1000;
+    private static final long PROGRESS_INTERVAL_NANOS = 200_000_000L;
+    private static final byte[] MAGIC = {'E', 'V', 'C', '1'};
+
+    public enum Format {
+        CSV("CSV", ".csv"),
+        COLUMNAR("Compressed columnar", ".evc");
+
+        public final String label;
+        public final String extension;
+
+        Format(String label, String extension) {
+            this.label = label;
+            this.extension = extension;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    enum Type { INTEGER, TEXT }
+
+    static final class Column {
+        final String name;
+        final Type type;
+
+        Column(String name, Type type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    private static Column integer(String name) {
+        return new Column(name, Type.INTEGER);
+    }
+
+    private static Column text(String name) {
+        return new Column(name, Type.TEXT);
+    }
+
+    /**
+     * What can be exported. Every query walks a primary key or unique index in
+     * order, so SQLite streams rows without building a sorter; estimateSql is
+     * cheap (the stats tables) and only drives the progress bar.
+     */
+    public enum Dataset {
+        EVENTS("Per event",
+                "SELECT e.event_id, e.title, e.category, e.location, e.event_date, e.event_time, " +
+                "       e.capacity, e.seats_available, s.registrations, s.waitlist " +
+                "FROM events e JOIN event_stats s ON s.event_id = e.event_id " +
+                "ORDER BY e.event_id",
+                "SELECT COUNT(*) FROM event_stats",
+                integer("event_id"), text("title"), text("category"), text("location"),
+                text("event_date"), text("event_time"), integer("capacity"),
+                integer("seats_available"), integer("registrations"), integer("waitlist")),
+
+        CATEGORIES("Per category",
+                "SELECT category, events, total_capacity, registrations, waitlist " +
+                "FROM category_stats WHERE events > 0 ORDER BY category",
+                "SELECT COUNT(*) FROM category_stats WHERE events > 0",
+                text("category"), integer("events"), integer("total_capacity"),
+                integer("registrations"), integer("waitlist")),
+
+        REGISTRATIONS("Registrations",
+                "SELECT registration_id, user_id, event_id, registration_date, status, seat " +
+                "FROM registrations ORDER BY registration_id",
+                "SELECT COALESCE(SUM(registrations), 0) FROM event_stats",
+                integer("registration_id"), integer("user_id"), integer("event_id"),
+                text("registration_date"), text("status"), text("seat")),
+
+        TICKETS("Tickets and check-ins",
+                "SELECT t.ticket_id, t.registration_id, r.user_id, r.event_id, r.status, " +
+                "       c.checked_in_at, c.gate " +
+                "FROM tickets t JOIN registrations r ON r.registration_id = t.registration_id " +
+                "LEFT JOIN check_ins c ON c.ticket_id = t.ticket_id " +
+                "ORDER BY t.registration_id",
+                // one ticket per registration once the write-behind queue has drained
+                "SELECT COALESCE(SUM(registrations), 0) FROM event_stats",
+                text("ticket_id"), integer("registration_id"), integer("user_id"), integer("event_id"),
+                text("status"), text("checked_in_at"), text("gate"));
+
+        public final String label;
+        final String sql;
+        final String estimateSql;
+        final Column[] columns;
+
+        Dataset(String label, String sql, String estimateSql, Column... columns) {
+            this.label = label;
+            this.sql = sql;
+            this.estimateSql = estimateSql;
+            this.columns = columns;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /** Called on the exporting thread, at most every 200 ms and once at the end. */
+    public interface Progress {
+        void update(long rows, long bytes, long elapsedNanos);
+    }
+
+    public static final class Result {
+        public final long rows;
+        public final long bytes;
+        public final long elapsedNanos;
+
+        Result(long rows, long bytes, long elapsedNanos) {
+            this.rows = rows;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double rowsPerSecond() {
+            return elapsedNanos > 0 ? rows * 1e9 / elapsedNanos : 0;
+        }
+    }
+
+    private final Dataset dataset;
+    private final Format format;
+    private final Path target;
+    private final Progress progress;
+
+    private volatile boolean cancelled;
+    private volatile Statement running;
+
+    public ReportExport(Dataset dataset, Format format, Path target, Progress progress) {
+        this.dataset = dataset;
+        this.format = format;
+        this.target = target;
+        this.progress = progress;
+    }
+
+    /** Cheap row count for the progress bar; the real count can differ. */
+    public static long estimateRows(Connection conn, Dataset dataset) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(dataset.estimateSql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /** Safe to call from any thread; run() then throws CancellationException. */
+    public void cancel() {
+        cancelled = true;
+        Statement st = running;
+        if (st != null) {
+            try {
+                st.cancel();
+            } catch (SQLException ignored) {
+                // the query may already have finished
+            }
+        }
+    }
+
+    /**
+     * Runs the export on the calling thread. The target is only replaced when
+     * every row has been written.
+     */
+    public Result run(Connection conn) throws SQLException, IOException {
+        long start = System.nanoTime();
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        boolean complete = false;
+
+        try (PreparedStatement ps = conn.prepareStatement(dataset.sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             ChannelOutput out = new ChannelOutput(FileChannel.open(tmp, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            ps.setFetchSize(FETCH_SIZE);
+            running = ps;
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            RowWriter writer = format == Format.CSV
+                    ? new CsvWriter(out, dataset.columns)
+                    : new ColumnarWriter(out, dataset.columns);
+            long rows = 0;
+            long lastReport = start;
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    writer.row(rs);
+                    rows++;
+                    if ((rows & 1023) == 0) {
+                        if (cancelled) {
+                            throw new CancellationException();
+                        }
+                        long now = System.nanoTime();
+                        if (progress != null && now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                            progress.update(rows, out.position(), now - start);
+                            lastReport = now;
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                if (cancelled) {
+                    throw new CancellationException();
+                }
+                throw ex;
+            }
+            writer.finish();
+            out.flush();
+            out.channel.force(false);
+
+            long elapsed = System.nanoTime() - start;
+            if (progress != null) {
+                progress.update(rows, out.position(), elapsed);
+            }
+            complete = true;
+            return new Result(rows, out.position(), elapsed);
+        } finally {
+            running = null;
+            if (complete) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------ output
+
+    /** A direct buffer in front of a FileChannel; everything is written through put*. */
+    private static final class ChannelOutput implements AutoCloseable {
+        final FileChannel channel;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private long flushed;
+
+        ChannelOutput(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        long position() {
+            return flushed + buf.position();
+        }
+
+        void put(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (!buf.hasRemaining()) {
+                    flush();
+                }
+                int n = Math.min(len, buf.remaining());
+                buf.put(b, off, n);
+                off += n;
+                len -= n;
+            }
+        }
+
+        void put(byte[] b) throws IOException {
+            put(b, 0, b.length);
+        }
+
+        void putInt(int v) throws IOException {
+            if (buf.remaining() < 4) {
+                flush();
+            }
+            buf.putInt(v);
+        }
+
+        void putLong(long v) throws IOException {
+            if (buf.remaining() < 8) {
+                flush();
+            }
+            buf.putLong(v);
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                flushed += channel.write(buf);
+            }
+            buf.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private interface RowWriter {
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    // ------------------------------------------------------------ CSV
+
+    /** RFC 4180: comma separated, CRLF line ends, fields quoted only when needed. */
+    private static final class CsvWriter implements RowWriter {
+        private final ChannelOutput out;
+        private final Column[] columns;
+        private final StringBuilder line = new StringBuilder(256);
+
+        CsvWriter(ChannelOutput out, Column[] columns) throws IOException {
+            this.out = out;
+            this.columns = columns;
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendField(line, columns[i].name);
+            }
+            endLine();
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                if (columns[i].type == Type.INTEGER) {
+                    long v = rs.getLong(i + 1);
+                    if (!rs.wasNull()) {
+                        line.append(v);
+                    }
+                } else {
+                    String v = rs.getString(i + 1);
+                    if (v != null) {
+                        appendField(line, v);
+                    }
+                }
+            }
+            endLine();
+        }
+
+        private void endLine() throws IOException {
+            line.append("\r\n");
+            out.put(line.toString().getBytes(StandardCharsets.UTF_8));
+            line.setLength(0);
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    static void appendField(StringBuilder sb, String v) {
+        boolean quote = false;
+        for (int i = 0; i < v.length() && !quote; i++) {
+            char ch = v.charAt(i);
+            quote = ch == ',' || ch == '"' || ch == '\r' || ch == '\n';
+        }
+        if (!quote) {
+            sb.append(v);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < v.length(); i++) {
+            char ch = v.charAt(i);
+            if (ch == '"') {
+                sb.append('"');
+            }
+            sb.append(ch);
+        }
+        sb.append('"');
+    }
+
+    // ------------------------------------------------------------ columnar
+
+    private static final class ColumnarWriter implements RowWriter {
+        private final ChannelOutput out;
+        private final Column[] columns;
+        private final ColumnChunk[] chunks;
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(BUFFER_SIZE);
+        private final byte[] block = new byte[BUFFER_SIZE];
+        // footer entries: one per row group, so a few hundred bytes per million rows
+        private final ByteArrayOutputStream groups = new ByteArrayOutputStream();
+        private int groupCount;
+        private int rowsInGroup;
+
+        ColumnarWriter(ChannelOutput out, Column[] columns) throws IOException {
+            this.out = out;
+            this.columns = columns;
+            this.chunks = new ColumnChunk[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                chunks[i] = new ColumnChunk();
+            }
+            out.put(MAGIC);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].type == Type.INTEGER) {
+                    long v = rs.getLong(i + 1);
+                    if (rs.wasNull()) {
+                        chunks[i].addNull();
+                    } else {
+                        chunks[i].addLong(v);
+                    }
+                } else {
+                    String v = rs.getString(i + 1);
+                    if (v == null) {
+                        chunks[i].addNull();
+                    } else {
+                        chunks[i].addText(v);
+                    }
+                }
+            }
+            if (++rowsInGroup == ROW_GROUP) {
+                writeGroup();
+            }
+        }
+
+        private void writeGroup() throws IOException {
+            long offset = out.position();
+            int[] lengths = new int[chunks.length];
+            for (int i = 0; i < chunks.length; i++) {
+                byte[] raw = chunks[i].encode(rowsInGroup);
+                deflater.reset();
+                deflater.setInput(raw);
+                deflater.finish();
+                compressed.reset();
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(block);
+                    compressed.write(block, 0, n);
+                }
+                lengths[i] = compressed.size();
+                out.putInt(lengths[i]);
+                out.put(compressed.toByteArray());
+                chunks[i].reset();
+            }
+            writeInt(groups, rowsInGroup);
+            writeLong(groups, offset);
+            for (int length : lengths) {
+                writeInt(groups, length);
+            }
+            groupCount++;
+            rowsInGroup = 0;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (rowsInGroup > 0) {
+                writeGroup();
+            }
+            deflater.end();
+
+            ByteArrayOutputStream footer = new ByteArrayOutputStream();
+            writeInt(footer, columns.length);
+            for (Column c : columns) {
+                byte[] name = c.name.getBytes(StandardCharsets.UTF_8);
+                writeShort(footer, name.length);
+                footer.write(name, 0, name.length);
+                footer.write(c.type.ordinal());
+            }
+            writeInt(footer, groupCount);
+            groups.writeTo(footer);
+
+            out.put(footer.toByteArray());
+            out.putInt(footer.size());
+            out.put(MAGIC);
+        }
+    }
+
+    /** One column of the current row group, encoded as it arrives. */
+    private static final class ColumnChunk {
+        private final ByteArrayOutputStream values = new ByteArrayOutputStream();
+        private byte[] nulls = new byte[64];
+        private int rows;
+        private long previous;
+
+        void addNull() {
+            int i = rows >> 3;
+            if (i >= nulls.length) {
+                nulls = java.util.Arrays.copyOf(nulls, nulls.length * 2);
+            }
+            nulls[i] |= (byte) (1 << (rows & 7));
+            rows++;
+        }
+
+        void addLong(long v) {
+            markPresent();
+            writeVarLong(values, zigzag(v - previous));
+            previous = v;
+        }
+
+        void addText(String v) {
+            markPresent();
+            byte[] b = v.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(values, b.length);
+            values.write(b, 0, b.length);
+        }
+
+        private void markPresent() {
+            if ((rows >> 3) >= nulls.length) {
+                nulls = java.util.Arrays.copyOf(nulls, nulls.length * 2);
+            }
+            rows++;
+        }
+
+        byte[] encode(int groupRows) {
+            ByteArrayOutputStream raw = new ByteArrayOutputStream((groupRows + 7) / 8 + values.size());
+            raw.write(nulls, 0, (groupRows + 7) / 8);
+            raw.writeBytes(values.toByteArray());
+            return raw.toByteArray();
+        }
+
+        void reset() {
+            values.reset();
+            java.util.Arrays.fill(nulls, (byte) 0);
+            rows = 0;
+            previous = 0;
+        }
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int v) {
+        out.write(v >>> 8);
+        out.write(v);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int v) {
+        writeShort(out, v >>> 16);
+        writeShort(out, v & 0xFFFF);
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long v) {
+        writeInt(out, (int) (v >>> 32));
+        writeInt(out, (int) v);
+    }
+
+    // ------------------------------------------------------------ reading columnar files
+
+    /**
+     * Converts a columnar export back to CSV, one row group at a time. Used by
+     * --dump to check a file, and as the reference reader for the format.
+     */
+    static long columnarToCsv(Path source, Path csv) throws IOException {
+        Path tmp = csv.resolveSibling(csv.getFileName() + ".tmp");
+        long rows = 0;
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             ChannelOutput out = new ChannelOutput(FileChannel.open(tmp, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            long size = in.size();
+            ByteBuffer trailer = readFully(in, size - 8, 8);
+            int footerLength = trailer.getInt();
+            if (size < 16 || !hasMagic(trailer) || !hasMagic(readFully(in, 0, 4))) {
+                throw new IOException(source + " is not a columnar export");
+            }
+            ByteBuffer footer = readFully(in, size - 8 - footerLength, footerLength);
+            Column[] columns = new Column[footer.getInt()];
+            for (int i = 0; i < columns.length; i++) {
+                byte[] name = new byte[footer.getShort() & 0xFFFF];
+                footer.get(name);
+                columns[i] = new Column(new String(name, StandardCharsets.UTF_8), Type.values()[footer.get()]);
+            }
+
+            CsvWriter writer = new CsvWriter(out, columns);
+            Inflater inflater = new Inflater();
+            try {
+                int groupCount = footer.getInt();
+                for (int g = 0; g < groupCount; g++) {
+                    int groupRows = footer.getInt();
+                    long offset = footer.getLong();
+                    ByteBuffer[] chunks = new ByteBuffer[columns.length];
+                    long[] previous = new long[columns.length];
+                    for (int c = 0; c < columns.length; c++) {
+                        int length = footer.getInt();
+                        chunks[c] = inflate(inflater, readFully(in, offset + 4, length));
+                        offset += 4 + length;
+                        chunks[c].position((groupRows + 7) / 8); // values follow the null bitmap
+                    }
+                    for (int r = 0; r < groupRows; r++) {
+                        StringBuilder line = writer.line;
+                        for (int c = 0; c < columns.length; c++) {
+                            if (c > 0) {
+                                line.append(',');
+                            }
+                            ByteBuffer chunk = chunks[c];
+                            if ((chunk.get(r >> 3) & (1 << (r & 7))) != 0) {
+                                continue; // null
+                            }
+                            if (columns[c].type == Type.INTEGER) {
+                                previous[c] += unzigzag(readVarLong(chunk));
+                                line.append(previous[c]);
+                            } else {
+                                byte[] b = new byte[(int) readVarLong(chunk)];
+                                chunk.get(b);
+                                appendField(line, new String(b, StandardCharsets.UTF_8));
+                            }
+                        }
+                        writer.endLine();
+                        rows++;
+                    }
+                }
+            } catch (java.nio.BufferUnderflowException | IndexOutOfBoundsException | DataFormatException ex) {
+                throw new IOException(source + " is damaged", ex);
+            } finally {
+                inflater.end();
+            }
+            out.flush();
+        } catch (IOException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        Files.move(tmp, csv, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows;
+    }
+
+    private static boolean hasMagic(ByteBuffer b) {
+        for (byte m : MAGIC) {
+            if (b.get() != m) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ByteBuffer readFully(FileChannel in, long position, int length) throws IOException {
+        if (position < 0 || length < 0) {
+            throw new IOException("Truncated columnar export");
+        }
+        ByteBuffer b = ByteBuffer.allocate(length);
+        while (b.hasRemaining()) {
+            if (in.read(b, position + b.position()) < 0) {
+                throw new EOFException("Truncated columnar export");
+            }
+        }
+        b.flip();
+        return b;
+    }
+
+    private static ByteBuffer inflate(Inflater inflater, ByteBuffer compressed) throws DataFormatException {
+        inflater.reset();
+        inflater.setInput(compressed);
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(compressed.remaining() * 4);
+        byte[] block = new byte[BUFFER_SIZE];
+        while (!inflater.finished()) {
+            int n = inflater.inflate(block);
+            if (n == 0 && inflater.needsInput()) {
+                throw new DataFormatException("chunk ends early");
+            }
+            raw.write(block, 0, n);
+        }
+        return ByteBuffer.wrap(raw.toByteArray());
+    }
+
+    private static long readVarLong(ByteBuffer b) {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte x = b.get();
+            v |= (long) (x & 0x7F) << shift;
+            if (x >= 0) {
+                return v;
+            }
+        }
+    }
+
+    // ------------------------------------------------------------ command line
+
+    public static void main(String[] args) throws Exception {
+        String db = "events.db";
+        String dump = null;
+        String out = null;
+        Dataset dataset = Dataset.REGISTRATIONS;
+        Format format = Format.CSV;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--db": db = args[i + 1]; break;
+                case "--dataset": dataset = Dataset.valueOf(args[i + 1].toUpperCase()); break;
+                case "--format": format = Format.valueOf(args[i + 1].toUpperCase()); break;
+                case "--out": out = args[i + 1]; break;
+                case "--dump": dump = args[i + 1]; break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        long start = System.nanoTime();
+        if (dump != null) {
+            Path csv = Paths.get(out != null ? out : dump + ".csv");
+            long rows = columnarToCsv(Paths.get(dump), csv);
+            System.out.printf("Wrote %d rows to %s in %.1f s%n", rows, csv, (System.nanoTime() - start) / 1e9);
+            return;
+        }
+
+        Path target = Paths.get(out != null ? out : dataset.name().toLowerCase() + format.extension);
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + db)) {
+            DatabaseSetup.migrate(conn); // the datasets read columns added by later migrations
+            long estimate = estimateRows(conn, dataset);
+            ReportExport export = new ReportExport(dataset, format, target, (rows, bytes, elapsed) ->
+                    System.err.printf("\r%,d / ~%,d rows  %.1f MB  %,.0f rows/s",
+                            rows, estimate, bytes / 1e6, rows * 1e9 / Math.max(1, elapsed)));
+            // Ctrl-C cancels the export and waits for it to remove its temp file
+            Thread exporter = Thread.currentThread();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                export.cancel();
+                try {
+                    exporter.join(5000);
+                } catch (InterruptedException ignored) {
+                    // exiting anyway
+                }
+            }));
+            Result r = export.run(conn);
+            System.err.println();
+            System.out.printf("Exported %,d rows (%.1f MB) to %s in %.1f s, %,.0f rows/s%n",
+                    r.rows, r.bytes / 1e6, target, r.elapsedNanos / 1e9, r.rowsPerSecond());
+        } catch (CancellationException ex) {
+            System.err.println();
+            System.err.println("Export cancelled");
+        } catch (SQLException | IOException ex) {
+            System.err.println();
+            System.err.println("Export failed: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.*;
+
+/**
+ * Per-event and per-category statistics tables for AdminReportsFrame.
+ *
+ * The tables are maintained by triggers on events, registrations and waitlist,
+ * so every write path (dashboard registrations, write-behind batches, bulk
+ * promotion, capacity edits) keeps them current without extra application code.
+ * Reports then read O(#events) rows instead of joining the base tables.
+ */
+public final class ReportStats {
+
+    private static final String EXPECTED_EVENT_STATS =
+            "SELECT e.event_id, e.category, e.capacity, e.seats_available, " +
+            "       (SELECT COUNT(*) FROM registrations r WHERE r.event_id = e.event_id) AS registrations, " +
+            "       (SELECT COUNT(*) FROM waitlist w WHERE w.event_id = e.event_id) AS waitlist " +
+            "FROM events e";
+
+    private static final String EXPECTED_CATEGORY_STATS =
+            "SELECT category, COUNT(*), SUM(capacity), SUM(registrations), SUM(waitlist) " +
+            "FROM (" + EXPECTED_EVENT_STATS + ") " +
+            "GROUP BY category";
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS event_stats (" +
+            "  event_id INTEGER PRIMARY KEY," +
+            "  category TEXT," +
+            "  capacity INTEGER NOT NULL DEFAULT 0," +
+            "  seats_available INTEGER NOT NULL DEFAULT 0," +
+            "  registrations INTEGER NOT NULL DEFAULT 0," +
+            "  waitlist INTEGER NOT NULL DEFAULT 0)",
+
+            "CREATE TABLE IF NOT EXISTS category_stats (" +
+            "  category TEXT PRIMARY KEY," +
+            "  events INTEGER NOT NULL DEFAULT 0," +
+            "  total_capacity INTEGER NOT NULL DEFAULT 0," +
+            "  registrations INTEGER NOT NULL DEFAULT 0," +
+            "  waitlist INTEGER NOT NULL DEFAULT 0)",
+
+            // --- events ---
+            "CREATE TRIGGER IF NOT EXISTS trg_stats_event_insert AFTER INSERT ON events BEGIN " +
+            "  INSERT OR REPLACE INTO event_stats " +
+            "    (event_id, category, capacity, seats_available, registrations, waitlist) " +
+            "    VALUES (NEW.event_id, NEW.category, NEW.capacity, NEW.seats_available, 0, 0); " +
+            "  INSERT OR IGNORE INTO category_stats (category) VALUES (NEW.category); " +
+            "  UPDATE category_stats SET events = events + 1, " +
+            "         total_capacity = total_capacity + NEW.capacity " +
+            "   WHERE category = NEW.category; " +
+            "END",
+
+            // hot path: a seat count change only touches the event row
+            "CREATE TRIGGER IF NOT EXISTS trg_stats_event_seats AFTER UPDATE OF seats_available ON events " +
+            "WHEN OLD.category IS NEW.category AND OLD.capacity = NEW.capacity BEGIN " +
+            "  UPDATE event_stats SET seats_available = NEW.seats_available " +
+            "   WHERE event_id = NEW.event_id; " +
+            "END",
+
+            "CREATE TRIGGER IF NOT EXISTS trg_stats_event_move AFTER UPDATE OF category, capacity ON events " +
+            "WHEN OLD.category IS NOT NEW.category OR OLD.capacity <> NEW.capacity BEGIN " +
+            "  UPDATE event_stats SET category = NEW.category, capacity = NEW.capacity, " +
+            "         seats_available = NEW.seats_available " +
+            "   WHERE event_id = NEW.event_id; " +
+            "  UPDATE category_stats SET events = events - 1, " +
+            "         total_capacity = total_capacity - OLD.capacity, " +
+            "         registrations = registrations - " +
+            "             (SELECT registrations FROM event_stats WHERE event_id = NEW.event_id), " +
+            "         waitlist = waitlist - " +
+            "             (SELECT waitlist FROM event_stats WHERE event_id = NEW.event_id) " +
+            "   WHERE category = OLD.category; " +
+            "  INSERT OR IGNORE INTO category_stats (category) VALUES (NEW.category); " +
+            "  UPDATE category_stats SET events = events + 1, " +
+            "         total_capacity = total_capacity + NEW.capacity, " +
+            "         registrations = registrations + " +
+            "             (SELECT registrations FROM event_stats WHERE event_id = NEW.event_id), " +
+            "         waitlist = waitlist + " +
+            "             (SELECT waitlist FROM event_stats WHERE event_id = NEW.event_id) " +
+            "   WHERE category = NEW.category; " +
+            "END",
+
+            "CREATE TRIGGER IF NOT EXISTS trg_stats_event_delete AFTER DELETE ON events BEGIN " +
+            "  UPDATE category_stats SET events = events - 1, " +
+            "         total_capacity = total_capacity - OLD.capacity, " +
+            "         registrations = registrations - COALESCE(" +
+            "             (SELECT registrations FROM event_stats WHERE event_id = OLD.event_id), 0), " +
+            "         waitlist = waitlist - COALESCE(" +
+            "             (SELECT waitlist FROM event_stats WHERE event_id = OLD.event_id), 0) " +
+            "   WHERE category = OLD.category; " +
+            "  DELETE FROM event_stats WHERE event_id = OLD.event_id; " +
+            "END",
+
+            // --- registrations (single registrations, write-behind batches and promotions) ---
+            "CREATE TRIGGER IF NOT EXISTS trg_stats_registration_insert AFTER INSERT ON registrations BEGIN " +
+            "  UPDATE event_stats SET registrations = registrations + 1 WHERE event_id = NEW.event_id; " +
+            "  UPDATE category_stats SET registrations = registrations + 1 " +
+            "   WHERE category = (SELECT category FROM event_stats WHERE event_id = NEW.event_id); " +
+            "END",
+
+            "CREATE TRIGGER IF NOT EXISTS trg_stats_registration_delete AFTER DELETE ON registrations BEGIN " +
+            "  UPDATE event_stats SET registrations = registrations - 1 WHERE event_id = OLD.event_id; " +
+            "  UPDATE category_stats SET registrations = registrations - 1 " +
+            "   WHERE category = (SELECT category FROM event_stats WHERE event_id = OLD.event_id); " +
+            "END",
+
+            // --- waitlist ---
+            "CREATE TRIGGER IF NOT EXISTS trg_stats_waitlist_insert AFTER INSERT ON waitlist BEGIN " +
+            "  UPDATE event_stats SET waitlist = waitlist + 1 WHERE event_id = NEW.event_id; " +
+            "  UPDATE category_stats SET waitlist = waitlist + 1 " +
+            "   WHERE category = (SELECT category FROM event_stats WHERE event_id = NEW.event_id); " +
+            "END",
+
+            "CREATE TRIGGER IF NOT EXISTS trg_stats_waitlist_delete AFTER DELETE ON waitlist BEGIN " +
+            "  UPDATE event_stats SET waitlist = waitlist - 1 WHERE event_id = OLD.event_id; " +
+            "  UPDATE category_stats SET waitlist = waitlist - 1 " +
+            "   WHERE category = (SELECT category FROM event_stats WHERE event_id = OLD.event_id); " +
+            "END"
+    };
+
+    private ReportStats() {
+    }
+
+    /** Creates the tables and triggers; populates them the first time. */
+    public static void ensureSchema(Connection conn) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            createSchema(conn);
+            conn.commit();
+        } catch (SQLException ex) {
+            conn.rollback();
+            throw ex;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /** ensureSchema without transaction handling, for DatabaseSetup's migrations. */
+    static void createSchema(Connection conn) throws SQLException {
+        boolean existed;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT COUNT(*) AS cnt FROM sqlite_master WHERE type = 'table' AND name = 'event_stats'")) {
+            try (ResultSet rs = ps.executeQuery()) {
+                existed = rs.next() && rs.getInt("cnt") > 0;
+            }
+        }
+
+        try (Statement st = conn.createStatement()) {
+            for (String ddl : SCHEMA) {
+                st.execute(ddl);
+            }
+        }
+        if (!existed) {
+            rebuild(conn);
+        }
+    }
+
+    /** Recomputes both tables from events, registrations and waitlist. */
+    public static void rebuild(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM event_stats");
+            st.executeUpdate(
+                    "INSERT INTO event_stats " +
+                    "(event_id, category, capacity, seats_available, registrations, waitlist) " +
+                    EXPECTED_EVENT_STATS);
+            st.executeUpdate("DELETE FROM category_stats");
+            st.executeUpdate(
+                    "INSERT INTO category_stats " +
+                    "(category, events, total_capacity, registrations, waitlist) " +
+                    "SELECT category, COUNT(*), SUM(capacity), SUM(registrations), SUM(waitlist) " +
+                    "FROM event_stats GROUP BY category");
+        }
+    }
+
+    /**
+     * Compares the stats tables with the base tables and rebuilds them if they
+     * differ. Returns the number of mismatching rows found (0 = consistent).
+     */
+    public static int verifyAndRepair(Connection conn) throws SQLException {
+        int mismatches = countMismatches(conn);
+        if (mismatches > 0) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                rebuild(conn);
+                conn.commit();
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+        return mismatches;
+    }
+
+    private static int countMismatches(Connection conn) throws SQLException {
+        String eventCols = "event_id, category, capacity, seats_available, registrations, waitlist";
+        String categoryCols = "category, events, total_capacity, registrations, waitlist";
+
+        String sql =
+                "SELECT " +
+                " (SELECT COUNT(*) FROM (" + EXPECTED_EVENT_STATS +
+                "   EXCEPT SELECT " + eventCols + " FROM event_stats)) + " +
+                " (SELECT COUNT(*) FROM (SELECT " + eventCols + " FROM event_stats " +
+                "   EXCEPT " + EXPECTED_EVENT_STATS + ")) + " +
+                " (SELECT COUNT(*) FROM (" + EXPECTED_CATEGORY_STATS +
+                "   EXCEPT SELECT " + categoryCols + " FROM category_stats WHERE events > 0)) + " +
+                " (SELECT COUNT(*) FROM (SELECT " + categoryCols + " FROM category_stats WHERE events > 0 " +
+                "   EXCEPT " + EXPECTED_CATEGORY_STATS + ")) AS mismatches";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt("mismatches") : 0;
+        }
+    }
+}
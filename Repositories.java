@@ -0,0 +1,27 @@
+package com.mycompany.eventmanagementsystem;
+
+/**
+ * The four repositories of one storage backend.
+ *
+ * SqliteRepositories works on the application database (or on one connection,
+ * inside a caller's transaction); InMemoryRepositories keeps everything in
+ * primitive-keyed maps. Both pass RepositoryConformance, and RepositoryBenchmarks
+ * measures them side by side. The application itself only uses the SQLite
+ * backend: registration, promotion and the listings go through
+ * RegistrationService, its write-behind queue and the catalogue cache.
+ */
+public final class Repositories {
+
+    public final EventRepository events;
+    public final RegistrationRepository registrations;
+    public final WaitlistRepository waitlist;
+    public final TicketRepository tickets;
+
+    Repositories(EventRepository events, RegistrationRepository registrations, WaitlistRepository waitlist,
+                 TicketRepository tickets) {
+        this.events = events;
+        this.registrations = registrations;
+        this.waitlist = waitlist;
+        this.tickets = tickets;
+    }
+}
@@ -0,0 +1,79 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A seat set aside for one user while they decide whether to register.
+ *
+ * Holds live only in memory (RegistrationService); nothing is written until the
+ * user confirms. A hold ends exactly once: confirmed, released by the user, or
+ * expired by SeatHoldReaper, whichever wins the compare-and-set in settle().
+ */
+public final class SeatHold implements Delayed {
+
+    private static final int HELD = 0;
+    private static final int SETTLED = 1;
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    public final long id;
+    public final int eventId;
+    public final int userId;
+    /** SeatMap label for seated events, else null. */
+    public final String seat;
+    public final long expiresAtMillis;
+
+    /** Index in the event's SeatMap, null for general admission. */
+    final int[] seatIndex;
+    private final long deadlineNanos;
+    private final AtomicInteger state = new AtomicInteger(HELD);
+
+    SeatHold(int eventId, int userId, int[] seatIndex, String seat, long ttlMillis) {
+        this.id = NEXT_ID.getAndIncrement();
+        this.eventId = eventId;
+        this.userId = userId;
+        this.seatIndex = seatIndex;
+        this.seat = seat;
+        this.expiresAtMillis = System.currentTimeMillis() + ttlMillis;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /** True until the hold has been confirmed, released or has expired. */
+    public boolean isActive() {
+        return state.get() == HELD && !isExpired();
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /** Whole seconds left, 0 once expired. */
+    public long secondsLeft() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toSeconds(deadlineNanos - System.nanoTime()));
+    }
+
+    /** Ends the hold; false if something else already did. */
+    boolean settle() {
+        return state.compareAndSet(HELD, SETTLED);
+    }
+
+    boolean isSettled() {
+        return state.get() == SETTLED;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        if (other instanceof SeatHold) {
+            return Long.compare(deadlineNanos, ((SeatHold) other).deadlineNanos);
+        }
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,77 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+
+/**
+ * Expires seat holds in bulk.
+ *
+ * Every hold goes into a DelayQueue ordered by deadline. One daemon thread sleeps
+ * until the earliest deadline, then drains everything else that has expired by
+ * then and hands the holds to the callback grouped by event, so a burst of
+ * abandoned holds costs one callback (one lock, one waitlist promotion) per
+ * event. Holds that were confirmed or released in the meantime stay in the
+ * queue until their deadline and are skipped here.
+ */
+final class SeatHoldReaper {
+
+    interface Expiry {
+        /** Called on the reaper thread with holds that have not been settled yet. */
+        void expired(int eventId, List<SeatHold> holds) throws Exception;
+    }
+
+    private final DelayQueue<SeatHold> queue = new DelayQueue<>();
+    private final Expiry expiry;
+    private final Thread thread;
+
+    SeatHoldReaper(Expiry expiry) {
+        this.expiry = expiry;
+        this.thread = new Thread(this::run, "seat-hold-reaper");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void schedule(SeatHold hold) {
+        queue.add(hold);
+    }
+
+    /** Holds waiting for their deadline, including already settled ones. */
+    int scheduled() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<SeatHold> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException ex) {
+                return;
+            }
+            queue.drainTo(batch);
+
+            Map<Integer, List<SeatHold>> byEvent = new LinkedHashMap<>();
+            for (SeatHold h : batch) {
+                if (!h.isSettled()) {
+                    byEvent.computeIfAbsent(h.eventId, id -> new ArrayList<>()).add(h);
+                }
+            }
+            batch.clear();
+
+            for (Map.Entry<Integer, List<SeatHold>> e : byEvent.entrySet()) {
+                try {
+                    expiry.expired(e.getKey(), e.getValue());
+                } catch (Exception ex) {
+                    System.err.println("Releasing expired seat holds for event " + e.getKey()
+                            + " failed: " + ex.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Assigned seating for one event: sections of rows of numbered seats.
+ *
+ * Every seat has an index in one flat BitSet (set = taken), section after
+ * section and row after row, so a 50k-seat venue needs about 6 KB. A per-row
+ * free counter lets best-available skip rows that cannot hold the party, and
+ * inside a row the free runs are found with nextClearBit/nextSetBit, so finding
+ * N contiguous seats costs a few microseconds rather than a scan of every seat.
+ *
+ * Seats are written as "section/row/seat" (1-based), e.g. "Balcony/3/12"; that
+ * label is what registrations.seat stores. The layout is kept in seat_sections;
+ * occupancy is rebuilt from registrations when RegistrationService loads the
+ * event.
+ */
+public final class SeatMap {
+
+    // SQL shared with QueryPlanCheck
+    static final String LOAD_LAYOUT =
+            "SELECT name, row_count, seats_per_row FROM seat_sections WHERE event_id = ? ORDER BY section_no";
+    static final String DELETE_LAYOUT =
+            "DELETE FROM seat_sections WHERE event_id = ?";
+    static final String INSERT_SECTION =
+            "INSERT INTO seat_sections (event_id, section_no, name, row_count, seats_per_row) VALUES (?, ?, ?, ?, ?)";
+
+    public static final class Section {
+        public final String name;
+        public final int rows;
+        public final int seatsPerRow;
+        final int firstSeat;
+        final int firstRow;
+
+        Section(String name, int rows, int seatsPerRow, int firstSeat, int firstRow) {
+            this.name = name;
+            this.rows = rows;
+            this.seatsPerRow = seatsPerRow;
+            this.firstSeat = firstSeat;
+            this.firstRow = firstRow;
+        }
+
+        public int capacity() {
+            return rows * seatsPerRow;
+        }
+    }
+
+    private final List<Section> sections;
+    private final BitSet taken;
+    private final int[] freeInRow;
+    private final Section[] sectionOfRow;
+    private final int capacity;
+    private int free;
+
+    private SeatMap(List<Section> sections) {
+        this.sections = Collections.unmodifiableList(sections);
+        int seats = 0;
+        int rows = 0;
+        for (Section s : sections) {
+            seats += s.capacity();
+            rows += s.rows;
+        }
+        this.capacity = seats;
+        this.free = seats;
+        this.taken = new BitSet(seats);
+        this.freeInRow = new int[rows];
+        this.sectionOfRow = new Section[rows];
+        for (Section s : sections) {
+            for (int r = 0; r < s.rows; r++) {
+                freeInRow[s.firstRow + r] = s.seatsPerRow;
+                sectionOfRow[s.firstRow + r] = s;
+            }
+        }
+    }
+
+    /** Builds an empty map from (name, rows, seatsPerRow) triples in display order. */
+    static SeatMap of(List<Object[]> layout) {
+        List<Section> sections = new ArrayList<>();
+        int seat = 0;
+        int row = 0;
+        for (Object[] l : layout) {
+            Section s = new Section((String) l[0], (Integer) l[1], (Integer) l[2], seat, row);
+            sections.add(s);
+            seat += s.capacity();
+            row += s.rows;
+        }
+        return new SeatMap(sections);
+    }
+
+    /**
+     * Parses "Orchestra:20x30, Balcony:10x25" (section:rows x seats per row).
+     * Throws IllegalArgumentException with a message for the user.
+     */
+    public static SeatMap parse(String spec) {
+        List<Object[]> layout = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+            int colon = part.lastIndexOf(':');
+            int x = part.toLowerCase().lastIndexOf('x');
+            if (colon <= 0 || x < colon) {
+                throw new IllegalArgumentException("Seat map sections look like Name:ROWSxSEATS, not \"" + part + "\"");
+            }
+            String name = part.substring(0, colon).trim();
+            if (name.contains("/") || names.contains(name)) {
+                throw new IllegalArgumentException("Section names must be unique and must not contain '/'");
+            }
+            int rows;
+            int perRow;
+            try {
+                rows = Integer.parseInt(part.substring(colon + 1, x).trim());
+                perRow = Integer.parseInt(part.substring(x + 1).trim());
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Seat map sections look like Name:ROWSxSEATS, not \"" + part + "\"");
+            }
+            if (rows <= 0 || perRow <= 0 || (long) rows * perRow > 1_000_000) {
+                throw new IllegalArgumentException("Section " + name + " needs 1 to 1,000,000 seats");
+            }
+            names.add(name);
+            layout.add(new Object[]{name, rows, perRow});
+        }
+        if (layout.isEmpty()) {
+            throw new IllegalArgumentException("The seat map has no sections");
+        }
+        return of(layout);
+    }
+
+    /** The layout in parse() syntax. */
+    public String spec() {
+        StringBuilder sb = new StringBuilder();
+        for (Section s : sections) {
+            sb.append(sb.length() == 0 ? "" : ", ")
+              .append(s.name).append(':').append(s.rows).append('x').append(s.seatsPerRow);
+        }
+        return sb.toString();
+    }
+
+    public List<Section> sections() {
+        return sections;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized int free() {
+        return free;
+    }
+
+    // ------------------------------------------------------------------ allocation
+
+    /**
+     * N seats side by side in one row: the front-most row that has room, and in
+     * that row the block nearest the centre. Null if no row has N adjacent seats.
+     */
+    public synchronized int[] allocateContiguous(int n) {
+        if (n <= 0 || n > free) {
+            return null;
+        }
+        for (int row = 0; row < freeInRow.length; row++) {
+            if (freeInRow[row] < n) {
+                continue;
+            }
+            int start = bestBlockInRow(row, n);
+            if (start >= 0) {
+                int[] seats = new int[n];
+                for (int i = 0; i < n; i++) {
+                    seats[i] = start + i;
+                }
+                take(seats);
+                return seats;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * N seats, side by side if possible, otherwise the best single seats front to
+     * back. Null (nothing taken) if fewer than N seats are free.
+     */
+    public synchronized int[] allocate(int n) {
+        int[] block = allocateContiguous(n);
+        if (block != null || n <= 1 || n > free) {
+            return block;
+        }
+        int[] seats = new int[n];
+        int k = 0;
+        for (int row = 0; row < freeInRow.length && k < n; row++) {
+            while (freeInRow[row] > 0 && k < n) {
+                int seat = bestBlockInRow(row, 1);
+                seats[k++] = seat;
+                take(new int[]{seat});
+            }
+        }
+        return seats;
+    }
+
+    /** Marks a seat taken when loading existing registrations; false if it was already taken. */
+    public synchronized boolean occupy(int seat) {
+        if (seat < 0 || seat >= capacity || taken.get(seat)) {
+            return false;
+        }
+        take(new int[]{seat});
+        return true;
+    }
+
+    public synchronized void release(int[] seats) {
+        for (int seat : seats) {
+            if (seat >= 0 && seat < capacity && taken.get(seat)) {
+                taken.clear(seat);
+                freeInRow[rowOf(seat)]++;
+                free++;
+            }
+        }
+    }
+
+    public synchronized boolean isTaken(int seat) {
+        return taken.get(seat);
+    }
+
+    private void take(int[] seats) {
+        for (int seat : seats) {
+            taken.set(seat);
+            freeInRow[rowOf(seat)]--;
+            free--;
+        }
+    }
+
+    // start of the free block of n seats nearest the row's centre, or -1
+    private int bestBlockInRow(int row, int n) {
+        Section s = sectionOfRow[row];
+        int rowStart = s.firstSeat + (row - s.firstRow) * s.seatsPerRow;
+        int rowEnd = rowStart + s.seatsPerRow;
+        double centre = rowStart + s.seatsPerRow / 2.0;
+
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        int pos = taken.nextClearBit(rowStart);
+        while (pos < rowEnd) {
+            int runEnd = taken.nextSetBit(pos);
+            if (runEnd < 0 || runEnd > rowEnd) {
+                runEnd = rowEnd;
+            }
+            if (runEnd - pos >= n) {
+                // slide the block towards the centre within this run
+                int start = (int) Math.round(centre - n / 2.0);
+                start = Math.max(pos, Math.min(start, runEnd - n));
+                double distance = Math.abs(start + n / 2.0 - centre);
+                if (distance < bestDistance) {
+                    best = start;
+                    bestDistance = distance;
+                }
+            }
+            pos = taken.nextClearBit(runEnd);
+        }
+        return best;
+    }
+
+    private int rowOf(int seat) {
+        // sections are few; rows within a section are uniform
+        for (Section s : sections) {
+            if (seat < s.firstSeat + s.capacity()) {
+                return s.firstRow + (seat - s.firstSeat) / s.seatsPerRow;
+            }
+        }
+        throw new IllegalArgumentException("No seat " + seat);
+    }
+
+    // ------------------------------------------------------------------ labels
+
+    public String label(int seat) {
+        int row = rowOf(seat);
+        Section s = sectionOfRow[row];
+        int inRow = (seat - s.firstSeat) % s.seatsPerRow;
+        return s.name + "/" + (row - s.firstRow + 1) + "/" + (inRow + 1);
+    }
+
+    public String[] labels(int[] seats) {
+        String[] out = new String[seats.length];
+        for (int i = 0; i < seats.length; i++) {
+            out[i] = label(seats[i]);
+        }
+        return out;
+    }
+
+    /** "Balcony/3/12" as "Balcony, row 3, seat 12" for tickets and messages. */
+    public static String describe(String label) {
+        int b = label.lastIndexOf('/');
+        int a = b > 0 ? label.lastIndexOf('/', b - 1) : -1;
+        if (a <= 0) {
+            return label;
+        }
+        return label.substring(0, a) + ", row " + label.substring(a + 1, b) + ", seat " + label.substring(b + 1);
+    }
+
+    /** Seat index for a "section/row/seat" label, or -1 if it is not part of this map. */
+    public int seatOf(String label) {
+        if (label == null) {
+            return -1;
+        }
+        int b = label.lastIndexOf('/');
+        int a = b > 0 ? label.lastIndexOf('/', b - 1) : -1;
+        if (a <= 0) {
+            return -1;
+        }
+        String name = label.substring(0, a);
+        int row;
+        int seat;
+        try {
+            row = Integer.parseInt(label.substring(a + 1, b)) - 1;
+            seat = Integer.parseInt(label.substring(b + 1)) - 1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+        for (Section s : sections) {
+            if (s.name.equals(name)) {
+                if (row < 0 || row >= s.rows || seat < 0 || seat >= s.seatsPerRow) {
+                    return -1;
+                }
+                return s.firstSeat + row * s.seatsPerRow + seat;
+            }
+        }
+        return -1;
+    }
+
+    // ------------------------------------------------------------------ layout changes
+
+    /**
+     * Layout with enough rows added to the last section for at least the given
+     * number of extra seats (whole rows only). Occupancy is not copied; the
+     * caller saves the layout and RegistrationService reloads the event.
+     */
+    public SeatMap withExtraSeats(int seats) {
+        List<Object[]> layout = new ArrayList<>();
+        for (Section s : sections) {
+            layout.add(new Object[]{s.name, s.rows, s.seatsPerRow});
+        }
+        Object[] last = layout.get(layout.size() - 1);
+        int perRow = (Integer) last[2];
+        last[1] = (Integer) last[1] + (seats + perRow - 1) / perRow;
+        return of(layout);
+    }
+
+    // ------------------------------------------------------------------ persistence
+
+    /** The event's layout (all seats free), or null for general admission. */
+    public static SeatMap load(Connection conn, int eventId) throws SQLException {
+        List<Object[]> layout = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(LOAD_LAYOUT)) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    layout.add(new Object[]{rs.getString("name"), rs.getInt("row_count"), rs.getInt("seats_per_row")});
+                }
+            }
+        }
+        return layout.isEmpty() ? null : of(layout);
+    }
+
+    /** Replaces the event's layout; runs in the caller's transaction. */
+    public void save(Connection conn, int eventId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(DELETE_LAYOUT)) {
+            ps.setInt(1, eventId);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SECTION)) {
+            for (int i = 0; i < sections.size(); i++) {
+                Section s = sections.get(i);
+                ps.setInt(1, eventId);
+                ps.setInt(2, i);
+                ps.setString(3, s.name);
+                ps.setInt(4, s.rows);
+                ps.setInt(5, s.seatsPerRow);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
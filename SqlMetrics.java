@@ -0,0 +1,328 @@
+package com.mycompany.eventmanagementsystem;
+
+import javax.management.ObjectName;
+import java.beans.ConstructorProperties;
+import java.lang.management.ManagementFactory;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Timing of every JDBC statement and transaction that goes through
+ * DBConnectionPool.
+ *
+ * Statements are aggregated by SQL text: a latency histogram (p50/p99/max),
+ * rows returned or affected, and error count. Transactions get their own
+ * histogram plus commit and rollback counters. A statement slower than
+ * events.db.slowQueryMs (default 250) is logged to stderr with its bound
+ * parameters, and the latest ones are kept for the metrics tab.
+ */
+public final class SqlMetrics implements SqlMetricsMXBean {
+
+    private static final int MAX_STATEMENTS = 500;
+    private static final int SLOW_LOG_SIZE = 100;
+    private static final String OTHER = "<other statements>";
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+    private static final SqlMetrics INSTANCE = new SqlMetrics();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE,
+                    new ObjectName("com.mycompany.eventmanagementsystem:type=SqlMetrics"));
+        } catch (Exception ex) {
+            System.err.println("SQL metrics not registered with JMX: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Log-linear histogram of durations in microseconds: exact below 16 us, then
+     * eight buckets per power of two (about 12% resolution).
+     */
+    static final class LatencyHistogram {
+        private static final int BUCKETS = 16 + 8 * 40;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            long micros = Math.max(0, nanos / 1000);
+            counts.incrementAndGet(bucketOf(micros));
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private static int bucketOf(long micros) {
+            if (micros < 16) {
+                return (int) micros;
+            }
+            int exp = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int) (micros >>> (exp - 3)) & 7;
+            return Math.min(BUCKETS - 1, 16 + (exp - 4) * 8 + sub);
+        }
+
+        private static long upperBoundMicros(int bucket) {
+            if (bucket < 16) {
+                return bucket;
+            }
+            int exp = (bucket - 16) / 8 + 4;
+            int sub = (bucket - 16) % 8;
+            return ((8L + sub + 1) << (exp - 3)) - 1;
+        }
+
+        double percentileMillis(double p) {
+            long n = count.get();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(p / 100.0 * n);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBoundMicros(i) / 1000.0, maxMillis());
+                }
+            }
+            return maxMillis();
+        }
+
+        long count() {
+            return count.get();
+        }
+
+        double totalMillis() {
+            return totalNanos.get() / 1e6;
+        }
+
+        double maxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+    }
+
+    private static final class StatementStats {
+        final String sql;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+
+        StatementStats(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    /** Immutable per-statement figures; also the JMX composite type. */
+    public static final class StatementSnapshot {
+        private final String sql;
+        private final long executions;
+        private final long errors;
+        private final long rows;
+        private final double totalMillis;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        @ConstructorProperties({"sql", "executions", "errors", "rows",
+                "totalMillis", "p50Millis", "p99Millis", "maxMillis"})
+        public StatementSnapshot(String sql, long executions, long errors, long rows,
+                                 double totalMillis, double p50Millis, double p99Millis, double maxMillis) {
+            this.sql = sql;
+            this.executions = executions;
+            this.errors = errors;
+            this.rows = rows;
+            this.totalMillis = totalMillis;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public String getSql() { return sql; }
+        public long getExecutions() { return executions; }
+        public long getErrors() { return errors; }
+        public long getRows() { return rows; }
+        public double getTotalMillis() { return totalMillis; }
+        public double getP50Millis() { return p50Millis; }
+        public double getP99Millis() { return p99Millis; }
+        public double getMaxMillis() { return maxMillis; }
+    }
+
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private volatile LatencyHistogram transactions = new LatencyHistogram();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong slowQueries = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong rollbacks = new AtomicLong();
+    private final ArrayDeque<String> slowLog = new ArrayDeque<>();
+    private volatile long slowThresholdNanos = Long.getLong("events.db.slowQueryMs", 250L) * 1_000_000L;
+
+    private SqlMetrics() {
+    }
+
+    public static SqlMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    // ------------------------------------------------------------ recording
+
+    /**
+     * One statement execution. rows is the update count (or -1 for queries, whose
+     * rows are counted by recordRows as they are read).
+     */
+    void recordStatement(String sql, long nanos, long rows, Object[] params, boolean failed) {
+        StatementStats s = stats(sql);
+        s.latency.record(nanos);
+        executions.incrementAndGet();
+        if (rows > 0) {
+            s.rows.addAndGet(rows);
+        }
+        if (failed) {
+            s.errors.incrementAndGet();
+            errors.incrementAndGet();
+        }
+        if (nanos >= slowThresholdNanos) {
+            logSlow(sql, nanos, params, failed);
+        }
+    }
+
+    void recordRows(String sql, long rows) {
+        if (rows > 0) {
+            stats(sql).rows.addAndGet(rows);
+        }
+    }
+
+    void recordTransaction(long nanos, boolean committed) {
+        transactions.record(nanos);
+        (committed ? commits : rollbacks).incrementAndGet();
+    }
+
+    private StatementStats stats(String sql) {
+        String key = sql == null ? OTHER : sql;
+        StatementStats s = statements.get(key);
+        if (s == null) {
+            // ad hoc SQL with inlined values must not grow the map without bound
+            if (statements.size() >= MAX_STATEMENTS) {
+                key = OTHER;
+            }
+            s = statements.computeIfAbsent(key, StatementStats::new);
+        }
+        return s;
+    }
+
+    private void logSlow(String sql, long nanos, Object[] params, boolean failed) {
+        slowQueries.incrementAndGet();
+        String entry = String.format("%s %8.1f ms%s %s%s",
+                LocalTime.now().format(TIME), nanos / 1e6, failed ? " FAILED" : "",
+                sql, params == null || params.length == 0 ? "" : " params=" + Arrays.deepToString(params));
+        System.err.println("[slow-sql] " + entry);
+        synchronized (slowLog) {
+            if (slowLog.size() == SLOW_LOG_SIZE) {
+                slowLog.removeFirst();
+            }
+            slowLog.addLast(entry);
+        }
+    }
+
+    // ------------------------------------------------------------ reading
+
+    @Override
+    public List<StatementSnapshot> getStatements() {
+        List<StatementSnapshot> out = new ArrayList<>(statements.size());
+        for (StatementStats s : statements.values()) {
+            LatencyHistogram h = s.latency;
+            out.add(new StatementSnapshot(s.sql, h.count(), s.errors.get(), s.rows.get(),
+                    h.totalMillis(), h.percentileMillis(50), h.percentileMillis(99), h.maxMillis()));
+        }
+        out.sort(Comparator.comparingDouble(StatementSnapshot::getTotalMillis).reversed());
+        return out;
+    }
+
+    @Override
+    public List<String> getRecentSlowQueries() {
+        synchronized (slowLog) {
+            List<String> out = new ArrayList<>(slowLog);
+            Collections.reverse(out); // newest first
+            return out;
+        }
+    }
+
+    @Override
+    public long getStatementExecutions() {
+        return executions.get();
+    }
+
+    @Override
+    public long getStatementErrors() {
+        return errors.get();
+    }
+
+    @Override
+    public long getSlowQueries() {
+        return slowQueries.get();
+    }
+
+    @Override
+    public long getSlowQueryThresholdMillis() {
+        return slowThresholdNanos / 1_000_000L;
+    }
+
+    @Override
+    public void setSlowQueryThresholdMillis(long millis) {
+        slowThresholdNanos = Math.max(0, millis) * 1_000_000L;
+    }
+
+    @Override
+    public long getCommits() {
+        return commits.get();
+    }
+
+    @Override
+    public long getRollbacks() {
+        return rollbacks.get();
+    }
+
+    @Override
+    public double getTransactionP50Millis() {
+        return transactions.percentileMillis(50);
+    }
+
+    @Override
+    public double getTransactionP99Millis() {
+        return transactions.percentileMillis(99);
+    }
+
+    @Override
+    public double getTransactionMaxMillis() {
+        return transactions.maxMillis();
+    }
+
+    @Override
+    public String getPoolStats() {
+        return DBConnectionPool.getInstance().getStats().toString();
+    }
+
+    @Override
+    public void reset() {
+        statements.clear();
+        synchronized (slowLog) {
+            slowLog.clear();
+        }
+        executions.set(0);
+        errors.set(0);
+        slowQueries.set(0);
+        commits.set(0);
+        rollbacks.set(0);
+        transactions = new LatencyHistogram();
+    }
+}
@@ -0,0 +1,39 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.util.List;
+
+/**
+ * JMX view of SqlMetrics, registered as
+ * com.mycompany.eventmanagementsystem:type=SqlMetrics.
+ */
+public interface SqlMetricsMXBean {
+
+    long getStatementExecutions();
+
+    long getStatementErrors();
+
+    long getSlowQueries();
+
+    long getSlowQueryThresholdMillis();
+
+    void setSlowQueryThresholdMillis(long millis);
+
+    long getCommits();
+
+    long getRollbacks();
+
+    double getTransactionP50Millis();
+
+    double getTransactionP99Millis();
+
+    double getTransactionMaxMillis();
+
+    /** Per-statement aggregates, most total time first. */
+    List<SqlMetrics.StatementSnapshot> getStatements();
+
+    List<String> getRecentSlowQueries();
+
+    String getPoolStats();
+
+    void reset();
+}
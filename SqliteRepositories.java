@@ -0,0 +1,377 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repositories on the SQLite schema of DatabaseSetup.
+ *
+ * Every method is one statement that an index answers (see QueryPlanCheck).
+ * Uniqueness is left to the primary keys and unique indexes: inserts use
+ * INSERT OR IGNORE and report a conflict as false instead of a pre-check
+ * followed by a write, and seat changes are a single conditional UPDATE.
+ *
+ * pooled() borrows a connection from DBConnectionPool per call (statements are
+ * cached there); on(conn) runs everything on the caller's connection, so the
+ * calls take part in its transaction.
+ */
+public final class SqliteRepositories {
+
+    private interface Work<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    static final String EVENT_COLUMNS =
+            "event_id, title, category, location, event_date, event_time, capacity, seats_available";
+    static final String INSERT_EVENT =
+            "INSERT INTO events (title, category, location, event_date, event_time, capacity, seats_available) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    static final String FIND_EVENT =
+            "SELECT " + EVENT_COLUMNS + " FROM events WHERE event_id = ?";
+    static final String UPDATE_EVENT =
+            "UPDATE events SET title = ?, category = ?, location = ?, event_date = ?, event_time = ?, " +
+            "capacity = ?, seats_available = ? WHERE event_id = ?";
+    static final String ADJUST_SEATS =
+            "UPDATE events SET seats_available = seats_available + ? " +
+            "WHERE event_id = ? AND seats_available + ? BETWEEN 0 AND capacity";
+
+    static final String INSERT_REGISTRATION =
+            "INSERT OR IGNORE INTO registrations " +
+            "(registration_id, user_id, event_id, registration_date, status, seat) VALUES (?, ?, ?, ?, ?, ?)";
+    static final String REGISTRATION_COLUMNS =
+            "registration_id, user_id, event_id, registration_date, status, seat";
+    static final String FIND_REGISTRATION =
+            "SELECT " + REGISTRATION_COLUMNS + " FROM registrations WHERE registration_id = ?";
+    static final String IS_REGISTERED =
+            "SELECT 1 FROM registrations WHERE user_id = ? AND event_id = ?";
+    static final String COUNT_REGISTRATIONS =
+            "SELECT COUNT(*) FROM registrations WHERE event_id = ?";
+    static final String REGISTRATIONS_OF_USER =
+            "SELECT " + REGISTRATION_COLUMNS + " FROM registrations WHERE user_id = ? ORDER BY registration_id";
+
+    static final String INSERT_WAITLIST =
+            "INSERT OR IGNORE INTO waitlist (waitlist_id, user_id, event_id, request_date) VALUES (?, ?, ?, ?)";
+    static final String DELETE_WAITLIST =
+            "DELETE FROM waitlist WHERE user_id = ? AND event_id = ?";
+    static final String WAITLIST_HEAD =
+            "SELECT waitlist_id, user_id, event_id, request_date FROM waitlist " +
+            "WHERE event_id = ? ORDER BY request_date, waitlist_id LIMIT ?";
+    static final String WAITLIST_LENGTH =
+            "SELECT COUNT(*) FROM waitlist WHERE event_id = ?";
+    static final String IS_WAITLISTED =
+            "SELECT 1 FROM waitlist WHERE user_id = ? AND event_id = ?";
+
+    static final String INSERT_TICKET =
+            "INSERT OR IGNORE INTO tickets (ticket_id, registration_id) VALUES (?, ?)";
+    static final String TICKET_OF_REGISTRATION =
+            "SELECT ticket_id FROM tickets WHERE registration_id = ?";
+    static final String REGISTRATION_OF_TICKET =
+            "SELECT registration_id FROM tickets WHERE ticket_id = ?";
+
+    private final Connection fixed;
+
+    private SqliteRepositories(Connection fixed) {
+        this.fixed = fixed;
+    }
+
+    /** Repositories that borrow a pooled connection per call. */
+    public static Repositories pooled() {
+        return new SqliteRepositories(null).repositories();
+    }
+
+    /** Repositories that use the given connection and never close it. */
+    public static Repositories on(Connection conn) {
+        return new SqliteRepositories(conn).repositories();
+    }
+
+    private Repositories repositories() {
+        return new Repositories(new Events(), new Registrations(), new Waitlist(), new Tickets());
+    }
+
+    private <T> T with(Work<T> work) throws SQLException {
+        if (fixed != null) {
+            return work.run(fixed);
+        }
+        try (Connection conn = DBConnectionPool.getConnection()) {
+            return work.run(conn);
+        }
+    }
+
+    private int update(String sql, Object... params) throws SQLException {
+        return with(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bind(ps, params);
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    private boolean exists(String sql, Object... params) throws SQLException {
+        return with(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bind(ps, params);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next();
+                }
+            }
+        });
+    }
+
+    private int count(String sql, Object... params) throws SQLException {
+        return with(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bind(ps, params);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+        });
+    }
+
+    private static void bind(PreparedStatement ps, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            ps.setObject(i + 1, params[i]);
+        }
+    }
+
+    // ------------------------------------------------------------ events
+
+    private final class Events implements EventRepository {
+
+        @Override
+        public int create(Event e) throws SQLException {
+            return with(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(INSERT_EVENT, Statement.RETURN_GENERATED_KEYS)) {
+                    bind(ps, new Object[]{e.title, e.category, e.location, e.date, e.time,
+                            e.capacity, e.seatsAvailable});
+                    ps.executeUpdate();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (!keys.next()) {
+                            throw new SQLException("No event id returned");
+                        }
+                        return keys.getInt(1);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public Event find(int eventId) throws SQLException {
+            return with(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(FIND_EVENT)) {
+                    ps.setInt(1, eventId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        return rs.next() ? event(rs) : null;
+                    }
+                }
+            });
+        }
+
+        @Override
+        public List<Event> list(String category, String location, String date, Event after, int limit)
+                throws SQLException {
+            List<String> conditions = new ArrayList<>();
+            List<Object> params = new ArrayList<>();
+            if (category != null && !category.isEmpty()) {
+                conditions.add("category = ?");
+                params.add(category);
+            }
+            if (location != null && !location.isEmpty()) {
+                conditions.add("location = ?");
+                params.add(location);
+            }
+            if (date != null && !date.isEmpty()) {
+                conditions.add("event_date = ?");
+                params.add(date);
+            }
+            if (after != null) {
+                conditions.add("(event_date, event_time, event_id) > (?, ?, ?)");
+                params.add(after.date);
+                params.add(after.time);
+                params.add(after.eventId);
+            }
+            params.add(limit);
+            String sql = listSql(conditions);
+
+            return with(conn -> {
+                List<Event> events = new ArrayList<>();
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    bind(ps, params.toArray());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            events.add(event(rs));
+                        }
+                    }
+                }
+                return events;
+            });
+        }
+
+        @Override
+        public boolean update(Event e) throws SQLException {
+            return SqliteRepositories.this.update(UPDATE_EVENT, e.title, e.category, e.location, e.date, e.time,
+                    e.capacity, e.seatsAvailable, e.eventId) > 0;
+        }
+
+        @Override
+        public boolean adjustSeats(int eventId, int delta) throws SQLException {
+            return SqliteRepositories.this.update(ADJUST_SEATS, delta, eventId, delta) > 0;
+        }
+    }
+
+    static String listSql(List<String> conditions) {
+        return "SELECT " + EVENT_COLUMNS + " FROM events"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY event_date, event_time, event_id LIMIT ?";
+    }
+
+    private static EventRepository.Event event(ResultSet rs) throws SQLException {
+        return new EventRepository.Event(
+                rs.getInt("event_id"),
+                rs.getString("title"),
+                rs.getString("category"),
+                rs.getString("location"),
+                rs.getString("event_date"),
+                rs.getString("event_time"),
+                rs.getInt("capacity"),
+                rs.getInt("seats_available"));
+    }
+
+    // ------------------------------------------------------------ registrations
+
+    private final class Registrations implements RegistrationRepository {
+
+        @Override
+        public boolean insert(Registration r) throws SQLException {
+            return update(INSERT_REGISTRATION, r.registrationId, r.userId, r.eventId, r.registrationDate,
+                    r.status, r.seat) > 0;
+        }
+
+        @Override
+        public Registration find(int registrationId) throws SQLException {
+            List<Registration> found = registrations(FIND_REGISTRATION, registrationId);
+            return found.isEmpty() ? null : found.get(0);
+        }
+
+        @Override
+        public boolean isRegistered(int userId, int eventId) throws SQLException {
+            return exists(IS_REGISTERED, userId, eventId);
+        }
+
+        @Override
+        public int countForEvent(int eventId) throws SQLException {
+            return count(COUNT_REGISTRATIONS, eventId);
+        }
+
+        @Override
+        public List<Registration> forUser(int userId) throws SQLException {
+            return registrations(REGISTRATIONS_OF_USER, userId);
+        }
+
+        private List<Registration> registrations(String sql, int id) throws SQLException {
+            return with(conn -> {
+                List<Registration> out = new ArrayList<>();
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setInt(1, id);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            out.add(new Registration(
+                                    rs.getInt("registration_id"),
+                                    rs.getInt("user_id"),
+                                    rs.getInt("event_id"),
+                                    rs.getString("registration_date"),
+                                    rs.getString("status"),
+                                    rs.getString("seat")));
+                        }
+                    }
+                }
+                return out;
+            });
+        }
+    }
+
+    // ------------------------------------------------------------ waitlist
+
+    private final class Waitlist implements WaitlistRepository {
+
+        @Override
+        public boolean add(Entry e) throws SQLException {
+            return update(INSERT_WAITLIST, e.waitlistId, e.userId, e.eventId, e.requestDate) > 0;
+        }
+
+        @Override
+        public boolean remove(int userId, int eventId) throws SQLException {
+            return update(DELETE_WAITLIST, userId, eventId) > 0;
+        }
+
+        @Override
+        public List<Entry> head(int eventId, int limit) throws SQLException {
+            return with(conn -> {
+                List<Entry> out = new ArrayList<>();
+                try (PreparedStatement ps = conn.prepareStatement(WAITLIST_HEAD)) {
+                    ps.setInt(1, eventId);
+                    ps.setInt(2, limit);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            out.add(new Entry(
+                                    rs.getInt("waitlist_id"),
+                                    rs.getInt("user_id"),
+                                    rs.getInt("event_id"),
+                                    rs.getString("request_date")));
+                        }
+                    }
+                }
+                return out;
+            });
+        }
+
+        @Override
+        public int length(int eventId) throws SQLException {
+            return count(WAITLIST_LENGTH, eventId);
+        }
+
+        @Override
+        public boolean contains(int userId, int eventId) throws SQLException {
+            return exists(IS_WAITLISTED, userId, eventId);
+        }
+    }
+
+    // ------------------------------------------------------------ tickets
+
+    private final class Tickets implements TicketRepository {
+
+        @Override
+        public boolean issue(String ticketId, int registrationId) throws SQLException {
+            return update(INSERT_TICKET, ticketId, registrationId) > 0;
+        }
+
+        @Override
+        public String ticketFor(int registrationId) throws SQLException {
+            return with(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(TICKET_OF_REGISTRATION)) {
+                    ps.setInt(1, registrationId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        return rs.next() ? rs.getString(1) : null;
+                    }
+                }
+            });
+        }
+
+        @Override
+        public int registrationOf(String ticketId) throws SQLException {
+            return with(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(REGISTRATION_OF_TICKET)) {
+                    ps.setString(1, ticketId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        return rs.next() ? rs.getInt(1) : -1;
+                    }
+                }
+            });
+        }
+    }
+}
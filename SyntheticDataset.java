@@ -0,0 +1,221 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic generator for SQLite test databases.
+ *
+ * The same spec and seed always produce the same rows, so benchmark runs on
+ * different builds can be compared. Usage:
+ *
+ *   java ... SyntheticDataset --db bench.db --events 2000 --registrations 100000
+ *            --waitlist 10000 --users 50000 --seed 42
+ */
+public final class SyntheticDataset {
+
+    private static final String[] CATEGORIES = {
+            "Conference", "Workshop", "Concert", "Festival", "Seminar", "Meetup",
+            "Sports", "Theatre", "Exhibition", "Webinar", "Hackathon", "Networking"
+    };
+
+    private static final String[] LOCATIONS = {
+            "Lahore", "Karachi", "Islamabad", "Rawalpindi", "Faisalabad", "Multan",
+            "Peshawar", "Quetta", "Sialkot", "Hyderabad", "Gujranwala", "Abbottabad",
+            "Main Hall", "Auditorium A", "Auditorium B", "Expo Centre", "Open Air Stage",
+            "Convention Centre", "Stadium", "Library", "Lab 1", "Lab 2", "Room 101",
+            "Room 202", "Campus Lawn", "Sports Complex", "City Park", "Online",
+            "Hotel Ballroom", "Community Centre"
+    };
+
+    private static final int BATCH_SIZE = 1000;
+
+    public static final class Spec {
+        public int events = 1000;
+        public int registrations = 50_000;
+        public int waitlist = 5_000;
+        public int users = 20_000;
+        public long seed = 42L;
+
+        @Override
+        public String toString() {
+            return "{\"events\":" + events + ",\"registrations\":" + registrations
+                    + ",\"waitlist\":" + waitlist + ",\"users\":" + users + ",\"seed\":" + seed + "}";
+        }
+    }
+
+    private SyntheticDataset() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String db = "bench.db";
+        Spec spec = new Spec();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--db": db = args[i + 1]; break;
+                case "--events": spec.events = Integer.parseInt(args[i + 1]); break;
+                case "--registrations": spec.registrations = Integer.parseInt(args[i + 1]); break;
+                case "--waitlist": spec.waitlist = Integer.parseInt(args[i + 1]); break;
+                case "--users": spec.users = Integer.parseInt(args[i + 1]); break;
+                case "--seed": spec.seed = Long.parseLong(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        long start = System.nanoTime();
+        generate("jdbc:sqlite:" + db, spec);
+        System.out.printf("Generated %s %s in %.1f s%n", db, spec, (System.nanoTime() - start) / 1e9);
+    }
+
+    /** Creates the schema in an empty database and fills it according to spec. */
+    public static void generate(String jdbcUrl, Spec spec) throws SQLException {
+        Random rnd = new Random(spec.seed);
+
+        try (Connection conn = DriverManager.getConnection(jdbcUrl)) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("PRAGMA journal_mode = WAL");
+                st.execute("PRAGMA synchronous = OFF");
+            }
+            DatabaseSetup.createBaseTables(conn);
+
+            conn.setAutoCommit(false);
+
+            // --- users ---
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO users (user_id, username, password, full_name, role) " +
+                    "VALUES (?, ?, 'x', ?, 'ATTENDEE')")) {
+                for (int u = 1; u <= spec.users; u++) {
+                    ps.setInt(1, u);
+                    ps.setString(2, "user" + u);
+                    ps.setString(3, "User " + u);
+                    ps.addBatch();
+                    if (u % BATCH_SIZE == 0) ps.executeBatch();
+                }
+                ps.executeBatch();
+            }
+
+            // --- events: capacity sized so that registrations fit, some sold out ---
+            int[] capacity = new int[spec.events + 1];
+            int[] taken = new int[spec.events + 1];
+            int avg = Math.max(1, spec.registrations / Math.max(1, spec.events));
+            LocalDate firstDay = LocalDate.of(2026, 1, 1);
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO events (event_id, title, category, location, event_date, " +
+                    "event_time, capacity, seats_available) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (int e = 1; e <= spec.events; e++) {
+                    capacity[e] = avg + rnd.nextInt(avg * 2 + 1);
+                    String category = CATEGORIES[rnd.nextInt(CATEGORIES.length)];
+                    ps.setInt(1, e);
+                    ps.setString(2, category + " #" + e);
+                    ps.setString(3, category);
+                    ps.setString(4, LOCATIONS[rnd.nextInt(LOCATIONS.length)]);
+                    ps.setString(5, firstDay.plusDays(rnd.nextInt(365)).toString());
+                    ps.setString(6, String.format("%02d:%02d", 8 + rnd.nextInt(13), rnd.nextInt(4) * 15));
+                    ps.setInt(7, capacity[e]);
+                    ps.setInt(8, capacity[e]); // corrected after registrations
+                    ps.addBatch();
+                    if (e % BATCH_SIZE == 0) ps.executeBatch();
+                }
+                ps.executeBatch();
+            }
+
+            // --- registrations + tickets ---
+            try (PreparedStatement psReg = conn.prepareStatement(
+                         "INSERT INTO registrations (registration_id, user_id, event_id, " +
+                         "registration_date, status) VALUES (?, ?, ?, ?, 'CONFIRMED')");
+                 PreparedStatement psTicket = conn.prepareStatement(
+                         "INSERT INTO tickets (ticket_id, registration_id) VALUES (?, ?)")) {
+                Set<Long> registered = new HashSet<>();
+                int regId = 0;
+                int attempts = 0;
+                while (regId < spec.registrations && attempts++ < spec.registrations * 4) {
+                    int e = 1 + rnd.nextInt(spec.events);
+                    if (taken[e] >= capacity[e]) {
+                        continue;
+                    }
+                    int user = pickUser(rnd, spec.users, e, registered);
+                    if (user < 0) {
+                        continue;
+                    }
+                    taken[e]++;
+                    regId++;
+                    psReg.setInt(1, regId);
+                    psReg.setInt(2, user);
+                    psReg.setInt(3, e);
+                    psReg.setString(4, timestamp(rnd, firstDay));
+                    psReg.addBatch();
+                    psTicket.setString(1, RegistrationService.ticketIdFor(regId, e));
+                    psTicket.setInt(2, regId);
+                    psTicket.addBatch();
+                    if (regId % BATCH_SIZE == 0) {
+                        psReg.executeBatch();
+                        psTicket.executeBatch();
+                    }
+                }
+                psReg.executeBatch();
+                psTicket.executeBatch();
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE events SET seats_available = ? WHERE event_id = ?")) {
+                for (int e = 1; e <= spec.events; e++) {
+                    ps.setInt(1, capacity[e] - taken[e]);
+                    ps.setInt(2, e);
+                    ps.addBatch();
+                    if (e % BATCH_SIZE == 0) ps.executeBatch();
+                }
+                ps.executeBatch();
+            }
+
+            // --- waitlist: only for sold-out events, falling back to the fullest ones ---
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO waitlist (waitlist_id, user_id, event_id, request_date) " +
+                    "VALUES (?, ?, ?, ?)")) {
+                Set<Long> waiting = new HashSet<>();
+                for (int w = 1; w <= spec.waitlist; w++) {
+                    int e = 1 + rnd.nextInt(spec.events);
+                    for (int tries = 0; tries < 8 && taken[e] < capacity[e]; tries++) {
+                        e = 1 + rnd.nextInt(spec.events);
+                    }
+                    int user = pickUser(rnd, spec.users, e, waiting);
+                    if (user < 0) {
+                        continue;
+                    }
+                    ps.setInt(1, w);
+                    ps.setInt(2, user);
+                    ps.setInt(3, e);
+                    ps.setString(4, timestamp(rnd, firstDay));
+                    ps.addBatch();
+                    if (w % BATCH_SIZE == 0) ps.executeBatch();
+                }
+                ps.executeBatch();
+            }
+
+            conn.commit();
+            conn.setAutoCommit(true);
+
+            // the remaining migrations (indexes, seat column, derived tables built from
+            // the generated rows) bring the file to the schema the application expects
+            DatabaseSetup.migrate(conn);
+        }
+    }
+
+    // (user_id, event_id) is unique in registrations and in waitlist; -1 if no free user was found
+    private static int pickUser(Random rnd, int users, int eventId, Set<Long> used) {
+        for (int tries = 0; tries < 32; tries++) {
+            int user = 1 + rnd.nextInt(users);
+            if (used.add(((long) user << 32) | eventId)) {
+                return user;
+            }
+        }
+        return -1;
+    }
+
+    private static String timestamp(Random rnd, LocalDate firstDay) {
+        return String.format("%s %02d:%02d:%02d",
+                firstDay.minusDays(rnd.nextInt(60)), rnd.nextInt(24), rnd.nextInt(60), rnd.nextInt(60));
+    }
+}
@@ -0,0 +1,16 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.SQLException;
+
+/** Storage for tickets: one per registration, ticket ids unique. */
+public interface TicketRepository {
+
+    /** False if the ticket id is taken or the registration already has a ticket. */
+    boolean issue(String ticketId, int registrationId) throws SQLException;
+
+    /** The registration's ticket id, or null. */
+    String ticketFor(int registrationId) throws SQLException;
+
+    /** The ticket's registration id, or -1 if the ticket is unknown. */
+    int registrationOf(String ticketId) throws SQLException;
+}
@@ -0,0 +1,387 @@
+package com.mycompany.eventmanagementsystem;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Printable tickets (PNG and PDF, both with a QR code of the ticket id) in a
+ * local ticket store directory (events.ticketStore, default "tickets").
+ *
+ * Rendering never runs on the registration path: issue() only queues a job for
+ * a small fixed pool with a bounded queue. When the queue is full the job is
+ * dropped and the ticket is rendered on first request by fileFor() instead, so a
+ * registration burst cannot back up into the seat transaction. HttpApi serves
+ * the files at /api/tickets/{id}.
+ */
+public final class TicketStore {
+
+    public enum Kind {
+        PNG("png"), PDF("pdf");
+
+        final String extension;
+
+        Kind(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    private static final int THREADS = Integer.getInteger("events.tickets.renderThreads", 2);
+    private static final int QUEUE_SIZE = Integer.getInteger("events.tickets.queueSize", 1000);
+
+    private static final int MODULE_PX = 6;
+    private static final int QUIET_ZONE = 4;
+
+    // SQL shared with QueryPlanCheck
+    static final String FIND_REGISTRATION =
+            "SELECT user_id, seat FROM registrations WHERE registration_id = ?";
+    static final String FIND_EVENT =
+            "SELECT title, location, event_date, event_time FROM events WHERE event_id = ?";
+    static final String FIND_ATTENDEE =
+            "SELECT full_name, username FROM users WHERE user_id = ?";
+    static final String VALID_TICKET =
+            "SELECT 1 FROM tickets t JOIN registrations r ON r.registration_id = t.registration_id " +
+            "WHERE t.ticket_id = ?";
+
+    private static final TicketStore INSTANCE = new TicketStore(
+            Paths.get(System.getProperty("events.ticketStore", "tickets")));
+
+    /** What a ticket shows; read from the database by the render worker. */
+    static final class TicketDetails {
+        String ticketId;
+        String attendee;
+        String title;
+        String location;
+        String date;
+        String time;
+        String seat;
+    }
+
+    private final Path dir;
+    private final ThreadPoolExecutor pool;
+    private final AtomicLong rendered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private TicketStore(Path dir) {
+        this.dir = dir;
+        this.pool = new ThreadPoolExecutor(THREADS, THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE),
+                r -> {
+                    Thread t = new Thread(r, "ticket-renderer");
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                },
+                (r, executor) -> dropped.incrementAndGet());
+    }
+
+    public static TicketStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues rendering of a newly issued ticket. userId is passed by the caller
+     * because the registration row may still be in the write-behind queue.
+     */
+    public void issue(int registrationId, int eventId, int userId) {
+        issue(registrationId, eventId, userId, null);
+    }
+
+    /** As above, for a registration with an assigned seat (SeatMap label). */
+    public void issue(int registrationId, int eventId, int userId, String seat) {
+        pool.execute(() -> renderQuietly(registrationId, eventId, userId, seat));
+    }
+
+    /**
+     * The rendered file, rendering it now if the background pool has not (yet);
+     * null if there is no such ticket or its registration was rejected.
+     *
+     * @throws IllegalArgumentException if ticketId is not of the form T&lt;registration&gt;E&lt;event&gt;
+     */
+    public File fileFor(String ticketId, Kind kind) throws SQLException, IOException {
+        int[] ids = parseTicketId(ticketId);
+        String id = RegistrationService.ticketIdFor(ids[0], ids[1]); // only digits reach the path
+
+        RegistrationService service = RegistrationService.getInstance();
+        if (service.pendingWrites() > 0) {
+            service.flush(); // the ticket and registration rows are read below
+        }
+        try (Connection conn = DBConnectionPool.getConnection();
+             PreparedStatement ps = conn.prepareStatement(VALID_TICKET)) {
+            ps.setString(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+            }
+        }
+
+        Path file = dir.resolve(id + "." + kind.extension);
+        if (!Files.exists(file)) {
+            render(ids[0], ids[1], 0, null);
+        }
+        return file.toFile();
+    }
+
+    public String getStats() {
+        return String.format("tickets rendered=%d queued=%d dropped=%d failed=%d",
+                rendered.get(), pool.getQueue().size(), dropped.get(), failed.get());
+    }
+
+    // ------------------------------------------------------------ rendering
+
+    private void renderQuietly(int registrationId, int eventId, int userId, String seat) {
+        try {
+            render(registrationId, eventId, userId, seat);
+        } catch (Exception ex) {
+            failed.incrementAndGet();
+            System.err.println("Ticket T" + registrationId + "E" + eventId + " not rendered: " + ex.getMessage());
+        }
+    }
+
+    private void render(int registrationId, int eventId, int userId, String seat)
+            throws SQLException, IOException {
+        TicketDetails t = load(registrationId, eventId, userId, seat);
+        boolean[][] qr = QrCode.encode(t.ticketId);
+
+        Files.createDirectories(dir);
+        writeAtomically(dir.resolve(t.ticketId + ".png"), out -> ImageIO.write(renderPng(t, qr), "png", out));
+        writeAtomically(dir.resolve(t.ticketId + ".pdf"), out -> out.write(renderPdf(t, qr)));
+        rendered.incrementAndGet();
+    }
+
+    private static TicketDetails load(int registrationId, int eventId, int userId, String seat)
+            throws SQLException {
+        TicketDetails t = new TicketDetails();
+        t.ticketId = RegistrationService.ticketIdFor(registrationId, eventId);
+        t.seat = seat;
+
+        try (Connection conn = DBConnectionPool.getConnection()) {
+            if (userId <= 0) {
+                try (PreparedStatement ps = conn.prepareStatement(FIND_REGISTRATION)) {
+                    ps.setInt(1, registrationId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new SQLException("Registration " + registrationId + " not found");
+                        }
+                        userId = rs.getInt("user_id");
+                        t.seat = rs.getString("seat");
+                    }
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(FIND_EVENT)) {
+                ps.setInt(1, eventId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Event " + eventId + " not found");
+                    }
+                    t.title = rs.getString("title");
+                    t.location = rs.getString("location");
+                    t.date = rs.getString("event_date");
+                    t.time = rs.getString("event_time");
+                }
+            }
+            t.attendee = "User " + userId;
+            try (PreparedStatement ps = conn.prepareStatement(FIND_ATTENDEE)) {
+                ps.setInt(1, userId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        String name = rs.getString("full_name");
+                        t.attendee = name != null && !name.isEmpty() ? name : rs.getString("username");
+                    }
+                }
+            } catch (SQLException ex) {
+                // older databases name the user columns differently; the id is enough
+            }
+        }
+        return t;
+    }
+
+    private static BufferedImage renderPng(TicketDetails t, boolean[][] qr) {
+        int qrPx = (qr.length + 2 * QUIET_ZONE) * MODULE_PX;
+        int width = qrPx + 420;
+        int height = Math.max(qrPx, 220);
+
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = img.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setColor(Color.BLACK);
+            for (int y = 0; y < qr.length; y++) {
+                for (int x = 0; x < qr.length; x++) {
+                    if (qr[y][x]) {
+                        g.fillRect((x + QUIET_ZONE) * MODULE_PX, (y + QUIET_ZONE) * MODULE_PX, MODULE_PX, MODULE_PX);
+                    }
+                }
+            }
+
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            int x = qrPx + 10;
+            g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 20));
+            g.drawString(t.title, x, 40);
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 15));
+            int y = 75;
+            for (String line : lines(t)) {
+                g.drawString(line, x, y);
+                y += 24;
+            }
+        } finally {
+            g.dispose();
+        }
+        return img;
+    }
+
+    private static List<String> lines(TicketDetails t) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Attendee: " + t.attendee);
+        lines.add("Date: " + t.date + "  " + t.time);
+        lines.add("Location: " + t.location);
+        if (t.seat != null) {
+            lines.add("Seat: " + SeatMap.describe(t.seat));
+        }
+        lines.add("Ticket: " + t.ticketId);
+        return lines;
+    }
+
+    /**
+     * Single-page PDF written by hand: text in Helvetica and the QR code as filled
+     * rectangles, so no image encoding or PDF library is needed.
+     */
+    static byte[] renderPdf(TicketDetails t, boolean[][] qr) {
+        float pageW = 420f;
+        float pageH = 200f;
+        float module = 4f;
+        float qrSize = (qr.length + 2 * QUIET_ZONE) * module;
+        float qrTop = pageH - (pageH - qrSize) / 2;
+
+        StringBuilder content = new StringBuilder();
+        content.append("0 g\n");
+        for (int y = 0; y < qr.length; y++) {
+            for (int x = 0; x < qr.length; x++) {
+                if (qr[y][x]) {
+                    content.append(String.format(Locale.ROOT, "%.1f %.1f %.1f %.1f re\n",
+                            (x + QUIET_ZONE) * module, qrTop - (y + QUIET_ZONE + 1) * module, module, module));
+                }
+            }
+        }
+        content.append("f\n");
+
+        float textX = qrSize + 10;
+        content.append("BT /F2 14 Tf ").append(fmt(textX)).append(' ').append(fmt(pageH - 40))
+               .append(" Td (").append(pdfEscape(t.title)).append(") Tj ET\n");
+        float y = pageH - 65;
+        for (String line : lines(t)) {
+            content.append("BT /F1 10 Tf ").append(fmt(textX)).append(' ').append(fmt(y))
+                   .append(" Td (").append(pdfEscape(line)).append(") Tj ET\n");
+            y -= 16;
+        }
+        byte[] stream = content.toString().getBytes(StandardCharsets.ISO_8859_1);
+
+        String[] objects = {
+                "<< /Type /Catalog /Pages 2 0 R >>",
+                "<< /Type /Pages /Kids [3 0 R] /Count 1 >>",
+                "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + fmt(pageW) + " " + fmt(pageH) + "] "
+                        + "/Resources << /Font << /F1 5 0 R /F2 6 0 R >> >> /Contents 4 0 R >>",
+                null, // content stream
+                "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>",
+                "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>",
+        };
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(stream.length + 1024);
+        long[] offsets = new long[objects.length];
+        write(out, "%PDF-1.4\n");
+        for (int i = 0; i < objects.length; i++) {
+            offsets[i] = out.size();
+            write(out, (i + 1) + " 0 obj\n");
+            if (objects[i] == null) {
+                write(out, "<< /Length " + stream.length + " >>\nstream\n");
+                out.write(stream, 0, stream.length);
+                write(out, "\nendstream");
+            } else {
+                write(out, objects[i]);
+            }
+            write(out, "\nendobj\n");
+        }
+        long xref = out.size();
+        write(out, "xref\n0 " + (objects.length + 1) + "\n0000000000 65535 f \n");
+        for (long off : offsets) {
+            write(out, String.format("%010d 00000 n \n", off));
+        }
+        write(out, "trailer\n<< /Size " + (objects.length + 1) + " /Root 1 0 R >>\nstartxref\n"
+                + xref + "\n%%EOF\n");
+        return out.toByteArray();
+    }
+
+    private static String fmt(float f) {
+        return String.format(Locale.ROOT, "%.1f", f);
+    }
+
+    private static String pdfEscape(String s) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : (s == null ? "" : s).toCharArray()) {
+            if (c == '(' || c == ')' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20 || c > 0xFF) sb.append('?'); // outside WinAnsi
+            else sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static void write(ByteArrayOutputStream out, String s) {
+        byte[] b = s.getBytes(StandardCharsets.ISO_8859_1);
+        out.write(b, 0, b.length);
+    }
+
+    private interface StreamWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    // readers never see a half-written file; concurrent renders of a ticket each use their own temp file
+    private static void writeAtomically(Path target, StreamWriter writer) throws IOException {
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName() + ".", ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                writer.write(out);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** {registrationId, eventId} of a ticket id as made by RegistrationService.ticketIdFor. */
+    static int[] parseTicketId(String ticketId) {
+        int e = ticketId == null ? -1 : ticketId.indexOf('E');
+        if (e < 2 || ticketId.charAt(0) != 'T' || e == ticketId.length() - 1
+                || !digits(ticketId, 1, e) || !digits(ticketId, e + 1, ticketId.length())) {
+            throw new IllegalArgumentException("Not a ticket id: " + ticketId);
+        }
+        try {
+            return new int[]{Integer.parseInt(ticketId.substring(1, e)), Integer.parseInt(ticketId.substring(e + 1))};
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Not a ticket id: " + ticketId);
+        }
+    }
+
+    private static boolean digits(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,321 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control in front of RegistrationService for flash sales.
+ *
+ * Every event gets a bounded FIFO queue. enter() hands out a token with a queue
+ * position instead of registering right away; a single drain thread admits
+ * requests at a configurable rate and places a seat hold for each admitted batch
+ * with one RegistrationService.holdBatch call. Admitted users then confirm (or
+ * let the hold lapse) on their own time. When the queue is full, enter() refuses
+ * the request at once (backpressure) rather than letting it pile up.
+ *
+ * While an event is under its drain rate (nobody queued and the token bucket
+ * has a permit) the request skips the queue: the token places its hold on the
+ * caller's thread in await(), without waiting for the next drain tick. The
+ * bucket holds up to events.waitingRoom.batchSize permits.
+ *
+ * Once an event is sold out, the remaining queue is answered without the rate
+ * limit: a FULL answer does not write anything. Expiring holds can free seats
+ * again, so the next batch is admitted at the normal rate once one succeeds.
+ *
+ * Rooms are created on first use and dropped after events.waitingRoom.idleMs
+ * (default 60000) without requests, unless they were set up with configure().
+ */
+public final class WaitingRoom {
+
+    public enum State {
+        WAITING,
+        DONE,
+        /** The queue was full; try again later. */
+        REJECTED,
+        CANCELLED
+    }
+
+    private static final int DEFAULT_CAPACITY = Integer.getInteger("events.waitingRoom.capacity", 5000);
+    private static final int DEFAULT_RATE = Integer.getInteger("events.waitingRoom.drainPerSecond", 500);
+    private static final int BATCH_SIZE = Integer.getInteger("events.waitingRoom.batchSize", 100);
+    private static final long IDLE_MS = Long.getLong("events.waitingRoom.idleMs", 60_000L);
+    private static final long TICK_MS = 50;
+
+    private static final WaitingRoom INSTANCE = new WaitingRoom();
+
+    public static final class Token {
+        public final int eventId;
+        public final int userId;
+        final long seq;
+        private final Room room;
+        // admitted without queueing: the hold is placed by the first await()
+        private final boolean direct;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile State state;
+        private volatile RegistrationService.Result result;
+        private volatile SQLException error;
+
+        Token(Room room, int eventId, int userId, long seq, State state, boolean direct) {
+            this.room = room;
+            this.eventId = eventId;
+            this.userId = userId;
+            this.seq = seq;
+            this.state = state;
+            this.direct = direct;
+            if (state != State.WAITING) {
+                done.countDown();
+            }
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /** 1 = next in line; 0 once the request has left the queue. */
+        public long position() {
+            return state == State.WAITING ? Math.max(1, seq - room.servedSeq()) : 0;
+        }
+
+        /** Rough wait in seconds at the current drain rate. */
+        public long estimatedWaitSeconds() {
+            return position() / Math.max(1, room.ratePerSecond) + 1;
+        }
+
+        /** Waits for the result; null on timeout or if the token did not complete normally. */
+        public RegistrationService.Result await(long timeout, TimeUnit unit) throws SQLException, InterruptedException {
+            if (direct && claimed.compareAndSet(false, true)) {
+                admit(room, List.of(this));
+            }
+            if (!done.await(timeout, unit)) {
+                return null;
+            }
+            if (error != null) {
+                throw error;
+            }
+            return result;
+        }
+
+        /** Leaves the queue; false if the request was already processed. */
+        public boolean cancel() {
+            if (!direct) {
+                return room.cancel(this);
+            }
+            if (!claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            state = State.CANCELLED;
+            done.countDown();
+            return true;
+        }
+
+        void complete(RegistrationService.Result r, SQLException ex) {
+            result = r;
+            error = ex;
+            state = State.DONE;
+            done.countDown();
+        }
+    }
+
+    static final class Room {
+        final int eventId;
+        volatile int capacity;
+        volatile int ratePerSecond;
+        private final ArrayDeque<Token> queue = new ArrayDeque<>();
+        private long nextSeq = 1;
+        private long served;   // seq of the last token that left the queue
+        private double permits = maxPermits();
+        private long refilledAt = System.nanoTime();
+        private long usedAt = refilledAt;
+        private volatile boolean soldOut;
+        private boolean configured;
+        private boolean retired;
+
+        Room(int eventId, int capacity, int ratePerSecond) {
+            this.eventId = eventId;
+            this.capacity = capacity;
+            this.ratePerSecond = ratePerSecond;
+        }
+
+        /** Null if the room was dropped as idle meanwhile; get a new one. */
+        synchronized Token enter(int userId) {
+            if (retired) {
+                return null;
+            }
+            usedAt = System.nanoTime();
+            if (queue.isEmpty() && (soldOut || refill() >= 1)) {
+                if (!soldOut) {
+                    permits -= 1;
+                }
+                return new Token(this, eventId, userId, 0, State.WAITING, true);
+            }
+            if (queue.size() >= capacity) {
+                return new Token(this, eventId, userId, 0, State.REJECTED, false);
+            }
+            Token t = new Token(this, eventId, userId, nextSeq++, State.WAITING, false);
+            queue.addLast(t);
+            return t;
+        }
+
+        /** False if the room was dropped as idle meanwhile. */
+        synchronized boolean configure(int capacity, int ratePerSecond) {
+            if (retired) {
+                return false;
+            }
+            // people already waiting keep their place
+            configured = true;
+            this.capacity = capacity;
+            this.ratePerSecond = ratePerSecond;
+            return true;
+        }
+
+        private static double maxPermits() {
+            return Math.max(BATCH_SIZE, 1);
+        }
+
+        private double refill() {
+            long now = System.nanoTime();
+            permits = Math.min(permits + (now - refilledAt) * ratePerSecond / 1e9, maxPermits());
+            refilledAt = now;
+            return permits;
+        }
+
+        /** Marks the room retired if nobody used it for IDLE_MS; it must then be dropped. */
+        synchronized boolean retireIfIdle(long now) {
+            if (!configured && queue.isEmpty() && now - usedAt > TimeUnit.MILLISECONDS.toNanos(IDLE_MS)) {
+                retired = true;
+            }
+            return retired;
+        }
+
+        synchronized long servedSeq() {
+            return served;
+        }
+
+        synchronized int size() {
+            return queue.size();
+        }
+
+        synchronized boolean cancel(Token t) {
+            if (t.state != State.WAITING || !queue.remove(t)) {
+                return false;
+            }
+            t.state = State.CANCELLED;
+            t.done.countDown();
+            return true;
+        }
+
+        /** Takes the next batch allowed by the token bucket. */
+        synchronized List<Token> take() {
+            if (queue.isEmpty()) {
+                return List.of();
+            }
+            int n;
+            if (soldOut) {
+                n = Math.min(queue.size(), BATCH_SIZE * 10);
+            } else {
+                n = Math.min((int) refill(), queue.size());
+                permits -= n;
+            }
+            List<Token> batch = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                Token t = queue.pollFirst();
+                served = t.seq;
+                batch.add(t);
+            }
+            return batch;
+        }
+    }
+
+    private final Map<Integer, Room> rooms = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "waiting-room");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private WaitingRoom() {
+        drainer.scheduleWithFixedDelay(this::drain, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public static WaitingRoom getInstance() {
+        return INSTANCE;
+    }
+
+    /** Sets queue size and drain rate for an event, e.g. before a flash sale opens. */
+    public void configure(int eventId, int capacity, int ratePerSecond) {
+        while (true) {
+            Room room = rooms.computeIfAbsent(eventId, id -> new Room(id, capacity, ratePerSecond));
+            if (room.configure(capacity, ratePerSecond)) {
+                return;
+            }
+            rooms.remove(eventId, room);
+        }
+    }
+
+    /**
+     * Queues a request for a seat hold; check the token's state for REJECTED.
+     * Under the drain rate the token is admitted at once and await() places the hold.
+     */
+    public Token enter(int userId, int eventId) {
+        while (true) {
+            Room room = rooms.computeIfAbsent(eventId, id -> new Room(id, DEFAULT_CAPACITY, DEFAULT_RATE));
+            Token t = room.enter(userId);
+            if (t != null) {
+                return t;
+            }
+            rooms.remove(eventId, room);
+        }
+    }
+
+    public int queueLength(int eventId) {
+        Room room = rooms.get(eventId);
+        return room == null ? 0 : room.size();
+    }
+
+    private void drain() {
+        for (Room room : rooms.values()) {
+            List<Token> batch = room.take();
+            if (!batch.isEmpty()) {
+                admit(room, batch);
+            }
+        }
+        long now = System.nanoTime();
+        rooms.values().removeIf(room -> room.retireIfIdle(now));
+    }
+
+    /** Places the holds for the batch and completes its tokens. */
+    private static void admit(Room room, List<Token> batch) {
+        List<Integer> users = new ArrayList<>(batch.size());
+        for (Token t : batch) {
+            users.add(t.userId);
+        }
+        try {
+            List<RegistrationService.Result> results =
+                    RegistrationService.getInstance().holdBatch(room.eventId, users);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(results.get(i), null);
+            }
+            RegistrationService.Result last = results.get(results.size() - 1);
+            room.soldOut = last.outcome == RegistrationService.Outcome.FULL;
+        } catch (SQLException ex) {
+            for (Token t : batch) {
+                t.complete(null, ex);
+            }
+        } catch (RuntimeException ex) {
+            SQLException wrapped = new SQLException("Registration failed: " + ex.getMessage(), ex);
+            for (Token t : batch) {
+                t.complete(null, wrapped);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * One event's waitlist in FIFO order, keyed by user.
+ *
+ * Enqueue, dequeue and the duplicate check are O(1): the entries live in an
+ * insertion-ordered hash map from user id to entry. The queue is filled from the
+ * waitlist table in (request_date, waitlist_id) order and then kept in step with
+ * it through RegistrationWriteBehind, which persists every join and promotion.
+ */
+final class WaitlistQueue {
+
+    static final class Entry {
+        final int waitlistId;
+        final int userId;
+
+        Entry(int waitlistId, int userId) {
+            this.waitlistId = waitlistId;
+            this.userId = userId;
+        }
+    }
+
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>();
+
+    /** Appends the user; false if they are already waiting. */
+    synchronized boolean offer(int waitlistId, int userId) {
+        if (entries.containsKey(userId)) {
+            return false;
+        }
+        entries.put(userId, new Entry(waitlistId, userId));
+        return true;
+    }
+
+    synchronized boolean contains(int userId) {
+        return entries.containsKey(userId);
+    }
+
+    synchronized boolean remove(int userId) {
+        return entries.remove(userId) != null;
+    }
+
+    /** The first n entries (fewer if the queue is shorter), without removing them. */
+    synchronized List<Entry> peek(int n) {
+        List<Entry> head = new ArrayList<>(Math.min(n, entries.size()));
+        Iterator<Entry> it = entries.values().iterator();
+        while (head.size() < n && it.hasNext()) {
+            head.add(it.next());
+        }
+        return head;
+    }
+
+    /** Removes the first n entries, typically after peek(n) has been persisted. */
+    synchronized void removeFirst(int n) {
+        Iterator<Entry> it = entries.values().iterator();
+        for (int i = 0; i < n && it.hasNext(); i++) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,35 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/** Storage for waitlists: first come, first served by request date, then id. */
+public interface WaitlistRepository {
+
+    final class Entry {
+        public final int waitlistId;
+        public final int userId;
+        public final int eventId;
+        public final String requestDate;
+
+        public Entry(int waitlistId, int userId, int eventId, String requestDate) {
+            this.waitlistId = waitlistId;
+            this.userId = userId;
+            this.eventId = eventId;
+            this.requestDate = requestDate;
+        }
+    }
+
+    /** False if the id is taken or the user is already waiting for the event. */
+    boolean add(Entry entry) throws SQLException;
+
+    /** False if the user was not waiting for the event. */
+    boolean remove(int userId, int eventId) throws SQLException;
+
+    /** The first limit entries for the event, in queue order. */
+    List<Entry> head(int eventId, int limit) throws SQLException;
+
+    int length(int eventId) throws SQLException;
+
+    boolean contains(int userId, int eventId) throws SQLException;
+}
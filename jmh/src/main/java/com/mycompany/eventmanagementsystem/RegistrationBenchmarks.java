@@ -0,0 +1,270 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * JMH benchmarks for the registration, promotion, listing and report paths.
+ *
+ *   gradle :jmh:jmh [-PjmhArgs="register -p events=2000"]
+ *
+ * Every fork works on a copy of a database produced by SyntheticDataset (the
+ * file named by the db parameter, generated on the first run if it does not
+ * exist), so the generated file can be reused. Results go to results.json.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationBenchmarks {
+
+    // large enough that no run sells the registration event out
+    private static final int OPEN_CAPACITY = 50_000_000;
+
+    private static final String[][] FILTERS = {
+            {"conf", "", ""},
+            {"", "hall", ""},
+            {"work", "lab", ""},
+            {"", "", "2026-06-01"},
+    };
+
+    @Param("bench.db")
+    public String db;
+
+    @Param("1000")
+    public int events;
+
+    @Param("50000")
+    public int registrations;
+
+    @Param("5000")
+    public int waitlist;
+
+    @Param("20000")
+    public int users;
+
+    private RegistrationService service;
+    private int openEvent;
+    private int listing;
+
+    // fresh user ids, above the generated ones, so registrations never collide
+    private final AtomicInteger nextUser = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SyntheticDataset.Spec spec = new SyntheticDataset.Spec();
+        spec.events = events;
+        spec.registrations = registrations;
+        spec.waitlist = waitlist;
+        spec.users = users;
+
+        File source = new File(db);
+        if (!source.exists()) {
+            System.out.println("Generating " + db + " " + spec);
+            SyntheticDataset.generate("jdbc:sqlite:" + db, spec);
+        }
+        File work = new File(db + ".run");
+        Files.deleteIfExists(work.toPath());
+        Files.deleteIfExists(Paths.get(work.getPath() + "-wal"));
+        Files.deleteIfExists(Paths.get(work.getPath() + "-shm"));
+        Files.copy(source.toPath(), work.toPath());
+        File journal = new File(db + ".journal");
+        Files.deleteIfExists(journal.toPath());
+
+        System.setProperty("events.db.url", "jdbc:sqlite:" + work.getPath());
+        System.setProperty("events.journal", journal.getPath());
+
+        nextUser.set(spec.users + 1);
+        service = RegistrationService.getInstance();
+        openEvent = createEvent("Bench Open", OPEN_CAPACITY);
+        EventSearchIndex.getInstance().rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            service.flush();
+            int sold = OPEN_CAPACITY - seatsInDb(openEvent);
+            int registered = registrationsInDb(openEvent);
+            if (sold != registered) {
+                throw new IllegalStateException("Event oversold or undersold: " + sold + " seats taken, "
+                        + registered + " registrations");
+            }
+        } finally {
+            DBConnectionPool.getInstance().shutdown();
+        }
+    }
+
+    // ------------------------------------------------------------ benchmarks
+
+    @Benchmark
+    public RegistrationService.Result register() throws SQLException {
+        return confirmed(service.register(nextUser.getAndIncrement(), openEvent));
+    }
+
+    /** All threads on one event, so they queue on its inventory. */
+    @Benchmark
+    @Threads(8)
+    public RegistrationService.Result registerContended() throws SQLException {
+        return confirmed(service.register(nextUser.getAndIncrement(), openEvent));
+    }
+
+    /** A sold-out event with a full waitlist, set up before every invocation. */
+    @State(Scope.Thread)
+    public static class SoldOutEvent {
+        static final int WAITING = 500;
+
+        int eventId;
+
+        @Setup(Level.Invocation)
+        public void prepare(RegistrationBenchmarks bench) throws SQLException {
+            eventId = createEvent("Bench Promote", 1);
+            try (Connection conn = DBConnectionPool.getConnection()) {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "UPDATE events SET seats_available = 0 WHERE event_id = ?")) {
+                    ps.setInt(1, eventId);
+                    ps.executeUpdate();
+                }
+                conn.setAutoCommit(false);
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO waitlist (user_id, event_id, request_date) " +
+                        "VALUES (?, ?, datetime('now', ?))")) {
+                    for (int i = 0; i < WAITING; i++) {
+                        ps.setInt(1, bench.nextUser.getAndIncrement());
+                        ps.setInt(2, eventId);
+                        ps.setString(3, "+" + i + " seconds");
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    conn.commit();
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * The service promotes from its in-memory queue; the flush makes the
+     * measurement include the database writes.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, batchSize = 1)
+    @Measurement(iterations = 5, batchSize = 1)
+    public RegistrationService.Promotion promoteWaitlist(SoldOutEvent e) throws Exception {
+        RegistrationService.Promotion[] promotion = new RegistrationService.Promotion[1];
+        service.withEventLocked(e.eventId, conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE events SET capacity = capacity + ?, " +
+                    "seats_available = seats_available + ? WHERE event_id = ?")) {
+                ps.setInt(1, SoldOutEvent.WAITING);
+                ps.setInt(2, SoldOutEvent.WAITING);
+                ps.setInt(3, e.eventId);
+                return ps.executeUpdate();
+            }
+        }, p -> promotion[0] = p);
+        service.flush();
+
+        if (promotion[0].promoted != SoldOutEvent.WAITING) {
+            throw new IllegalStateException("Promoted " + promotion[0].promoted + " of " + SoldOutEvent.WAITING);
+        }
+        return promotion[0];
+    }
+
+    /** The catalogue cache is bypassed so that every op reaches the database. */
+    @Benchmark
+    public Object[] filteredListing() throws SQLException {
+        String[] f = FILTERS[listing++ % FILTERS.length];
+        PagedTableModel.Query q = AttendeeDashboard.eventsQuery(f[0], f[1], f[2]);
+        PagedTableModel.countRows(q, null);
+        try (Connection conn = DBConnectionPool.getConnection()) {
+            return PagedTableModel.fetchPage(conn, q, null, AttendeeDashboard::mapEventRow, new ArrayList<>());
+        }
+    }
+
+    @Benchmark
+    public Object[] reportByEvent() throws SQLException {
+        PagedTableModel.Query q = AdminReportsFrame.eventStatsQuery();
+        PagedTableModel.countRows(q, null);
+        try (Connection conn = DBConnectionPool.getConnection()) {
+            return PagedTableModel.fetchPage(conn, q, null, rs -> new Object[]{rs.getInt("event_id")},
+                    new ArrayList<>());
+        }
+    }
+
+    @Benchmark
+    public int reportByCategory() throws SQLException {
+        int rows = 0;
+        try (Connection conn = DBConnectionPool.getConnection();
+             PreparedStatement ps = conn.prepareStatement(AdminReportsFrame.CATEGORY_STATS_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rs.getString("category");
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public double[] reportSummary() throws SQLException {
+        return AdminReportsFrame.querySummaryStats();
+    }
+
+    // ------------------------------------------------------------ helpers
+
+    private static RegistrationService.Result confirmed(RegistrationService.Result r) {
+        if (r.outcome != RegistrationService.Outcome.CONFIRMED) {
+            throw new IllegalStateException("Unexpected outcome " + r.outcome);
+        }
+        return r;
+    }
+
+    private static int createEvent(String title, int capacity) throws SQLException {
+        try (Connection conn = DBConnectionPool.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO events (title, category, location, event_date, event_time, " +
+                     "capacity, seats_available) VALUES (?, 'Benchmark', 'Bench Hall', " +
+                     "'2026-12-31', '10:00', ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, title);
+            ps.setInt(2, capacity);
+            ps.setInt(3, capacity);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private static int seatsInDb(int eventId) throws SQLException {
+        try (Connection conn = DBConnectionPool.getConnection();
+             PreparedStatement ps = conn.prepareStatement(RegistrationService.READ_SEATS)) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
+    private static int registrationsInDb(int eventId) throws SQLException {
+        try (Connection conn = DBConnectionPool.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SqliteRepositories.COUNT_REGISTRATIONS)) {
+            ps.setInt(1, eventId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * JMH benchmarks for the repository interfaces, run against both backends.
+ *
+ *   gradle :jmh:jmh -PjmhArgs="RepositoryBenchmarks [-p backend=memory]"
+ *
+ * The sqlite backend borrows pooled connections from a fresh database file
+ * named by the db parameter; the memory backend is InMemoryRepositories. Both
+ * are filled with the same rows through the repositories themselves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmarks {
+
+    private static final String[] CATEGORIES = {"Conference", "Workshop", "Concert", "Sports", "Meetup"};
+    private static final String[] LOCATIONS = {"Main Hall", "Lab 1", "Lab 2", "Arena", "Garden"};
+
+    @Param({"sqlite", "memory"})
+    public String backend;
+
+    @Param("repository-bench.db")
+    public String db;
+
+    @Param("1000")
+    public int events;
+
+    @Param("50000")
+    public int registrations;
+
+    @Param("5000")
+    public int waitlist;
+
+    private Repositories repos;
+    private int next;
+
+    // fresh registration and user ids, above the generated ones
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if ("memory".equals(backend)) {
+            repos = InMemoryRepositories.create();
+            populate(repos);
+        } else {
+            File file = new File(db);
+            Files.deleteIfExists(file.toPath());
+            Files.deleteIfExists(Paths.get(db + "-wal"));
+            Files.deleteIfExists(Paths.get(db + "-shm"));
+            System.setProperty("events.db.url", "jdbc:sqlite:" + file.getPath());
+            try (Connection conn = DBConnectionPool.getConnection()) {
+                DatabaseSetup.migrate(conn);
+                conn.setAutoCommit(false);
+                try {
+                    populate(SqliteRepositories.on(conn));
+                    conn.commit();
+                } catch (SQLException ex) {
+                    conn.rollback();
+                    throw ex;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+            repos = SqliteRepositories.pooled();
+        }
+        nextId.set(registrations + waitlist + 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (!"memory".equals(backend)) {
+            DBConnectionPool.getInstance().shutdown();
+        }
+    }
+
+    // ------------------------------------------------------------ benchmarks
+
+    @Benchmark
+    public EventRepository.Event findEvent() throws SQLException {
+        return repos.events.find(nextEvent());
+    }
+
+    @Benchmark
+    public List<EventRepository.Event> listByCategory() throws SQLException {
+        return repos.events.list(CATEGORIES[next++ % CATEGORIES.length], null, null, null, 50);
+    }
+
+    @Benchmark
+    public boolean isRegistered() throws SQLException {
+        int i = next++ % registrations;
+        return repos.registrations.isRegistered(i + 1, eventOf(i));
+    }
+
+    @Benchmark
+    public int countForEvent() throws SQLException {
+        return repos.registrations.countForEvent(nextEvent());
+    }
+
+    /** A new registration with its ticket, the writes a confirmed seat makes. */
+    @Benchmark
+    public boolean insertRegistration() throws SQLException {
+        int id = nextId.getAndIncrement();
+        boolean inserted = repos.registrations.insert(new RegistrationRepository.Registration(
+                id, id, nextEvent(), "2026-01-01 10:00:00", "Confirmed", null));
+        repos.tickets.issue("T-" + id, id);
+        return inserted;
+    }
+
+    /** Takes a seat and gives it back, so the event never sells out. */
+    @Benchmark
+    public boolean adjustSeats() throws SQLException {
+        int eventId = nextEvent();
+        return repos.events.adjustSeats(eventId, -1) && repos.events.adjustSeats(eventId, 1);
+    }
+
+    @Benchmark
+    public List<WaitlistRepository.Entry> waitlistHead() throws SQLException {
+        return repos.waitlist.head(nextEvent(), 10);
+    }
+
+    // ------------------------------------------------------------ helpers
+
+    private int nextEvent() {
+        return next++ % events + 1;
+    }
+
+    private int eventOf(int row) {
+        return row % events + 1;
+    }
+
+    private void populate(Repositories r) throws SQLException {
+        for (int i = 0; i < events; i++) {
+            r.events.create(new EventRepository.Event(0, "Event " + i, CATEGORIES[i % CATEGORIES.length],
+                    LOCATIONS[i / CATEGORIES.length % LOCATIONS.length],
+                    String.format("2026-%02d-%02d", i % 12 + 1, i % 28 + 1), "10:00",
+                    1_000_000, 1_000_000));
+        }
+        for (int i = 0; i < registrations; i++) {
+            int id = i + 1;
+            r.registrations.insert(new RegistrationRepository.Registration(
+                    id, id, eventOf(i), "2026-01-01 10:00:00", "Confirmed", null));
+            r.tickets.issue("T-" + id, id);
+        }
+        for (int i = 0; i < waitlist; i++) {
+            int id = i + 1;
+            r.waitlist.add(new WaitlistRepository.Entry(id, registrations + id, eventOf(i),
+                    String.format("2026-01-01 10:%02d:%02d", i / 60 % 60, i % 60)));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs EXPLAIN QUERY PLAN on the application's queries against a freshly
+ * migrated in-memory schema, one test per query; a test fails when its query
+ * reads a table without an index.
+ *
+ * Every query is the constant or builder the named class itself executes, so a
+ * change to that SQL is checked here without touching this file. A few reads are
+ * full scans on purpose (the small stats tables, the export reads) and are
+ * allowed per query.
+ */
+final class QueryPlanCheck {
+
+    static final class Check {
+        final String name;
+        final String sql;
+        final Set<String> allowedScans;
+
+        Check(String name, String sql, String... allowedScans) {
+            this.name = name;
+            this.sql = sql;
+            this.allowedScans = new TreeSet<>(Arrays.asList(allowedScans));
+        }
+    }
+
+    private static Connection conn;
+
+    static List<Check> checks() {
+        List<Check> c = new ArrayList<>();
+
+        // --- listings (PagedTableModel) ---
+        PagedTableModel.Query all = AttendeeDashboard.eventsQuery(null, null, null);
+        c.add(new Check("AttendeeDashboard: first page", PagedTableModel.pageSql(all, false)));
+        c.add(new Check("AttendeeDashboard: next page", PagedTableModel.pageSql(all, true)));
+        PagedTableModel.Query byDate = AttendeeDashboard.eventsQuery(null, null, "2026-01-01");
+        c.add(new Check("AttendeeDashboard: date filter", PagedTableModel.pageSql(byDate, true)));
+        c.add(new Check("AttendeeDashboard: date filter count", PagedTableModel.countSql(byDate)));
+        for (EventSearchIndex.Field f : EventSearchIndex.Field.values()) {
+            // what addTextFilter produces once the search index has resolved the text
+            PagedTableModel.Query q = new PagedTableModel.Query(AttendeeDashboard.EVENT_COLUMNS, "events",
+                    f.column + " IN (?, ?)", List.of("a", "b"), "event_date", "event_time", "event_id");
+            c.add(new Check("AttendeeDashboard: " + f.column + " filter", PagedTableModel.pageSql(q, true)));
+            c.add(new Check("AttendeeDashboard: " + f.column + " count", PagedTableModel.countSql(q)));
+            c.add(new Check("EventSearchIndex: " + f.column + " values", EventSearchIndex.valuesSql(f)));
+        }
+        PagedTableModel.Query stats = AdminReportsFrame.eventStatsQuery();
+        c.add(new Check("AdminReportsFrame: by event", PagedTableModel.pageSql(stats, true)));
+        c.add(new Check("AdminReportsFrame: by category", AdminReportsFrame.CATEGORY_STATS_SQL, "category_stats"));
+        c.add(new Check("AdminReportsFrame: summary", AdminReportsFrame.SUMMARY_STATS_SQL, "event_stats"));
+
+        c.add(new Check("RegistrationVelocity: by event", RegistrationVelocity.EVENT_VELOCITY_SQL));
+        c.add(new Check("RegistrationVelocity: by category", RegistrationVelocity.CATEGORY_VELOCITY_SQL));
+        c.add(new Check("RegistrationVelocity: event history", RegistrationVelocity.EVENT_HISTORY_SQL));
+
+        // --- exports: full reads by design, but in key order so nothing is sorted ---
+        c.add(new Check("ReportExport: events", ReportExport.Dataset.EVENTS.sql, "e"));
+        c.add(new Check("ReportExport: categories", ReportExport.Dataset.CATEGORIES.sql));
+        c.add(new Check("ReportExport: registrations", ReportExport.Dataset.REGISTRATIONS.sql, "registrations"));
+        c.add(new Check("ReportExport: tickets", ReportExport.Dataset.TICKETS.sql));
+
+        // --- RegistrationService ---
+        c.add(new Check("RegistrationService: seats", RegistrationService.READ_SEATS));
+        c.add(new Check("RegistrationService: registered users", RegistrationService.REGISTERED_USERS));
+        c.add(new Check("RegistrationService: waitlisted users", RegistrationService.WAITLISTED_USERS));
+        c.add(new Check("RegistrationService: next registration id", RegistrationService.MAX_REGISTRATION_ID));
+        c.add(new Check("RegistrationService: next waitlist id", RegistrationService.MAX_WAITLIST_ID));
+        c.add(new Check("RegistrationService: group duplicate check", RegistrationService.groupDuplicatesSql(3)));
+        c.add(new Check("RegistrationService: take seats", RegistrationService.TAKE_SEATS));
+
+        // --- RegistrationWriteBehind ---
+        c.add(new Check("RegistrationWriteBehind: take seat", RegistrationWriteBehind.TAKE_SEAT));
+        c.add(new Check("RegistrationWriteBehind: undo registration", RegistrationWriteBehind.UNDO_REGISTRATION));
+        c.add(new Check("RegistrationWriteBehind: registration exists", RegistrationWriteBehind.REGISTRATION_EXISTS));
+        c.add(new Check("RegistrationWriteBehind: promoted off the waitlist", RegistrationWriteBehind.LEAVE_WAITLIST));
+
+        // --- repositories (AddEventFrame goes through SqliteRepositories) ---
+        c.add(new Check("SqliteRepositories: find event", SqliteRepositories.FIND_EVENT));
+        c.add(new Check("SqliteRepositories: adjust seats", SqliteRepositories.ADJUST_SEATS));
+        c.add(new Check("SqliteRepositories: list events", SqliteRepositories.listSql(List.of(
+                "(event_date, event_time, event_id) > (?, ?, ?)"))));
+        c.add(new Check("SqliteRepositories: list events by category", SqliteRepositories.listSql(List.of(
+                "category = ?", "(event_date, event_time, event_id) > (?, ?, ?)"))));
+        c.add(new Check("SqliteRepositories: find registration", SqliteRepositories.FIND_REGISTRATION));
+        c.add(new Check("SqliteRepositories: is registered", SqliteRepositories.IS_REGISTERED));
+        c.add(new Check("SqliteRepositories: count registrations", SqliteRepositories.COUNT_REGISTRATIONS));
+        c.add(new Check("SqliteRepositories: registrations of user", SqliteRepositories.REGISTRATIONS_OF_USER));
+        c.add(new Check("SqliteRepositories: remove from waitlist", SqliteRepositories.DELETE_WAITLIST));
+        c.add(new Check("SqliteRepositories: waitlist head", SqliteRepositories.WAITLIST_HEAD));
+        c.add(new Check("SqliteRepositories: waitlist length", SqliteRepositories.WAITLIST_LENGTH));
+        c.add(new Check("SqliteRepositories: is waitlisted", SqliteRepositories.IS_WAITLISTED));
+        c.add(new Check("SqliteRepositories: ticket of registration", SqliteRepositories.TICKET_OF_REGISTRATION));
+        c.add(new Check("SqliteRepositories: registration of ticket", SqliteRepositories.REGISTRATION_OF_TICKET));
+
+        // --- seat maps ---
+        c.add(new Check("SeatMap: load layout", SeatMap.LOAD_LAYOUT));
+        c.add(new Check("SeatMap: replace layout", SeatMap.DELETE_LAYOUT));
+
+        // --- tickets and check-in ---
+        c.add(new Check("CheckInService: load tickets", CheckInService.LOAD_TICKETS));
+        c.add(new Check("CheckInService: late ticket", CheckInService.LATE_TICKET));
+        c.add(new Check("CheckInService: previous check-ins", CheckInService.PREVIOUS_CHECK_INS));
+        c.add(new Check("TicketStore: registration", TicketStore.FIND_REGISTRATION));
+        c.add(new Check("TicketStore: event", TicketStore.FIND_EVENT));
+        c.add(new Check("TicketStore: attendee", TicketStore.FIND_ATTENDEE));
+        c.add(new Check("TicketStore: valid ticket", TicketStore.VALID_TICKET));
+
+        // --- users ---
+        c.add(new Check("GroupRegistrationDialog: user ids", GroupRegistrationDialog.usersByIdSql(3)));
+        c.add(new Check("GroupRegistrationDialog: usernames", GroupRegistrationDialog.usersByNameSql(3)));
+        return c;
+    }
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        DatabaseSetup.migrate(conn);
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        conn.close();
+    }
+
+    @TestFactory
+    List<DynamicTest> everyQueryUsesAnIndex() {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Check check : checks()) {
+            tests.add(DynamicTest.dynamicTest(check.name, () -> {
+                List<String> plan = explain(conn, check.sql);
+                List<String> scans = new ArrayList<>();
+                for (String step : plan) {
+                    String table = scannedTable(step);
+                    if (table != null && !check.allowedScans.contains(table)) {
+                        scans.add(step);
+                    }
+                }
+                if (!scans.isEmpty()) {
+                    fail("full table scan in " + check.sql + "\n  plan: " + plan);
+                }
+            }));
+        }
+        return tests;
+    }
+
+    private static List<String> explain(Connection conn, String sql) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+            while (rs.next()) {
+                plan.add(rs.getString("detail"));
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * The table (or alias) of a plan step that reads a whole table, else null.
+     * "SCAN events USING INDEX ..." walks an index and is fine; older SQLite
+     * versions print "SCAN TABLE events".
+     */
+    static String scannedTable(String step) {
+        if (!step.startsWith("SCAN ") || step.contains(" INDEX") || step.contains("CONSTANT ROW")) {
+            return null;
+        }
+        String[] words = step.substring(5).split(" ");
+        int i = words[0].equals("TABLE") ? 1 : 0;
+        if (i >= words.length || words[i].startsWith("(")) {
+            return null; // e.g. SCAN SUBQUERY / (subquery-1)
+        }
+        return words[i];
+    }
+}
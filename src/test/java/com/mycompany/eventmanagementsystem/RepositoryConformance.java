@@ -0,0 +1,271 @@
+package com.mycompany.eventmanagementsystem;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * One set of behaviour checks run against every repository backend, so the
+ * SQLite and in-memory implementations stay interchangeable.
+ *
+ * Each check is one test per backend and gets fresh storage: a new in-memory
+ * backend, and a new in-memory SQLite database migrated with DatabaseSetup.
+ */
+final class RepositoryConformance {
+
+    private interface Body {
+        void run(Repositories repos) throws Exception;
+    }
+
+    private interface Backend {
+        /** Runs the body on fresh storage. */
+        void run(Body body) throws Exception;
+    }
+
+    static final class Check {
+        final String name;
+        final Body body;
+
+        Check(String name, Body body) {
+            this.name = name;
+            this.body = body;
+        }
+    }
+
+    @TestFactory
+    List<DynamicContainer> bothBackendsBehaveAlike() {
+        return List.of(
+                backend("memory", body -> body.run(InMemoryRepositories.create())),
+                backend("sqlite", body -> {
+                    try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+                        DatabaseSetup.migrate(conn);
+                        body.run(SqliteRepositories.on(conn));
+                    }
+                }));
+    }
+
+    private static DynamicContainer backend(String name, Backend backend) {
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Check check : checks()) {
+            tests.add(DynamicTest.dynamicTest(check.name, () -> backend.run(check.body)));
+        }
+        return DynamicContainer.dynamicContainer(name, tests);
+    }
+
+    static List<Check> checks() {
+        List<Check> c = new ArrayList<>();
+
+        // --- events ---
+        c.add(new Check("create assigns increasing ids, find returns the fields", r -> {
+            int a = r.events.create(event("A", "Concert", "Lahore", "2026-05-01", "19:00", 100));
+            int b = r.events.create(event("B", "Seminar", "Online", "2026-05-01", "10:00", 50));
+            expect(b > a, "ids increase");
+            EventRepository.Event e = r.events.find(a);
+            expect(e != null && e.eventId == a && e.title.equals("A") && e.category.equals("Concert")
+                    && e.location.equals("Lahore") && e.date.equals("2026-05-01") && e.time.equals("19:00")
+                    && e.capacity == 100 && e.seatsAvailable == 100, "stored fields");
+            expect(r.events.find(b + 1000) == null, "unknown id gives null");
+        }));
+        c.add(new Check("create rejects a missing title", r -> {
+            try {
+                r.events.create(event(null, "Concert", "Lahore", "2026-05-01", "19:00", 10));
+            } catch (SQLException expected) {
+                return;
+            }
+            throw new AssertionError("no SQLException");
+        }));
+        c.add(new Check("list is in date, time, id order and filters exactly", r -> {
+            int late = r.events.create(event("Late", "Concert", "Lahore", "2026-06-01", "20:00", 10));
+            int early = r.events.create(event("Early", "Concert", "Karachi", "2026-06-01", "09:00", 10));
+            int first = r.events.create(event("First", "Seminar", "Lahore", "2026-01-15", "12:00", 10));
+            int tie = r.events.create(event("Tie", "Concert", "Lahore", "2026-06-01", "20:00", 10));
+            expectIds(r.events.list(null, null, null, null, 10), first, early, late, tie);
+            expectIds(r.events.list("Concert", "", null, null, 10), early, late, tie);
+            expectIds(r.events.list(null, "Lahore", "2026-06-01", null, 10), late, tie);
+            expectIds(r.events.list("Conc", null, null, null, 10));
+            expectIds(r.events.list(null, null, null, null, 2), first, early);
+        }));
+        c.add(new Check("keyset pages cover the listing once", r -> {
+            List<Integer> all = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                r.events.create(event("E" + i, "Meetup", "Room 101",
+                        "2026-03-" + (10 + i % 3), i % 2 == 0 ? "10:00" : "18:00", 5));
+            }
+            for (EventRepository.Event e : r.events.list(null, null, null, null, 100)) {
+                all.add(e.eventId);
+            }
+            List<Integer> paged = new ArrayList<>();
+            EventRepository.Event after = null;
+            while (true) {
+                List<EventRepository.Event> page = r.events.list(null, null, null, after, 7);
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (EventRepository.Event e : page) {
+                    paged.add(e.eventId);
+                }
+                after = page.get(page.size() - 1);
+            }
+            expect(all.size() == 25 && all.equals(paged), "pages " + paged + " vs " + all);
+        }));
+        c.add(new Check("update replaces the fields and moves the event in the listing", r -> {
+            int a = r.events.create(event("A", "Concert", "Lahore", "2026-05-01", "19:00", 100));
+            int b = r.events.create(event("B", "Concert", "Lahore", "2026-05-02", "19:00", 100));
+            expect(r.events.update(new EventRepository.Event(a, "A2", "Festival", "Multan", "2026-05-03",
+                    "08:00", 120, 90)), "update succeeds");
+            EventRepository.Event e = r.events.find(a);
+            expect(e.title.equals("A2") && e.category.equals("Festival") && e.location.equals("Multan")
+                    && e.capacity == 120 && e.seatsAvailable == 90, "updated fields");
+            expectIds(r.events.list(null, null, null, null, 10), b, a);
+            expect(!r.events.update(new EventRepository.Event(b + 1000, "X", "X", "X", "2026-01-01",
+                    "00:00", 1, 1)), "unknown id gives false");
+        }));
+        c.add(new Check("adjustSeats stays within 0..capacity", r -> {
+            int a = r.events.create(event("A", "Concert", "Lahore", "2026-05-01", "19:00", 2));
+            expect(r.events.adjustSeats(a, -1), "take one");
+            expect(!r.events.adjustSeats(a, -2), "cannot go below zero");
+            expect(r.events.adjustSeats(a, -1), "take the last");
+            expect(!r.events.adjustSeats(a, -1), "sold out");
+            expect(r.events.adjustSeats(a, 2), "give both back");
+            expect(!r.events.adjustSeats(a, 1), "cannot exceed capacity");
+            expect(r.events.find(a).seatsAvailable == 2, "seats back at capacity");
+            expect(!r.events.adjustSeats(a + 1000, 1), "unknown id gives false");
+        }));
+
+        // --- registrations ---
+        c.add(new Check("insert refuses duplicate ids, users and seats", r -> {
+            expect(r.registrations.insert(registration(1, 10, 100, "A1")), "first");
+            expect(!r.registrations.insert(registration(1, 11, 100, "A2")), "same id");
+            expect(!r.registrations.insert(registration(2, 10, 100, "A3")), "same user and event");
+            expect(!r.registrations.insert(registration(3, 12, 100, "A1")), "same seat");
+            expect(r.registrations.insert(registration(4, 12, 101, "A1")), "same seat, other event");
+            expect(r.registrations.insert(registration(5, 13, 100, null)), "general admission");
+            expect(r.registrations.insert(registration(6, 14, 100, null)), "general admission again");
+            expect(!r.registrations.insert(new RegistrationRepository.Registration(7, 15, 100, null,
+                    "CONFIRMED", null)), "missing date");
+            expect(r.registrations.countForEvent(100) == 3, "count " + r.registrations.countForEvent(100));
+        }));
+        c.add(new Check("registrations are found by id, user and event", r -> {
+            r.registrations.insert(registration(7, 10, 101, null));
+            r.registrations.insert(registration(3, 10, 100, "B2"));
+            r.registrations.insert(registration(5, 11, 100, null));
+            RegistrationRepository.Registration found = r.registrations.find(3);
+            expect(found != null && found.userId == 10 && found.eventId == 100 && "B2".equals(found.seat)
+                    && found.status.equals("CONFIRMED") && found.registrationDate.equals("2026-01-01 10:00:00"),
+                    "stored fields");
+            expect(r.registrations.find(4) == null, "unknown id gives null");
+            expect(r.registrations.isRegistered(10, 101) && !r.registrations.isRegistered(11, 101),
+                    "isRegistered");
+            List<Integer> ids = new ArrayList<>();
+            for (RegistrationRepository.Registration reg : r.registrations.forUser(10)) {
+                ids.add(reg.registrationId);
+            }
+            expect(ids.equals(List.of(3, 7)), "forUser in id order: " + ids);
+            expect(r.registrations.forUser(99).isEmpty(), "no registrations");
+            expect(r.registrations.countForEvent(100) == 2 && r.registrations.countForEvent(999) == 0, "counts");
+        }));
+
+        // --- waitlist ---
+        c.add(new Check("waitlist is first come, first served", r -> {
+            expect(r.waitlist.add(waiting(3, 30, 100, "2026-01-01 10:00:02")), "add");
+            expect(r.waitlist.add(waiting(2, 20, 100, "2026-01-01 10:00:01")), "add");
+            expect(r.waitlist.add(waiting(1, 10, 100, "2026-01-01 10:00:02")), "add");
+            expect(r.waitlist.add(waiting(4, 40, 101, "2026-01-01 09:00:00")), "other event");
+            List<Integer> users = new ArrayList<>();
+            for (WaitlistRepository.Entry e : r.waitlist.head(100, 10)) {
+                users.add(e.userId);
+            }
+            expect(users.equals(List.of(20, 10, 30)), "queue order " + users);
+            expect(r.waitlist.head(100, 1).get(0).waitlistId == 2, "head");
+            expect(r.waitlist.head(102, 5).isEmpty(), "empty queue");
+            expect(r.waitlist.length(100) == 3 && r.waitlist.length(101) == 1, "lengths");
+        }));
+        c.add(new Check("waitlist refuses duplicates and removes by user", r -> {
+            expect(r.waitlist.add(waiting(1, 10, 100, "2026-01-01 10:00:00")), "add");
+            expect(!r.waitlist.add(waiting(2, 10, 100, "2026-01-01 10:00:05")), "same user and event");
+            expect(!r.waitlist.add(waiting(1, 11, 100, "2026-01-01 10:00:05")), "same id");
+            expect(r.waitlist.contains(10, 100) && !r.waitlist.contains(11, 100), "contains");
+            expect(r.waitlist.remove(10, 100), "remove");
+            expect(!r.waitlist.remove(10, 100), "removed already");
+            expect(r.waitlist.length(100) == 0 && !r.waitlist.contains(10, 100), "empty again");
+            expect(r.waitlist.add(waiting(3, 10, 100, "2026-01-01 10:00:09")), "rejoin");
+        }));
+
+        // --- tickets ---
+        c.add(new Check("one ticket per registration, ticket ids unique", r -> {
+            expect(r.tickets.issue("T1E1", 1), "issue");
+            expect(!r.tickets.issue("T1E1", 2), "same ticket id");
+            expect(!r.tickets.issue("T1E1-b", 1), "second ticket for a registration");
+            expect(r.tickets.issue("T2E1", 2), "issue");
+            expect("T1E1".equals(r.tickets.ticketFor(1)) && r.tickets.ticketFor(3) == null, "ticketFor");
+            expect(r.tickets.registrationOf("T2E1") == 2 && r.tickets.registrationOf("nope") == -1,
+                    "registrationOf");
+        }));
+
+        // --- together, as a promotion does it ---
+        c.add(new Check("promoting the waitlist head keeps the counts consistent", r -> {
+            int e = r.events.create(event("Full", "Concert", "Lahore", "2026-05-01", "19:00", 2));
+            r.events.adjustSeats(e, -2);
+            for (int i = 1; i <= 3; i++) {
+                r.waitlist.add(waiting(i, 10 * i, e, "2026-01-01 10:00:0" + i));
+            }
+            r.events.update(new EventRepository.Event(e, "Full", "Concert", "Lahore", "2026-05-01", "19:00",
+                    4, 2));
+            int id = 1;
+            while (r.events.find(e).seatsAvailable > 0 && r.waitlist.length(e) > 0) {
+                WaitlistRepository.Entry next = r.waitlist.head(e, 1).get(0);
+                expect(r.registrations.insert(registration(id, next.userId, e, null)), "registration");
+                expect(r.tickets.issue(RegistrationService.ticketIdFor(id, e), id), "ticket");
+                expect(r.waitlist.remove(next.userId, e), "leave waitlist");
+                expect(r.events.adjustSeats(e, -1), "take seat");
+                id++;
+            }
+            expect(r.registrations.countForEvent(e) == 2 && r.waitlist.length(e) == 1
+                    && r.events.find(e).seatsAvailable == 0, "two promoted, one waiting");
+            expect(r.registrations.isRegistered(10, e) && r.registrations.isRegistered(20, e)
+                    && r.waitlist.contains(30, e), "in queue order");
+        }));
+        return c;
+    }
+
+    // ------------------------------------------------------------ helpers
+
+    private static EventRepository.Event event(String title, String category, String location, String date,
+                                               String time, int capacity) {
+        return new EventRepository.Event(0, title, category, location, date, time, capacity, capacity);
+    }
+
+    private static RegistrationRepository.Registration registration(int id, int userId, int eventId, String seat) {
+        return new RegistrationRepository.Registration(id, userId, eventId, "2026-01-01 10:00:00", "CONFIRMED",
+                seat);
+    }
+
+    private static WaitlistRepository.Entry waiting(int id, int userId, int eventId, String requestDate) {
+        return new WaitlistRepository.Entry(id, userId, eventId, requestDate);
+    }
+
+    private static void expect(boolean condition, String what) {
+        if (!condition) {
+            throw new AssertionError(what);
+        }
+    }
+
+    private static void expectIds(List<EventRepository.Event> events, int... ids) {
+        List<Integer> actual = new ArrayList<>();
+        for (EventRepository.Event e : events) {
+            actual.add(e.eventId);
+        }
+        List<Integer> expected = new ArrayList<>();
+        for (int id : ids) {
+            expected.add(id);
+        }
+        expect(Objects.equals(actual, expected), "expected " + expected + ", got " + actual);
+    }
+}